@@ -10,13 +10,15 @@ import org.axonframework.spring.stereotype.Aggregate;
 import org.springframework.beans.BeanUtils;
 
 import com.cinema.movies.command.command.CreateCinemaCommand;
+import com.cinema.movies.command.command.CreateSeatLayoutCommand;
 import com.cinema.movies.command.command.UpdateCinemaCommand;
 import com.cinema.movies.command.command.DeleteCinemaCommand;
 import com.cinema.movies.command.event.CinemaCreatedEvent;
 import com.cinema.movies.command.event.CinemaUpdatedEvent;
 import com.cinema.movies.command.event.CinemaDeletedEvent;
+import com.cinema.movies.command.event.SeatLayoutCreatedEvent;
 
-@Aggregate
+@Aggregate(snapshotTriggerDefinition = "cinemaSnapshotTrigger", cache = "cinemaAggregateCache")
 @NoArgsConstructor
 @Slf4j
 public class CinemaAggregate {
@@ -32,6 +34,7 @@ public class CinemaAggregate {
 
     private String name;
     private String address;
+    private boolean seatLayoutCreated;
 
     /*
      * =======================
@@ -92,6 +95,42 @@ public class CinemaAggregate {
         AggregateLifecycle.markDeleted(); // ⭐ RẤT QUAN TRỌNG
     }
 
+    // CREATE SEAT LAYOUT
+    @CommandHandler
+    public void handle(CreateSeatLayoutCommand command) throws Exception {
+
+        log.info("CreateSeatLayoutCommand received - CinemaID: {}, Rows: {}-{}, Numbers: {}-{}",
+                command.getCinemaId(), command.getFromRow(), command.getToRow(),
+                command.getFromNumber(), command.getToNumber());
+
+        // Aggregate must exist
+        if (this.id == null) {
+            throw new IllegalStateException("Cinema does not exist");
+        }
+
+        if (this.seatLayoutCreated) {
+            throw new IllegalStateException("Seat layout already exists for cinema " + this.id);
+        }
+
+        char fromRow = command.getFromRow().charAt(0);
+        char toRow = command.getToRow().charAt(0);
+        if (toRow < fromRow || command.getToNumber() < command.getFromNumber()) {
+            throw new IllegalArgumentException("Seat layout range is empty");
+        }
+
+        // Một event cho cả layout thay vì một SeatAggregate + SeatCreatedEvent cho mỗi ghế;
+        // projection tự mở rộng thành từng ghế. SeatAggregate của ghế layout chỉ được tạo
+        // khi ghế đó bị sửa/xóa lần đầu.
+        int seatCount = (toRow - fromRow + 1) * (command.getToNumber() - command.getFromNumber() + 1);
+
+        SeatLayoutCreatedEvent event = new SeatLayoutCreatedEvent();
+        BeanUtils.copyProperties(command, event);
+        event.setSeatCount(seatCount);
+        event.setGeneratedSeatIds(true);
+
+        AggregateLifecycle.apply(event);
+    }
+
     /*
      * =======================
      * EVENT SOURCING HANDLERS
@@ -111,9 +150,14 @@ public class CinemaAggregate {
         this.address = event.getAddress();
     }
 
+    @EventSourcingHandler
+    public void on(SeatLayoutCreatedEvent event) {
+        this.seatLayoutCreated = true;
+    }
+
     @EventSourcingHandler
     public void on(CinemaDeletedEvent event) {
-        // Không cần set field nào
-        // Aggregate đã bị markDeleted
+        // Đánh dấu cả khi replay, để aggregate nạp lại sau khi rời cache vẫn là đã xoá
+        AggregateLifecycle.markDeleted();
     }
 }
@@ -12,11 +12,15 @@ import org.springframework.beans.BeanUtils;
 import com.cinema.movies.command.command.CreateEmployeeCommand;
 import com.cinema.movies.command.command.UpdateEmployeeCommand;
 import com.cinema.movies.command.command.DeleteEmployeeCommand;
+import com.cinema.movies.command.command.PatchEmployeeCommand;
+import com.cinema.movies.command.event.CinemaDeletedEvent;
 import com.cinema.movies.command.event.EmployeeCreatedEvent;
+import com.cinema.movies.command.event.EmployeePatchedEvent;
 import com.cinema.movies.command.event.EmployeeUpdatedEvent;
 import com.cinema.movies.command.event.EmployeeDeletedEvent;
+import com.cinema.movies.service.reference.AggregateReferences;
 
-@Aggregate
+@Aggregate(snapshotTriggerDefinition = "employeeSnapshotTrigger")
 @NoArgsConstructor
 @Slf4j
 public class EmployeeAggregate {
@@ -43,7 +47,7 @@ public class EmployeeAggregate {
 
     // CREATE EMPLOYEE
     @CommandHandler
-    public EmployeeAggregate(CreateEmployeeCommand command) {
+    public EmployeeAggregate(CreateEmployeeCommand command, AggregateReferences references) {
 
         log.info("CreateEmployeeCommand received - ID: {}, UserID: {}, CinemaID: {}",
                 command.getId(), command.getUserId(), command.getCinemaId());
@@ -52,6 +56,7 @@ public class EmployeeAggregate {
         if (command.getId() == null || command.getUserId() == null || command.getCinemaId() == null) {
             throw new IllegalArgumentException("Employee id, userId and cinemaId must not be null");
         }
+        references.require(command.getCinemaId(), CinemaAggregate.class, CinemaDeletedEvent.class);
 
         EmployeeCreatedEvent event = new EmployeeCreatedEvent();
         BeanUtils.copyProperties(command, event);
@@ -61,7 +66,7 @@ public class EmployeeAggregate {
 
     // UPDATE EMPLOYEE
     @CommandHandler
-    public void handle(UpdateEmployeeCommand command) {
+    public void handle(UpdateEmployeeCommand command, AggregateReferences references) {
 
         log.info("UpdateEmployeeCommand received - ID: {}", command.getId());
 
@@ -69,6 +74,9 @@ public class EmployeeAggregate {
         if (this.id == null) {
             throw new IllegalStateException("Employee does not exist");
         }
+        if (command.getCinemaId() != null) {
+            references.require(command.getCinemaId(), CinemaAggregate.class, CinemaDeletedEvent.class);
+        }
 
         EmployeeUpdatedEvent event = new EmployeeUpdatedEvent();
         BeanUtils.copyProperties(command, event);
@@ -76,6 +84,35 @@ public class EmployeeAggregate {
         AggregateLifecycle.apply(event);
     }
 
+    // PATCH EMPLOYEE: event chỉ mang field thực sự đổi
+    @CommandHandler
+    public void handle(PatchEmployeeCommand command, AggregateReferences references) {
+
+        log.info("PatchEmployeeCommand received - ID: {}", command.getId());
+
+        // Aggregate must exist
+        if (this.id == null) {
+            throw new IllegalStateException("Employee does not exist");
+        }
+
+        EmployeePatchedEvent event = new EmployeePatchedEvent(
+                this.id,
+                Patches.changed(this.userId, command.getUserId()),
+                Patches.changed(this.cinemaId, command.getCinemaId()),
+                Patches.changed(this.position, command.getPosition()),
+                Patches.changed(this.status, command.getStatus()));
+
+        if (event.getUserId() == null && event.getCinemaId() == null && event.getPosition() == null
+                && event.getStatus() == null) {
+            return; // Không có gì thay đổi: không ghi event
+        }
+        if (event.getCinemaId() != null) {
+            references.require(event.getCinemaId(), CinemaAggregate.class, CinemaDeletedEvent.class);
+        }
+
+        AggregateLifecycle.apply(event);
+    }
+
     // DELETE EMPLOYEE
     @CommandHandler
     public void handle(DeleteEmployeeCommand command) {
@@ -117,6 +154,22 @@ public class EmployeeAggregate {
         this.status = event.getStatus();
     }
 
+    @EventSourcingHandler
+    public void on(EmployeePatchedEvent event) {
+        if (event.getUserId() != null) {
+            this.userId = event.getUserId();
+        }
+        if (event.getCinemaId() != null) {
+            this.cinemaId = event.getCinemaId();
+        }
+        if (event.getPosition() != null) {
+            this.position = event.getPosition();
+        }
+        if (event.getStatus() != null) {
+            this.status = event.getStatus();
+        }
+    }
+
     @EventSourcingHandler
     public void on(EmployeeDeletedEvent event) {
         // Không cần set field nào
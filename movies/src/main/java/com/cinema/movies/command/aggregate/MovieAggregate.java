@@ -12,11 +12,13 @@ import org.springframework.beans.BeanUtils;
 import com.cinema.movies.command.command.CreateMovieCommand;
 import com.cinema.movies.command.command.UpdateMovieCommand;
 import com.cinema.movies.command.command.DeleteMovieCommand;
+import com.cinema.movies.command.command.PatchMovieCommand;
 import com.cinema.movies.command.event.MovieCreateEvent;
+import com.cinema.movies.command.event.MoviePatchedEvent;
 import com.cinema.movies.command.event.MovieUpdatedEvent;
 import com.cinema.movies.command.event.MovieDeletedEvent;
 
-@Aggregate
+@Aggregate(snapshotTriggerDefinition = "movieSnapshotTrigger")
 @NoArgsConstructor
 @Slf4j
 public class MovieAggregate {
@@ -76,6 +78,32 @@ public class MovieAggregate {
         AggregateLifecycle.apply(event);
     }
 
+    // PATCH MOVIE: event chỉ mang field thực sự đổi
+    @CommandHandler
+    public void handle(PatchMovieCommand command) {
+
+        log.info("PatchMovieCommand received - ID: {}", command.getId());
+
+        // Aggregate must exist
+        if (this.id == null) {
+            throw new IllegalStateException("Movie does not exist");
+        }
+
+        MoviePatchedEvent event = new MoviePatchedEvent(
+                this.id,
+                Patches.changed(this.title, command.getTitle()),
+                Patches.changed(this.description, command.getDescription()),
+                Patches.changed(this.duration, command.getDuration()),
+                Patches.changed(this.posterUrl, command.getPosterUrl()));
+
+        if (event.getTitle() == null && event.getDescription() == null && event.getDuration() == null
+                && event.getPosterUrl() == null) {
+            return; // Không có gì thay đổi: không ghi event
+        }
+
+        AggregateLifecycle.apply(event);
+    }
+
     // DELETE MOVIE
     @CommandHandler
     public void handle(DeleteMovieCommand command) {
@@ -117,6 +145,22 @@ public class MovieAggregate {
         this.posterUrl = event.getPosterUrl();
     }
 
+    @EventSourcingHandler
+    public void on(MoviePatchedEvent event) {
+        if (event.getTitle() != null) {
+            this.title = event.getTitle();
+        }
+        if (event.getDescription() != null) {
+            this.description = event.getDescription();
+        }
+        if (event.getDuration() != null) {
+            this.duration = event.getDuration();
+        }
+        if (event.getPosterUrl() != null) {
+            this.posterUrl = event.getPosterUrl();
+        }
+    }
+
     @EventSourcingHandler
     public void on(MovieDeletedEvent event) {
         // Không cần set field nào
@@ -0,0 +1,23 @@
+package com.cinema.movies.command.aggregate;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * So sánh field của command patch với state hiện tại: event patch chỉ mang field thực sự đổi,
+ * null nghĩa là giữ nguyên.
+ */
+final class Patches {
+
+    private Patches() {
+    }
+
+    static <T> T changed(T current, T requested) {
+        return requested != null && !Objects.equals(current, requested) ? requested : null;
+    }
+
+    // 95000 và 95000.00 là cùng một giá, equals của BigDecimal thì không
+    static BigDecimal changed(BigDecimal current, BigDecimal requested) {
+        return requested != null && (current == null || current.compareTo(requested) != 0) ? requested : null;
+    }
+}
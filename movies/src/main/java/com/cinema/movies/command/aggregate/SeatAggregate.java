@@ -4,19 +4,24 @@ import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.commandhandling.CommandHandler;
 import org.axonframework.eventsourcing.EventSourcingHandler;
+import org.axonframework.modelling.command.AggregateCreationPolicy;
 import org.axonframework.modelling.command.AggregateIdentifier;
 import org.axonframework.modelling.command.AggregateLifecycle;
+import org.axonframework.modelling.command.CreationPolicy;
 import org.axonframework.spring.stereotype.Aggregate;
 import org.springframework.beans.BeanUtils;
 
 import com.cinema.movies.command.command.CreateSeatCommand;
 import com.cinema.movies.command.command.UpdateSeatCommand;
 import com.cinema.movies.command.command.DeleteSeatCommand;
+import com.cinema.movies.command.event.CinemaDeletedEvent;
 import com.cinema.movies.command.event.SeatCreatedEvent;
 import com.cinema.movies.command.event.SeatUpdatedEvent;
 import com.cinema.movies.command.event.SeatDeletedEvent;
+import com.cinema.movies.service.inventory.CinemaSeatLayoutRegistry;
+import com.cinema.movies.service.reference.AggregateReferences;
 
-@Aggregate
+@Aggregate(snapshotTriggerDefinition = "seatSnapshotTrigger")
 @NoArgsConstructor
 @Slf4j
 public class SeatAggregate {
@@ -42,7 +47,7 @@ public class SeatAggregate {
 
     // CREATE SEAT
     @CommandHandler
-    public SeatAggregate(CreateSeatCommand command) {
+    public SeatAggregate(CreateSeatCommand command, AggregateReferences references) {
 
         log.info("CreateSeatCommand received - ID: {}, Row: {}, Number: {}",
                 command.getId(), command.getSeatRow(), command.getSeatNumber());
@@ -51,6 +56,7 @@ public class SeatAggregate {
         if (command.getId() == null || command.getCinemaId() == null) {
             throw new IllegalArgumentException("Seat id and cinemaId must not be null");
         }
+        references.require(command.getCinemaId(), CinemaAggregate.class, CinemaDeletedEvent.class);
 
         SeatCreatedEvent event = new SeatCreatedEvent();
         BeanUtils.copyProperties(command, event);
@@ -59,15 +65,15 @@ public class SeatAggregate {
     }
 
     // UPDATE SEAT
+    // Ghế tạo từ SeatLayoutCreatedEvent chưa có aggregate riêng: tạo khi được sửa/xóa lần đầu
     @CommandHandler
-    public void handle(UpdateSeatCommand command) {
+    @CreationPolicy(AggregateCreationPolicy.CREATE_IF_MISSING)
+    public void handle(UpdateSeatCommand command, CinemaSeatLayoutRegistry layoutRegistry) {
 
         log.info("UpdateSeatCommand received - ID: {}", command.getId());
 
         // Aggregate must exist
-        if (this.id == null) {
-            throw new IllegalStateException("Seat does not exist");
-        }
+        requireSeat(command.getId(), layoutRegistry);
 
         SeatUpdatedEvent event = new SeatUpdatedEvent();
         BeanUtils.copyProperties(command, event);
@@ -77,14 +83,13 @@ public class SeatAggregate {
 
     // DELETE SEAT
     @CommandHandler
-    public void handle(DeleteSeatCommand command) {
+    @CreationPolicy(AggregateCreationPolicy.CREATE_IF_MISSING)
+    public void handle(DeleteSeatCommand command, CinemaSeatLayoutRegistry layoutRegistry) {
 
         log.info("DeleteSeatCommand received - ID: {}", command.getId());
 
         // Aggregate must exist
-        if (this.id == null) {
-            throw new IllegalStateException("Seat does not exist");
-        }
+        requireSeat(command.getId(), layoutRegistry);
 
         SeatDeletedEvent event = new SeatDeletedEvent();
         BeanUtils.copyProperties(command, event);
@@ -93,6 +98,13 @@ public class SeatAggregate {
         AggregateLifecycle.markDeleted(); // ⭐ RẤT QUAN TRỌNG
     }
 
+    // Aggregate chưa có event nào thì ghế chỉ tồn tại nếu thuộc một layout đã tạo
+    private void requireSeat(String seatId, CinemaSeatLayoutRegistry layoutRegistry) {
+        if (this.id == null && layoutRegistry.cinemaOf(seatId).isEmpty()) {
+            throw new IllegalStateException("Seat does not exist");
+        }
+    }
+
     /*
      * =======================
      * EVENT SOURCING HANDLERS
@@ -109,6 +121,7 @@ public class SeatAggregate {
 
     @EventSourcingHandler
     public void on(SeatUpdatedEvent event) {
+        this.id = event.getId();
         this.cinemaId = event.getCinemaId();
         this.seatRow = event.getSeatRow();
         this.seatNumber = event.getSeatNumber();
@@ -116,7 +129,7 @@ public class SeatAggregate {
 
     @EventSourcingHandler
     public void on(SeatDeletedEvent event) {
-        // Không cần set field nào
-        // Aggregate đã bị markDeleted
+        // Ghế layout có thể bị xóa ngay trong event đầu tiên của aggregate
+        this.id = event.getId();
     }
 }
@@ -12,14 +12,25 @@ import org.springframework.beans.BeanUtils;
 import com.cinema.movies.command.command.CreateShowTimeCommand;
 import com.cinema.movies.command.command.UpdateShowTimeCommand;
 import com.cinema.movies.command.command.DeleteShowTimeCommand;
+import com.cinema.movies.command.command.PatchShowTimeCommand;
+import com.cinema.movies.command.command.SellShowTimeSeatsCommand;
+import com.cinema.movies.command.event.CinemaDeletedEvent;
+import com.cinema.movies.command.event.MovieDeletedEvent;
 import com.cinema.movies.command.event.ShowTimeCreatedEvent;
+import com.cinema.movies.command.event.ShowTimePatchedEvent;
+import com.cinema.movies.command.event.ShowTimeSeatsSoldEvent;
 import com.cinema.movies.command.event.ShowTimeUpdatedEvent;
 import com.cinema.movies.command.event.ShowTimeDeletedEvent;
+import com.cinema.movies.service.inventory.SeatInventoryService;
+import com.cinema.movies.service.reference.AggregateReferences;
+import com.cinema.movies.service.schedule.ShowTimeScheduleIndex;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
-@Aggregate
+@Aggregate(snapshotTriggerDefinition = "showTimeSnapshotTrigger", cache = "showTimeAggregateCache")
 @NoArgsConstructor
 @Slf4j
 public class ShowTimeAggregate {
@@ -38,6 +49,9 @@ public class ShowTimeAggregate {
     private LocalDateTime startTime;
     private BigDecimal price;
 
+    // Ghế đã bán là nguồn sự thật duy nhất: seat inventory trong bộ nhớ dựng lại từ đây
+    private Set<String> soldSeatIds = new HashSet<>();
+
     /*
      * =======================
      * COMMAND HANDLERS
@@ -46,7 +60,8 @@ public class ShowTimeAggregate {
 
     // CREATE SHOWTIME
     @CommandHandler
-    public ShowTimeAggregate(CreateShowTimeCommand command) {
+    public ShowTimeAggregate(CreateShowTimeCommand command, ShowTimeScheduleIndex scheduleIndex,
+            AggregateReferences references) {
 
         log.info("CreateShowTimeCommand received - ID: {}, MovieID: {}, CinemaID: {}",
                 command.getId(), command.getMovieId(), command.getCinemaId());
@@ -55,6 +70,9 @@ public class ShowTimeAggregate {
         if (command.getId() == null || command.getMovieId() == null || command.getCinemaId() == null) {
             throw new IllegalArgumentException("ShowTime id, movieId and cinemaId must not be null");
         }
+        requireReferences(references, command.getMovieId(), command.getCinemaId());
+        reserveSlot(scheduleIndex, command.getId(), command.getCinemaId(), command.getMovieId(),
+                command.getStartTime(), 0);
 
         ShowTimeCreatedEvent event = new ShowTimeCreatedEvent();
         BeanUtils.copyProperties(command, event);
@@ -62,9 +80,15 @@ public class ShowTimeAggregate {
         AggregateLifecycle.apply(event);
     }
 
+    // CREATE SHOWTIME FROM SCHEDULE (gọi qua AggregateLifecycle.createNew từ ShowTimeScheduleAggregate)
+    public ShowTimeAggregate(String id, String movieId, String cinemaId, LocalDateTime startTime, BigDecimal price) {
+        AggregateLifecycle.apply(new ShowTimeCreatedEvent(id, movieId, cinemaId, startTime, price));
+    }
+
     // UPDATE SHOWTIME
     @CommandHandler
-    public void handle(UpdateShowTimeCommand command) {
+    public void handle(UpdateShowTimeCommand command, ShowTimeScheduleIndex scheduleIndex,
+            SeatInventoryService seatInventoryService, AggregateReferences references) {
 
         log.info("UpdateShowTimeCommand received - ID: {}", command.getId());
 
@@ -72,6 +96,16 @@ public class ShowTimeAggregate {
         if (this.id == null) {
             throw new IllegalStateException("ShowTime does not exist");
         }
+        // Update thay toàn bộ suất chiếu: phim và rạp bắt buộc như khi tạo
+        if (command.getMovieId() == null || command.getCinemaId() == null) {
+            throw new IllegalArgumentException("ShowTime movieId and cinemaId must not be null");
+        }
+        if (!command.getCinemaId().equals(this.cinemaId)) {
+            checkCanMove(seatInventoryService);
+        }
+        requireReferences(references, command.getMovieId(), command.getCinemaId());
+        reserveSlot(scheduleIndex, this.id, command.getCinemaId(), command.getMovieId(), command.getStartTime(),
+                nextVersion());
 
         ShowTimeUpdatedEvent event = new ShowTimeUpdatedEvent();
         BeanUtils.copyProperties(command, event);
@@ -79,6 +113,66 @@ public class ShowTimeAggregate {
         AggregateLifecycle.apply(event);
     }
 
+    // PATCH SHOWTIME: event chỉ mang field thực sự đổi, đổi giá không ghi lại phim/rạp/giờ
+    @CommandHandler
+    public void handle(PatchShowTimeCommand command, ShowTimeScheduleIndex scheduleIndex,
+            SeatInventoryService seatInventoryService, AggregateReferences references) {
+
+        log.info("PatchShowTimeCommand received - ID: {}", command.getId());
+
+        // Aggregate must exist
+        if (this.id == null) {
+            throw new IllegalStateException("ShowTime does not exist");
+        }
+
+        ShowTimePatchedEvent event = new ShowTimePatchedEvent(
+                this.id,
+                Patches.changed(this.movieId, command.getMovieId()),
+                Patches.changed(this.cinemaId, command.getCinemaId()),
+                Patches.changed(this.startTime, command.getStartTime()),
+                Patches.changed(this.price, command.getPrice()));
+
+        if (event.getMovieId() == null && event.getCinemaId() == null && event.getStartTime() == null
+                && event.getPrice() == null) {
+            return; // Không có gì thay đổi: không ghi event
+        }
+        if (event.getCinemaId() != null) {
+            checkCanMove(seatInventoryService);
+        }
+        requireReferences(references, event.getMovieId(), event.getCinemaId());
+        if (event.getMovieId() != null || event.getCinemaId() != null || event.getStartTime() != null) {
+            reserveSlot(scheduleIndex, this.id,
+                    event.getCinemaId() != null ? event.getCinemaId() : this.cinemaId,
+                    event.getMovieId() != null ? event.getMovieId() : this.movieId,
+                    event.getStartTime() != null ? event.getStartTime() : this.startTime,
+                    nextVersion());
+        }
+
+        AggregateLifecycle.apply(event);
+    }
+
+    // SELL SEATS: chặn bán trùng kể cả khi hold nằm ở node khác hoặc đã hết hạn rồi bị giữ lại
+    @CommandHandler
+    public void handle(SellShowTimeSeatsCommand command) {
+
+        log.info("SellShowTimeSeatsCommand received - ID: {}, HoldID: {}", command.getId(), command.getHoldId());
+
+        // Aggregate must exist
+        if (this.id == null) {
+            throw new IllegalStateException("ShowTime does not exist");
+        }
+        if (command.getSeatIds() == null || command.getSeatIds().isEmpty()) {
+            throw new IllegalArgumentException("At least one seat is required");
+        }
+        for (String seatId : command.getSeatIds()) {
+            if (soldSeatIds.contains(seatId)) {
+                throw new IllegalStateException("Seat " + seatId + " is already sold for showtime " + this.id);
+            }
+        }
+
+        AggregateLifecycle.apply(new ShowTimeSeatsSoldEvent(this.id, command.getHoldId(), command.getSeatIds()));
+    }
+
     // DELETE SHOWTIME
     @CommandHandler
     public void handle(DeleteShowTimeCommand command) {
@@ -97,6 +191,41 @@ public class ShowTimeAggregate {
         AggregateLifecycle.markDeleted(); // ⭐ RẤT QUAN TRỌNG
     }
 
+    // Bitmap ghế gắn với layout của rạp: không dời rạp khi đã có ghế được giữ hoặc bán
+    private void checkCanMove(SeatInventoryService seatInventoryService) {
+        if (!soldSeatIds.isEmpty() || seatInventoryService.hasActiveHolds(this.id)) {
+            throw new IllegalStateException("ShowTime " + this.id + " has held or sold seats and cannot change cinema");
+        }
+    }
+
+    // Phim/rạp phải còn tồn tại phía command; null là không đổi (patch)
+    static void requireReferences(AggregateReferences references, String movieId, String cinemaId) {
+        if (movieId != null) {
+            references.require(movieId, MovieAggregate.class, MovieDeletedEvent.class);
+        }
+        if (cinemaId != null) {
+            references.require(cinemaId, CinemaAggregate.class, CinemaDeletedEvent.class);
+        }
+    }
+
+    // Suất chiếu không được chồng lên suất khác cùng rạp (tính cả thời gian dọn phòng)
+    private static void reserveSlot(ShowTimeScheduleIndex scheduleIndex, String showTimeId, String cinemaId,
+            String movieId, LocalDateTime startTime, long version) {
+        if (startTime == null) {
+            throw new IllegalArgumentException("ShowTime startTime must not be null");
+        }
+        scheduleIndex.reserve(showTimeId, cinemaId, movieId, startTime, version).ifPresent(conflict -> {
+            throw new IllegalStateException("ShowTime overlaps showtime " + conflict.getShowTimeId()
+                    + " in cinema " + cinemaId + " (" + conflict.getStart() + " - " + conflict.getEnd() + ")");
+        });
+    }
+
+    // Sequence number của event sắp ghi, để index lịch bỏ qua event cũ hơn chỗ vừa giữ
+    private static long nextVersion() {
+        Long version = AggregateLifecycle.getVersion();
+        return version != null ? version + 1 : 0;
+    }
+
     /*
      * =======================
      * EVENT SOURCING HANDLERS
@@ -120,9 +249,30 @@ public class ShowTimeAggregate {
         this.price = event.getPrice();
     }
 
+    @EventSourcingHandler
+    public void on(ShowTimePatchedEvent event) {
+        if (event.getMovieId() != null) {
+            this.movieId = event.getMovieId();
+        }
+        if (event.getCinemaId() != null) {
+            this.cinemaId = event.getCinemaId();
+        }
+        if (event.getStartTime() != null) {
+            this.startTime = event.getStartTime();
+        }
+        if (event.getPrice() != null) {
+            this.price = event.getPrice();
+        }
+    }
+
+    @EventSourcingHandler
+    public void on(ShowTimeSeatsSoldEvent event) {
+        this.soldSeatIds.addAll(event.getSeatIds());
+    }
+
     @EventSourcingHandler
     public void on(ShowTimeDeletedEvent event) {
-        // Không cần set field nào
-        // Aggregate đã bị markDeleted
+        // Đánh dấu cả khi replay, để aggregate nạp lại sau khi rời cache vẫn là đã xoá
+        AggregateLifecycle.markDeleted();
     }
 }
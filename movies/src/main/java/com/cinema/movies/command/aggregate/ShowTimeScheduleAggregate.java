@@ -0,0 +1,205 @@
+package com.cinema.movies.command.aggregate;
+
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.commandhandling.CommandHandler;
+import org.axonframework.eventsourcing.EventSourcingHandler;
+import org.axonframework.modelling.command.AggregateIdentifier;
+import org.axonframework.modelling.command.AggregateLifecycle;
+import org.axonframework.spring.stereotype.Aggregate;
+import org.springframework.beans.BeanUtils;
+
+import com.cinema.movies.command.command.CreateShowTimeCommand;
+import com.cinema.movies.command.command.CreateShowTimePlanCommand;
+import com.cinema.movies.command.command.CreateShowTimeScheduleCommand;
+import com.cinema.movies.command.event.ShowTimePlanCreatedEvent;
+import com.cinema.movies.command.event.ShowTimeScheduleCreatedEvent;
+import com.cinema.movies.service.reference.AggregateReferences;
+import com.cinema.movies.service.schedule.ShowTimeScheduleIndex;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Lịch chiếu hàng loạt: một command sinh ra nhiều suất chiếu trong cùng unit of work,
+ * từ mẫu lịch theo tuần hoặc từ kế hoạch do ShowTimeScheduleOptimizer đề xuất.
+ */
+@Aggregate
+@NoArgsConstructor
+@Slf4j
+public class ShowTimeScheduleAggregate {
+
+    // Giới hạn số suất chiếu của một lịch để một request không giữ transaction quá lâu
+    static final int MAX_SHOWTIMES = 20_000;
+
+    /*
+     * =======================
+     * AGGREGATE STATE
+     * =======================
+     */
+
+    @AggregateIdentifier
+    private String id;
+
+    private String movieId;
+    private String cinemaId;
+    private Integer showTimeCount;
+
+    /*
+     * =======================
+     * COMMAND HANDLERS
+     * =======================
+     */
+
+    // CREATE SCHEDULE
+    @CommandHandler
+    public ShowTimeScheduleAggregate(CreateShowTimeScheduleCommand command, ShowTimeScheduleIndex scheduleIndex,
+            AggregateReferences references) throws Exception {
+
+        log.info("CreateShowTimeScheduleCommand received - ID: {}, MovieID: {}, CinemaID: {}, Dates: {} - {}",
+                command.getId(), command.getMovieId(), command.getCinemaId(),
+                command.getFromDate(), command.getToDate());
+
+        // Validate business rule
+        if (command.getId() == null || command.getMovieId() == null || command.getCinemaId() == null) {
+            throw new IllegalArgumentException("Schedule id, movieId and cinemaId must not be null");
+        }
+        if (command.getDaysOfWeek() == null || command.getDaysOfWeek().isEmpty()
+                || command.getStartTimes() == null || command.getStartTimes().isEmpty()) {
+            throw new IllegalArgumentException("Schedule needs at least one day of week and one start time");
+        }
+        if (command.getFromDate() == null || command.getToDate() == null
+                || command.getToDate().isBefore(command.getFromDate())) {
+            throw new IllegalArgumentException("Schedule date range is empty");
+        }
+
+        List<LocalDateTime> startTimes = expand(command);
+        if (startTimes.isEmpty()) {
+            throw new IllegalArgumentException("Schedule does not produce any showtime");
+        }
+        if (startTimes.size() > MAX_SHOWTIMES) {
+            throw new IllegalArgumentException("Schedule produces " + startTimes.size()
+                    + " showtimes, limit is " + MAX_SHOWTIMES);
+        }
+        ShowTimeAggregate.requireReferences(references, command.getMovieId(), command.getCinemaId());
+
+        // Thời lượng phim chỉ tra một lần cho cả lịch; giữ chỗ được hoàn tác nếu unit of work rollback
+        Duration occupied = scheduleIndex.occupiedDuration(command.getMovieId());
+        BigDecimal price = command.getPrice();
+        for (LocalDateTime startTime : startTimes) {
+            String showTimeId = UUID.randomUUID().toString();
+            scheduleIndex.reserve(showTimeId, command.getCinemaId(), startTime, startTime.plus(occupied))
+                    .ifPresent(conflict -> {
+                        throw new IllegalStateException("Schedule showtime at " + startTime
+                                + " overlaps showtime " + conflict.getShowTimeId() + " in cinema "
+                                + command.getCinemaId());
+                    });
+
+            // Mỗi suất vẫn là một ShowTimeAggregate riêng để sửa/xóa như cũ
+            AggregateLifecycle.createNew(ShowTimeAggregate.class,
+                    () -> new ShowTimeAggregate(showTimeId, command.getMovieId(), command.getCinemaId(),
+                            startTime, price));
+        }
+
+        ShowTimeScheduleCreatedEvent event = new ShowTimeScheduleCreatedEvent();
+        BeanUtils.copyProperties(command, event);
+        // Bản sao ArrayList để event serialize được với XStream
+        event.setDaysOfWeek(new ArrayList<>(command.getDaysOfWeek().stream().distinct().sorted().toList()));
+        event.setStartTimes(new ArrayList<>(command.getStartTimes().stream().distinct().sorted().toList()));
+        event.setShowTimeCount(startTimes.size());
+
+        AggregateLifecycle.apply(event);
+    }
+
+    // CREATE PLAN (danh sách suất chiếu tùy ý, thường lấy từ GET /api/v1/showtimes/plan)
+    @CommandHandler
+    public ShowTimeScheduleAggregate(CreateShowTimePlanCommand command, ShowTimeScheduleIndex scheduleIndex,
+            AggregateReferences references) throws Exception {
+
+        log.info("CreateShowTimePlanCommand received - ID: {}, ShowTimes: {}",
+                command.getId(), command.getShowTimes() != null ? command.getShowTimes().size() : 0);
+
+        // Validate business rule
+        if (command.getId() == null || command.getShowTimes() == null || command.getShowTimes().isEmpty()) {
+            throw new IllegalArgumentException("Plan id and showtimes must not be empty");
+        }
+        if (command.getShowTimes().size() > MAX_SHOWTIMES) {
+            throw new IllegalArgumentException("Plan has " + command.getShowTimes().size()
+                    + " showtimes, limit is " + MAX_SHOWTIMES);
+        }
+
+        Map<String, Duration> occupiedByMovie = new HashMap<>();
+        Set<String> checkedCinemas = new HashSet<>();
+        for (CreateShowTimeCommand showTime : command.getShowTimes()) {
+            if (showTime.getId() == null || showTime.getMovieId() == null || showTime.getCinemaId() == null
+                    || showTime.getStartTime() == null) {
+                throw new IllegalArgumentException("ShowTime id, movieId, cinemaId and startTime must not be null");
+            }
+            // Mỗi phim/rạp chỉ tra event store một lần cho cả kế hoạch
+            ShowTimeAggregate.requireReferences(references,
+                    occupiedByMovie.containsKey(showTime.getMovieId()) ? null : showTime.getMovieId(),
+                    checkedCinemas.add(showTime.getCinemaId()) ? showTime.getCinemaId() : null);
+            Duration occupied = occupiedByMovie.computeIfAbsent(showTime.getMovieId(),
+                    scheduleIndex::occupiedDuration);
+            LocalDateTime startTime = showTime.getStartTime();
+            scheduleIndex.reserve(showTime.getId(), showTime.getCinemaId(), startTime, startTime.plus(occupied))
+                    .ifPresent(conflict -> {
+                        throw new IllegalStateException("Plan showtime at " + startTime + " overlaps showtime "
+                                + conflict.getShowTimeId() + " in cinema " + showTime.getCinemaId());
+                    });
+
+            AggregateLifecycle.createNew(ShowTimeAggregate.class,
+                    () -> new ShowTimeAggregate(showTime.getId(), showTime.getMovieId(), showTime.getCinemaId(),
+                            startTime, showTime.getPrice()));
+        }
+
+        AggregateLifecycle.apply(new ShowTimePlanCreatedEvent(command.getId(), command.getShowTimes().size()));
+    }
+
+    static List<LocalDateTime> expand(CreateShowTimeScheduleCommand command) {
+        List<LocalTime> times = command.getStartTimes().stream().distinct().sorted().toList();
+        List<LocalDateTime> startTimes = new ArrayList<>();
+        for (LocalDate date = command.getFromDate(); !date.isAfter(command.getToDate()); date = date.plusDays(1)) {
+            if (!command.getDaysOfWeek().contains(date.getDayOfWeek())) {
+                continue;
+            }
+            for (LocalTime time : times) {
+                startTimes.add(date.atTime(time));
+                if (startTimes.size() > MAX_SHOWTIMES) {
+                    return startTimes;
+                }
+            }
+        }
+        return startTimes;
+    }
+
+    /*
+     * =======================
+     * EVENT SOURCING HANDLERS
+     * =======================
+     */
+
+    @EventSourcingHandler
+    public void on(ShowTimeScheduleCreatedEvent event) {
+        this.id = event.getId();
+        this.movieId = event.getMovieId();
+        this.cinemaId = event.getCinemaId();
+        this.showTimeCount = event.getShowTimeCount();
+    }
+
+    @EventSourcingHandler
+    public void on(ShowTimePlanCreatedEvent event) {
+        this.id = event.getId();
+        this.showTimeCount = event.getShowTimeCount();
+    }
+}
@@ -12,13 +12,17 @@ import org.springframework.beans.BeanUtils;
 import com.cinema.movies.command.command.CreateWorkShiftCommand;
 import com.cinema.movies.command.command.UpdateWorkShiftCommand;
 import com.cinema.movies.command.command.DeleteWorkShiftCommand;
+import com.cinema.movies.command.command.PatchWorkShiftCommand;
+import com.cinema.movies.command.event.EmployeeDeletedEvent;
 import com.cinema.movies.command.event.WorkShiftCreatedEvent;
+import com.cinema.movies.command.event.WorkShiftPatchedEvent;
 import com.cinema.movies.command.event.WorkShiftUpdatedEvent;
 import com.cinema.movies.command.event.WorkShiftDeletedEvent;
+import com.cinema.movies.service.reference.AggregateReferences;
 
 import java.time.LocalDateTime;
 
-@Aggregate
+@Aggregate(snapshotTriggerDefinition = "workShiftSnapshotTrigger", cache = "workShiftAggregateCache")
 @NoArgsConstructor
 @Slf4j
 public class WorkShiftAggregate {
@@ -46,7 +50,7 @@ public class WorkShiftAggregate {
 
     // CREATE WORK SHIFT
     @CommandHandler
-    public WorkShiftAggregate(CreateWorkShiftCommand command) {
+    public WorkShiftAggregate(CreateWorkShiftCommand command, AggregateReferences references) {
 
         log.info("CreateWorkShiftCommand received - ID: {}, EmployeeID: {}, ShiftName: {}",
                 command.getId(), command.getEmployeeId(), command.getShiftName());
@@ -63,6 +67,7 @@ public class WorkShiftAggregate {
         if (command.getEndTime().isBefore(command.getStartTime())) {
             throw new IllegalArgumentException("End time must be after start time");
         }
+        references.require(command.getEmployeeId(), EmployeeAggregate.class, EmployeeDeletedEvent.class);
 
         WorkShiftCreatedEvent event = new WorkShiftCreatedEvent();
         BeanUtils.copyProperties(command, event);
@@ -72,7 +77,7 @@ public class WorkShiftAggregate {
 
     // UPDATE WORK SHIFT
     @CommandHandler
-    public void handle(UpdateWorkShiftCommand command) {
+    public void handle(UpdateWorkShiftCommand command, AggregateReferences references) {
 
         log.info("UpdateWorkShiftCommand received - ID: {}", command.getId());
 
@@ -86,6 +91,9 @@ public class WorkShiftAggregate {
                 command.getEndTime().isBefore(command.getStartTime())) {
             throw new IllegalArgumentException("End time must be after start time");
         }
+        if (command.getEmployeeId() != null) {
+            references.require(command.getEmployeeId(), EmployeeAggregate.class, EmployeeDeletedEvent.class);
+        }
 
         WorkShiftUpdatedEvent event = new WorkShiftUpdatedEvent();
         BeanUtils.copyProperties(command, event);
@@ -93,6 +101,43 @@ public class WorkShiftAggregate {
         AggregateLifecycle.apply(event);
     }
 
+    // PATCH WORK SHIFT: điểm danh chỉ ghi isAttended
+    @CommandHandler
+    public void handle(PatchWorkShiftCommand command, AggregateReferences references) {
+
+        log.info("PatchWorkShiftCommand received - ID: {}", command.getId());
+
+        // Aggregate must exist
+        if (this.id == null) {
+            throw new IllegalStateException("WorkShift does not exist");
+        }
+
+        WorkShiftPatchedEvent event = new WorkShiftPatchedEvent(
+                this.id,
+                Patches.changed(this.employeeId, command.getEmployeeId()),
+                Patches.changed(this.shiftName, command.getShiftName()),
+                Patches.changed(this.startTime, command.getStartTime()),
+                Patches.changed(this.endTime, command.getEndTime()),
+                Patches.changed(this.isAttended, command.getIsAttended()));
+
+        if (event.getEmployeeId() == null && event.getShiftName() == null && event.getStartTime() == null
+                && event.getEndTime() == null && event.getIsAttended() == null) {
+            return; // Không có gì thay đổi: không ghi event
+        }
+
+        // Validate time range sau khi ghép với giá trị hiện tại
+        LocalDateTime start = event.getStartTime() != null ? event.getStartTime() : this.startTime;
+        LocalDateTime end = event.getEndTime() != null ? event.getEndTime() : this.endTime;
+        if (start != null && end != null && end.isBefore(start)) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+        if (event.getEmployeeId() != null) {
+            references.require(event.getEmployeeId(), EmployeeAggregate.class, EmployeeDeletedEvent.class);
+        }
+
+        AggregateLifecycle.apply(event);
+    }
+
     // DELETE WORK SHIFT
     @CommandHandler
     public void handle(DeleteWorkShiftCommand command) {
@@ -136,9 +181,28 @@ public class WorkShiftAggregate {
         this.isAttended = event.getIsAttended();
     }
 
+    @EventSourcingHandler
+    public void on(WorkShiftPatchedEvent event) {
+        if (event.getEmployeeId() != null) {
+            this.employeeId = event.getEmployeeId();
+        }
+        if (event.getShiftName() != null) {
+            this.shiftName = event.getShiftName();
+        }
+        if (event.getStartTime() != null) {
+            this.startTime = event.getStartTime();
+        }
+        if (event.getEndTime() != null) {
+            this.endTime = event.getEndTime();
+        }
+        if (event.getIsAttended() != null) {
+            this.isAttended = event.getIsAttended();
+        }
+    }
+
     @EventSourcingHandler
     public void on(WorkShiftDeletedEvent event) {
-        // Không cần set field nào
-        // Aggregate đã bị markDeleted
+        // Đánh dấu cả khi replay, để aggregate nạp lại sau khi rời cache vẫn là đã xoá
+        AggregateLifecycle.markDeleted();
     }
 }
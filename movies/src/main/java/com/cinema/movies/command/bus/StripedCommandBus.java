@@ -0,0 +1,206 @@
+package com.cinema.movies.command.bus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.axonframework.commandhandling.CommandCallback;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.CommandResultMessage;
+import org.axonframework.commandhandling.SimpleCommandBus;
+import org.axonframework.commandhandling.distributed.AnnotationRoutingStrategy;
+import org.axonframework.commandhandling.distributed.RoutingStrategy;
+import org.axonframework.commandhandling.distributed.UnresolvedRoutingKeyPolicy;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.messaging.MessageHandler;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Command bus xử lý command trên một nhóm lane cố định thay vì trên thread gọi sendAndWait.
+ *
+ * Mỗi command được đưa vào lane theo routing key (@TargetAggregateIdentifier), mỗi lane là
+ * một thread với hàng đợi FIFO riêng, nên command của cùng một aggregate luôn chạy tuần tự
+ * đúng thứ tự gửi. Hàng đợi đầy thì thread gọi bị chặn lại (backpressure) chứ không chạy
+ * command tại chỗ, để không phá thứ tự.
+ *
+ * Lane lấy hết các command đang chờ (tối đa {@code maxBatchSize}) và chạy chúng như các Unit
+ * of Work lồng trong một Unit of Work chung: một lần append event store, và một transaction khi
+ * {@code transactionManager} là transaction thật (CommandBusConfig bọc PlatformTransactionManager
+ * bằng SpringTransactionManager; Unit of Work lồng tham gia transaction của lô). Kết quả chỉ trả
+ * về cho thread gọi sau khi Unit of Work chung commit. Nếu một command trong
+ * lô lỗi, cả lô được rollback rồi chạy lại từng command một như SimpleCommandBus, để command
+ * lỗi không kéo theo command khác.
+ *
+ * Command gửi lồng từ bên trong một command handler chạy luôn trên lane hiện tại, giống
+ * SimpleCommandBus, tránh trường hợp lane chờ chính nó.
+ */
+@Slf4j
+public class StripedCommandBus extends SimpleCommandBus {
+
+    private final RoutingStrategy routingStrategy = AnnotationRoutingStrategy.builder()
+            .fallbackRoutingStrategy(UnresolvedRoutingKeyPolicy.RANDOM_KEY)
+            .build();
+    private final TransactionManager transactionManager;
+    private final int maxBatchSize;
+    private final Lane[] lanes;
+    private volatile boolean running = true;
+
+    public StripedCommandBus(SimpleCommandBus.Builder builder, TransactionManager transactionManager,
+            int laneCount, int queueCapacity, int maxBatchSize) {
+        super(builder.transactionManager(transactionManager));
+        if (laneCount <= 0 || queueCapacity <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Lane count, queue capacity and batch size must be positive");
+        }
+        this.transactionManager = transactionManager;
+        this.maxBatchSize = maxBatchSize;
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i, queueCapacity);
+            lanes[i].start();
+        }
+    }
+
+    @Override
+    protected <C, R> void handle(CommandMessage<C> command, MessageHandler<? super CommandMessage<?>> handler,
+            CommandCallback<? super C, ? super R> callback) {
+        if (Thread.currentThread() instanceof Lane) {
+            super.handle(command, handler, callback);
+            return;
+        }
+        if (!running) {
+            throw new RejectedExecutionException("Command bus has been shut down");
+        }
+        Lane lane = lanes[Math.floorMod(routingStrategy.getRoutingKey(command).hashCode(), lanes.length)];
+        try {
+            lane.queue.put(new Task<>(command, handler, callback));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while queueing command " + command.getCommandName(), e);
+        }
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * Ngừng nhận command mới; các lane xử lý nốt command đang xếp hàng rồi tự dừng.
+     */
+    public void shutdown() {
+        running = false;
+        for (Lane lane : lanes) {
+            try {
+                lane.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void handleBatch(List<Task<?, ?>> batch) {
+        if (batch.size() == 1) {
+            batch.get(0).handle();
+            return;
+        }
+        UnitOfWork<?> batchUnitOfWork = DefaultUnitOfWork.startAndGet(batch.get(0).command);
+        boolean committed = false;
+        try {
+            batchUnitOfWork.attachTransaction(transactionManager);
+            for (Task<?, ?> task : batch) {
+                task.handleDeferred();
+                if (task.result.isExceptional()) {
+                    break;
+                }
+            }
+            if (batch.stream().allMatch(task -> task.result != null && !task.result.isExceptional())) {
+                batchUnitOfWork.commit();
+                committed = true;
+            }
+        } catch (RuntimeException e) {
+            log.debug("Command batch of {} failed, retrying one by one", batch.size(), e);
+        } finally {
+            if (!committed && batchUnitOfWork.isActive()) {
+                batchUnitOfWork.rollback();
+            }
+        }
+        for (Task<?, ?> task : batch) {
+            if (committed) {
+                task.complete();
+            } else {
+                task.handle();
+            }
+        }
+    }
+
+    private final class Task<C, R> {
+
+        private final CommandMessage<C> command;
+        private final MessageHandler<? super CommandMessage<?>> handler;
+        private final CommandCallback<? super C, ? super R> callback;
+        private CommandResultMessage<? extends R> result;
+
+        Task(CommandMessage<C> command, MessageHandler<? super CommandMessage<?>> handler,
+                CommandCallback<? super C, ? super R> callback) {
+            this.command = command;
+            this.handler = handler;
+            this.callback = callback;
+        }
+
+        void handle() {
+            StripedCommandBus.super.handle(command, handler, callback);
+        }
+
+        // Chạy trong Unit of Work lồng, giữ kết quả lại cho tới khi Unit of Work của cả lô commit
+        void handleDeferred() {
+            StripedCommandBus.super.<C, R>handle(command, handler, (message, commandResult) -> result = commandResult);
+        }
+
+        void complete() {
+            callback.onResult(command, result);
+        }
+    }
+
+    private final class Lane extends Thread {
+
+        private final BlockingQueue<Task<?, ?>> queue;
+
+        Lane(int index, int queueCapacity) {
+            super("command-lane-" + index);
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<Task<?, ?>> batch = new ArrayList<>(maxBatchSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    Task<?, ?> first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                queue.drainTo(batch, maxBatchSize - 1);
+                try {
+                    handleBatch(batch);
+                } catch (RuntimeException e) {
+                    // Lỗi của handler đã được trả về qua callback, ở đây chỉ giữ cho lane sống
+                    log.error("Unexpected error on {}", getName(), e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+}
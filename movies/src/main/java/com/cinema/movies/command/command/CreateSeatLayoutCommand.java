@@ -0,0 +1,23 @@
+package com.cinema.movies.command.command;
+
+import org.axonframework.modelling.command.TargetAggregateIdentifier;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreateSeatLayoutCommand {
+
+    @TargetAggregateIdentifier
+    private String cinemaId;
+
+    private String fromRow;
+    private String toRow;
+    private Integer fromNumber;
+    private Integer toNumber;
+}
@@ -0,0 +1,22 @@
+package com.cinema.movies.command.command;
+
+import org.axonframework.modelling.command.TargetAggregateIdentifier;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreateShowTimePlanCommand {
+
+    @TargetAggregateIdentifier
+    private String id;
+
+    private List<CreateShowTimeCommand> showTimes;
+}
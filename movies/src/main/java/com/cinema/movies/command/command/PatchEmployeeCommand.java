@@ -0,0 +1,21 @@
+package com.cinema.movies.command.command;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.axonframework.modelling.command.TargetAggregateIdentifier;
+
+// Field null: giữ nguyên giá trị hiện tại
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PatchEmployeeCommand {
+
+    @TargetAggregateIdentifier
+    private String id;
+
+    private String userId;
+    private String cinemaId;
+    private String position;
+    private String status;
+}
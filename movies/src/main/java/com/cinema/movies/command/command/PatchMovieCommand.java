@@ -0,0 +1,24 @@
+package com.cinema.movies.command.command;
+
+import org.axonframework.modelling.command.TargetAggregateIdentifier;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Field null: giữ nguyên giá trị hiện tại
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PatchMovieCommand {
+
+    @TargetAggregateIdentifier
+    private String id;
+
+    private String title;
+    private String description;
+    private Integer duration;
+    private String posterUrl;
+}
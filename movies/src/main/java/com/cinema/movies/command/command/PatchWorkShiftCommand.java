@@ -0,0 +1,24 @@
+package com.cinema.movies.command.command;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.axonframework.modelling.command.TargetAggregateIdentifier;
+
+import java.time.LocalDateTime;
+
+// Field null: giữ nguyên giá trị hiện tại
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PatchWorkShiftCommand {
+
+    @TargetAggregateIdentifier
+    private String id;
+
+    private String employeeId;
+    private String shiftName;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Boolean isAttended;
+}
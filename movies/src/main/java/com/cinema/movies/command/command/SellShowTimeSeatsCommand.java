@@ -0,0 +1,25 @@
+package com.cinema.movies.command.command;
+
+import java.util.List;
+
+import org.axonframework.modelling.command.TargetAggregateIdentifier;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Ghi nhận bán các ghế của một hold đã xác nhận
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SellShowTimeSeatsCommand {
+
+    @TargetAggregateIdentifier
+    private String id;
+
+    private String holdId;
+
+    private List<String> seatIds;
+}
@@ -17,10 +17,12 @@ import org.springframework.web.bind.annotation.RestController;
 import com.cinema.commonservice.annotation.ApiMessage;
 import com.cinema.commonservice.service.KafkaService;
 import com.cinema.movies.command.command.CreateCinemaCommand;
+import com.cinema.movies.command.command.CreateSeatLayoutCommand;
 import com.cinema.movies.command.command.UpdateCinemaCommand;
 import com.cinema.movies.command.command.DeleteCinemaCommand;
 import com.cinema.movies.command.model.CommandResponse;
 import com.cinema.movies.command.model.CinemaRequestModel;
+import com.cinema.movies.command.model.SeatLayoutRequestModel;
 
 @RestController
 @RequestMapping("/api/v1/cinemas")
@@ -73,6 +75,25 @@ public class CinemaCommandController {
         return new CommandResponse(id);
     }
 
+    @PostMapping("/{id}/seat-layout")
+    @ApiMessage("Tạo sơ đồ ghế thành công")
+    public CommandResponse createSeatLayout(@PathVariable String id,
+            @Valid @RequestBody SeatLayoutRequestModel model) {
+        log.info("Received seat layout request - CinemaId: {}, Rows: {}-{}, Numbers: {}-{}",
+                id, model.getFromRow(), model.getToRow(), model.getFromNumber(), model.getToNumber());
+
+        CreateSeatLayoutCommand command = new CreateSeatLayoutCommand(
+                id,
+                model.getFromRow(),
+                model.getToRow(),
+                model.getFromNumber(),
+                model.getToNumber());
+
+        commandGateway.sendAndWait(command);
+
+        return new CommandResponse(id);
+    }
+
     @PostMapping("/sendMessage")
     public void sendMessage(@RequestBody String message) {
         kafkaService.sendMessage("cinema", message);
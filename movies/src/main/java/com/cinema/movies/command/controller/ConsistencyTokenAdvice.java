@@ -0,0 +1,49 @@
+package com.cinema.movies.command.controller;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.cinema.movies.command.model.CommandResponse;
+import com.cinema.movies.service.consistency.CommandPositionTracker;
+import com.cinema.movies.service.consistency.ConsistencyTokenService;
+
+/**
+ * Gắn consistency token vào mọi CommandResponse (body và header X-Consistency-Token): vị trí event
+ * cuối cùng mà các command của request đã ghi ra, do CommandPositionTracker ghi vào request. Chạy trước FormatRestResponse vì sau đó body đã bị bọc trong RestResponse.
+ */
+@ControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConsistencyTokenAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ConsistencyTokenService consistencyTokenService;
+
+    public ConsistencyTokenAdvice(ConsistencyTokenService consistencyTokenService) {
+        this.consistencyTokenService = consistencyTokenService;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return CommandResponse.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        if (body instanceof CommandResponse commandResponse) {
+            long token = consistencyTokenService.tokenFor(
+                    CommandPositionTracker.commands(RequestContextHolder.currentRequestAttributes()));
+            commandResponse.setConsistencyToken(token);
+            response.getHeaders().set(ConsistencyTokenService.HEADER, String.valueOf(token));
+        }
+        return body;
+    }
+}
@@ -14,7 +14,9 @@ import com.cinema.commonservice.annotation.ApiMessage;
 import com.cinema.movies.command.command.CreateEmployeeCommand;
 import com.cinema.movies.command.command.UpdateEmployeeCommand;
 import com.cinema.movies.command.command.DeleteEmployeeCommand;
+import com.cinema.movies.command.command.PatchEmployeeCommand;
 import com.cinema.movies.command.model.CommandResponse;
+import com.cinema.movies.command.model.EmployeePatchRequestModel;
 import com.cinema.movies.command.model.EmployeeRequestModel;
 
 @RestController
@@ -79,6 +81,31 @@ public class EmployeeCommandController {
         return new CommandResponse(id);
     }
 
+    @PatchMapping("/{id}")
+    @ApiMessage("Cập nhật nhân viên thành công")
+    public CommandResponse patchEmployee(
+            @PathVariable String id,
+            @Valid @RequestBody EmployeePatchRequestModel model) {
+
+        log.info("Patching employee - ID: {}", id);
+
+        PatchEmployeeCommand command = new PatchEmployeeCommand(
+                id,
+                model.getUserId(),
+                model.getCinemaId(),
+                model.getPosition(),
+                model.getStatus());
+
+        try {
+            commandGateway.sendAndWait(command);
+        } catch (Exception e) {
+            log.error("Failed to patch employee: {}", e.getMessage(), e);
+            throw new RuntimeException("Không thể cập nhật nhân viên: " + e.getMessage());
+        }
+
+        return new CommandResponse(id);
+    }
+
     @DeleteMapping("/{id}")
     @ApiMessage("Xóa nhân viên thành công")
     public CommandResponse deleteEmployee(@PathVariable String id) {
@@ -19,7 +19,9 @@ import com.cinema.commonservice.annotation.ApiMessage;
 import com.cinema.movies.command.command.CreateMovieCommand;
 import com.cinema.movies.command.command.UpdateMovieCommand;
 import com.cinema.movies.command.command.DeleteMovieCommand;
+import com.cinema.movies.command.command.PatchMovieCommand;
 import com.cinema.movies.command.model.CommandResponse;
+import com.cinema.movies.command.model.MoviePatchRequestModel;
 import com.cinema.movies.command.model.MovieRequestModel;
 
 @RestController
@@ -142,6 +144,43 @@ public class MovieCommandController {
         return new CommandResponse(id);
     }
 
+    @PatchMapping("/{id}")
+    @ApiMessage("Cập nhật phim thành công")
+    public CommandResponse patchMovie(
+            @PathVariable String id,
+            @Valid @RequestBody MoviePatchRequestModel model) {
+
+        // Chỉ xóa poster cũ khi request thật sự đổi posterUrl
+        if (model.getPosterUrl() != null) {
+            try {
+                Movie existingMovie = movieRepository.findById(id).orElse(null);
+                if (existingMovie != null && existingMovie.getPosterUrl() != null
+                        && !existingMovie.getPosterUrl().equals(model.getPosterUrl())) {
+                    minioService.deleteFileByUrl(existingMovie.getPosterUrl());
+                    log.info("Deleted old poster for movie: {}", id);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to delete old poster: {}", e.getMessage());
+            }
+        }
+
+        PatchMovieCommand command = new PatchMovieCommand(
+                id,
+                model.getTitle(),
+                model.getDescription(),
+                model.getDuration(),
+                model.getPosterUrl());
+
+        try {
+            commandGateway.sendAndWait(command);
+        } catch (Exception e) {
+            log.error("Failed to patch movie: {}", e.getMessage(), e);
+            throw new RuntimeException("Không thể cập nhật phim: " + e.getMessage());
+        }
+
+        return new CommandResponse(id);
+    }
+
     @PutMapping(value = "/{id}/with-file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @ApiMessage("Cập nhật phim với poster thành công")
     public CommandResponse updateMovieWithFile(
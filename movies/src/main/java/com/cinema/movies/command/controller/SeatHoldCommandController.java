@@ -0,0 +1,108 @@
+package com.cinema.movies.command.controller;
+
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.cinema.commonservice.annotation.ApiMessage;
+import com.cinema.movies.command.command.SellShowTimeSeatsCommand;
+import com.cinema.movies.command.model.BestSeatHoldRequestModel;
+import com.cinema.movies.command.model.SeatHoldRequestModel;
+import com.cinema.movies.command.model.SeatHoldResponseModel;
+import com.cinema.movies.service.inventory.SeatHold;
+import com.cinema.movies.service.inventory.SeatHoldContentionException;
+import com.cinema.movies.service.inventory.SeatInventoryService;
+import com.cinema.movies.service.inventory.SeatSelectionService;
+
+@RestController
+@RequestMapping("/api/v1/holds")
+@Slf4j
+public class SeatHoldCommandController {
+
+    private final SeatInventoryService seatInventoryService;
+    private final SeatSelectionService seatSelectionService;
+    private final CommandGateway commandGateway;
+
+    public SeatHoldCommandController(SeatInventoryService seatInventoryService,
+            SeatSelectionService seatSelectionService, CommandGateway commandGateway) {
+        this.seatInventoryService = seatInventoryService;
+        this.seatSelectionService = seatSelectionService;
+        this.commandGateway = commandGateway;
+    }
+
+    @PostMapping
+    @ApiMessage("Giữ ghế thành công")
+    public SeatHoldResponseModel holdSeats(@Valid @RequestBody SeatHoldRequestModel model) {
+        log.info("Hold request - ShowTimeId: {}, Seats: {}", model.getShowTimeId(), model.getSeatIds());
+
+        try {
+            return seatInventoryService.hold(model.getShowTimeId(), model.getSeatIds())
+                    .map(SeatHoldResponseModel::from)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT,
+                            "Một hoặc nhiều ghế đã được giữ hoặc đã bán"));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @PostMapping("/best")
+    @ApiMessage("Giữ ghế tốt nhất thành công")
+    public SeatHoldResponseModel holdBestSeats(@Valid @RequestBody BestSeatHoldRequestModel model) {
+        log.info("Best seats hold request - ShowTimeId: {}, Count: {}", model.getShowTimeId(), model.getCount());
+
+        try {
+            return seatSelectionService.holdBestBlock(model.getShowTimeId(), model.getCount())
+                    .map(SeatHoldResponseModel::from)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT,
+                            "Không còn đủ ghế liền nhau"));
+        } catch (SeatHoldContentionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Ghế đang được nhiều người giữ cùng lúc, vui lòng thử lại");
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @PostMapping("/{holdId}/confirm")
+    @ApiMessage("Xác nhận đặt ghế thành công")
+    public SeatHoldResponseModel confirmHold(@PathVariable String holdId) {
+        SeatHold hold;
+        try {
+            hold = seatInventoryService.confirm(holdId);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+
+        // Vé chỉ được coi là đã bán khi ShowTimeSeatsSoldEvent đã ghi vào event store
+        try {
+            commandGateway.sendAndWait(new SellShowTimeSeatsCommand(hold.getShowTimeId(), holdId, hold.getSeatIds()));
+        } catch (RuntimeException e) {
+            seatInventoryService.cancelConfirm(hold);
+            log.warn("Could not record sale of hold {}: {}", holdId, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Không thể xác nhận đặt ghế: " + e.getMessage());
+        }
+        return SeatHoldResponseModel.from(hold);
+    }
+
+    @DeleteMapping("/{holdId}")
+    @ApiMessage("Hủy giữ ghế thành công")
+    public SeatHoldResponseModel releaseHold(@PathVariable String holdId) {
+        try {
+            return SeatHoldResponseModel.from(seatInventoryService.release(holdId));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+}
@@ -1,25 +1,35 @@
 package com.cinema.movies.command.controller;
 
+import java.util.List;
 import java.util.UUID;
 
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.cinema.commonservice.annotation.ApiMessage;
 import com.cinema.movies.command.command.CreateShowTimeCommand;
+import com.cinema.movies.command.command.CreateShowTimePlanCommand;
+import com.cinema.movies.command.command.CreateShowTimeScheduleCommand;
 import com.cinema.movies.command.command.UpdateShowTimeCommand;
 import com.cinema.movies.command.command.DeleteShowTimeCommand;
+import com.cinema.movies.command.command.PatchShowTimeCommand;
 import com.cinema.movies.command.model.CommandResponse;
+import com.cinema.movies.command.model.ShowTimePatchRequestModel;
+import com.cinema.movies.command.model.ShowTimePlanRequestModel;
 import com.cinema.movies.command.model.ShowTimeRequestModel;
+import com.cinema.movies.command.model.ShowTimeScheduleRequestModel;
 
 @RestController
 @RequestMapping("/api/v1/showtimes")
@@ -44,7 +54,52 @@ public class ShowTimeCommandController {
                 model.getStartTime(),
                 model.getPrice());
 
-        commandGateway.sendAndWait(command);
+        sendScheduling(command);
+
+        return new CommandResponse(id);
+    }
+
+    @PostMapping("/schedules")
+    @ApiMessage("Tạo lịch chiếu thành công")
+    public CommandResponse createSchedule(@Valid @RequestBody ShowTimeScheduleRequestModel model) {
+        String id = UUID.randomUUID().toString();
+
+        log.info("Received schedule request - MovieId: {}, CinemaId: {}, Days: {}, Times: {}, Dates: {} - {}",
+                model.getMovieId(), model.getCinemaId(), model.getDaysOfWeek(), model.getStartTimes(),
+                model.getFromDate(), model.getToDate());
+
+        CreateShowTimeScheduleCommand command = new CreateShowTimeScheduleCommand(
+                id,
+                model.getMovieId(),
+                model.getCinemaId(),
+                model.getDaysOfWeek(),
+                model.getStartTimes(),
+                model.getFromDate(),
+                model.getToDate(),
+                model.getPrice());
+
+        sendScheduling(command);
+
+        return new CommandResponse(id);
+    }
+
+    @PostMapping("/plans")
+    @ApiMessage("Tạo lịch chiếu theo kế hoạch thành công")
+    public CommandResponse createPlan(@Valid @RequestBody ShowTimePlanRequestModel model) {
+        String id = UUID.randomUUID().toString();
+
+        log.info("Received plan request - ShowTimes: {}", model.getShowTimes().size());
+
+        List<CreateShowTimeCommand> showTimes = model.getShowTimes().stream()
+                .map(showTime -> new CreateShowTimeCommand(
+                        UUID.randomUUID().toString(),
+                        showTime.getMovieId(),
+                        showTime.getCinemaId(),
+                        showTime.getStartTime(),
+                        showTime.getPrice()))
+                .toList();
+
+        sendScheduling(new CreateShowTimePlanCommand(id, showTimes));
 
         return new CommandResponse(id);
     }
@@ -59,7 +114,23 @@ public class ShowTimeCommandController {
                 model.getStartTime(),
                 model.getPrice());
 
-        commandGateway.sendAndWait(command);
+        sendScheduling(command);
+
+        return new CommandResponse(id);
+    }
+
+    @PatchMapping("/{id}")
+    @ApiMessage("Cập nhật suất chiếu thành công")
+    public CommandResponse patchShowTime(@PathVariable String id,
+            @Valid @RequestBody ShowTimePatchRequestModel model) {
+        PatchShowTimeCommand command = new PatchShowTimeCommand(
+                id,
+                model.getMovieId(),
+                model.getCinemaId(),
+                model.getStartTime(),
+                model.getPrice());
+
+        sendScheduling(command);
 
         return new CommandResponse(id);
     }
@@ -72,4 +143,15 @@ public class ShowTimeCommandController {
 
         return new CommandResponse(id);
     }
+
+    // Lỗi trùng lịch chiếu trả về 409 thay vì 500
+    private void sendScheduling(Object command) {
+        try {
+            commandGateway.sendAndWait(command);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
 }
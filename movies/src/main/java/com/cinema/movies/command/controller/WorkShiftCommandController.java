@@ -14,7 +14,9 @@ import com.cinema.commonservice.annotation.ApiMessage;
 import com.cinema.movies.command.command.CreateWorkShiftCommand;
 import com.cinema.movies.command.command.UpdateWorkShiftCommand;
 import com.cinema.movies.command.command.DeleteWorkShiftCommand;
+import com.cinema.movies.command.command.PatchWorkShiftCommand;
 import com.cinema.movies.command.model.CommandResponse;
+import com.cinema.movies.command.model.WorkShiftPatchRequestModel;
 import com.cinema.movies.command.model.WorkShiftRequestModel;
 
 @RestController
@@ -81,6 +83,32 @@ public class WorkShiftCommandController {
         return new CommandResponse(id);
     }
 
+    @PatchMapping("/{id}")
+    @ApiMessage("Cập nhật ca làm việc thành công")
+    public CommandResponse patchWorkShift(
+            @PathVariable String id,
+            @Valid @RequestBody WorkShiftPatchRequestModel model) {
+
+        log.info("Patching work shift - ID: {}", id);
+
+        PatchWorkShiftCommand command = new PatchWorkShiftCommand(
+                id,
+                model.getEmployeeId(),
+                model.getShiftName(),
+                model.getStartTime(),
+                model.getEndTime(),
+                model.getIsAttended());
+
+        try {
+            commandGateway.sendAndWait(command);
+        } catch (Exception e) {
+            log.error("Failed to patch work shift: {}", e.getMessage(), e);
+            throw new RuntimeException("Không thể cập nhật ca làm việc: " + e.getMessage());
+        }
+
+        return new CommandResponse(id);
+    }
+
     @DeleteMapping("/{id}")
     @ApiMessage("Xóa ca làm việc thành công")
     public CommandResponse deleteWorkShift(@PathVariable String id) {
@@ -18,4 +18,7 @@ public class Cinema {
 
     @Column(columnDefinition = "TEXT")
     private String address;
+
+    // Sequence number của event cuối đã ghi vào dòng (không phải @Version của JPA)
+    private Long version;
 }
\ No newline at end of file
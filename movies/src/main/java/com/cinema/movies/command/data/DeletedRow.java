@@ -0,0 +1,23 @@
+package com.cinema.movies.command.data;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Dấu vết của một dòng read model đã bị xoá (kể cả dòng con bị xoá theo dòng cha), để event tới
+ * sau tham chiếu tới nó được bỏ qua thay vì chờ mãi một dòng sẽ không bao giờ có.
+ *
+ * Id của entity không dùng lại nên dấu vết không cần dọn.
+ */
+@Entity
+@Table(name = "deleted_rows")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeletedRow {
+
+    @Id
+    @Column(name = "row_key")
+    private String rowKey; // "bảng/id", ví dụ "movies/42"
+}
@@ -28,6 +28,10 @@ public class Movie {
     @Column(name = "poster_url", columnDefinition = "TEXT")
     private String posterUrl;
 
+    // Sequence number của event cuối đã ghi vào dòng (không phải @Version của JPA),
+    // để showtime_view biết bản copy đã theo kịp event nào
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -1,10 +1,28 @@
 package com.cinema.movies.command.data.Reponsitory;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.cinema.movies.command.data.Cinema;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface CinemaRepository extends JpaRepository<Cinema, String> {
+
+    // Keyset pagination: trang kế tiếp sau id cuối của trang trước
+    @Query("SELECT c FROM Cinema c WHERE c.id > :afterId ORDER BY c.id")
+    List<Cinema> findPageAfter(@Param("afterId") String afterId, Limit limit);
+
+    // Đọc tuần tự qua JDBC cursor, dùng cho NDJSON streaming
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT c FROM Cinema c ORDER BY c.id")
+    Stream<Cinema> streamAllOrderById();
 }
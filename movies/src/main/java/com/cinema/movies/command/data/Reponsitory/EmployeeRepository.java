@@ -1,10 +1,18 @@
 package com.cinema.movies.command.data.Reponsitory;
 
-import com.cinema.movies.command.data.Employee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.cinema.movies.command.data.Employee;
+
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, String> {
@@ -14,4 +22,13 @@ public interface EmployeeRepository extends JpaRepository<Employee, String> {
     List<Employee> findByStatus(String status);
 
     List<Employee> findByCinemaIdAndStatus(String cinemaId, String status);
+
+    // Keyset pagination: trang kế tiếp sau id cuối của trang trước
+    @Query("SELECT e FROM Employee e WHERE e.id > :afterId ORDER BY e.id")
+    List<Employee> findPageAfter(@Param("afterId") String afterId, Limit limit);
+
+    // Đọc tuần tự qua JDBC cursor, dùng cho NDJSON streaming
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e FROM Employee e ORDER BY e.id")
+    Stream<Employee> streamAllOrderById();
 }
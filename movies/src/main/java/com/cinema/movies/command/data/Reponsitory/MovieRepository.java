@@ -1,9 +1,26 @@
 package com.cinema.movies.command.data.Reponsitory;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.cinema.movies.command.data.Movie;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 public interface MovieRepository extends JpaRepository<Movie, String> {
 
+    // Keyset pagination: trang kế tiếp sau id cuối của trang trước
+    @Query("SELECT m FROM Movie m WHERE m.id > :afterId ORDER BY m.id")
+    List<Movie> findPageAfter(@Param("afterId") String afterId, Limit limit);
+
+    // Đọc tuần tự qua JDBC cursor, dùng cho NDJSON streaming
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT m FROM Movie m ORDER BY m.id")
+    Stream<Movie> streamAllOrderById();
 }
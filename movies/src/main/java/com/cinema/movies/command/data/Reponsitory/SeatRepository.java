@@ -1,7 +1,11 @@
 package com.cinema.movies.command.data.Reponsitory;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -9,6 +13,7 @@ import com.cinema.movies.command.data.Seat;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SeatRepository extends JpaRepository<Seat, String> {
@@ -18,4 +23,13 @@ public interface SeatRepository extends JpaRepository<Seat, String> {
 
     @Query("SELECT s FROM Seat s LEFT JOIN FETCH s.cinema WHERE s.id = :id")
     Optional<Seat> findByIdWithDetails(@Param("id") String id);
+
+    // Keyset pagination: trang kế tiếp sau id cuối của trang trước
+    @Query("SELECT s FROM Seat s LEFT JOIN FETCH s.cinema WHERE s.id > :afterId ORDER BY s.id")
+    List<Seat> findPageAfter(@Param("afterId") String afterId, Limit limit);
+
+    // Đọc tuần tự qua JDBC cursor, dùng cho NDJSON streaming
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s FROM Seat s LEFT JOIN FETCH s.cinema ORDER BY s.id")
+    Stream<Seat> streamAllOrderById();
 }
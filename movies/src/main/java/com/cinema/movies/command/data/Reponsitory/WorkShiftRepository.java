@@ -1,11 +1,19 @@
 package com.cinema.movies.command.data.Reponsitory;
 
-import com.cinema.movies.command.data.WorkShift;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.cinema.movies.command.data.WorkShift;
+
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface WorkShiftRepository extends JpaRepository<WorkShift, String> {
@@ -15,4 +23,13 @@ public interface WorkShiftRepository extends JpaRepository<WorkShift, String> {
     List<WorkShift> findByStartTimeBetween(LocalDateTime start, LocalDateTime end);
 
     List<WorkShift> findByEmployeeIdAndIsAttended(String employeeId, Boolean isAttended);
+
+    // Keyset pagination: trang kế tiếp sau id cuối của trang trước
+    @Query("SELECT w FROM WorkShift w WHERE w.id > :afterId ORDER BY w.id")
+    List<WorkShift> findPageAfter(@Param("afterId") String afterId, Limit limit);
+
+    // Đọc tuần tự qua JDBC cursor, dùng cho NDJSON streaming
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT w FROM WorkShift w ORDER BY w.id")
+    Stream<WorkShift> streamAllOrderById();
 }
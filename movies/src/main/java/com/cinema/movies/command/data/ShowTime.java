@@ -6,7 +6,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "show_times")
+@Table(name = "show_times", indexes = {
+        @Index(name = "idx_show_times_cinema_start", columnList = "cinema_id, start_time"),
+        @Index(name = "idx_show_times_movie_start", columnList = "movie_id, start_time")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,55 @@
+package com.cinema.movies.command.data;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read model phẳng cho danh sách suất chiếu, không cần join movies/cinemas.
+ *
+ * Được ghi bởi ShowTimeEventHandler cùng transaction với show_times, và copy lại từ
+ * movies/cinemas khi phim hoặc rạp đổi thông tin, sau khi bảng cha đã ghi tới event đó.
+ */
+@Entity
+@Table(name = "showtime_view", indexes = {
+        @Index(name = "idx_showtime_view_start", columnList = "start_time"),
+        @Index(name = "idx_showtime_view_cinema_start", columnList = "cinema_id, start_time"),
+        @Index(name = "idx_showtime_view_movie_start", columnList = "movie_id, start_time")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShowTimeView {
+
+    @Id
+    private String id;
+
+    @Column(name = "movie_id", nullable = false)
+    private String movieId;
+
+    @Column(name = "movie_title")
+    private String movieTitle;
+
+    @Column(name = "movie_duration")
+    private Integer movieDuration; // Thời lượng tính bằng phút
+
+    @Column(name = "poster_url", columnDefinition = "TEXT")
+    private String posterUrl;
+
+    @Column(name = "cinema_id", nullable = false)
+    private String cinemaId;
+
+    @Column(name = "cinema_name")
+    private String cinemaName;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time")
+    private LocalDateTime endTime; // startTime + thời lượng phim
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal price;
+}
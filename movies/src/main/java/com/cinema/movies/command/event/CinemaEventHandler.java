@@ -1,40 +1,125 @@
 package com.cinema.movies.command.event;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.axonframework.config.ProcessingGroup;
 import org.axonframework.eventhandling.EventHandler;
-import org.springframework.beans.BeanUtils;
+import org.axonframework.eventhandling.ResetHandler;
+import org.axonframework.eventhandling.SequenceNumber;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.cinema.movies.command.data.Cinema;
 import com.cinema.movies.command.data.Reponsitory.CinemaRepository;
+import com.cinema.movies.config.ProjectionProcessingConfig;
+import com.cinema.movies.query.projection.CinemaProjection;
+import com.cinema.movies.service.replay.ReadModelTables;
 
 @Component
+@ProcessingGroup(ProjectionProcessingConfig.CINEMA_GROUP)
 public class CinemaEventHandler {
 
+    // Chỉ chèn khi chưa có: khi replay, dòng còn bị tham chiếu được giữ lại ở version mới nhất
+    private static final String INSERT_CINEMA_SQL = "INSERT INTO cinemas (id, name, address, version) "
+            + "SELECT ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM cinemas WHERE id = ?)";
+
+    private static final String PENDING_INSERTS = CinemaEventHandler.class.getName() + ".pendingInserts";
+
     @Autowired
     private CinemaRepository cinemaRepository;
 
+    @Autowired
+    private CinemaProjection cinemaProjection;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReadModelTables readModelTables;
+
+    /**
+     * Rạp mới được gom lại theo unit of work (batch của event processor, nhất là khi replay)
+     * và ghi bằng một lần JDBC batch trước khi commit.
+     */
     @EventHandler
-    public void on(CinemaCreatedEvent event) {
-        Cinema cinema = new Cinema();
-        cinema.setId(event.getId());
-        cinema.setName(event.getName());
-        cinema.setAddress(event.getAddress());
-        cinemaRepository.save(cinema);
+    public void on(CinemaCreatedEvent event, @SequenceNumber long version) {
+        Object[] row = { event.getId(), event.getName(), event.getAddress(), version, event.getId() };
+        cinemaProjection.evict(event.getId());
+        if (!CurrentUnitOfWork.isStarted()) {
+            jdbcTemplate.update(INSERT_CINEMA_SQL, row);
+            return;
+        }
+        pendingInserts().add(row);
     }
 
     @EventHandler
-    public void on(CinemaUpdatedEvent event) {
+    public void on(CinemaUpdatedEvent event, @SequenceNumber long version) {
+        flushPendingInserts();
         Cinema cinema = cinemaRepository.findById(event.getId()).orElse(null);
-        if (cinema != null) {
+        if (cinema != null && (cinema.getVersion() == null || cinema.getVersion() < version)) {
             cinema.setName(event.getName());
             cinema.setAddress(event.getAddress());
+            cinema.setVersion(version);
             cinemaRepository.save(cinema);
+            cinemaProjection.evict(event.getId());
         }
     }
 
+    /**
+     * Suất chiếu, ghế, nhân viên và ca làm của họ (group khác) bị xoá theo rạp, bảng con trước;
+     * event tới muộn của chúng thấy dấu vết và bỏ qua.
+     */
     @EventHandler
+    @Transactional
     public void on(CinemaDeletedEvent event) {
-        cinemaRepository.deleteById(event.getId());
+        flushPendingInserts();
+        // Entity có thể đang nằm trong persistence context: ghi xuống trước khi DELETE bằng JDBC
+        cinemaRepository.flush();
+        readModelTables.deleteWhere("showtime_view", "cinema_id = ?", event.getId());
+        readModelTables.deleteWhere("show_times", "cinema_id = ?", event.getId());
+        readModelTables.deleteWhere("seats", "cinema_id = ?", event.getId());
+        readModelTables.deleteWhere("work_shifts", "employee_id IN (SELECT id FROM employees WHERE cinema_id = ?)",
+                event.getId());
+        readModelTables.deleteWhere("employees", "cinema_id = ?", event.getId());
+        readModelTables.delete("cinemas", event.getId());
+        cinemaProjection.evict(event.getId());
+    }
+
+    @ResetHandler
+    public void onReset() {
+        readModelTables.clearUnreferenced("cinemas", "show_times.cinema_id", "showtime_view.cinema_id",
+                "seats.cinema_id", "employees.cinema_id");
+        cinemaProjection.evictAll();
+    }
+
+    private List<Object[]> pendingInserts() {
+        UnitOfWork<?> unitOfWork = CurrentUnitOfWork.get().root();
+        return unitOfWork.getOrComputeResource(PENDING_INSERTS, key -> {
+            List<Object[]> pending = new ArrayList<>();
+            unitOfWork.onPrepareCommit(u -> flush(pending));
+            return pending;
+        });
+    }
+
+    private void flushPendingInserts() {
+        if (CurrentUnitOfWork.isStarted()) {
+            List<Object[]> pending = CurrentUnitOfWork.get().root().getResource(PENDING_INSERTS);
+            if (pending != null) {
+                flush(pending);
+            }
+        }
+    }
+
+    private void flush(List<Object[]> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_CINEMA_SQL, pending);
+        pending.clear();
     }
 }
@@ -0,0 +1,17 @@
+package com.cinema.movies.command.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Chỉ mang các field đã đổi, field null là không đổi
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeePatchedEvent {
+    private String id;
+    private String userId;
+    private String cinemaId;
+    private String position;
+    private String status;
+}
@@ -1,39 +1,155 @@
 package com.cinema.movies.command.event;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import lombok.extern.slf4j.Slf4j;
+import org.axonframework.config.ProcessingGroup;
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ResetHandler;
+import org.axonframework.eventhandling.SequenceNumber;
+import org.axonframework.eventhandling.Timestamp;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.cinema.movies.command.data.Movie;
 import com.cinema.movies.command.data.Reponsitory.MovieRepository;
+import com.cinema.movies.config.ProjectionProcessingConfig;
+import com.cinema.movies.query.projection.MovieProjection;
+import com.cinema.movies.service.replay.ReadModelTables;
 
 @Component
+@ProcessingGroup(ProjectionProcessingConfig.MOVIE_GROUP)
 @Slf4j
 public class MovieEventHandle {
+
+    // Chỉ chèn khi chưa có: khi replay, dòng còn bị tham chiếu được giữ lại ở version mới nhất và
+    // không bị ghi đè về lúc tạo; created_at lấy theo thời điểm event để replay không đổi giá trị
+    private static final String INSERT_MOVIE_SQL = "INSERT INTO movies "
+            + "(id, title, description, duration, poster_url, created_at, version) "
+            + "SELECT ?, ?, ?, ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM movies WHERE id = ?)";
+
+    private static final String PENDING_INSERTS = MovieEventHandle.class.getName() + ".pendingInserts";
+
     @Autowired
     private MovieRepository movieRepository;
 
+    @Autowired
+    private MovieProjection movieProjection;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReadModelTables readModelTables;
+
+    /**
+     * Phim mới được gom lại theo unit of work (batch của event processor, nhất là khi replay)
+     * và ghi bằng một lần JDBC batch trước khi commit.
+     */
     @EventHandler
-    public void on(MovieCreateEvent event) {
+    public void on(MovieCreateEvent event, @Timestamp Instant timestamp, @SequenceNumber long version) {
         log.info("Event received - ID: {}, Title: {}", event.getId(), event.getTitle());
-        Movie movie = new Movie();
-        BeanUtils.copyProperties(event, movie);
-        movieRepository.save(movie);
+        Object[] row = { event.getId(), event.getTitle(), event.getDescription(), event.getDuration(),
+                event.getPosterUrl(), LocalDateTime.ofInstant(timestamp, ZoneId.systemDefault()), version,
+                event.getId() };
+        movieProjection.evict(event.getId());
+        if (!CurrentUnitOfWork.isStarted()) {
+            jdbcTemplate.update(INSERT_MOVIE_SQL, row);
+            return;
+        }
+        pendingInserts().add(row);
     }
 
     @EventHandler
-    public void on(MovieUpdatedEvent event) {
+    public void on(MovieUpdatedEvent event, @SequenceNumber long version) {
+        flushPendingInserts();
         Movie movie = movieRepository.findById(event.getId()).orElse(null);
-        if (movie != null) {
+        if (movie != null && (movie.getVersion() == null || movie.getVersion() < version)) {
             BeanUtils.copyProperties(event, movie);
+            movie.setVersion(version);
             movieRepository.save(movie);
+            movieProjection.evict(event.getId());
+        }
+    }
+
+    // Chỉ ghi các cột có trong patch
+    @EventHandler
+    @Transactional
+    public void on(MoviePatchedEvent event, @SequenceNumber long version) {
+        flushPendingInserts();
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (event.getTitle() != null) {
+            columns.put("title", event.getTitle());
+        }
+        if (event.getDescription() != null) {
+            columns.put("description", event.getDescription());
+        }
+        if (event.getDuration() != null) {
+            columns.put("duration", event.getDuration());
+        }
+        if (event.getPosterUrl() != null) {
+            columns.put("poster_url", event.getPosterUrl());
         }
+        // Entity có thể đang nằm trong persistence context: ghi xuống trước khi UPDATE bằng JDBC
+        movieRepository.flush();
+        readModelTables.update("movies", event.getId(), version, columns);
+        movieProjection.evict(event.getId());
     }
 
+    // Suất chiếu của phim (group khác) bị xoá theo; event tới muộn của chúng thấy dấu vết và bỏ qua
     @EventHandler
+    @Transactional
     public void on(MovieDeletedEvent event) {
-        movieRepository.deleteById(event.getId());
+        flushPendingInserts();
+        // Entity có thể đang nằm trong persistence context: ghi xuống trước khi DELETE bằng JDBC
+        movieRepository.flush();
+        readModelTables.deleteWhere("showtime_view", "movie_id = ?", event.getId());
+        readModelTables.deleteWhere("show_times", "movie_id = ?", event.getId());
+        readModelTables.delete("movies", event.getId());
+        movieProjection.evict(event.getId());
+    }
+
+    @ResetHandler
+    public void onReset() {
+        readModelTables.clearUnreferenced("movies", "show_times.movie_id", "showtime_view.movie_id");
+        movieProjection.evictAll();
+    }
+
+    private List<Object[]> pendingInserts() {
+        UnitOfWork<?> unitOfWork = CurrentUnitOfWork.get().root();
+        return unitOfWork.getOrComputeResource(PENDING_INSERTS, key -> {
+            List<Object[]> pending = new ArrayList<>();
+            unitOfWork.onPrepareCommit(u -> flush(pending));
+            return pending;
+        });
+    }
+
+    private void flushPendingInserts() {
+        if (CurrentUnitOfWork.isStarted()) {
+            List<Object[]> pending = CurrentUnitOfWork.get().root().getResource(PENDING_INSERTS);
+            if (pending != null) {
+                flush(pending);
+            }
+        }
+    }
+
+    private void flush(List<Object[]> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_MOVIE_SQL, pending);
+        log.debug("Inserted {} movies in one JDBC batch", pending.size());
+        pending.clear();
     }
 }
@@ -0,0 +1,23 @@
+package com.cinema.movies.command.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Chỉ mang các field đã đổi, field null là không đổi
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MoviePatchedEvent {
+    private String id;
+
+    private String title;
+
+    private String description;
+
+    private Integer duration; // Thời lượng tính bằng phút
+
+    private String posterUrl;
+}
@@ -0,0 +1,86 @@
+package com.cinema.movies.command.event;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.DisallowReplay;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.cinema.movies.config.ProjectionProcessingConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ghi mọi domain event vào bảng event_outbox để OutboxRelay publish sang Kafka.
+ *
+ * JdbcTemplate là của OutboxStore: processor outbox chạy trong transaction của database đó và
+ * token của nó nằm cùng database, nên dòng outbox và token được commit cùng nhau, batch lỗi thì
+ * cả hai cùng rollback và được xử lý lại. Mỗi event được stage đúng một lần; phía Kafka là
+ * at-least-once (xem OutboxRelay). Không chạy khi replay để consumer không nhận lại toàn bộ lịch sử.
+ *
+ * Bean do OutboxConfig tạo khi outbox.enabled=true.
+ */
+@ProcessingGroup(ProjectionProcessingConfig.OUTBOX_GROUP)
+@Slf4j
+public class OutboxEventHandler {
+
+    private static final String INSERT_OUTBOX_SQL = "INSERT INTO event_outbox "
+            + "(event_id, aggregate_id, event_type, payload, occurred_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String PENDING_MESSAGES = OutboxEventHandler.class.getName() + ".pendingMessages";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxEventHandler(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventHandler
+    @DisallowReplay
+    public void on(Object payload, EventMessage<?> message) throws JsonProcessingException {
+        String aggregateId = message instanceof DomainEventMessage<?> domainEvent
+                ? domainEvent.getAggregateIdentifier()
+                : message.getIdentifier();
+        Object[] row = { message.getIdentifier(), aggregateId, payload.getClass().getSimpleName(),
+                MAPPER.writeValueAsString(payload), Timestamp.from(message.getTimestamp()) };
+        if (!CurrentUnitOfWork.isStarted()) {
+            jdbcTemplate.update(INSERT_OUTBOX_SQL, row);
+            return;
+        }
+        pendingMessages().add(row);
+    }
+
+    // Cả batch của event processor được ghi bằng một lần JDBC batch trước khi commit
+    private List<Object[]> pendingMessages() {
+        UnitOfWork<?> unitOfWork = CurrentUnitOfWork.get().root();
+        return unitOfWork.getOrComputeResource(PENDING_MESSAGES, key -> {
+            List<Object[]> pending = new ArrayList<>();
+            unitOfWork.onPrepareCommit(u -> flush(pending));
+            return pending;
+        });
+    }
+
+    private void flush(List<Object[]> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, pending);
+        log.debug("Staged {} events in the outbox", pending.size());
+        pending.clear();
+    }
+}
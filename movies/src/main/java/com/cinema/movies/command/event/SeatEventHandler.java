@@ -1,29 +1,94 @@
 package com.cinema.movies.command.event;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.axonframework.config.ProcessingGroup;
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ResetHandler;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.cinema.movies.command.data.Cinema;
 import com.cinema.movies.command.data.Seat;
 import com.cinema.movies.command.data.Reponsitory.CinemaRepository;
 import com.cinema.movies.command.data.Reponsitory.SeatRepository;
+import com.cinema.movies.config.ProjectionProcessingConfig;
+import com.cinema.movies.service.replay.ReadModelNotReadyException;
+import com.cinema.movies.service.replay.ReadModelTables;
+
+import lombok.extern.slf4j.Slf4j;
 
 @Component
+@ProcessingGroup(ProjectionProcessingConfig.SEAT_GROUP)
+@Slf4j
 public class SeatEventHandler {
 
+    // MERGE giữ handler idempotent khi replay
+    private static final String UPSERT_SEAT_SQL = "MERGE INTO seats (id, cinema_id, seat_row, seat_number) "
+            + "KEY (id) VALUES (?, ?, ?, ?)";
+
+    private static final String PENDING_INSERTS = SeatEventHandler.class.getName() + ".pendingInserts";
+
     @Autowired
     private SeatRepository seatRepository;
 
     @Autowired
     private CinemaRepository cinemaRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReadModelTables readModelTables;
+
+    /**
+     * Ghế mới được gom lại theo unit of work (cả batch của event processor)
+     * và ghi bằng một lần JDBC batch trước khi commit.
+     */
+    @EventHandler
+    public void on(SeatCreatedEvent event) throws ReadModelNotReadyException {
+        if (readModelTables.requireRow("cinemas", event.getCinemaId(), cinemaRepository::existsById)) {
+            insert(event);
+        }
+    }
+
+    // Layout cả rạp: kiểm tra rạp một lần, mọi ghế vào cùng JDBC batch của unit of work
+    @EventHandler
+    public void on(SeatLayoutCreatedEvent event) throws ReadModelNotReadyException {
+        List<SeatCreatedEvent> seats = event.seats();
+        if (seats.isEmpty()
+                || !readModelTables.requireRow("cinemas", event.getCinemaId(), cinemaRepository::existsById)) {
+            return;
+        }
+        for (SeatCreatedEvent seat : seats) {
+            insert(seat);
+        }
+    }
+
+    private void insert(SeatCreatedEvent event) {
+        Object[] row = { event.getId(), event.getCinemaId(), event.getSeatRow(), event.getSeatNumber() };
+        if (!CurrentUnitOfWork.isStarted()) {
+            jdbcTemplate.update(UPSERT_SEAT_SQL, row);
+            return;
+        }
+        pendingInserts().add(row);
+    }
+
+    // Ghế layout nằm trong event của rạp, có thể ở segment khác chưa xử lý tới: event vào dead-letter
+    // và được thử lại sau. Ghế đã bị xoá theo rạp thì bỏ qua
     @EventHandler
     @Transactional
-    public void on(SeatCreatedEvent event) {
-        Seat seat = new Seat();
-        seat.setId(event.getId());
+    public void on(SeatUpdatedEvent event) throws ReadModelNotReadyException {
+        flushPendingInserts();
+        Seat seat = readModelTables.findRow("seats", event.getId(), seatRepository::findById).orElse(null);
+        if (seat == null
+                || !readModelTables.requireRow("cinemas", event.getCinemaId(), cinemaRepository::existsById)) {
+            return;
+        }
         seat.setCinema(cinemaRepository.getReferenceById(event.getCinemaId()));
         seat.setSeatRow(event.getSeatRow());
         seat.setSeatNumber(event.getSeatNumber());
@@ -32,19 +97,42 @@ public class SeatEventHandler {
 
     @EventHandler
     @Transactional
-    public void on(SeatUpdatedEvent event) {
-        Seat seat = seatRepository.findById(event.getId()).orElse(null);
-        if (seat != null) {
-            seat.setCinema(cinemaRepository.getReferenceById(event.getCinemaId()));
-            seat.setSeatRow(event.getSeatRow());
-            seat.setSeatNumber(event.getSeatNumber());
-            seatRepository.save(seat);
+    public void on(SeatDeletedEvent event) throws ReadModelNotReadyException {
+        flushPendingInserts();
+        if (readModelTables.requireRow("seats", event.getId(), seatRepository::existsById)) {
+            seatRepository.deleteById(event.getId());
         }
     }
 
-    @EventHandler
-    @Transactional
-    public void on(SeatDeletedEvent event) {
-        seatRepository.deleteById(event.getId());
+    @ResetHandler
+    public void onReset() {
+        readModelTables.clear("seats");
+    }
+
+    private List<Object[]> pendingInserts() {
+        UnitOfWork<?> unitOfWork = CurrentUnitOfWork.get().root();
+        return unitOfWork.getOrComputeResource(PENDING_INSERTS, key -> {
+            List<Object[]> pending = new ArrayList<>();
+            unitOfWork.onPrepareCommit(u -> flush(pending));
+            return pending;
+        });
+    }
+
+    private void flushPendingInserts() {
+        if (CurrentUnitOfWork.isStarted()) {
+            List<Object[]> pending = CurrentUnitOfWork.get().root().getResource(PENDING_INSERTS);
+            if (pending != null) {
+                flush(pending);
+            }
+        }
+    }
+
+    private void flush(List<Object[]> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SEAT_SQL, pending);
+        log.debug("Inserted {} seats in one JDBC batch", pending.size());
+        pending.clear();
     }
 }
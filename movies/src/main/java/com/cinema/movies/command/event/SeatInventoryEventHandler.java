@@ -0,0 +1,83 @@
+package com.cinema.movies.command.event;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.axonframework.eventhandling.EventHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.cinema.movies.service.inventory.CinemaSeatLayoutRegistry;
+import com.cinema.movies.service.inventory.SeatGrid;
+import com.cinema.movies.service.inventory.SeatInventoryService;
+
+/**
+ * Đồng bộ seat inventory trong bộ nhớ với ShowTime và Seat events.
+ *
+ * Ghế đã bán được dựng lại từ ShowTimeSeatsSoldEvent, nên mọi node (và mỗi lần
+ * khởi động lại) đều thấy cùng một trạng thái bán.
+ */
+@Component
+public class SeatInventoryEventHandler {
+
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
+    @Autowired
+    private CinemaSeatLayoutRegistry layoutRegistry;
+
+    @EventHandler
+    public void on(ShowTimeCreatedEvent event) {
+        seatInventoryService.registerShowTime(event.getId(), event.getCinemaId());
+    }
+
+    @EventHandler
+    public void on(ShowTimeUpdatedEvent event) {
+        seatInventoryService.moveShowTime(event.getId(), event.getCinemaId());
+    }
+
+    @EventHandler
+    public void on(ShowTimePatchedEvent event) {
+        if (event.getCinemaId() != null) {
+            seatInventoryService.moveShowTime(event.getId(), event.getCinemaId());
+        }
+    }
+
+    @EventHandler
+    public void on(ShowTimeSeatsSoldEvent event) {
+        seatInventoryService.markSold(event.getId(), event.getSeatIds());
+    }
+
+    @EventHandler
+    public void on(ShowTimeDeletedEvent event) {
+        seatInventoryService.removeShowTime(event.getId());
+    }
+
+    @EventHandler
+    public void on(SeatCreatedEvent event) {
+        layoutRegistry.addSeat(event.getId(), event.getCinemaId(), event.getSeatRow(), event.getSeatNumber());
+    }
+
+    @EventHandler
+    public void on(SeatLayoutCreatedEvent event) {
+        Map<String, Integer> seatIndexes = new HashMap<>();
+        for (SeatCreatedEvent seat : event.seats()) {
+            if (SeatGrid.isValid(seat.getSeatRow(), seat.getSeatNumber())) {
+                seatIndexes.put(seat.getId(), SeatGrid.index(seat.getSeatRow(), seat.getSeatNumber()));
+            }
+        }
+        if (!seatIndexes.isEmpty()) {
+            layoutRegistry.addSeats(event.getCinemaId(), seatIndexes);
+        }
+    }
+
+    @EventHandler
+    public void on(SeatUpdatedEvent event) {
+        layoutRegistry.moveSeat(event.getId(), event.getCinemaId(), event.getSeatRow(), event.getSeatNumber());
+    }
+
+    @EventHandler
+    public void on(SeatDeletedEvent event) {
+        layoutRegistry.removeSeat(event.getId());
+    }
+}
@@ -0,0 +1,57 @@
+package com.cinema.movies.command.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import org.axonframework.serialization.Revision;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cả layout ghế của một rạp trong một event: rows x numbers ghế, id ghế suy ra từ vị trí.
+ *
+ * Event cũ (generatedSeatIds = null) đi kèm một SeatCreatedEvent cho từng ghế nên không được mở rộng lại.
+ * Revision 2 là khi có generatedSeatIds; ở chế độ CBOR, event revision 1 được upcaster gán false.
+ */
+@Revision("2")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SeatLayoutCreatedEvent {
+    private String cinemaId;
+    private String fromRow;
+    private String toRow;
+    private Integer fromNumber;
+    private Integer toNumber;
+    private Integer seatCount;
+    private Boolean generatedSeatIds;
+
+    // Id cố định theo rạp + vị trí, để replay và mọi projection ra cùng một id
+    public static String seatId(String cinemaId, String seatRow, int seatNumber) {
+        return UUID.nameUUIDFromBytes((cinemaId + "/" + seatRow + "/" + seatNumber)
+                .getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * Các ghế của layout dưới dạng SeatCreatedEvent (không được publish), rỗng với event cũ.
+     */
+    public List<SeatCreatedEvent> seats() {
+        if (!Boolean.TRUE.equals(generatedSeatIds)) {
+            return List.of();
+        }
+        List<SeatCreatedEvent> seats = new ArrayList<>(seatCount != null ? seatCount : 0);
+        for (char row = fromRow.charAt(0); row <= toRow.charAt(0); row++) {
+            String seatRow = String.valueOf(row);
+            for (int number = fromNumber; number <= toNumber; number++) {
+                seats.add(new SeatCreatedEvent(seatId(cinemaId, seatRow, number), cinemaId, seatRow, number));
+            }
+        }
+        return seats;
+    }
+}
@@ -1,44 +1,101 @@
 package com.cinema.movies.command.event;
 
+import org.axonframework.config.ProcessingGroup;
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ResetHandler;
+import org.axonframework.eventhandling.SequenceNumber;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.cinema.movies.command.data.Movie;
-import com.cinema.movies.command.data.Cinema;
 import com.cinema.movies.command.data.ShowTime;
 import com.cinema.movies.command.data.Reponsitory.MovieRepository;
 import com.cinema.movies.command.data.Reponsitory.CinemaRepository;
 import com.cinema.movies.command.data.Reponsitory.ShowTimeRepository;
+import com.cinema.movies.command.data.Reponsitory.ShowTimeViewRepository;
+import com.cinema.movies.config.ProjectionProcessingConfig;
+import com.cinema.movies.service.replay.ReadModelNotReadyException;
+import com.cinema.movies.service.replay.ReadModelTables;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
+@ProcessingGroup(ProjectionProcessingConfig.SHOWTIME_GROUP)
+@Slf4j
 public class ShowTimeEventHandler {
 
+    // MERGE giữ handler idempotent khi replay
+    private static final String UPSERT_SHOWTIME_SQL = "MERGE INTO show_times "
+            + "(id, movie_id, cinema_id, start_time, price) KEY (id) VALUES (?, ?, ?, ?, ?)";
+
+    // Tên phim, thời lượng, poster và tên rạp copy từ movies/cinemas trong cùng câu lệnh
+    private static final String UPSERT_VIEW_SQL = "MERGE INTO showtime_view "
+            + "(id, movie_id, movie_title, movie_duration, poster_url, cinema_id, cinema_name, start_time, end_time, price) "
+            + "KEY (id) SELECT ?, m.id, m.title, m.duration, m.poster_url, c.id, c.name, CAST(? AS TIMESTAMP), "
+            + "DATEADD(MINUTE, m.duration, CAST(? AS TIMESTAMP)), ? FROM movies m, cinemas c WHERE m.id = ? AND c.id = ?";
+
+    // Copy lại thông tin phim/rạp hiện tại cho các dòng của view, giờ kết thúc tính lại trong DB
+    private static final String REFRESH_VIEW_SQL = "UPDATE showtime_view v SET "
+            + "movie_title = (SELECT m.title FROM movies m WHERE m.id = v.movie_id), "
+            + "movie_duration = (SELECT m.duration FROM movies m WHERE m.id = v.movie_id), "
+            + "poster_url = (SELECT m.poster_url FROM movies m WHERE m.id = v.movie_id), "
+            + "cinema_name = (SELECT c.name FROM cinemas c WHERE c.id = v.cinema_id), "
+            + "end_time = DATEADD(MINUTE, (SELECT m.duration FROM movies m WHERE m.id = v.movie_id), v.start_time) "
+            + "WHERE v.";
+
+    private static final String PENDING_INSERTS = ShowTimeEventHandler.class.getName() + ".pendingInserts";
+
     @Autowired
     private ShowTimeRepository showTimeRepository;
 
+    @Autowired
+    private ShowTimeViewRepository showTimeViewRepository;
+
     @Autowired
     private MovieRepository movieRepository;
 
     @Autowired
     private CinemaRepository cinemaRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReadModelTables readModelTables;
+
+    /**
+     * Suất chiếu mới được gom lại theo unit of work (cả lịch chiếu hàng loạt hoặc
+     * batch của event processor) và ghi show_times + showtime_view bằng JDBC batch.
+     */
     @EventHandler
-    @Transactional
-    public void on(ShowTimeCreatedEvent event) {
-        ShowTime showTime = new ShowTime();
-        showTime.setId(event.getId());
-        showTime.setMovie(movieRepository.getReferenceById(event.getMovieId()));
-        showTime.setCinema(cinemaRepository.getReferenceById(event.getCinemaId()));
-        showTime.setStartTime(event.getStartTime());
-        showTime.setPrice(event.getPrice());
-        showTimeRepository.save(showTime);
+    public void on(ShowTimeCreatedEvent event) throws ReadModelNotReadyException {
+        if (!requireReferences(event.getMovieId(), event.getCinemaId())) {
+            return;
+        }
+        if (!CurrentUnitOfWork.isStarted()) {
+            flush(new ArrayList<>(List.of(event)));
+            return;
+        }
+        pendingInserts().add(event);
     }
 
     @EventHandler
     @Transactional
-    public void on(ShowTimeUpdatedEvent event) {
+    public void on(ShowTimeUpdatedEvent event) throws ReadModelNotReadyException {
+        flushPendingInserts();
+        if (!requireReferences(event.getMovieId(), event.getCinemaId())) {
+            return;
+        }
         ShowTime showTime = showTimeRepository.findById(event.getId()).orElse(null);
         if (showTime != null) {
             showTime.setMovie(movieRepository.getReferenceById(event.getMovieId()));
@@ -46,12 +103,142 @@ public class ShowTimeEventHandler {
             showTime.setStartTime(event.getStartTime());
             showTime.setPrice(event.getPrice());
             showTimeRepository.save(showTime);
+            jdbcTemplate.update(UPSERT_VIEW_SQL, viewRow(event.getId(), event.getMovieId(), event.getCinemaId(),
+                    event.getStartTime(), event.getPrice()));
+        }
+    }
+
+    /**
+     * Chỉ ghi các cột có trong patch: một UPDATE mỗi bảng, không đọc lại suất chiếu.
+     * Đổi phim, rạp hoặc giờ chiếu thì copy lại thông tin phim/rạp của dòng đó.
+     */
+    @EventHandler
+    @Transactional
+    public void on(ShowTimePatchedEvent event) throws ReadModelNotReadyException {
+        flushPendingInserts();
+        if (!requireReferences(event.getMovieId(), event.getCinemaId())) {
+            return;
+        }
+        // show_times và showtime_view có cùng tên cột
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (event.getMovieId() != null) {
+            columns.put("movie_id", event.getMovieId());
+        }
+        if (event.getCinemaId() != null) {
+            columns.put("cinema_id", event.getCinemaId());
+        }
+        if (event.getStartTime() != null) {
+            columns.put("start_time", event.getStartTime());
+        }
+        if (event.getPrice() != null) {
+            columns.put("price", event.getPrice());
+        }
+
+        // Entity có thể đang nằm trong persistence context: ghi xuống trước khi UPDATE bằng JDBC
+        showTimeRepository.flush();
+        readModelTables.update("show_times", event.getId(), columns);
+        readModelTables.update("showtime_view", event.getId(), columns);
+        if (event.getMovieId() != null || event.getCinemaId() != null || event.getStartTime() != null) {
+            jdbcTemplate.update(REFRESH_VIEW_SQL + "id = ?", event.getId());
         }
     }
 
     @EventHandler
     @Transactional
     public void on(ShowTimeDeletedEvent event) {
+        flushPendingInserts();
         showTimeRepository.deleteById(event.getId());
+        showTimeViewRepository.deleteById(event.getId());
+    }
+
+    /*
+     * =======================
+     * ĐỒNG BỘ showtime_view KHI PHIM / RẠP ĐỔI THÔNG TIN
+     * =======================
+     *
+     * movies/cinemas do group khác ghi, có thể chưa tới event này (segment khác chậm hơn). Copy lại
+     * từ bảng cha chỉ khi dòng cha đã ở version của event, nếu không event vào dead-letter và thử lại.
+     * Suất chiếu tạo sau đó copy từ bảng cha đã mới, còn suất chiếu tạo trước được làm mới ở đây.
+     */
+
+    @EventHandler
+    public void on(MovieUpdatedEvent event, @SequenceNumber long version) throws ReadModelNotReadyException {
+        refreshMovie(event.getId(), version);
+    }
+
+    @EventHandler
+    public void on(MoviePatchedEvent event, @SequenceNumber long version) throws ReadModelNotReadyException {
+        refreshMovie(event.getId(), version);
+    }
+
+    @EventHandler
+    public void on(CinemaUpdatedEvent event, @SequenceNumber long version) throws ReadModelNotReadyException {
+        flushPendingInserts();
+        readModelTables.requireVersion("cinemas", event.getId(), version);
+        jdbcTemplate.update(REFRESH_VIEW_SQL + "cinema_id = ?", event.getId());
+    }
+
+    private void refreshMovie(String movieId, long version) throws ReadModelNotReadyException {
+        flushPendingInserts();
+        readModelTables.requireVersion("movies", movieId, version);
+        jdbcTemplate.update(REFRESH_VIEW_SQL + "movie_id = ?", movieId);
+    }
+
+    @ResetHandler
+    public void onReset() {
+        readModelTables.clear("show_times", "showtime_view");
+    }
+
+    /**
+     * Phim/rạp do group khác ghi: kiểm tra trước để event tới sớm vào dead-letter thay vì làm hỏng batch.
+     *
+     * @return false nếu phim hoặc rạp đã bị xoá (suất chiếu bị xoá theo), handler bỏ qua event
+     */
+    private boolean requireReferences(String movieId, String cinemaId) throws ReadModelNotReadyException {
+        return readModelTables.requireRow("movies", movieId, movieRepository::existsById)
+                && readModelTables.requireRow("cinemas", cinemaId, cinemaRepository::existsById);
+    }
+
+    private List<ShowTimeCreatedEvent> pendingInserts() {
+        UnitOfWork<?> unitOfWork = CurrentUnitOfWork.get().root();
+        return unitOfWork.getOrComputeResource(PENDING_INSERTS, key -> {
+            List<ShowTimeCreatedEvent> pending = new ArrayList<>();
+            unitOfWork.onPrepareCommit(u -> flush(pending));
+            return pending;
+        });
+    }
+
+    private void flushPendingInserts() {
+        if (CurrentUnitOfWork.isStarted()) {
+            List<ShowTimeCreatedEvent> pending = CurrentUnitOfWork.get().root().getResource(PENDING_INSERTS);
+            if (pending != null) {
+                flush(pending);
+            }
+        }
+    }
+
+    private void flush(List<ShowTimeCreatedEvent> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // Phim/rạp vừa tạo trong cùng transaction phải xuống DB trước khi chèn khóa ngoại bằng JDBC
+        showTimeRepository.flush();
+
+        List<Object[]> showTimeRows = new ArrayList<>(pending.size());
+        List<Object[]> viewRows = new ArrayList<>(pending.size());
+        for (ShowTimeCreatedEvent event : pending) {
+            showTimeRows.add(new Object[] { event.getId(), event.getMovieId(), event.getCinemaId(),
+                    event.getStartTime(), event.getPrice() });
+            viewRows.add(viewRow(event.getId(), event.getMovieId(), event.getCinemaId(), event.getStartTime(),
+                    event.getPrice()));
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SHOWTIME_SQL, showTimeRows);
+        jdbcTemplate.batchUpdate(UPSERT_VIEW_SQL, viewRows);
+        log.debug("Inserted {} showtimes in one JDBC batch", pending.size());
+        pending.clear();
+    }
+
+    private Object[] viewRow(String id, String movieId, String cinemaId, LocalDateTime startTime, BigDecimal price) {
+        return new Object[] { id, startTime, startTime, price, movieId, cinemaId };
     }
 }
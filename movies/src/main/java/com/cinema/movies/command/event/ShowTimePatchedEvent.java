@@ -0,0 +1,22 @@
+package com.cinema.movies.command.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Chỉ mang các field đã đổi, field null là không đổi
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShowTimePatchedEvent {
+    private String id;
+    private String movieId;
+    private String cinemaId;
+    private LocalDateTime startTime;
+    private BigDecimal price;
+}
@@ -0,0 +1,15 @@
+package com.cinema.movies.command.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShowTimePlanCreatedEvent {
+    private String id;
+    private Integer showTimeCount;
+}
@@ -0,0 +1,28 @@
+package com.cinema.movies.command.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShowTimeScheduleCreatedEvent {
+    private String id;
+    private String movieId;
+    private String cinemaId;
+    private List<DayOfWeek> daysOfWeek;
+    private List<LocalTime> startTimes;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private BigDecimal price;
+    private Integer showTimeCount;
+}
@@ -0,0 +1,78 @@
+package com.cinema.movies.command.event;
+
+import java.time.LocalDateTime;
+
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.SequenceNumber;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.cinema.movies.service.schedule.ShowTimeScheduleIndex;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dựng lại lịch chiếu theo rạp từ ShowTime events (khởi động lại / replay). Sequence number của
+ * event đi kèm để index bỏ qua event cũ hơn chỗ command vừa giữ.
+ *
+ * Thời lượng phim cũng lấy từ Movie events trong cùng processor, không đọc bảng movies.
+ */
+@Component
+@Slf4j
+public class ShowTimeScheduleEventHandler {
+
+    @Autowired
+    private ShowTimeScheduleIndex scheduleIndex;
+
+    @EventHandler
+    public void on(MovieCreateEvent event) {
+        scheduleIndex.recordMovieDuration(event.getId(), event.getDuration());
+    }
+
+    @EventHandler
+    public void on(MovieUpdatedEvent event) {
+        scheduleIndex.recordMovieDuration(event.getId(), event.getDuration());
+    }
+
+    @EventHandler
+    public void on(MoviePatchedEvent event) {
+        scheduleIndex.recordMovieDuration(event.getId(), event.getDuration());
+    }
+
+    @EventHandler
+    public void on(ShowTimeCreatedEvent event, @SequenceNumber long version) {
+        apply(event.getId(), event.getCinemaId(), event.getMovieId(), event.getStartTime(), version);
+    }
+
+    @EventHandler
+    public void on(ShowTimeUpdatedEvent event, @SequenceNumber long version) {
+        apply(event.getId(), event.getCinemaId(), event.getMovieId(), event.getStartTime(), version);
+    }
+
+    @EventHandler
+    public void on(ShowTimePatchedEvent event, @SequenceNumber long version) {
+        if (event.getCinemaId() == null && event.getMovieId() == null && event.getStartTime() == null) {
+            return; // Đổi giá không ảnh hưởng lịch
+        }
+        try {
+            scheduleIndex.applyPatch(event.getId(), event.getCinemaId(), event.getMovieId(), event.getStartTime(),
+                    version);
+        } catch (IllegalArgumentException e) {
+            log.warn("Skip schedule slot for showtime {}: {}", event.getId(), e.getMessage());
+        }
+    }
+
+    @EventHandler
+    public void on(ShowTimeDeletedEvent event) {
+        scheduleIndex.removeDeleted(event.getId());
+    }
+
+    private void apply(String showTimeId, String cinemaId, String movieId, LocalDateTime startTime, long version) {
+        try {
+            scheduleIndex.apply(showTimeId, cinemaId, movieId, startTime, version);
+        } catch (IllegalArgumentException e) {
+            // Phim chưa từng có Movie event hoặc thiếu rạp/phim (dữ liệu hỏng): không chặn lịch
+            log.warn("Skip schedule slot for showtime {}: {}", showTimeId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.cinema.movies.command.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShowTimeSeatsSoldEvent {
+    private String id;
+    private String holdId;
+    private List<String> seatIds;
+}
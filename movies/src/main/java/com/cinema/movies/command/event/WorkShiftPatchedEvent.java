@@ -0,0 +1,20 @@
+package com.cinema.movies.command.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Chỉ mang các field đã đổi, field null là không đổi
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WorkShiftPatchedEvent {
+    private String id;
+    private String employeeId;
+    private String shiftName;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Boolean isAttended;
+}
@@ -0,0 +1,665 @@
+package com.cinema.movies.command.eventstore;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.Deflater;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.eventhandling.DomainEventData;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericDomainEventEntry;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.TrackedDomainEventData;
+import org.axonframework.eventhandling.TrackedEventData;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventhandling.WrappedToken;
+import org.axonframework.eventsourcing.eventstore.AbstractEventStorageEngine;
+import org.axonframework.eventsourcing.snapshotting.SnapshotFilter;
+import org.axonframework.modelling.command.ConcurrencyException;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.upcasting.event.EventUpcaster;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Event storage engine ghi event vào các file segment memory-map chỉ ghi nối tiếp, thay cho
+ * bảng domain_event_entry trong H2 in-memory.
+ *
+ * Global index của event là số thứ tự liên tục từ 0 (không có gap), dùng làm
+ * GlobalSequenceTrackingToken cho streaming processor. Khi khởi động engine duyệt lại các
+ * segment để dựng index trong bộ nhớ: vị trí theo global index và, cho từng aggregate, danh sách
+ * (sequence number, vị trí) để nạp aggregate mà không phải quét cả log. Snapshot nằm trong log
+ * riêng, chỉ giữ vị trí của snapshot mới nhất mỗi aggregate; khi log đó có nhiều segment hơn
+ * khoảng hai lần phần còn dùng, snapshot mới nhất được chép lên cuối log và các segment cũ bị xoá.
+ *
+ * Chỉ một thread ghi tại một thời điểm; số event được công bố qua biến volatile sau khi cả batch
+ * đã nằm trong segment, nên thread đọc luôn thấy trọn batch hoặc không thấy gì. Bản ghi cuối của
+ * batch commit cả batch trong log, nên batch ghi dở khi tiến trình chết bị bỏ toàn bộ lúc khởi động.
+ *
+ * Segment event đã đóng và đủ cũ có thể chuyển sang {@link SegmentArchive} (xem
+ * {@link #archiveSegments(Instant)}). Index trong bộ nhớ vẫn giữ đủ vị trí, nên sourcing và replay
+ * chạm tới event đã archive chỉ tải lại segment đó theo yêu cầu.
+ */
+@Slf4j
+public class MappedSegmentEventStorageEngine extends AbstractEventStorageEngine implements AutoCloseable {
+
+    private static final String EVENT_SUFFIX = ".events";
+    private static final String SNAPSHOT_SUFFIX = ".snapshots";
+
+    private final SegmentLog events;
+    private final SegmentLog snapshots;
+    private final int segmentSize;
+    private final boolean forceOnAppend;
+    private final int compressionLevel;
+
+    private final Map<String, AggregateIndex> aggregates = new ConcurrentHashMap<>();
+    private final Map<String, Long> latestSnapshots = new ConcurrentHashMap<>();
+    // Đọc snapshot giữ read lock, xoá segment snapshot cũ giữ write lock
+    private final ReadWriteLock snapshotSegments = new ReentrantReadWriteLock();
+    private long liveSnapshotBytes;
+    private volatile long[] globalPositions = new long[1024];
+    private volatile long eventCount;
+
+    protected MappedSegmentEventStorageEngine(Builder builder) {
+        super(builder);
+        this.segmentSize = builder.segmentSize;
+        this.forceOnAppend = builder.forceOnAppend;
+        this.compressionLevel = builder.compressionLevel;
+        this.events = new SegmentLog(builder.storageDirectory, EVENT_SUFFIX, builder.segmentSize,
+                builder.segmentArchive, builder.restoredSegments);
+        this.snapshots = new SegmentLog(builder.storageDirectory, SNAPSHOT_SUFFIX, builder.segmentSize);
+
+        long start = System.nanoTime();
+        events.recover((position, buffer, offset, length) -> index(position, decodeHeader(buffer, offset)));
+        snapshots.recover((position, buffer, offset, length) ->
+                replaceSnapshot(decodeHeader(buffer, offset).aggregateIdentifier, position, length));
+        log.info("Opened event store {} with {} events in {} segments ({} archived, {} aggregates) in {} ms",
+                builder.storageDirectory, eventCount, events.segmentCount(), events.archivedCount(),
+                aggregates.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /*
+     * =======================
+     * APPEND
+     * =======================
+     */
+
+    @Override
+    protected synchronized void appendEvents(List<? extends EventMessage<?>> events, Serializer serializer) {
+        if (events.isEmpty()) {
+            return;
+        }
+        // Kiểm tra trùng sequence trước khi ghi bất kỳ event nào để batch không bị ghi dở
+        Map<String, Long> batchSequences = new HashMap<>();
+        for (EventMessage<?> event : events) {
+            if (event instanceof DomainEventMessage<?> message && message.getType() != null) {
+                long last = batchSequences.computeIfAbsent(message.getAggregateIdentifier(),
+                        id -> lastSequence(id).orElse(-1L));
+                if (message.getSequenceNumber() <= last) {
+                    throw new ConcurrencyException(String.format(
+                            "An event for aggregate [%s] at sequence [%d] was already inserted",
+                            message.getAggregateIdentifier(), message.getSequenceNumber()));
+                }
+                batchSequences.put(message.getAggregateIdentifier(), message.getSequenceNumber());
+            }
+        }
+
+        long globalIndex = eventCount;
+        int remaining = events.size();
+        for (EventMessage<?> event : events) {
+            byte[] record = encode(globalIndex, event, serializer);
+            long position = this.events.append(record, --remaining == 0);
+            if (event instanceof DomainEventMessage<?> message && message.getType() != null) {
+                indexPending(position, globalIndex, message.getAggregateIdentifier(), message.getSequenceNumber());
+            } else {
+                indexPending(position, globalIndex, null, 0);
+            }
+            globalIndex++;
+        }
+        if (forceOnAppend) {
+            this.events.force();
+        }
+        publish(globalIndex);
+    }
+
+    @Override
+    protected synchronized void storeSnapshot(DomainEventMessage<?> snapshot, Serializer serializer) {
+        byte[] record = encode(-1, snapshot, serializer);
+        long position = snapshots.append(record);
+        if (forceOnAppend) {
+            snapshots.force();
+        }
+        replaceSnapshot(snapshot.getAggregateIdentifier(), position, record.length);
+        if (snapshots.liveSegmentCount() > 2 * segmentsFor(liveSnapshotBytes) + 1) {
+            compactSnapshots();
+        }
+    }
+
+    /**
+     * Chép snapshot mới nhất của mọi aggregate còn nằm ở segment cũ lên cuối log rồi xoá các segment
+     * cũ. Bản chép giống hệt bản gốc, nên crash giữa chừng chỉ để lại bản ghi thừa: khi khởi động
+     * bản ghi sau cùng của mỗi aggregate vẫn là snapshot mới nhất.
+     */
+    private void compactSnapshots() {
+        long start = System.nanoTime();
+        int firstKept = snapshots.segmentCount() - 1;
+        int copied = 0;
+        for (Map.Entry<String, Long> snapshot : latestSnapshots.entrySet()) {
+            long position = snapshot.getValue();
+            if (SegmentLog.segmentOf(position) < firstKept) {
+                byte[] record = snapshots.read(position);
+                snapshot.setValue(snapshots.append(record));
+                copied++;
+            }
+        }
+        // Bản chép phải nằm trên đĩa trước khi xoá bản gốc
+        snapshots.force();
+        snapshotSegments.writeLock().lock();
+        try {
+            snapshots.dropBefore(firstKept);
+        } finally {
+            snapshotSegments.writeLock().unlock();
+        }
+        log.info("Compacted snapshot log: copied {} snapshots, {} segments left in {} ms", copied,
+                snapshots.liveSegmentCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void replaceSnapshot(String aggregateIdentifier, long position, int length) {
+        Long previous = latestSnapshots.put(aggregateIdentifier, position);
+        if (previous != null) {
+            liveSnapshotBytes -= SegmentLog.HEADER_SIZE + snapshots.length(previous);
+        }
+        liveSnapshotBytes += SegmentLog.HEADER_SIZE + length;
+    }
+
+    private int segmentsFor(long bytes) {
+        return (int) ((bytes + segmentSize - 1) / segmentSize);
+    }
+
+    /*
+     * =======================
+     * READ
+     * =======================
+     */
+
+    @Override
+    protected Stream<? extends DomainEventData<?>> readEventData(String identifier, long firstSequenceNumber) {
+        AggregateIndex index = aggregates.get(identifier);
+        if (index == null) {
+            return Stream.empty();
+        }
+        int size = index.size;
+        long[] sequences = index.sequences;
+        long[] positions = index.positions;
+        int from = Arrays.binarySearch(sequences, 0, size, firstSequenceNumber);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        return range(from, size, i -> decode(events, positions[(int) i]));
+    }
+
+    @Override
+    protected Stream<? extends TrackedEventData<?>> readEventData(TrackingToken trackingToken, boolean mayBlock) {
+        long from = nextIndex(trackingToken);
+        long to = eventCount;
+        long[] positions = globalPositions;
+        return range(from, to, i -> new TrackedDomainEventData<>(new GlobalSequenceTrackingToken(i),
+                decode(events, positions[(int) i])));
+    }
+
+    @Override
+    protected Stream<? extends DomainEventData<?>> readSnapshotData(String aggregateIdentifier) {
+        snapshotSegments.readLock().lock();
+        try {
+            Long position = latestSnapshots.get(aggregateIdentifier);
+            return position == null ? Stream.empty() : Stream.of(decode(snapshots, position));
+        } finally {
+            snapshotSegments.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Long> lastSequenceNumberFor(String aggregateIdentifier) {
+        return lastSequence(aggregateIdentifier);
+    }
+
+    @Override
+    public TrackingToken createTailToken() {
+        return eventCount == 0 ? null : new GlobalSequenceTrackingToken(-1);
+    }
+
+    @Override
+    public TrackingToken createHeadToken() {
+        long count = eventCount;
+        return count == 0 ? null : new GlobalSequenceTrackingToken(count - 1);
+    }
+
+    @Override
+    public TrackingToken createTokenAt(Instant dateTime) {
+        // Timestamp tăng theo thứ tự ghi nên tìm nhị phân event đầu tiên không sớm hơn dateTime
+        long count = eventCount;
+        long[] positions = globalPositions;
+        long low = 0;
+        long high = count;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (timestampAt(positions[(int) mid]).isBefore(dateTime)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low == count) {
+            return createHeadToken();
+        }
+        return low == 0 ? createTailToken() : new GlobalSequenceTrackingToken(low - 1);
+    }
+
+    /*
+     * =======================
+     * ARCHIVE
+     * =======================
+     */
+
+    /**
+     * Archive các segment event đã đóng mà event mới nhất cũ hơn {@code olderThan}. Segment được
+     * ghi theo thứ tự thời gian nên dừng ở segment đầu tiên còn mới. Không giữ lock ghi trong lúc
+     * nén và upload, command vẫn ghi vào segment đang mở bình thường.
+     *
+     * @return số segment vừa được archive
+     */
+    public int archiveSegments(Instant olderThan) {
+        int archivedSegments = 0;
+        for (int segment = 0; segment < events.segmentCount() - 1; segment++) {
+            if (events.isArchived(segment)) {
+                continue;
+            }
+            long last = lastIndexIn(segment);
+            if (last >= 0 && !timestampAt(globalPositions[(int) last]).isBefore(olderThan)) {
+                break;
+            }
+            SegmentLog.ArchivedSegment result = events.archive(segment, compressionLevel,
+                    MappedSegmentEventStorageEngine::headerLength);
+            log.info("Archived event segment {} as {} ({} -> {} bytes)", segment, result.key(), result.length(),
+                    result.compressedLength());
+            archivedSegments++;
+        }
+        return archivedSegments;
+    }
+
+    public int archivedSegmentCount() {
+        return events.archivedCount();
+    }
+
+    // Global index lớn nhất nằm trong segment, -1 nếu segment không có event
+    private long lastIndexIn(int segment) {
+        long[] positions = globalPositions;
+        long boundary = (long) (segment + 1) << 32;
+        long low = 0;
+        long high = eventCount;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (positions[(int) mid] < boundary) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low > 0 && positions[(int) (low - 1)] >>> 32 == segment ? low - 1 : -1;
+    }
+
+    @Override
+    public void close() {
+        events.close();
+        snapshots.close();
+    }
+
+    private Optional<Long> lastSequence(String aggregateIdentifier) {
+        AggregateIndex index = aggregates.get(aggregateIdentifier);
+        if (index == null) {
+            return Optional.empty();
+        }
+        int size = index.size;
+        return size == 0 ? Optional.empty() : Optional.of(index.sequences[size - 1]);
+    }
+
+    private static long nextIndex(TrackingToken trackingToken) {
+        TrackingToken token = WrappedToken.unwrapLowerBound(trackingToken);
+        if (token == null) {
+            return 0;
+        }
+        if (!(token instanceof GlobalSequenceTrackingToken globalToken)) {
+            throw new IllegalArgumentException("Unsupported token format: " + trackingToken);
+        }
+        return globalToken.getGlobalIndex() + 1;
+    }
+
+    private static <T> Stream<T> range(long from, long to, LongFunction<T> reader) {
+        if (from >= to) {
+            return Stream.empty();
+        }
+        // Đọc lười từng event, stream dài (replay) không phải giải mã trước toàn bộ
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<T>(to - from,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED) {
+            private long next = from;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (next >= to) {
+                    return false;
+                }
+                action.accept(reader.apply(next++));
+                return true;
+            }
+        }, false);
+    }
+
+    /*
+     * =======================
+     * INDEX
+     * =======================
+     */
+
+    private void index(long position, RecordHeader header) {
+        if (header.globalIndex != eventCount) {
+            throw new IllegalStateException("Event store is corrupt: expected global index " + eventCount
+                    + " but found " + header.globalIndex);
+        }
+        indexPending(position, header.globalIndex, header.type != null ? header.aggregateIdentifier : null,
+                header.sequenceNumber);
+        publish(header.globalIndex + 1);
+    }
+
+    private void indexPending(long position, long globalIndex, String aggregateIdentifier, long sequenceNumber) {
+        long[] positions = globalPositions;
+        if (globalIndex >= positions.length) {
+            positions = Arrays.copyOf(positions, positions.length * 2);
+            globalPositions = positions;
+        }
+        positions[(int) globalIndex] = position;
+        if (aggregateIdentifier != null) {
+            aggregates.computeIfAbsent(aggregateIdentifier, id -> new AggregateIndex()).add(sequenceNumber, position);
+        }
+    }
+
+    private void publish(long count) {
+        eventCount = count;
+    }
+
+    private static final class AggregateIndex {
+
+        private volatile long[] sequences = new long[4];
+        private volatile long[] positions = new long[4];
+        private volatile int size;
+
+        void add(long sequenceNumber, long position) {
+            int current = size;
+            if (current == sequences.length) {
+                positions = Arrays.copyOf(positions, current * 2);
+                sequences = Arrays.copyOf(sequences, current * 2);
+            }
+            positions[current] = position;
+            sequences[current] = sequenceNumber;
+            size = current + 1;
+        }
+    }
+
+    /*
+     * =======================
+     * RECORD FORMAT
+     * =======================
+     *
+     * long globalIndex, long epochSecond, int nano, long sequenceNumber,
+     * string type, string aggregateIdentifier, string eventIdentifier,
+     * string payloadType, string payloadRevision, bytes payload, bytes metaData
+     * (string/bytes: int độ dài, -1 là null)
+     */
+
+    // Event không thuộc aggregate được ghi với type null, aggregateIdentifier là id của event
+    private static byte[] encode(long globalIndex, EventMessage<?> message, Serializer serializer) {
+        DomainEventMessage<?> domainMessage = message instanceof DomainEventMessage<?> domain ? domain : null;
+        SerializedObject<byte[]> payload = message.serializePayload(serializer, byte[].class);
+        SerializedObject<byte[]> metaData = message.serializeMetaData(serializer, byte[].class);
+        byte[] type = utf8(domainMessage != null ? domainMessage.getType() : null);
+        byte[] aggregateIdentifier = utf8(domainMessage != null ? domainMessage.getAggregateIdentifier()
+                : message.getIdentifier());
+        byte[] eventIdentifier = utf8(message.getIdentifier());
+        byte[] payloadType = utf8(payload.getType().getName());
+        byte[] payloadRevision = utf8(payload.getType().getRevision());
+
+        int size = 8 + 8 + 4 + 8 + sized(type) + sized(aggregateIdentifier) + sized(eventIdentifier)
+                + sized(payloadType) + sized(payloadRevision) + sized(payload.getData()) + sized(metaData.getData());
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(globalIndex);
+        buffer.putLong(message.getTimestamp().getEpochSecond());
+        buffer.putInt(message.getTimestamp().getNano());
+        buffer.putLong(domainMessage != null ? domainMessage.getSequenceNumber() : 0L);
+        put(buffer, type);
+        put(buffer, aggregateIdentifier);
+        put(buffer, eventIdentifier);
+        put(buffer, payloadType);
+        put(buffer, payloadRevision);
+        put(buffer, payload.getData());
+        put(buffer, metaData.getData());
+        return buffer.array();
+    }
+
+    private static GenericDomainEventEntry<byte[]> decode(SegmentLog log, long position) {
+        ByteBuffer buffer = log.segment(position);
+        Reader reader = new Reader(buffer, SegmentLog.offset(position));
+        reader.offset += 8;
+        Instant timestamp = Instant.ofEpochSecond(reader.getLong(), reader.getInt());
+        long sequenceNumber = reader.getLong();
+        String type = reader.getString();
+        String aggregateIdentifier = reader.getString();
+        String eventIdentifier = reader.getString();
+        String payloadType = reader.getString();
+        String payloadRevision = reader.getString();
+        byte[] payload = reader.getBytes();
+        byte[] metaData = reader.getBytes();
+        return new GenericDomainEventEntry<>(type, aggregateIdentifier, sequenceNumber, eventIdentifier, timestamp,
+                payloadType, payloadRevision, payload, metaData);
+    }
+
+    private static RecordHeader decodeHeader(ByteBuffer buffer, int offset) {
+        Reader reader = new Reader(buffer, offset);
+        long globalIndex = reader.getLong();
+        reader.offset += 12;
+        long sequenceNumber = reader.getLong();
+        String type = reader.getString();
+        String aggregateIdentifier = reader.getString();
+        return new RecordHeader(globalIndex, sequenceNumber, type, aggregateIdentifier);
+    }
+
+    // Phần đầu bản ghi mà decodeHeader cần: tới hết aggregateIdentifier
+    private static int headerLength(ByteBuffer buffer, int offset) {
+        int length = 28;
+        for (int i = 0; i < 2; i++) {
+            int size = buffer.getInt(offset + length);
+            length += 4 + Math.max(size, 0);
+        }
+        return length;
+    }
+
+    private Instant timestampAt(long position) {
+        ByteBuffer buffer = events.segment(position);
+        int offset = SegmentLog.offset(position) + 8;
+        return Instant.ofEpochSecond(buffer.getLong(offset), buffer.getInt(offset + 8));
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int sized(byte[] value) {
+        return 4 + (value == null ? 0 : value.length);
+    }
+
+    private static void put(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+    }
+
+    private record RecordHeader(long globalIndex, long sequenceNumber, String type, String aggregateIdentifier) {
+    }
+
+    // Đọc theo vị trí tuyệt đối để nhiều thread dùng chung một buffer
+    private static final class Reader {
+
+        private final ByteBuffer buffer;
+        private int offset;
+
+        Reader(ByteBuffer buffer, int offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+
+        long getLong() {
+            long value = buffer.getLong(offset);
+            offset += 8;
+            return value;
+        }
+
+        int getInt() {
+            int value = buffer.getInt(offset);
+            offset += 4;
+            return value;
+        }
+
+        byte[] getBytes() {
+            int length = getInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] value = new byte[length];
+            buffer.get(offset, value);
+            offset += length;
+            return value;
+        }
+
+        String getString() {
+            byte[] value = getBytes();
+            return value == null ? null : new String(value, StandardCharsets.UTF_8);
+        }
+    }
+
+    /*
+     * =======================
+     * BUILDER
+     * =======================
+     */
+
+    public static class Builder extends AbstractEventStorageEngine.Builder {
+
+        private Path storageDirectory;
+        private int segmentSize = 64 * 1024 * 1024;
+        private boolean forceOnAppend;
+        private SegmentArchive segmentArchive;
+        private int restoredSegments = 2;
+        private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+        @Override
+        public Builder snapshotSerializer(Serializer snapshotSerializer) {
+            super.snapshotSerializer(snapshotSerializer);
+            return this;
+        }
+
+        @Override
+        public Builder upcasterChain(EventUpcaster upcasterChain) {
+            super.upcasterChain(upcasterChain);
+            return this;
+        }
+
+        @Override
+        public Builder eventSerializer(Serializer eventSerializer) {
+            super.eventSerializer(eventSerializer);
+            return this;
+        }
+
+        @Override
+        public Builder snapshotFilter(SnapshotFilter snapshotFilter) {
+            super.snapshotFilter(snapshotFilter);
+            return this;
+        }
+
+        public Builder storageDirectory(Path storageDirectory) {
+            this.storageDirectory = storageDirectory;
+            return this;
+        }
+
+        public Builder segmentSize(int segmentSize) {
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        // Gọi force() sau mỗi batch: chịu được mất điện, không chỉ restart tiến trình
+        public Builder forceOnAppend(boolean forceOnAppend) {
+            this.forceOnAppend = forceOnAppend;
+            return this;
+        }
+
+        // Nơi chứa segment đã archive; cần cả khi chỉ đọc lại store đã có segment archive
+        public Builder segmentArchive(SegmentArchive segmentArchive) {
+            this.segmentArchive = segmentArchive;
+            return this;
+        }
+
+        // Số segment archive đã giải nén được giữ trong heap
+        public Builder restoredSegments(int restoredSegments) {
+            this.restoredSegments = restoredSegments;
+            return this;
+        }
+
+        public Builder compressionLevel(int compressionLevel) {
+            this.compressionLevel = compressionLevel;
+            return this;
+        }
+
+        public MappedSegmentEventStorageEngine build() {
+            return new MappedSegmentEventStorageEngine(this);
+        }
+
+        @Override
+        protected void validate() throws AxonConfigurationException {
+            super.validate();
+            if (storageDirectory == null) {
+                throw new AxonConfigurationException("The storage directory is a hard requirement");
+            }
+            if (segmentSize < 1024) {
+                throw new AxonConfigurationException("Segment size must be at least 1 KB");
+            }
+            if (restoredSegments < 1) {
+                throw new AxonConfigurationException("At least one restored segment must be cached");
+            }
+            if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+                throw new AxonConfigurationException("Compression level must be between -1 and 9");
+            }
+        }
+    }
+}
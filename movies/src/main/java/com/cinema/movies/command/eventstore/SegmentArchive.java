@@ -0,0 +1,12 @@
+package com.cinema.movies.command.eventstore;
+
+/**
+ * Kho lưu segment event đã nén khi rời khỏi ổ đĩa cục bộ (object storage). Engine chỉ ghi mỗi
+ * key một lần và đọc lại theo yêu cầu khi sourcing/replay chạm tới segment đã archive.
+ */
+public interface SegmentArchive {
+
+    void put(String key, byte[] data);
+
+    byte[] get(String key);
+}
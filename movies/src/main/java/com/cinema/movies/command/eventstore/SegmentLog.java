@@ -0,0 +1,521 @@
+package com.cinema.movies.command.eventstore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import org.axonframework.eventsourcing.eventstore.EventStoreException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Log chỉ ghi nối tiếp, chia thành các file segment kích thước cố định được memory-map.
+ *
+ * Mỗi bản ghi gồm [int độ dài][int crc32][dữ liệu]. Phần chưa ghi của segment toàn byte 0 nên
+ * độ dài 0 đánh dấu hết dữ liệu. Vị trí của bản ghi là (số segment << 32 | offset). Chỉ một
+ * thread được ghi (engine giữ lock), thread đọc chỉ đọc theo vị trí tuyệt đối trên buffer nên
+ * không cần đồng bộ thêm ngoài việc engine công bố số bản ghi qua biến volatile sau khi ghi.
+ *
+ * Nhiều bản ghi có thể thuộc một batch: mọi bản ghi trừ bản cuối mang bit {@link #CONTINUED} trong
+ * độ dài, bản cuối (không có bit) commit cả batch. Khi khởi động, batch chưa có bản commit bị
+ * cắt bỏ toàn bộ. Bản ghi ghi trước khi có định dạng này không mang bit nên mỗi bản là một batch.
+ *
+ * Segment đã đóng có thể được nén (deflate) và chuyển sang {@link SegmentArchive}. File segment
+ * được thay bằng file con trỏ nhỏ (hậu tố .archived) chứa key của object và phần đầu mỗi bản ghi,
+ * đủ để dựng lại index khi khởi động mà không tải segment về. Khi cần đọc, segment được tải và
+ * giải nén vào heap, giữ vài segment gần nhất trong cache LRU. Vị trí bản ghi không đổi.
+ *
+ * Segment đầu log không còn bản ghi nào cần giữ có thể bị xoá ({@link #dropBefore(int)}); số
+ * segment vẫn giữ nguyên nên khoảng trống trong dãy file là segment đã xoá.
+ */
+@Slf4j
+class SegmentLog implements AutoCloseable {
+
+    static final int HEADER_SIZE = 8;
+    // Bit trong độ dài: bản ghi chưa phải cuối batch
+    static final int CONTINUED = 0x40000000;
+
+    private static final String ARCHIVED_SUFFIX = ".archived";
+    private static final int ARCHIVED_MAGIC = 0x53454741;
+
+    private final Path directory;
+    private final String suffix;
+    private final int segmentSize;
+    private final SegmentArchive archive;
+    // Phần tử null là segment đã archive
+    private final List<MappedByteBuffer> segments = new CopyOnWriteArrayList<>();
+    private final Map<Integer, ArchivedSegment> archived = new ConcurrentHashMap<>();
+    private final Map<Integer, ByteBuffer> restored;
+    private final Object archiveLock = new Object();
+    private int writeOffset;
+
+    SegmentLog(Path directory, String suffix, int segmentSize) {
+        this(directory, suffix, segmentSize, null, 0);
+    }
+
+    SegmentLog(Path directory, String suffix, int segmentSize, SegmentArchive archive, int restoredSegments) {
+        this.directory = directory;
+        this.suffix = suffix;
+        this.segmentSize = segmentSize;
+        this.archive = archive;
+        this.restored = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ByteBuffer> eldest) {
+                return size() > restoredSegments;
+            }
+        };
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                List<Path> existing = files.filter(path -> path.getFileName().toString().endsWith(suffix)
+                        || path.getFileName().toString().endsWith(suffix + ARCHIVED_SUFFIX))
+                        .sorted()
+                        .toList();
+                for (Path file : existing) {
+                    int segment = Integer.parseInt(file.getFileName().toString().substring(0, 10));
+                    while (segments.size() < segment) {
+                        // Segment đã bị xoá
+                        segments.add(null);
+                    }
+                    if (file.getFileName().toString().endsWith(ARCHIVED_SUFFIX)) {
+                        // Archive xong nhưng chưa kịp xoá file segment: con trỏ là bản đúng
+                        Files.deleteIfExists(directory.resolve(fileName(segment)));
+                        archived.put(segment, readPointer(file));
+                        segments.add(null);
+                    } else if (!Files.exists(directory.resolve(fileName(segment) + ARCHIVED_SUFFIX))) {
+                        segments.add(map(file, Math.max(segmentSize, (int) Files.size(file))));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new EventStoreException("Cannot open event segments in " + directory, e);
+        }
+    }
+
+    /**
+     * Duyệt lại toàn bộ bản ghi hợp lệ khi khởi động. Dừng ở bản ghi đầu tiên bị ghi dở (crc sai
+     * hoặc vượt quá segment) và xoá phần đuôi đó để lần ghi tiếp theo bắt đầu từ vị trí sạch. Bản
+     * ghi chỉ được đưa cho consumer khi batch của nó đã commit; batch dở bị xoá từ bản ghi đầu.
+     */
+    void recover(RecordConsumer consumer) {
+        CRC32 crc = new CRC32();
+        List<PendingRecord> batch = new ArrayList<>();
+        writeOffset = 0;
+        for (int segment = 0; segment < segments.size(); segment++) {
+            MappedByteBuffer buffer = segments.get(segment);
+            if (buffer == null) {
+                if (archived.containsKey(segment)) {
+                    // Segment archive chỉ chứa batch đã ghi xong từ lâu
+                    batch.clear();
+                    recoverArchived(segment, consumer);
+                }
+                continue;
+            }
+            int offset = 0;
+            while (offset + HEADER_SIZE <= buffer.capacity()) {
+                int header = buffer.getInt(offset);
+                if (header == 0) {
+                    break;
+                }
+                int length = header & ~CONTINUED;
+                if (header < 0 || offset + HEADER_SIZE + length > buffer.capacity()
+                        || checksum(crc, buffer, offset + HEADER_SIZE, length) != buffer.getInt(offset + 4)) {
+                    log.warn("Truncating torn record at segment {} offset {} of {}", segment, offset, directory);
+                    if (!batch.isEmpty()) {
+                        log.warn("Dropping {} earlier records of its uncommitted batch", batch.size());
+                    }
+                    truncate(batch, segment, offset);
+                    return;
+                }
+                batch.add(new PendingRecord(segment, offset, buffer, length));
+                if ((header & CONTINUED) == 0) {
+                    for (PendingRecord record : batch) {
+                        consumer.accept(position(record.segment, record.offset), record.buffer,
+                                record.offset + HEADER_SIZE, record.length);
+                    }
+                    batch.clear();
+                }
+                offset += HEADER_SIZE + length;
+            }
+            if (offset == 0 && segment < segments.size() - 1) {
+                // Segment rỗng ở giữa chỉ có thể do lỗi khi tạo segment mới, phần sau không đáng tin
+                log.warn("Dropping event segments after empty segment {} of {}", segment, directory);
+                dropAfter(segment);
+            }
+            writeOffset = offset;
+        }
+        if (!batch.isEmpty()) {
+            log.warn("Truncating uncommitted batch of {} records at segment {} offset {} of {}", batch.size(),
+                    batch.get(0).segment, batch.get(0).offset, directory);
+            truncate(batch, segments.size() - 1, writeOffset);
+        }
+    }
+
+    long append(byte[] record) {
+        return append(record, true);
+    }
+
+    /**
+     * @param endOfBatch false nếu còn bản ghi cùng batch phía sau; batch chỉ được tính khi bản ghi
+     *                   cuối (endOfBatch true) đã ghi xong
+     */
+    long append(byte[] record, boolean endOfBatch) {
+        if (record.length >= CONTINUED) {
+            throw new EventStoreException("Record of " + record.length + " bytes is too large");
+        }
+        int required = HEADER_SIZE + record.length;
+        MappedByteBuffer last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (last == null || writeOffset + required > last.capacity()) {
+            roll(required);
+        }
+        int segment = segments.size() - 1;
+        MappedByteBuffer buffer = segments.get(segment);
+        int offset = writeOffset;
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        buffer.put(offset + HEADER_SIZE, record);
+        buffer.putInt(offset + 4, (int) crc.getValue());
+        // Độ dài ghi sau cùng: bản ghi chỉ "tồn tại" khi đã ghi đủ dữ liệu
+        buffer.putInt(offset, endOfBatch ? record.length : record.length | CONTINUED);
+        writeOffset = offset + required;
+        return position(segment, offset);
+    }
+
+    ByteBuffer segment(long position) {
+        int segment = (int) (position >>> 32);
+        MappedByteBuffer buffer = segments.get(segment);
+        return buffer != null ? buffer : restore(segment);
+    }
+
+    static int offset(long position) {
+        return (int) position + HEADER_SIZE;
+    }
+
+    static int segmentOf(long position) {
+        return (int) (position >>> 32);
+    }
+
+    int length(long position) {
+        return segment(position).getInt((int) position) & ~CONTINUED;
+    }
+
+    // Dữ liệu của bản ghi tại position, để chép sang vị trí khác
+    byte[] read(long position) {
+        byte[] record = new byte[length(position)];
+        segment(position).get(offset(position), record);
+        return record;
+    }
+
+    void force() {
+        if (!segments.isEmpty() && segments.get(segments.size() - 1) != null) {
+            segments.get(segments.size() - 1).force();
+        }
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    boolean isArchived(int segment) {
+        return segments.get(segment) == null;
+    }
+
+    int archivedCount() {
+        return archived.size();
+    }
+
+    // Số segment còn file trên đĩa (chưa archive, chưa bị xoá)
+    int liveSegmentCount() {
+        return (int) segments.stream().filter(buffer -> buffer != null).count();
+    }
+
+    /**
+     * Xoá các segment trước {@code segment} khi không còn vị trí nào trỏ vào chúng. Người gọi phải
+     * đảm bảo không thread nào đang đọc các segment đó.
+     */
+    void dropBefore(int segment) {
+        if (segment >= segments.size()) {
+            throw new IllegalArgumentException("Segment " + segment + " is still open for writes");
+        }
+        for (int i = 0; i < segment; i++) {
+            if (segments.get(i) == null) {
+                continue;
+            }
+            segments.set(i, null);
+            try {
+                Files.deleteIfExists(directory.resolve(fileName(i)));
+            } catch (IOException e) {
+                throw new EventStoreException("Cannot drop segment " + i + " of " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * Nén segment đã đóng, đẩy lên archive rồi thay file segment bằng file con trỏ. Thứ tự ghi
+     * (upload, con trỏ, xoá file) đảm bảo crash ở bước nào thì lần khởi động sau vẫn đọc được đủ
+     * dữ liệu; upload lại cùng key chỉ ghi đè object cũ. Segment đang ghi không được archive.
+     */
+    ArchivedSegment archive(int segment, int compressionLevel, PrefixLength prefix) {
+        if (archive == null) {
+            throw new IllegalStateException("No segment archive configured for " + directory);
+        }
+        synchronized (archiveLock) {
+            if (segment >= segments.size() - 1) {
+                throw new IllegalArgumentException("Segment " + segment + " is still open for writes");
+            }
+            MappedByteBuffer buffer = segments.get(segment);
+            if (buffer == null) {
+                return archived.get(segment);
+            }
+            try {
+                ByteArrayOutputStream index = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(index);
+                int offset = 0;
+                int records = 0;
+                while (offset + HEADER_SIZE <= buffer.capacity() && buffer.getInt(offset) != 0) {
+                    int length = buffer.getInt(offset) & ~CONTINUED;
+                    int prefixLength = prefix.length(buffer, offset + HEADER_SIZE);
+                    byte[] head = new byte[prefixLength];
+                    buffer.get(offset + HEADER_SIZE, head);
+                    out.writeInt(offset);
+                    out.writeInt(prefixLength);
+                    out.write(head);
+                    offset += HEADER_SIZE + length;
+                    records++;
+                }
+
+                // Chỉ nén phần đã ghi, phần đuôi toàn byte 0 của segment bị bỏ
+                byte[] raw = new byte[offset];
+                buffer.get(0, raw);
+                CRC32 crc = new CRC32();
+                crc.update(raw);
+                byte[] compressed = deflate(raw, compressionLevel);
+                String key = fileName(segment) + ".deflate";
+                archive.put(key, compressed);
+
+                ArchivedSegment result = new ArchivedSegment(key, raw.length, compressed.length, (int) crc.getValue());
+                writePointer(segment, result, records, index.toByteArray());
+                archived.put(segment, result);
+                segments.set(segment, null);
+                Files.deleteIfExists(directory.resolve(fileName(segment)));
+                return result;
+            } catch (IOException e) {
+                throw new EventStoreException("Cannot archive segment " + segment + " of " + directory, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        segments.stream().filter(buffer -> buffer != null).forEach(MappedByteBuffer::force);
+    }
+
+    private void roll(int required) {
+        if (!segments.isEmpty() && segments.get(segments.size() - 1) != null) {
+            segments.get(segments.size() - 1).force();
+        }
+        Path file = directory.resolve(fileName(segments.size()));
+        try {
+            segments.add(map(file, Math.max(segmentSize, required)));
+        } catch (IOException e) {
+            throw new EventStoreException("Cannot create event segment " + file, e);
+        }
+        writeOffset = 0;
+    }
+
+    private void dropAfter(int segment) {
+        while (segments.size() > segment + 1) {
+            int last = segments.size() - 1;
+            segments.remove(last);
+            try {
+                Files.deleteIfExists(directory.resolve(fileName(last)));
+            } catch (IOException e) {
+                throw new EventStoreException("Cannot drop event segment " + last + " of " + directory, e);
+            }
+        }
+    }
+
+    // Cắt log tại bản ghi đầu của batch dở (nếu có), ngược lại tại vị trí bản ghi hỏng
+    private void truncate(List<PendingRecord> batch, int segment, int offset) {
+        if (!batch.isEmpty()) {
+            segment = batch.get(0).segment;
+            offset = batch.get(0).offset;
+        }
+        wipe(segments.get(segment), offset);
+        dropAfter(segment);
+        writeOffset = offset;
+    }
+
+    private ByteBuffer restore(int segment) {
+        synchronized (restored) {
+            ByteBuffer buffer = restored.get(segment);
+            if (buffer != null) {
+                return buffer;
+            }
+            ArchivedSegment pointer = archived.get(segment);
+            if (archive == null || pointer == null) {
+                throw new EventStoreException("Segment " + segment + " of " + directory + " is not available");
+            }
+            long start = System.nanoTime();
+            byte[] raw = inflate(archive.get(pointer.key()), pointer.length());
+            CRC32 crc = new CRC32();
+            crc.update(raw);
+            if ((int) crc.getValue() != pointer.crc()) {
+                throw new EventStoreException("Archived segment " + pointer.key() + " is corrupt");
+            }
+            buffer = ByteBuffer.wrap(raw).asReadOnlyBuffer();
+            restored.put(segment, buffer);
+            log.info("Restored archived segment {} of {} in {} ms", segment, directory,
+                    (System.nanoTime() - start) / 1_000_000);
+            return buffer;
+        }
+    }
+
+    private void recoverArchived(int segment, RecordConsumer consumer) {
+        Path file = directory.resolve(fileName(segment) + ARCHIVED_SUFFIX);
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            readHeader(in);
+            int records = in.readInt();
+            for (int i = 0; i < records; i++) {
+                int offset = in.readInt();
+                byte[] head = new byte[in.readInt()];
+                in.readFully(head);
+                consumer.accept(position(segment, offset), ByteBuffer.wrap(head), 0, head.length);
+            }
+        } catch (IOException e) {
+            throw new EventStoreException("Cannot read archived segment pointer " + file, e);
+        }
+    }
+
+    private void writePointer(int segment, ArchivedSegment pointer, int records, byte[] index) throws IOException {
+        Path file = directory.resolve(fileName(segment) + ARCHIVED_SUFFIX);
+        Path temp = directory.resolve(fileName(segment) + ARCHIVED_SUFFIX + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(temp.toFile());
+                DataOutputStream out = new DataOutputStream(stream)) {
+            out.writeInt(ARCHIVED_MAGIC);
+            out.writeUTF(pointer.key());
+            out.writeInt(pointer.length());
+            out.writeInt(pointer.compressedLength());
+            out.writeInt(pointer.crc());
+            out.writeInt(records);
+            out.write(index);
+            out.flush();
+            stream.getFD().sync();
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static ArchivedSegment readPointer(Path file) throws IOException {
+        try (InputStream stream = Files.newInputStream(file); DataInputStream in = new DataInputStream(stream)) {
+            return readHeader(in);
+        }
+    }
+
+    private static ArchivedSegment readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != ARCHIVED_MAGIC) {
+            throw new IOException("Not an archived segment pointer");
+        }
+        return new ArchivedSegment(in.readUTF(), in.readInt(), in.readInt(), in.readInt());
+    }
+
+    private static byte[] deflate(byte[] raw, int level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+        Deflater deflater = new Deflater(level);
+        try (DeflaterOutputStream stream = new DeflaterOutputStream(out, deflater, 64 * 1024)) {
+            stream.write(raw);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] inflate(byte[] compressed, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                read += inflater.inflate(raw, read, length - read);
+            }
+            if (read != length) {
+                throw new EventStoreException("Archived segment has " + read + " bytes, expected " + length);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new EventStoreException("Cannot decompress archived segment", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private String fileName(int segment) {
+        return String.format("%010d%s", segment, suffix);
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw"); FileChannel channel = raf.getChannel()) {
+            if (raf.length() < size) {
+                raf.setLength(size);
+            }
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static int checksum(CRC32 crc, ByteBuffer buffer, int offset, int length) {
+        crc.reset();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private static void wipe(MappedByteBuffer buffer, int from) {
+        byte[] zeros = new byte[Math.min(64 * 1024, buffer.capacity() - from)];
+        for (int offset = from; offset < buffer.capacity(); offset += zeros.length) {
+            buffer.put(offset, zeros, 0, Math.min(zeros.length, buffer.capacity() - offset));
+        }
+        buffer.force();
+    }
+
+    private static long position(int segment, int offset) {
+        return ((long) segment << 32) | offset;
+    }
+
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(long position, ByteBuffer buffer, int offset, int length);
+    }
+
+    // Số byte đầu bản ghi cần giữ lại trong file con trỏ để dựng index
+    @FunctionalInterface
+    interface PrefixLength {
+        int length(ByteBuffer buffer, int offset);
+    }
+
+    record ArchivedSegment(String key, int length, int compressedLength, int crc) {
+    }
+
+    private record PendingRecord(int segment, int offset, ByteBuffer buffer, int length) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.cinema.movies.command.model;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BestSeatHoldRequestModel {
+
+    @NotBlank(message = "ID suất chiếu không được để trống")
+    private String showTimeId;
+
+    @NotNull(message = "Số ghế không được để trống")
+    @Min(value = 1, message = "Số ghế phải lớn hơn 0")
+    private Integer count;
+}
@@ -7,4 +7,9 @@ import lombok.Data;
 @AllArgsConstructor
 public class CommandResponse {
     private String id;
-}
\ No newline at end of file
+    private Long consistencyToken; // Vị trí event cuối cùng command ghi vào event store, gửi lại qua header X-Consistency-Token
+
+    public CommandResponse(String id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,23 @@
+package com.cinema.movies.command.model;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// PATCH: chỉ gửi các field cần đổi, field bỏ trống giữ nguyên
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeePatchRequestModel {
+
+    @Size(min = 1, message = "UserId không được để trống")
+    private String userId;
+
+    @Size(min = 1, message = "CinemaId không được để trống")
+    private String cinemaId;
+
+    private String position; // MANAGER, STAFF, TICKET_SELLER
+
+    private String status; // ACTIVE, RESIGNED
+}
@@ -0,0 +1,23 @@
+package com.cinema.movies.command.model;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SeatHoldRequestModel {
+
+    @NotBlank(message = "ID suất chiếu không được để trống")
+    private String showTimeId;
+
+    @NotEmpty(message = "Danh sách ghế không được để trống")
+    private List<@NotBlank String> seatIds;
+}
@@ -0,0 +1,30 @@
+package com.cinema.movies.command.model;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import com.cinema.movies.service.inventory.SeatHold;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SeatHoldResponseModel {
+    private String holdId;
+    private String showTimeId;
+    private List<String> seatIds;
+    private String status;
+    private Instant expiresAt;
+
+    public static SeatHoldResponseModel from(SeatHold hold) {
+        return new SeatHoldResponseModel(
+                hold.getId(),
+                hold.getShowTimeId(),
+                hold.getSeatIds(),
+                hold.getStatus().name(),
+                hold.getExpiresAt());
+    }
+}
@@ -0,0 +1,32 @@
+package com.cinema.movies.command.model;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SeatLayoutRequestModel {
+
+    @NotBlank(message = "Hàng bắt đầu không được để trống")
+    @Pattern(regexp = "^[A-Z]$", message = "Hàng ghế phải là chữ cái in hoa (A-Z)")
+    private String fromRow;
+
+    @NotBlank(message = "Hàng kết thúc không được để trống")
+    @Pattern(regexp = "^[A-Z]$", message = "Hàng ghế phải là chữ cái in hoa (A-Z)")
+    private String toRow;
+
+    @NotNull(message = "Số ghế bắt đầu không được để trống")
+    @Min(value = 1, message = "Số ghế phải lớn hơn 0")
+    @Max(value = 100, message = "Số ghế không được vượt quá 100")
+    private Integer fromNumber;
+
+    @NotNull(message = "Số ghế kết thúc không được để trống")
+    @Min(value = 1, message = "Số ghế phải lớn hơn 0")
+    @Max(value = 100, message = "Số ghế không được vượt quá 100")
+    private Integer toNumber;
+}
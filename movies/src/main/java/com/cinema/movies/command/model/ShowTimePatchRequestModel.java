@@ -0,0 +1,31 @@
+package com.cinema.movies.command.model;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// PATCH: chỉ gửi các field cần đổi, field bỏ trống giữ nguyên
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShowTimePatchRequestModel {
+
+    @Size(min = 1, message = "ID phim không được để trống")
+    private String movieId;
+
+    @Size(min = 1, message = "ID rạp chiếu không được để trống")
+    private String cinemaId;
+
+    @Future(message = "Thời gian bắt đầu phải là thời điểm trong tương lai")
+    private LocalDateTime startTime;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "Giá vé phải lớn hơn 0")
+    @Digits(integer = 10, fraction = 2, message = "Giá vé không hợp lệ")
+    private BigDecimal price;
+}
@@ -0,0 +1,20 @@
+package com.cinema.movies.command.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShowTimePlanRequestModel {
+
+    @NotEmpty(message = "Kế hoạch phải có ít nhất một suất chiếu")
+    private List<@Valid @NotNull(message = "Suất chiếu không được để trống") ShowTimeRequestModel> showTimes;
+}
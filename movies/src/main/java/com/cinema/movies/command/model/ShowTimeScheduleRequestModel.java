@@ -0,0 +1,44 @@
+package com.cinema.movies.command.model;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShowTimeScheduleRequestModel {
+
+    @NotBlank(message = "ID phim không được để trống")
+    private String movieId;
+
+    @NotBlank(message = "ID rạp chiếu không được để trống")
+    private String cinemaId;
+
+    @NotEmpty(message = "Phải chọn ít nhất một ngày trong tuần")
+    private List<DayOfWeek> daysOfWeek;
+
+    @NotEmpty(message = "Phải có ít nhất một giờ chiếu")
+    private List<@NotNull(message = "Giờ chiếu không được để trống") LocalTime> startTimes;
+
+    @NotNull(message = "Ngày bắt đầu không được để trống")
+    @FutureOrPresent(message = "Ngày bắt đầu không được ở quá khứ")
+    private LocalDate fromDate;
+
+    @NotNull(message = "Ngày kết thúc không được để trống")
+    private LocalDate toDate;
+
+    @NotNull(message = "Giá vé không được để trống")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Giá vé phải lớn hơn 0")
+    @Digits(integer = 10, fraction = 2, message = "Giá vé không hợp lệ")
+    private BigDecimal price;
+}
@@ -0,0 +1,26 @@
+package com.cinema.movies.command.model;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// PATCH: chỉ gửi các field cần đổi (thường chỉ isAttended khi điểm danh)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WorkShiftPatchRequestModel {
+
+    @Size(min = 1, message = "EmployeeId không được để trống")
+    private String employeeId;
+
+    private String shiftName; // Sáng, Chiều, Tối
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    private Boolean isAttended;
+}
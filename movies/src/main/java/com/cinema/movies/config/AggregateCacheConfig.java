@@ -0,0 +1,33 @@
+package com.cinema.movies.config;
+
+import org.axonframework.common.caching.Cache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.cinema.movies.command.aggregate.CinemaAggregate;
+import com.cinema.movies.command.aggregate.ShowTimeAggregate;
+import com.cinema.movies.command.aggregate.WorkShiftAggregate;
+import com.cinema.movies.service.cache.AggregateCacheRegistry;
+
+/**
+ * Cache cho các aggregate bị cập nhật liên tiếp, được tham chiếu qua @Aggregate(cache = ...).
+ * Có cache thì Axon dùng CachingEventSourcingRepository thay cho EventSourcingRepository.
+ */
+@Configuration
+public class AggregateCacheConfig {
+
+    @Bean
+    public Cache showTimeAggregateCache(AggregateCacheRegistry registry) {
+        return registry.create("showtime", ShowTimeAggregate.class);
+    }
+
+    @Bean
+    public Cache cinemaAggregateCache(AggregateCacheRegistry registry) {
+        return registry.create("cinema", CinemaAggregate.class);
+    }
+
+    @Bean
+    public Cache workShiftAggregateCache(AggregateCacheRegistry registry) {
+        return registry.create("workshift", WorkShiftAggregate.class);
+    }
+}
@@ -0,0 +1,23 @@
+package com.cinema.movies.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "aggregate-cache")
+@Data
+public class AggregateCacheProperties {
+    private Integer defaultMaxEntries = 1000; // Số aggregate tối đa mỗi cache, vượt quá sẽ bỏ bản ít dùng nhất
+    private Map<String, Integer> maxEntries = new HashMap<>(); // Theo loại aggregate: showtime, cinema, workshift
+    private Duration expireAfterAccess = Duration.ofMinutes(30); // Không được dùng lại trong khoảng này thì bỏ, 0 là không hết hạn
+    private Long sweepIntervalMs = 60000L;
+
+    public int maxEntriesFor(String aggregate) {
+        return maxEntries.getOrDefault(aggregate, defaultMaxEntries);
+    }
+}
@@ -0,0 +1,65 @@
+package com.cinema.movies.config;
+
+import org.axonframework.eventsourcing.SnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.Snapshotter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.cinema.movies.command.aggregate.CinemaAggregate;
+import com.cinema.movies.command.aggregate.EmployeeAggregate;
+import com.cinema.movies.command.aggregate.MovieAggregate;
+import com.cinema.movies.command.aggregate.SeatAggregate;
+import com.cinema.movies.command.aggregate.ShowTimeAggregate;
+import com.cinema.movies.command.aggregate.WorkShiftAggregate;
+import com.cinema.movies.service.snapshot.AggregateLoadMetrics;
+import com.cinema.movies.service.snapshot.MeteredSnapshotTriggerDefinition;
+
+/**
+ * Snapshot trigger cho từng aggregate, được tham chiếu qua @Aggregate(snapshotTriggerDefinition = ...).
+ * Snapshot lưu cùng event store (bảng snapshot_event_entry với JPA).
+ */
+@Configuration
+public class AggregateSnapshotConfig {
+
+    @Bean
+    public SnapshotTriggerDefinition movieSnapshotTrigger(Snapshotter snapshotter,
+            AggregateSnapshotProperties properties, AggregateLoadMetrics metrics) {
+        return new MeteredSnapshotTriggerDefinition(MovieAggregate.class, snapshotter,
+                properties.thresholdFor("movie"), metrics);
+    }
+
+    @Bean
+    public SnapshotTriggerDefinition cinemaSnapshotTrigger(Snapshotter snapshotter,
+            AggregateSnapshotProperties properties, AggregateLoadMetrics metrics) {
+        return new MeteredSnapshotTriggerDefinition(CinemaAggregate.class, snapshotter,
+                properties.thresholdFor("cinema"), metrics);
+    }
+
+    @Bean
+    public SnapshotTriggerDefinition seatSnapshotTrigger(Snapshotter snapshotter,
+            AggregateSnapshotProperties properties, AggregateLoadMetrics metrics) {
+        return new MeteredSnapshotTriggerDefinition(SeatAggregate.class, snapshotter,
+                properties.thresholdFor("seat"), metrics);
+    }
+
+    @Bean
+    public SnapshotTriggerDefinition showTimeSnapshotTrigger(Snapshotter snapshotter,
+            AggregateSnapshotProperties properties, AggregateLoadMetrics metrics) {
+        return new MeteredSnapshotTriggerDefinition(ShowTimeAggregate.class, snapshotter,
+                properties.thresholdFor("showtime"), metrics);
+    }
+
+    @Bean
+    public SnapshotTriggerDefinition employeeSnapshotTrigger(Snapshotter snapshotter,
+            AggregateSnapshotProperties properties, AggregateLoadMetrics metrics) {
+        return new MeteredSnapshotTriggerDefinition(EmployeeAggregate.class, snapshotter,
+                properties.thresholdFor("employee"), metrics);
+    }
+
+    @Bean
+    public SnapshotTriggerDefinition workShiftSnapshotTrigger(Snapshotter snapshotter,
+            AggregateSnapshotProperties properties, AggregateLoadMetrics metrics) {
+        return new MeteredSnapshotTriggerDefinition(WorkShiftAggregate.class, snapshotter,
+                properties.thresholdFor("workshift"), metrics);
+    }
+}
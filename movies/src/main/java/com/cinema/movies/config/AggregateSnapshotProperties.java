@@ -0,0 +1,20 @@
+package com.cinema.movies.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "aggregate-snapshot")
+@Data
+public class AggregateSnapshotProperties {
+    private Integer defaultThreshold = 100; // Số event replay trước khi chụp snapshot, <= 0 là tắt
+    private Map<String, Integer> thresholds = new HashMap<>(); // Theo loại aggregate: movie, showtime, ...
+
+    public int thresholdFor(String aggregate) {
+        return thresholds.getOrDefault(aggregate, defaultThreshold);
+    }
+}
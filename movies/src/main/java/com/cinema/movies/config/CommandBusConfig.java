@@ -0,0 +1,46 @@
+package com.cinema.movies.config;
+
+import org.axonframework.commandhandling.CommandBus;
+import org.axonframework.commandhandling.CommandBusSpanFactory;
+import org.axonframework.commandhandling.DuplicateCommandHandlerResolver;
+import org.axonframework.commandhandling.SimpleCommandBus;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.messaging.interceptors.CorrelationDataInterceptor;
+import org.axonframework.spring.messaging.unitofwork.SpringTransactionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.cinema.movies.command.bus.StripedCommandBus;
+
+/**
+ * Chế độ command bus thông lượng cao (command-bus.mode=striped). Mặc định Axon tự tạo
+ * SimpleCommandBus; bean này thay thế nó và được cấu hình y hệt (monitor, tracing,
+ * correlation data), chỉ khác chỗ command chạy theo lô trên lane thay vì thread gọi.
+ *
+ * TransactionManager của Axon không được auto-config bọc PlatformTransactionManager (no-op),
+ * nên bus bọc thẳng PlatformTransactionManager để cả lô thật sự chạy trong một transaction.
+ */
+@Configuration
+public class CommandBusConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    @Qualifier("localSegment")
+    @ConditionalOnProperty(name = "command-bus.mode", havingValue = "striped")
+    public StripedCommandBus stripedCommandBus(PlatformTransactionManager platformTransactionManager,
+            org.axonframework.config.Configuration axonConfiguration,
+            DuplicateCommandHandlerResolver duplicateCommandHandlerResolver, CommandBusProperties properties) {
+        SimpleCommandBus.Builder builder = SimpleCommandBus.builder()
+                .duplicateCommandHandlerResolver(duplicateCommandHandlerResolver)
+                .spanFactory(axonConfiguration.getComponent(CommandBusSpanFactory.class))
+                .messageMonitor(axonConfiguration.messageMonitor(CommandBus.class, "commandBus"));
+        TransactionManager transactionManager = new SpringTransactionManager(platformTransactionManager);
+        StripedCommandBus commandBus = new StripedCommandBus(builder, transactionManager, properties.laneCount(),
+                properties.getQueueCapacity(), properties.getMaxBatchSize());
+        commandBus.registerHandlerInterceptor(
+                new CorrelationDataInterceptor<>(axonConfiguration.correlationDataProviders()));
+        return commandBus;
+    }
+}
@@ -0,0 +1,19 @@
+package com.cinema.movies.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "command-bus")
+@Data
+public class CommandBusProperties {
+    private String mode = "simple"; // simple: xử lý trên thread gọi; striped: xử lý trên các lane theo aggregate
+    private Integer lanes = 0; // Số lane của chế độ striped, 0 là gấp đôi số CPU
+    private Integer queueCapacity = 1024; // Số command chờ tối đa mỗi lane trước khi chặn thread gọi
+    private Integer maxBatchSize = 64; // Số command tối đa commit chung một transaction
+
+    public int laneCount() {
+        return lanes > 0 ? lanes : 2 * Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,16 @@
+package com.cinema.movies.config;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "consistency")
+@Data
+public class ConsistencyProperties {
+    private Duration timeout = Duration.ofSeconds(5); // Thời gian tối đa một query chờ projection bắt kịp consistency token
+    private Long pollIntervalMs = 10L; // Chu kỳ kiểm tra vị trí của các processing group khi có query đang chờ
+    private Long deadLetterCheckIntervalMs = 200L; // Chu kỳ kiểm tra lại dead-letter queue cho query có event của command đang bị dead-letter
+}
@@ -0,0 +1,38 @@
+package com.cinema.movies.config;
+
+import org.axonframework.commandhandling.CommandBus;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.cinema.movies.query.controller.ConsistencyTokenFilter;
+import com.cinema.movies.service.consistency.CommandPositionTracker;
+
+@Configuration
+public class ConsistencyWebConfig {
+
+    // Chỉ query API; /api/v1/admin/** được filter tự bỏ qua
+    @Bean
+    public FilterRegistrationBean<ConsistencyTokenFilter> consistencyTokenFilterRegistration(
+            ConsistencyTokenFilter consistencyTokenFilter) {
+        FilterRegistrationBean<ConsistencyTokenFilter> registration =
+                new FilterRegistrationBean<>(consistencyTokenFilter);
+        registration.addUrlPatterns("/api/v1/*");
+        registration.setAsyncSupported(true);
+        return registration;
+    }
+
+    // Theo dõi vị trí event của từng command để consistency token không phải là head của event store
+    @Bean
+    public SmartInitializingSingleton commandPositionInterceptors(CommandPositionTracker commandPositionTracker,
+            CommandGateway commandGateway, CommandBus commandBus, EventStore eventStore) {
+        return () -> {
+            commandGateway.registerDispatchInterceptor(commandPositionTracker.gatewayInterceptor());
+            commandBus.registerHandlerInterceptor(commandPositionTracker.handlerInterceptor());
+            eventStore.registerDispatchInterceptor(commandPositionTracker.eventInterceptor());
+        };
+    }
+}
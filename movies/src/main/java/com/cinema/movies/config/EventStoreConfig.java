@@ -0,0 +1,50 @@
+package com.cinema.movies.config;
+
+import java.nio.file.Path;
+
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.serialization.Serializer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.cinema.movies.command.eventstore.MappedSegmentEventStorageEngine;
+import com.cinema.movies.service.MinioService;
+import com.cinema.movies.service.archive.MinioSegmentArchive;
+
+/**
+ * Event store trên file segment memory-map (event-store.engine=mapped), tách event khỏi H2
+ * in-memory của read model và giữ được qua restart. Mặc định Axon dùng JPA event store; bean này
+ * thay thế nó với cùng serializer, upcaster chain và snapshot filter.
+ *
+ * Token store vẫn nằm trong H2 in-memory cùng read model, nên sau restart các projection tự
+ * replay từ đầu event store và dựng lại read model.
+ *
+ * Segment đã archive (event-store.archive.*) nằm trong bucket MinIO; archive luôn được gắn vào
+ * engine để đọc lại được segment cũ kể cả khi job archive đang tắt.
+ */
+@Configuration
+public class EventStoreConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "event-store.engine", havingValue = "mapped")
+    public EventStorageEngine eventStorageEngine(Serializer defaultSerializer,
+            @Qualifier("eventSerializer") Serializer eventSerializer,
+            org.axonframework.config.Configuration axonConfiguration, EventStoreProperties properties,
+            MinioService minioService) {
+        EventStoreProperties.Archive archive = properties.getArchive();
+        return MappedSegmentEventStorageEngine.builder()
+                .snapshotSerializer(defaultSerializer)
+                .eventSerializer(eventSerializer)
+                .upcasterChain(axonConfiguration.upcasterChain())
+                .snapshotFilter(axonConfiguration.snapshotFilter())
+                .storageDirectory(Path.of(properties.getPath()))
+                .segmentSize((int) properties.getSegmentSize().toBytes())
+                .forceOnAppend(properties.getForceOnAppend())
+                .segmentArchive(new MinioSegmentArchive(minioService, archive.getPrefix()))
+                .restoredSegments(archive.getRestoredSegments())
+                .compressionLevel(archive.getCompressionLevel())
+                .build();
+    }
+}
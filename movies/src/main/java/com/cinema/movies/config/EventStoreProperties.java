@@ -0,0 +1,30 @@
+package com.cinema.movies.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "event-store")
+@Data
+public class EventStoreProperties {
+    private String engine = "jpa"; // jpa: bảng domain_event_entry trong H2; mapped: file segment memory-map
+    private String path = "data/event-store"; // Thư mục chứa segment của engine mapped
+    private DataSize segmentSize = DataSize.ofMegabytes(64); // Kích thước mỗi file segment
+    private Boolean forceOnAppend = false; // Flush segment xuống đĩa sau mỗi lần ghi (chịu được mất điện)
+    private Archive archive = new Archive();
+
+    @Data
+    public static class Archive {
+        private Boolean enabled = false; // Bật job chuyển segment cũ sang MinIO (chỉ engine mapped)
+        private Duration after = Duration.ofDays(30); // Segment có event mới nhất cũ hơn mốc này thì được archive
+        private Long intervalMs = 3600000L; // Chu kỳ chạy job archive
+        private String prefix = "event-store/"; // Prefix object trong bucket MinIO
+        private Integer compressionLevel = 6; // Mức nén deflate 1-9
+        private Integer restoredSegments = 2; // Số segment archive giải nén được giữ trong heap khi đọc lại
+    }
+}
@@ -0,0 +1,76 @@
+package com.cinema.movies.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.axonframework.config.ConfigurerModule;
+import org.axonframework.spring.messaging.unitofwork.SpringTransactionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import com.cinema.movies.command.event.OutboxEventHandler;
+import com.cinema.movies.service.outbox.OutboxRelay;
+import com.cinema.movies.service.outbox.OutboxStore;
+
+/**
+ * Producer riêng cho outbox relay, tách khỏi KafkaTemplate dùng chung của commonservice (gửi từng
+ * message, cấu hình mặc định): idempotent để retry của producer không tạo bản trùng hay đảo thứ
+ * tự, linger và nén để mỗi request tới broker mang nhiều event.
+ *
+ * Template không được đăng ký thành bean để không đụng với bean KafkaTemplate của commonservice.
+ *
+ * Processing group outbox chỉ được đăng ký ở đây, với token store JDBC và transaction của
+ * OutboxStore: sau restart processor đi tiếp từ token đã lưu. Lần đầu (chưa có token) nó bắt đầu
+ * từ đầu event store như các group khác, nên event đã có trước khi bật outbox cũng được publish.
+ */
+@Configuration
+@ConditionalOnProperty(name = "outbox.enabled", havingValue = "true")
+public class OutboxConfig {
+
+    @Bean(destroyMethod = "close")
+    public OutboxStore outboxStore(OutboxProperties properties) {
+        return new OutboxStore(properties);
+    }
+
+    @Bean
+    public OutboxEventHandler outboxEventHandler(OutboxStore outboxStore) {
+        return new OutboxEventHandler(outboxStore.getJdbcTemplate());
+    }
+
+    @Bean
+    public ConfigurerModule outboxProcessingConfigurerModule(OutboxStore outboxStore,
+            ProjectionProcessingProperties properties) {
+        String group = ProjectionProcessingConfig.OUTBOX_GROUP;
+        return configurer -> configurer.eventProcessing(processing -> {
+            ProjectionProcessingConfig.registerProcessor(processing, group, properties);
+            processing.registerTokenStore(group, config -> outboxStore.tokenStore(config.serializer()))
+                    .registerTransactionManager(group,
+                            config -> new SpringTransactionManager(outboxStore.getTransactionManager()));
+        });
+    }
+
+    @Bean(destroyMethod = "close")
+    public OutboxRelay outboxRelay(OutboxStore outboxStore, OutboxProperties properties,
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, properties.getLingerMs().intValue());
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, (int) properties.getProducerBatchSize().toBytes());
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, properties.getCompressionType());
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, (int) properties.getDeliveryTimeout().toMillis());
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, properties.getMaxBlock().toMillis());
+        return new OutboxRelay(outboxStore.getJdbcTemplate(), new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(configProps)),
+                properties);
+    }
+}
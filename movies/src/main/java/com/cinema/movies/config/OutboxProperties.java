@@ -0,0 +1,27 @@
+package com.cinema.movies.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "outbox")
+@Data
+public class OutboxProperties {
+    private Boolean enabled = false; // Ghi domain event vào bảng event_outbox và relay sang Kafka (cần broker)
+    private String datasourceUrl = "jdbc:h2:file:./data/outbox"; // Outbox và token của nó, phải giữ được qua restart
+    private String datasourceUsername = "sa";
+    private String datasourcePassword = "";
+    private String topic = "cinema"; // Topic nhận event, key là aggregate id
+    private Integer batchSize = 500; // Số dòng outbox đọc và gửi mỗi lượt relay
+    private Long intervalMs = 200L; // Chu kỳ relay khi outbox đã trống
+    private Long lingerMs = 20L; // Producer chờ tối đa chừng này để gom record vào một request
+    private DataSize producerBatchSize = DataSize.ofKilobytes(64); // Kích thước batch của producer mỗi partition
+    private String compressionType = "lz4"; // none, gzip, snappy, lz4, zstd
+    private Duration deliveryTimeout = Duration.ofMinutes(2); // Producer tự retry trong khoảng này trước khi báo lỗi
+    private Duration maxBlock = Duration.ofSeconds(5); // Thời gian chờ metadata khi broker không sẵn sàng
+}
@@ -0,0 +1,16 @@
+package com.cinema.movies.config;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "projection-lag")
+@Data
+public class ProjectionLagProperties {
+    private Long sampleIntervalMs = 5000L; // Chu kỳ đo độ trễ của các processing group
+    private Long alertLagEvents = 10_000L; // Cảnh báo khi segment chậm nhất tụt lại quá số event này
+    private Duration alertLag = Duration.ofSeconds(30); // Hoặc khi event cũ nhất chưa xử lý đã quá thời gian này
+}
@@ -0,0 +1,128 @@
+package com.cinema.movies.config;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.common.jpa.EntityManagerProvider;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.ConfigurerModule;
+import org.axonframework.config.EventProcessingConfigurer;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.PropagatingErrorHandler;
+import org.axonframework.eventhandling.async.SequentialPerAggregatePolicy;
+import org.axonframework.eventhandling.deadletter.jpa.JpaSequencedDeadLetterQueue;
+import org.axonframework.messaging.StreamableMessageSource;
+import org.axonframework.messaging.deadletter.InMemorySequencedDeadLetterQueue;
+import org.axonframework.messaging.deadletter.SequencedDeadLetterQueue;
+import org.axonframework.springboot.util.RegisterDefaultEntities;
+import org.axonframework.spring.messaging.unitofwork.SpringTransactionManager;
+import org.axonframework.springboot.util.jpa.ContainerManagedEntityManagerProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.cinema.movies.service.deadletter.ProjectionDeadLetterPolicy;
+
+/**
+ * Processing group của các read-model projection, mỗi group là một PooledStreamingEventProcessor
+ * nhiều segment.
+ *
+ * Event được chia segment theo aggregate id nên event của cùng một thực thể luôn xử lý tuần tự,
+ * còn các thực thể khác nhau chạy song song. Vì thứ tự giữa các thực thể (và giữa các group)
+ * không còn được đảm bảo, handler kiểm tra dòng được tham chiếu trước khi ghi và ném
+ * ReadModelNotReadyException: ví dụ ca làm việc tới trước nhân viên của nó.
+ *
+ * Event lỗi của read-model group vào dead-letter queue (JPA) thay vì chặn cả segment: các event
+ * sau của cùng aggregate xếp hàng phía sau để giữ thứ tự, aggregate khác vẫn chạy tiếp.
+ * ProjectionDeadLetterRetrier thử lại có giới hạn các lỗi thứ tự/tạm thời, lỗi khác ở lại queue
+ * (xem {@link ProjectionDeadLetterPolicy}). Replay group xoá luôn queue của group đó.
+ *
+ * Token store nằm trong H2 in-memory cùng read model nên mỗi lần khởi động processor đều chạy lại
+ * từ đầu. Group outbox dùng cùng cấu hình processor ({@link #registerProcessor}) nhưng không phải
+ * read model: không replay, không dead-letter và read-your-writes không chờ nó. Nó chỉ được đăng ký
+ * khi outbox.enabled=true, với token store và transaction riêng (xem OutboxConfig).
+ */
+@org.springframework.context.annotation.Configuration
+@RegisterDefaultEntities(packages = "org.axonframework.eventhandling.deadletter.jpa")
+public class ProjectionProcessingConfig {
+
+    public static final String MOVIE_GROUP = "movie-projection";
+    public static final String CINEMA_GROUP = "cinema-projection";
+    public static final String SEAT_GROUP = "seat-projection";
+    public static final String SHOWTIME_GROUP = "showtime-projection";
+    public static final String EMPLOYEE_GROUP = "employee-projection";
+    public static final String WORKSHIFT_GROUP = "workshift-projection";
+
+    public static final List<String> GROUPS = List.of(MOVIE_GROUP, CINEMA_GROUP, SEAT_GROUP, SHOWTIME_GROUP,
+            EMPLOYEE_GROUP, WORKSHIFT_GROUP);
+
+    public static final String OUTBOX_GROUP = "event-outbox";
+
+    // Auto-config JPA của Axon (4.9) không bật trên Spring Boot 4, nên tự khai báo provider cho
+    // dead-letter queue; entity DeadLetterEntry được đăng ký qua @RegisterDefaultEntities.
+    // Transaction manager của Axon cũng là no-op nên queue bọc thẳng PlatformTransactionManager,
+    // processor vẫn chạy không transaction như trước
+    @Bean
+    public EntityManagerProvider entityManagerProvider() {
+        return new ContainerManagedEntityManagerProvider();
+    }
+
+    @Bean
+    public ConfigurerModule projectionProcessingConfigurerModule(ProjectionProcessingProperties properties,
+            PlatformTransactionManager transactionManager) {
+        return configurerModule(properties, new SpringTransactionManager(transactionManager));
+    }
+
+    /**
+     * Cấu hình processor cho các read-model group; deadLetterTransactionManager chỉ dùng cho
+     * dead-letter queue JPA.
+     */
+    public static ConfigurerModule configurerModule(ProjectionProcessingProperties properties,
+            TransactionManager deadLetterTransactionManager) {
+        return configurer -> configurer.eventProcessing(processing -> {
+            for (String group : GROUPS) {
+                registerProcessor(processing, group, properties);
+                processing.registerDeadLetterQueue(group, config -> deadLetterQueue(config, group,
+                        deadLetterTransactionManager))
+                        .registerDeadLetterPolicy(group, config -> new ProjectionDeadLetterPolicy(group, properties))
+                        .registerDeadLetteringEventHandlerInvokerConfiguration(group,
+                                (config, builder) -> builder.allowReset(true));
+            }
+        });
+    }
+
+    /**
+     * Processor nhiều segment, đọc event store từ đầu khi group chưa có token.
+     */
+    public static void registerProcessor(EventProcessingConfigurer processing, String group,
+            ProjectionProcessingProperties properties) {
+        processing.registerPooledStreamingEventProcessor(group, Configuration::eventStore,
+                (config, builder) -> builder
+                        .initialToken(StreamableMessageSource::createTailToken)
+                        .initialSegmentCount(properties.segmentCount())
+                        .maxClaimedSegments(properties.segmentCount())
+                        .batchSize(properties.getBatchSize())
+                        .workerExecutor(name -> Executors.newScheduledThreadPool(
+                                properties.workerThreads(), new AxonThreadFactory("Worker - " + name))));
+        processing.registerSequencingPolicy(group, config -> SequentialPerAggregatePolicy.instance());
+        // Bắt buộc ném lại lỗi: dead-letter invoker chỉ thấy lỗi khi error handler không nuốt nó
+        processing.registerListenerInvocationErrorHandler(group, config -> PropagatingErrorHandler.instance());
+    }
+
+    private static SequencedDeadLetterQueue<EventMessage<?>> deadLetterQueue(Configuration config, String group,
+            TransactionManager transactionManager) {
+        EntityManagerProvider entityManagerProvider = config.getComponent(EntityManagerProvider.class);
+        if (entityManagerProvider == null) {
+            // Cấu hình Axon không có JPA (test, benchmark): giữ dead letter trong bộ nhớ
+            return InMemorySequencedDeadLetterQueue.defaultQueue();
+        }
+        return JpaSequencedDeadLetterQueue.builder()
+                .processingGroup(group)
+                .entityManagerProvider(entityManagerProvider)
+                .transactionManager(transactionManager)
+                .eventSerializer(config.eventSerializer())
+                .genericSerializer(config.serializer())
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.cinema.movies.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "projection-processing")
+@Data
+public class ProjectionProcessingProperties {
+    private Integer segments = 0; // Số segment mỗi processing group, 0 là bằng số CPU (chỉ áp dụng khi tạo token lần đầu)
+    private Integer threadCount = 0; // Số worker thread mỗi processing group, 0 là bằng số segment
+    private Integer batchSize = 100; // Số event xử lý chung một transaction
+    private Integer deadLetterMaxRetries = 10; // Số lần thử lại event dead-letter trước khi để lại cho người vận hành
+    private Long deadLetterBackoffMs = 1000L; // Thời gian chờ trước lần thử lại đầu tiên, gấp đôi sau mỗi lần
+    private Long deadLetterMaxBackoffMs = 60000L; // Trần thời gian chờ giữa hai lần thử lại
+    private Long deadLetterRetryIntervalMs = 1000L; // Chu kỳ quét dead-letter queue để thử lại
+
+    // Chờ lâu hơn sau mỗi lần thất bại: backoff * 2^retries, không quá maxBackoff
+    public long deadLetterBackoffMs(int retries) {
+        long backoff = deadLetterBackoffMs << Math.min(retries, 20);
+        return Math.min(backoff, deadLetterMaxBackoffMs);
+    }
+
+    public int segmentCount() {
+        return segments > 0 ? segments : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int workerThreads() {
+        return threadCount > 0 ? threadCount : segmentCount();
+    }
+}
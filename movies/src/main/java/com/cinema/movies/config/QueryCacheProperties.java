@@ -0,0 +1,12 @@
+package com.cinema.movies.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "query-cache")
+@Data
+public class QueryCacheProperties {
+    private Integer maxEntries = 1000; // Số kết quả tối đa mỗi cache, vượt quá sẽ bỏ bản ít dùng nhất
+}
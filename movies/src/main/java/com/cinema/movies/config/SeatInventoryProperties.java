@@ -0,0 +1,17 @@
+package com.cinema.movies.config;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "seat-inventory")
+@Data
+public class SeatInventoryProperties {
+    private Duration holdTtl = Duration.ofMinutes(10); // Thời gian giữ ghế trước khi tự nhả
+    private Integer maxSeatsPerHold = 10;
+    private Long sweepIntervalMs = 1000L;
+    private Duration streamTimeout = Duration.ofMinutes(30); // Thời gian tối đa của một kết nối SSE
+}
@@ -0,0 +1,100 @@
+package com.cinema.movies.config;
+
+import org.axonframework.serialization.RevisionResolver;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.annotation.Order;
+
+import com.cinema.movies.service.serialization.CompactRevisionResolver;
+import com.cinema.movies.service.serialization.CompactSerializer;
+import com.cinema.movies.service.serialization.LegacyXmlEventUpcaster;
+import com.cinema.movies.service.serialization.SeatLayoutCreatedEventUpcaster;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.thoughtworks.xstream.XStream;
+
+/**
+ * Chế độ serializer nhị phân (serialization.format=cbor) cho event, snapshot, token và message.
+ * Thay các serializer XStream mặc định của Axon bằng Jackson trên CBOR; dữ liệu XML đã lưu vẫn
+ * đọc được qua serializer cũ và được upcaster chuyển sang CBOR khi nạp, sau đó đi qua các bước
+ * upcaster theo revision.
+ */
+@Configuration
+@ConditionalOnProperty(name = "serialization.format", havingValue = "cbor")
+public class SerializationConfig {
+
+    @Bean
+    @Primary
+    public Serializer serializer(RevisionResolver revisionResolver, ObjectProvider<XStream> xStream) {
+        return compactSerializer(revisionResolver, xStream.getIfAvailable(SerializationConfig::legacyXStream));
+    }
+
+    @Bean
+    @Qualifier("eventSerializer")
+    public Serializer eventSerializer(RevisionResolver revisionResolver, ObjectProvider<XStream> xStream) {
+        return compactSerializer(revisionResolver, xStream.getIfAvailable(SerializationConfig::legacyXStream));
+    }
+
+    @Bean
+    @Qualifier("messageSerializer")
+    public Serializer messageSerializer(RevisionResolver revisionResolver, ObjectProvider<XStream> xStream) {
+        return compactSerializer(revisionResolver, xStream.getIfAvailable(SerializationConfig::legacyXStream));
+    }
+
+    @Bean
+    @Order(LegacyXmlEventUpcaster.ORDER)
+    public LegacyXmlEventUpcaster legacyXmlEventUpcaster(@Qualifier("eventSerializer") Serializer eventSerializer) {
+        CompactSerializer serializer = (CompactSerializer) eventSerializer;
+        return new LegacyXmlEventUpcaster(serializer.getLegacy(), serializer);
+    }
+
+    @Bean
+    @Order(LegacyXmlEventUpcaster.ORDER + 1)
+    public SeatLayoutCreatedEventUpcaster seatLayoutCreatedEventUpcaster() {
+        return new SeatLayoutCreatedEventUpcaster();
+    }
+
+    public static CompactSerializer compactSerializer(RevisionResolver revisionResolver, XStream xStream) {
+        JacksonSerializer primary = JacksonSerializer.builder()
+                .objectMapper(cborMapper())
+                .revisionResolver(new CompactRevisionResolver(revisionResolver))
+                .lenientDeserialization()
+                .build();
+        XStreamSerializer legacy = XStreamSerializer.builder()
+                .xStream(xStream)
+                .revisionResolver(revisionResolver)
+                .build();
+        return new CompactSerializer(primary, legacy);
+    }
+
+    // Event và aggregate dùng field (Lombok), không phải lúc nào cũng có getter/setter.
+    // Tag self-described CBOR cho phép nhận ra MetaData và token, vốn được lưu không kèm revision
+    static ObjectMapper cborMapper() {
+        ObjectMapper mapper = CBORMapper.builder().enable(CBORGenerator.Feature.WRITE_TYPE_HEADER).build();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return mapper;
+    }
+
+    private static XStream legacyXStream() {
+        XStream xStream = new XStream();
+        xStream.allowTypesByWildcard(new String[] { "com.cinema.**", "java.time.**", "org.axonframework.**" });
+        return xStream;
+    }
+}
@@ -0,0 +1,12 @@
+package com.cinema.movies.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "serialization")
+@Data
+public class SerializationProperties {
+    private String format = "xml"; // xml: XStream mặc định của Axon; cbor: JSON nhị phân, vẫn đọc được dữ liệu XML cũ
+}
@@ -0,0 +1,15 @@
+package com.cinema.movies.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "showtime-board")
+@Data
+public class ShowTimeBoardProperties {
+    private String zone = "Asia/Ho_Chi_Minh"; // Múi giờ xác định "hôm nay" của bảng lịch chiếu
+    private Integer nextUpSize = 5;
+    private Integer retentionDays = 1; // Giữ lại bảng của bao nhiêu ngày đã qua
+    private String rolloverCron = "0 0 0 * * *";
+}
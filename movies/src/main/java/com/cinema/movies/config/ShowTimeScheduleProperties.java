@@ -0,0 +1,18 @@
+package com.cinema.movies.config;
+
+import java.time.Duration;
+import java.time.LocalTime;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "showtime-schedule")
+@Data
+public class ShowTimeScheduleProperties {
+    private Duration cleanupBuffer = Duration.ofMinutes(15); // Thời gian dọn phòng sau mỗi suất chiếu
+    private LocalTime openingTime = LocalTime.of(9, 0);
+    private LocalTime closingTime = LocalTime.of(0, 0); // Trước giờ mở cửa nghĩa là sang ngày hôm sau
+    private Duration slotGranularity = Duration.ofMinutes(5); // Giờ chiếu đề xuất làm tròn theo bước này
+}
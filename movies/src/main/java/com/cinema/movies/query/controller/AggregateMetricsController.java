@@ -0,0 +1,33 @@
+package com.cinema.movies.query.controller;
+
+import com.cinema.movies.query.model.AggregateCacheStatsResponseModel;
+import com.cinema.movies.query.model.AggregateLoadStatsResponseModel;
+import com.cinema.movies.service.cache.AggregateCacheRegistry;
+import com.cinema.movies.service.snapshot.AggregateLoadMetrics;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/aggregates")
+public class AggregateMetricsController {
+
+    private final AggregateLoadMetrics aggregateLoadMetrics;
+    private final AggregateCacheRegistry aggregateCacheRegistry;
+
+    public AggregateMetricsController(AggregateLoadMetrics aggregateLoadMetrics,
+            AggregateCacheRegistry aggregateCacheRegistry) {
+        this.aggregateLoadMetrics = aggregateLoadMetrics;
+        this.aggregateCacheRegistry = aggregateCacheRegistry;
+    }
+
+    @GetMapping("/stats")
+    public List<AggregateLoadStatsResponseModel> getStats() {
+        return aggregateLoadMetrics.stats();
+    }
+
+    @GetMapping("/cache")
+    public List<AggregateCacheStatsResponseModel> getCacheStats() {
+        return aggregateCacheRegistry.stats();
+    }
+}
@@ -1,12 +1,29 @@
 package com.cinema.movies.query.controller;
 
 import com.cinema.movies.query.model.CinemaResponseModel;
+import com.cinema.movies.query.model.PageResponseModel;
+import com.cinema.movies.query.model.SeatMapResponseModel;
+import com.cinema.movies.query.model.ShowTimeBoardResponseModel;
+import com.cinema.movies.query.projection.CinemaProjection;
 import com.cinema.movies.query.queries.GetAllCinemasQuery;
 import com.cinema.movies.query.queries.GetCinemaByIdQuery;
+import com.cinema.movies.query.queries.GetEncodedSeatMapQuery;
+import com.cinema.movies.query.queries.GetSeatMapQuery;
+import com.cinema.movies.query.queries.GetShowTimeBoardQuery;
 import org.axonframework.messaging.responsetypes.ResponseTypes;
 import org.axonframework.queryhandling.QueryGateway;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -14,9 +31,14 @@ import java.util.List;
 public class CinemaQueryController {
 
     private final QueryGateway queryGateway;
+    private final CinemaProjection cinemaProjection;
+    private final NdjsonWriter ndjsonWriter;
 
-    public CinemaQueryController(QueryGateway queryGateway) {
+    public CinemaQueryController(QueryGateway queryGateway, CinemaProjection cinemaProjection,
+            NdjsonWriter ndjsonWriter) {
         this.queryGateway = queryGateway;
+        this.cinemaProjection = cinemaProjection;
+        this.ndjsonWriter = ndjsonWriter;
     }
 
     @GetMapping
@@ -25,9 +47,68 @@ public class CinemaQueryController {
         return queryGateway.query(query, ResponseTypes.multipleInstancesOf(CinemaResponseModel.class)).join();
     }
 
+    // Keyset pagination: ?limit=50, trang sau truyền ?after=<nextCursor>
+    @GetMapping(params = "limit")
+    public PageResponseModel<CinemaResponseModel> getCinemasPage(@RequestParam(required = false) String after,
+            @RequestParam Integer limit) {
+        int pageSize = PageResponseModel.pageSize(limit);
+        GetAllCinemasQuery query = new GetAllCinemasQuery(after, pageSize);
+        List<CinemaResponseModel> cinemas = queryGateway
+                .query(query, ResponseTypes.multipleInstancesOf(CinemaResponseModel.class)).join();
+        return PageResponseModel.of(cinemas, pageSize, CinemaResponseModel::getId);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCinemas() {
+        return ndjsonWriter.stream(cinemaProjection::streamAll);
+    }
+
     @GetMapping("/{id}")
     public CinemaResponseModel getCinemaById(@PathVariable String id) {
         GetCinemaByIdQuery query = new GetCinemaByIdQuery(id);
         return queryGateway.query(query, ResponseTypes.instanceOf(CinemaResponseModel.class)).join();
     }
+
+    // Lịch chiếu trong ngày của rạp, nhóm theo phim; không truyền date nghĩa là hôm nay
+    @GetMapping("/{id}/board")
+    public ShowTimeBoardResponseModel getShowTimeBoard(@PathVariable String id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        GetShowTimeBoardQuery query = new GetShowTimeBoardQuery(id, date);
+        return queryGateway.query(query, ResponseTypes.instanceOf(ShowTimeBoardResponseModel.class)).join();
+    }
+
+    @GetMapping(value = "/{id}/seat-map", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SeatMapResponseModel> getSeatMap(@PathVariable String id, WebRequest request) {
+        GetSeatMapQuery query = new GetSeatMapQuery(id);
+        SeatMapResponseModel seatMap = queryGateway
+                .query(query, ResponseTypes.instanceOf(SeatMapResponseModel.class)).join();
+
+        String eTag = seatMapETag(id, seatMap.getVersion());
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(seatMap);
+    }
+
+    // Trả về Resource để FormatRestResponse không bọc payload nhị phân vào JSON
+    @GetMapping(value = "/{id}/seat-map", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Resource> getEncodedSeatMap(@PathVariable String id, WebRequest request) {
+        GetEncodedSeatMapQuery query = new GetEncodedSeatMapQuery(id);
+        byte[] seatMap = queryGateway.query(query, ResponseTypes.instanceOf(byte[].class)).join();
+
+        // Layout version nằm ở byte 2-9 của header (xem SeatMapEncoder)
+        String eTag = seatMapETag(id, ByteBuffer.wrap(seatMap).getLong(2));
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(seatMap.length)
+                .body(new ByteArrayResource(seatMap));
+    }
+
+    private String seatMapETag(String cinemaId, Long version) {
+        return "\"" + cinemaId + "-" + version + "\"";
+    }
 }
@@ -0,0 +1,81 @@
+package com.cinema.movies.query.controller;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import com.cinema.movies.config.ConsistencyProperties;
+import com.cinema.movies.service.consistency.ConsistencyTokenService;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Query GET mang header X-Consistency-Token (lấy từ CommandResponse) được giữ lại tới khi các
+ * projection đã xử lý tới token đó. Hết thời gian chờ thì vẫn trả dữ liệu hiện có, kèm header
+ * X-Consistency-Timeout để client biết kết quả có thể chưa phản ánh command.
+ *
+ * Request phải chờ chuyển sang xử lý async của servlet nên thread Tomcat được trả lại ngay; khi
+ * token đạt tới hoặc hết timeout request được dispatch lại vào controller. Lần dispatch async
+ * đó OncePerRequestFilter bỏ qua filter này.
+ */
+@Component
+public class ConsistencyTokenFilter extends OncePerRequestFilter {
+
+    public static final String TIMEOUT_HEADER = "X-Consistency-Timeout";
+
+    private final ConsistencyTokenService consistencyTokenService;
+    private final ConsistencyProperties properties;
+
+    public ConsistencyTokenFilter(ConsistencyTokenService consistencyTokenService, ConsistencyProperties properties) {
+        this.consistencyTokenService = consistencyTokenService;
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String header = request.getHeader(ConsistencyTokenService.HEADER);
+        if (header == null || header.isBlank() || !"GET".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/api/v1/admin/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long token;
+        try {
+            token = Long.parseLong(request.getHeader(ConsistencyTokenService.HEADER).trim());
+        } catch (NumberFormatException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Consistency token không hợp lệ");
+            return;
+        }
+
+        CompletableFuture<Boolean> reached = consistencyTokenService.awaitAsync(token);
+        if (reached.isDone()) {
+            markTimeout(response, reached.join());
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AsyncContext async = request.startAsync(request, response);
+        // Future luôn hoàn thành sau consistency.timeout, timeout của container chỉ là lưới an toàn
+        async.setTimeout(properties.getTimeout().toMillis() * 2);
+        reached.whenComplete((projected, error) -> {
+            markTimeout(response, Boolean.TRUE.equals(projected));
+            async.dispatch();
+        });
+    }
+
+    private static void markTimeout(HttpServletResponse response, boolean projected) {
+        if (!projected) {
+            response.setHeader(TIMEOUT_HEADER, "true");
+        }
+    }
+}
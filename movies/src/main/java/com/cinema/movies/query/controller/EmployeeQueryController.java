@@ -1,6 +1,8 @@
 package com.cinema.movies.query.controller;
 
 import com.cinema.movies.query.model.EmployeeResponseModel;
+import com.cinema.movies.query.model.PageResponseModel;
+import com.cinema.movies.query.projection.EmployeeProjection;
 import com.cinema.movies.query.queries.GetAllEmployeesQuery;
 import com.cinema.movies.query.queries.GetEmployeeByIdQuery;
 import com.cinema.movies.query.queries.GetEmployeesByCinemaQuery;
@@ -8,7 +10,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.axonframework.messaging.responsetypes.ResponseTypes;
 import org.axonframework.queryhandling.QueryGateway;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -20,6 +25,12 @@ public class EmployeeQueryController {
     @Autowired
     private QueryGateway queryGateway;
 
+    @Autowired
+    private EmployeeProjection employeeProjection;
+
+    @Autowired
+    private NdjsonWriter ndjsonWriter;
+
     @GetMapping
     public List<EmployeeResponseModel> getAllEmployees() {
         log.info("GET /api/v1/employees - Get all employees");
@@ -30,6 +41,22 @@ public class EmployeeQueryController {
                 ResponseTypes.multipleInstancesOf(EmployeeResponseModel.class)).join();
     }
 
+    // Keyset pagination: ?limit=50, trang sau truyền ?after=<nextCursor>
+    @GetMapping(params = "limit")
+    public PageResponseModel<EmployeeResponseModel> getEmployeesPage(@RequestParam(required = false) String after,
+            @RequestParam Integer limit) {
+        int pageSize = PageResponseModel.pageSize(limit);
+        GetAllEmployeesQuery query = new GetAllEmployeesQuery(after, pageSize);
+        List<EmployeeResponseModel> employees = queryGateway
+                .query(query, ResponseTypes.multipleInstancesOf(EmployeeResponseModel.class)).join();
+        return PageResponseModel.of(employees, pageSize, EmployeeResponseModel::getId);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEmployees() {
+        return ndjsonWriter.stream(employeeProjection::streamAll);
+    }
+
     @GetMapping("/{id}")
     public EmployeeResponseModel getEmployeeById(@PathVariable String id) {
         log.info("GET /api/v1/employees/{} - Get employee by id", id);
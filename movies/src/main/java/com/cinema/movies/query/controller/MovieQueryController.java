@@ -1,11 +1,16 @@
 package com.cinema.movies.query.controller;
 
 import com.cinema.movies.query.model.MovieResponseModel;
+import com.cinema.movies.query.model.PageResponseModel;
+import com.cinema.movies.query.projection.MovieProjection;
 import com.cinema.movies.query.queries.GetAllMoviesQuery;
 import com.cinema.movies.query.queries.GetMovieByIdQuery;
 import org.axonframework.messaging.responsetypes.ResponseTypes;
 import org.axonframework.queryhandling.QueryGateway;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -14,9 +19,14 @@ import java.util.List;
 public class MovieQueryController {
 
     private final QueryGateway queryGateway;
+    private final MovieProjection movieProjection;
+    private final NdjsonWriter ndjsonWriter;
 
-    public MovieQueryController(QueryGateway queryGateway) {
+    public MovieQueryController(QueryGateway queryGateway, MovieProjection movieProjection,
+            NdjsonWriter ndjsonWriter) {
         this.queryGateway = queryGateway;
+        this.movieProjection = movieProjection;
+        this.ndjsonWriter = ndjsonWriter;
     }
 
     // .join() có tác dụng chờ (block) cho đến khi QueryHandler xử lý xong và trả về
@@ -27,6 +37,22 @@ public class MovieQueryController {
         return queryGateway.query(query, ResponseTypes.multipleInstancesOf(MovieResponseModel.class)).join();
     }
 
+    // Keyset pagination: ?limit=50, trang sau truyền ?after=<nextCursor>
+    @GetMapping(params = "limit")
+    public PageResponseModel<MovieResponseModel> getMoviesPage(@RequestParam(required = false) String after,
+            @RequestParam Integer limit) {
+        int pageSize = PageResponseModel.pageSize(limit);
+        GetAllMoviesQuery query = new GetAllMoviesQuery(after, pageSize);
+        List<MovieResponseModel> movies = queryGateway
+                .query(query, ResponseTypes.multipleInstancesOf(MovieResponseModel.class)).join();
+        return PageResponseModel.of(movies, pageSize, MovieResponseModel::getId);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMovies() {
+        return ndjsonWriter.stream(movieProjection::streamAll);
+    }
+
     @GetMapping("/{id}")
     public MovieResponseModel getMovieById(@PathVariable String id) {
         GetMovieByIdQuery query = new GetMovieByIdQuery(id);
@@ -0,0 +1,51 @@
+package com.cinema.movies.query.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Ghi danh sách dưới dạng NDJSON (mỗi dòng một object JSON).
+ *
+ * Query bus trả về cả List một lần nên không stream được; các endpoint NDJSON
+ * đọc thẳng từ projection và ghi từng dòng ra response ngay khi đọc được.
+ * StreamingResponseBody không đi qua FormatRestResponse.
+ */
+@Component
+public class NdjsonWriter {
+
+    private final JsonMapper jsonMapper;
+
+    public NdjsonWriter(JsonMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> stream(Consumer<Consumer<T>> source) {
+        StreamingResponseBody body = out -> {
+            BufferedOutputStream buffered = new BufferedOutputStream(out, 16 * 1024);
+            try {
+                source.accept(item -> {
+                    try {
+                        buffered.write(jsonMapper.writeValueAsBytes(item));
+                        buffered.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            buffered.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
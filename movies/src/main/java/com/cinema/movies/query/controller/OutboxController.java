@@ -0,0 +1,23 @@
+package com.cinema.movies.query.controller;
+
+import com.cinema.movies.query.model.OutboxStatsResponseModel;
+import com.cinema.movies.service.outbox.OutboxRelay;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/admin/outbox")
+@ConditionalOnProperty(name = "outbox.enabled", havingValue = "true")
+public class OutboxController {
+
+    private final OutboxRelay outboxRelay;
+
+    public OutboxController(OutboxRelay outboxRelay) {
+        this.outboxRelay = outboxRelay;
+    }
+
+    @GetMapping
+    public OutboxStatsResponseModel getStats() {
+        return outboxRelay.stats();
+    }
+}
@@ -0,0 +1,66 @@
+package com.cinema.movies.query.controller;
+
+import com.cinema.movies.query.model.ProjectionLagResponseModel;
+import com.cinema.movies.query.model.ProjectionReplayStatusResponseModel;
+import com.cinema.movies.service.lag.ProjectionLagMonitor;
+import com.cinema.movies.service.replay.ProjectionReplayService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/projections")
+public class ProjectionAdminController {
+
+    private final ProjectionReplayService projectionReplayService;
+    private final ProjectionLagMonitor projectionLagMonitor;
+
+    public ProjectionAdminController(ProjectionReplayService projectionReplayService,
+            ProjectionLagMonitor projectionLagMonitor) {
+        this.projectionReplayService = projectionReplayService;
+        this.projectionLagMonitor = projectionLagMonitor;
+    }
+
+    @GetMapping("/lag")
+    public List<ProjectionLagResponseModel> getLags() {
+        return projectionLagMonitor.lags();
+    }
+
+    @GetMapping("/{group}/lag")
+    public ProjectionLagResponseModel getLag(@PathVariable String group) {
+        try {
+            return projectionLagMonitor.lag(group);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    @GetMapping("/replays")
+    public List<ProjectionReplayStatusResponseModel> getReplays() {
+        return projectionReplayService.statuses();
+    }
+
+    // Xoá read model của group và dựng lại từ event store, trả về ngay, theo dõi tiến độ qua GET
+    @PostMapping("/{group}/replay")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ProjectionReplayStatusResponseModel replay(@PathVariable String group) {
+        try {
+            return projectionReplayService.replay(group);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @GetMapping("/{group}/replay")
+    public ProjectionReplayStatusResponseModel getReplay(@PathVariable String group) {
+        try {
+            return projectionReplayService.status(group);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+}
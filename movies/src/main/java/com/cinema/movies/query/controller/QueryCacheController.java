@@ -0,0 +1,23 @@
+package com.cinema.movies.query.controller;
+
+import com.cinema.movies.query.model.QueryCacheStatsResponseModel;
+import com.cinema.movies.service.cache.QueryCacheRegistry;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/query-cache")
+public class QueryCacheController {
+
+    private final QueryCacheRegistry queryCacheRegistry;
+
+    public QueryCacheController(QueryCacheRegistry queryCacheRegistry) {
+        this.queryCacheRegistry = queryCacheRegistry;
+    }
+
+    @GetMapping("/stats")
+    public List<QueryCacheStatsResponseModel> getStats() {
+        return queryCacheRegistry.stats();
+    }
+}
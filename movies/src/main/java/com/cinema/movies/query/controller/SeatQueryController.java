@@ -1,11 +1,16 @@
 package com.cinema.movies.query.controller;
 
+import com.cinema.movies.query.model.PageResponseModel;
 import com.cinema.movies.query.model.SeatResponseModel;
+import com.cinema.movies.query.projection.SeatProjection;
 import com.cinema.movies.query.queries.GetAllSeatsQuery;
 import com.cinema.movies.query.queries.GetSeatByIdQuery;
 import org.axonframework.messaging.responsetypes.ResponseTypes;
 import org.axonframework.queryhandling.QueryGateway;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -14,9 +19,14 @@ import java.util.List;
 public class SeatQueryController {
 
     private final QueryGateway queryGateway;
+    private final SeatProjection seatProjection;
+    private final NdjsonWriter ndjsonWriter;
 
-    public SeatQueryController(QueryGateway queryGateway) {
+    public SeatQueryController(QueryGateway queryGateway, SeatProjection seatProjection,
+            NdjsonWriter ndjsonWriter) {
         this.queryGateway = queryGateway;
+        this.seatProjection = seatProjection;
+        this.ndjsonWriter = ndjsonWriter;
     }
 
     @GetMapping
@@ -25,6 +35,22 @@ public class SeatQueryController {
         return queryGateway.query(query, ResponseTypes.multipleInstancesOf(SeatResponseModel.class)).join();
     }
 
+    // Keyset pagination: ?limit=50, trang sau truyền ?after=<nextCursor>
+    @GetMapping(params = "limit")
+    public PageResponseModel<SeatResponseModel> getSeatsPage(@RequestParam(required = false) String after,
+            @RequestParam Integer limit) {
+        int pageSize = PageResponseModel.pageSize(limit);
+        GetAllSeatsQuery query = new GetAllSeatsQuery(after, pageSize);
+        List<SeatResponseModel> seats = queryGateway
+                .query(query, ResponseTypes.multipleInstancesOf(SeatResponseModel.class)).join();
+        return PageResponseModel.of(seats, pageSize, SeatResponseModel::getId);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSeats() {
+        return ndjsonWriter.stream(seatProjection::streamAll);
+    }
+
     @GetMapping("/{id}")
     public SeatResponseModel getSeatById(@PathVariable String id) {
         GetSeatByIdQuery query = new GetSeatByIdQuery(id);
@@ -1,12 +1,38 @@
 package com.cinema.movies.query.controller;
 
+import com.cinema.movies.config.SeatInventoryProperties;
+import com.cinema.movies.query.model.BestSeatsResponseModel;
+import com.cinema.movies.query.model.PageResponseModel;
+import com.cinema.movies.query.model.SeatStateResponseModel;
 import com.cinema.movies.query.model.ShowTimeResponseModel;
+import com.cinema.movies.query.projection.ShowTimeProjection;
 import com.cinema.movies.query.queries.GetAllShowTimesQuery;
+import com.cinema.movies.query.queries.GetBestAvailableSeatsQuery;
+import com.cinema.movies.query.queries.GetSeatStateQuery;
+import com.cinema.movies.query.queries.GetShowTimePlanQuery;
 import com.cinema.movies.query.queries.GetShowTimeByIdQuery;
+import com.cinema.movies.query.queries.SearchShowTimesQuery;
+import com.cinema.movies.service.schedule.ShowTimePlan;
 import org.axonframework.messaging.responsetypes.ResponseTypes;
 import org.axonframework.queryhandling.QueryGateway;
+import org.axonframework.queryhandling.SubscriptionQueryResult;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 
 @RestController
@@ -14,9 +40,16 @@ import java.util.List;
 public class ShowTimeQueryController {
 
     private final QueryGateway queryGateway;
+    private final SeatInventoryProperties seatInventoryProperties;
+    private final ShowTimeProjection showTimeProjection;
+    private final NdjsonWriter ndjsonWriter;
 
-    public ShowTimeQueryController(QueryGateway queryGateway) {
+    public ShowTimeQueryController(QueryGateway queryGateway, SeatInventoryProperties seatInventoryProperties,
+            ShowTimeProjection showTimeProjection, NdjsonWriter ndjsonWriter) {
         this.queryGateway = queryGateway;
+        this.seatInventoryProperties = seatInventoryProperties;
+        this.showTimeProjection = showTimeProjection;
+        this.ndjsonWriter = ndjsonWriter;
     }
 
     @GetMapping
@@ -25,9 +58,129 @@ public class ShowTimeQueryController {
         return queryGateway.query(query, ResponseTypes.multipleInstancesOf(ShowTimeResponseModel.class)).join();
     }
 
+    // Keyset pagination: ?limit=50, trang sau truyền ?after=<nextCursor>
+    @GetMapping(params = "limit")
+    public PageResponseModel<ShowTimeResponseModel> getShowTimesPage(@RequestParam(required = false) String after,
+            @RequestParam Integer limit) {
+        int pageSize = PageResponseModel.pageSize(limit);
+        GetAllShowTimesQuery query = new GetAllShowTimesQuery(after, pageSize);
+        List<ShowTimeResponseModel> showTimes = queryGateway
+                .query(query, ResponseTypes.multipleInstancesOf(ShowTimeResponseModel.class)).join();
+        return PageResponseModel.of(showTimes, pageSize, ShowTimeResponseModel::getId);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamShowTimes() {
+        return ndjsonWriter.stream(showTimeProjection::streamAll);
+    }
+
+    /**
+     * Tìm suất chiếu theo điều kiện, ví dụ:
+     * /search?movieId=X&cinemaId=Y&from=2026-01-01T18:00&to=2026-01-01T23:00&maxPrice=100000&limit=20
+     */
+    @GetMapping("/search")
+    public PageResponseModel<ShowTimeResponseModel> searchShowTimes(
+            @RequestParam(required = false) String movieId,
+            @RequestParam(required = false) String cinemaId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") Integer limit) {
+        int pageSize = PageResponseModel.pageSize(limit);
+        SearchShowTimesQuery query = SearchShowTimesQuery.builder()
+                .movieId(movieId)
+                .cinemaId(cinemaId)
+                .from(from)
+                .to(to)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .limit(pageSize)
+                .build();
+        if (after != null) {
+            applySearchCursor(query, after);
+        }
+        List<ShowTimeResponseModel> showTimes = queryGateway
+                .query(query, ResponseTypes.multipleInstancesOf(ShowTimeResponseModel.class)).join();
+        return PageResponseModel.of(showTimes, pageSize, ShowTimeQueryController::searchCursor);
+    }
+
     @GetMapping("/{id}")
     public ShowTimeResponseModel getShowTimeById(@PathVariable String id) {
         GetShowTimeByIdQuery query = new GetShowTimeByIdQuery(id);
         return queryGateway.query(query, ResponseTypes.instanceOf(ShowTimeResponseModel.class)).join();
     }
+
+    /**
+     * Đề xuất lịch chiếu một ngày, ví dụ: /plan?date=2026-01-01&cinemaIds=A,B
+     * Kết quả gửi lại POST /api/v1/showtimes/plans để tạo suất chiếu.
+     */
+    @GetMapping("/plan")
+    public ShowTimePlan getShowTimePlan(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) List<String> cinemaIds,
+            @RequestParam(required = false) List<String> movieIds) {
+        GetShowTimePlanQuery query = new GetShowTimePlanQuery(date, cinemaIds, movieIds);
+        return queryGateway.query(query, ResponseTypes.instanceOf(ShowTimePlan.class)).join();
+    }
+
+    @GetMapping("/{id}/best-seats")
+    public BestSeatsResponseModel getBestSeats(@PathVariable String id,
+            @RequestParam(defaultValue = "2") Integer count) {
+        GetBestAvailableSeatsQuery query = new GetBestAvailableSeatsQuery(id, count);
+        return queryGateway.query(query, ResponseTypes.instanceOf(BestSeatsResponseModel.class)).join();
+    }
+
+    @GetMapping("/{id}/seats")
+    public SeatStateResponseModel getSeatState(@PathVariable String id) {
+        GetSeatStateQuery query = new GetSeatStateQuery(id);
+        return queryGateway.query(query, ResponseTypes.instanceOf(SeatStateResponseModel.class)).join();
+    }
+
+    /**
+     * Stream trạng thái ghế qua Server-Sent Events: một event "snapshot" đầu tiên,
+     * sau đó mỗi thay đổi là một event "delta" chỉ chứa các ghế vừa đổi.
+     */
+    @GetMapping(value = "/{id}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeatState(@PathVariable String id) {
+        SubscriptionQueryResult<SeatStateResponseModel, SeatStateResponseModel> result = queryGateway
+                .subscriptionQuery(new GetSeatStateQuery(id),
+                        ResponseTypes.instanceOf(SeatStateResponseModel.class),
+                        ResponseTypes.instanceOf(SeatStateResponseModel.class));
+
+        SseEmitter emitter = new SseEmitter(seatInventoryProperties.getStreamTimeout().toMillis());
+        emitter.onCompletion(result::cancel);
+        emitter.onTimeout(result::cancel);
+        emitter.onError(e -> result.cancel());
+
+        Flux.concat(
+                result.initialResult().map(snapshot -> SseEmitter.event().name("snapshot").data(snapshot)),
+                result.updates().map(delta -> SseEmitter.event().name("delta").data(delta)))
+                .subscribe(event -> {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException e) {
+                        // Client đã ngắt kết nối
+                        result.cancel();
+                    }
+                }, emitter::completeWithError, emitter::complete);
+        return emitter;
+    }
+
+    // Cursor của search là (startTime, id) mã hoá base64url, client chỉ cần truyền lại nguyên văn
+    private static String searchCursor(ShowTimeResponseModel showTime) {
+        String raw = showTime.getStartTime() + "|" + showTime.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void applySearchCursor(SearchShowTimesQuery query, String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            query.setAfterStartTime(LocalDateTime.parse(raw.substring(0, separator)));
+            query.setAfterId(raw.substring(separator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor không hợp lệ");
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package com.cinema.movies.query.controller;
 
+import com.cinema.movies.query.model.PageResponseModel;
 import com.cinema.movies.query.model.WorkShiftResponseModel;
+import com.cinema.movies.query.projection.WorkShiftProjection;
 import com.cinema.movies.query.queries.GetAllWorkShiftsQuery;
 import com.cinema.movies.query.queries.GetWorkShiftByIdQuery;
 import com.cinema.movies.query.queries.GetWorkShiftsByEmployeeQuery;
@@ -8,7 +10,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.axonframework.messaging.responsetypes.ResponseTypes;
 import org.axonframework.queryhandling.QueryGateway;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -20,6 +25,12 @@ public class WorkShiftQueryController {
     @Autowired
     private QueryGateway queryGateway;
 
+    @Autowired
+    private WorkShiftProjection workShiftProjection;
+
+    @Autowired
+    private NdjsonWriter ndjsonWriter;
+
     @GetMapping
     public List<WorkShiftResponseModel> getAllWorkShifts() {
         log.info("GET /api/v1/workshifts - Get all work shifts");
@@ -30,6 +41,22 @@ public class WorkShiftQueryController {
                 ResponseTypes.multipleInstancesOf(WorkShiftResponseModel.class)).join();
     }
 
+    // Keyset pagination: ?limit=50, trang sau truyền ?after=<nextCursor>
+    @GetMapping(params = "limit")
+    public PageResponseModel<WorkShiftResponseModel> getWorkShiftsPage(@RequestParam(required = false) String after,
+            @RequestParam Integer limit) {
+        int pageSize = PageResponseModel.pageSize(limit);
+        GetAllWorkShiftsQuery query = new GetAllWorkShiftsQuery(after, pageSize);
+        List<WorkShiftResponseModel> workShifts = queryGateway
+                .query(query, ResponseTypes.multipleInstancesOf(WorkShiftResponseModel.class)).join();
+        return PageResponseModel.of(workShifts, pageSize, WorkShiftResponseModel::getId);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamWorkShifts() {
+        return ndjsonWriter.stream(workShiftProjection::streamAll);
+    }
+
     @GetMapping("/{id}")
     public WorkShiftResponseModel getWorkShiftById(@PathVariable String id) {
         log.info("GET /api/v1/workshifts/{} - Get work shift by id", id);
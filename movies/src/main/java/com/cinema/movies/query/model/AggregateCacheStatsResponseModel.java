@@ -0,0 +1,21 @@
+package com.cinema.movies.query.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AggregateCacheStatsResponseModel {
+    private String aggregateType;
+    private Integer size;
+    private Integer maxEntries;
+    private Long hits;
+    private Long misses;
+    private Long evictions;
+    private Long expirations;
+    private Long invalidations; // Bị xoá bởi repository: markDeleted, rollback, xung đột version
+    private Double hitRatio;
+    private Double averageMissLoadMillis; // Thời gian nạp từ event store khi không có trong cache
+}
@@ -0,0 +1,18 @@
+package com.cinema.movies.query.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AggregateLoadStatsResponseModel {
+    private String aggregateType;
+    private Integer snapshotThreshold;
+    private Long loads;
+    private Double averageLoadMillis;
+    private Double maxLoadMillis;
+    private Double averageEventsReplayed; // Số event replay sau snapshot gần nhất
+    private Long snapshots;
+}
@@ -0,0 +1,18 @@
+package com.cinema.movies.query.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BestSeatsResponseModel {
+    private String showTimeId;
+    private String seatRow;
+    private Integer firstSeatNumber;
+    private List<String> seatIds;
+    private Double score;
+}
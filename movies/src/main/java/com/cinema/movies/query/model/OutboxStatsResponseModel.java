@@ -0,0 +1,24 @@
+package com.cinema.movies.query.model;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxStatsResponseModel {
+    private String topic;
+    private Long pending; // Số dòng còn trong event_outbox
+    private Long published;
+    private Long failed; // Số lần gửi bị broker từ chối, dòng được gửi lại ở lượt sau
+    private Long batches;
+    private Double averageBatchSize;
+    private Double lastBatchEventsPerSecond; // Thông lượng của batch gần nhất, tính cả chờ ack
+    private Double averageDelayMillis; // Từ lúc event vào event store tới khi broker ack
+    private Long maxDelayMillis;
+    private Long lastDelayMillis;
+    private Instant lastPublishedAt;
+}
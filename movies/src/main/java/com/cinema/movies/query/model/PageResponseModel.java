@@ -0,0 +1,37 @@
+package com.cinema.movies.query.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Một trang kết quả theo keyset (cursor) pagination.
+ *
+ * {@code nextCursor} là id của phần tử cuối trang, truyền lại qua tham số
+ * {@code after} để lấy trang kế tiếp; null khi đã hết dữ liệu.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageResponseModel<T> {
+
+    public static final int MAX_LIMIT = 500;
+
+    private List<T> items;
+    private String nextCursor;
+
+    public static int pageSize(Integer limit) {
+        if (limit == null || limit < 1) {
+            return 1;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    public static <T> PageResponseModel<T> of(List<T> items, int pageSize, Function<T, String> idOf) {
+        String nextCursor = items.size() == pageSize ? idOf.apply(items.get(items.size() - 1)) : null;
+        return new PageResponseModel<>(items, nextCursor);
+    }
+}
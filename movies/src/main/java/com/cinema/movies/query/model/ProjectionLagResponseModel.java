@@ -0,0 +1,37 @@
+package com.cinema.movies.query.model;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProjectionLagResponseModel {
+    private String processingGroup;
+    private Boolean running;
+    private Long headPosition;
+    private Long lagEvents; // Của segment chậm nhất
+    private Double lagSeconds; // Tuổi của event cũ nhất chưa xử lý
+    private Long maxLagEvents; // Lớn nhất từng đo được
+    private Boolean alerting;
+    private Long alerts; // Số lần vượt ngưỡng
+    private Instant sampledAt;
+    private List<SegmentLagModel> segments;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class SegmentLagModel {
+        private Integer segmentId;
+        private Long position;
+        private Long lagEvents;
+        private Double lagSeconds;
+        private Boolean caughtUp;
+        private Boolean replaying;
+        private String error;
+    }
+}
@@ -0,0 +1,24 @@
+package com.cinema.movies.query.model;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProjectionReplayStatusResponseModel {
+    private String processingGroup;
+    private String state; // RUNNING, COMPLETED
+    private Integer segments;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Long totalEvents; // Số event tới head của event store lúc bắt đầu replay
+    private Long processedEvents; // Theo segment chậm nhất
+    private Double percent;
+    private Double eventsPerSecond; // Trung bình từ lúc bắt đầu
+    private Double currentEventsPerSecond; // Trong lần lấy mẫu gần nhất
+    private Long etaSeconds;
+}
@@ -0,0 +1,19 @@
+package com.cinema.movies.query.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QueryCacheStatsResponseModel {
+    private String name;
+    private Integer size;
+    private Integer maxEntries;
+    private Long hits;
+    private Long misses;
+    private Long evictions;
+    private Long invalidations;
+    private Double hitRatio;
+}
@@ -0,0 +1,26 @@
+package com.cinema.movies.query.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SeatMapResponseModel {
+    private String cinemaId;
+    private Long version;
+    private Integer seatCount;
+    private List<SeatMapRowModel> rows;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class SeatMapRowModel {
+        private String row;
+        private String seatMask; // 128 bit dạng hex, bit 0 = ghế số 1
+        private List<String> seatIds; // Theo thứ tự bit tăng dần
+    }
+}
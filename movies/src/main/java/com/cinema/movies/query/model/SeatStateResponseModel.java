@@ -0,0 +1,23 @@
+package com.cinema.movies.query.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Trạng thái ghế của một suất chiếu.
+ *
+ * Bản đầu tiên (snapshot) chứa toàn bộ ghế; các bản cập nhật (delta) chỉ chứa
+ * những ghế vừa đổi trạng thái, với trạng thái hiện tại của chúng.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SeatStateResponseModel {
+    private String showTimeId;
+    private List<String> availableSeatIds;
+    private List<String> heldSeatIds;
+    private List<String> soldSeatIds;
+}
@@ -0,0 +1,45 @@
+package com.cinema.movies.query.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowTimeBoardResponseModel {
+
+    private String cinemaId;
+    private LocalDate date;
+    private List<BoardShowTime> nowShowing; // Đang chiếu tại thời điểm truy vấn
+    private List<BoardShowTime> nextUp; // Các suất sắp bắt đầu, theo giờ
+    private List<BoardMovie> movies; // Cả ngày, nhóm theo phim
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BoardMovie {
+        private String movieId;
+        private String title;
+        private Integer duration;
+        private String posterUrl;
+        private List<BoardShowTime> showTimes;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BoardShowTime {
+        private String id;
+        private String movieId;
+        private String movieTitle;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private BigDecimal price;
+    }
+}
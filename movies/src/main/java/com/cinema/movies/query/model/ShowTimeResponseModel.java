@@ -14,8 +14,11 @@ public class ShowTimeResponseModel {
     private String id;
     private String movieId;
     private String movieTitle;
+    private Integer movieDuration;
+    private String posterUrl;
     private String cinemaId;
     private String cinemaName;
     private LocalDateTime startTime;
+    private LocalDateTime endTime;
     private BigDecimal price;
 }
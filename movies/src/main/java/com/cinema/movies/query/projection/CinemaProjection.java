@@ -5,40 +5,80 @@ import com.cinema.movies.command.data.Reponsitory.CinemaRepository;
 import com.cinema.movies.query.model.CinemaResponseModel;
 import com.cinema.movies.query.queries.GetAllCinemasQuery;
 import com.cinema.movies.query.queries.GetCinemaByIdQuery;
+import com.cinema.movies.service.cache.QueryCacheRegistry;
+import com.cinema.movies.service.cache.QueryResultCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.axonframework.queryhandling.QueryHandler;
-import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
 public class CinemaProjection {
 
     private final CinemaRepository cinemaRepository;
 
-    public CinemaProjection(CinemaRepository cinemaRepository) {
+    // Đọc nhiều hơn ghi rất nhiều: cache kết quả, CinemaEventHandler gọi evict() khi dữ liệu đổi
+    private final QueryResultCache<GetCinemaByIdQuery, CinemaResponseModel> cinemaCache;
+    private final QueryResultCache<GetAllCinemasQuery, List<CinemaResponseModel>> cinemaListCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CinemaProjection(CinemaRepository cinemaRepository, QueryCacheRegistry queryCacheRegistry) {
         this.cinemaRepository = cinemaRepository;
+        this.cinemaCache = queryCacheRegistry.create("cinemas.byId");
+        this.cinemaListCache = queryCacheRegistry.create("cinemas.list");
     }
 
     @QueryHandler
-    public List<CinemaResponseModel> handle(GetAllCinemasQuery query) {
-        List<Cinema> cinemas = cinemaRepository.findAll();
-        return cinemas.stream()
-                .map(cinema -> {
-                    CinemaResponseModel model = new CinemaResponseModel();
-                    BeanUtils.copyProperties(cinema, model);
-                    return model;
-                })
-                .collect(Collectors.toList());
+    public List<CinemaResponseModel> handle(GetAllCinemasQuery query) throws Exception {
+        return cinemaListCache.get(query, () -> {
+            List<Cinema> cinemas = query.getLimit() != null
+                    ? cinemaRepository.findPageAfter(ReadModelStreams.after(query.getAfterId()), Limit.of(query.getLimit()))
+                    : cinemaRepository.findAll();
+            return cinemas.stream()
+                    .map(this::mapToResponseModel)
+                    .collect(Collectors.toUnmodifiableList());
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<CinemaResponseModel> consumer) {
+        try (Stream<Cinema> cinemas = cinemaRepository.streamAllOrderById()) {
+            ReadModelStreams.forEach(cinemas, entityManager, this::mapToResponseModel, consumer);
+        }
     }
 
     @QueryHandler
     public CinemaResponseModel handle(GetCinemaByIdQuery query) throws Exception {
-        Cinema cinema = cinemaRepository.findById(query.getId())
-                .orElseThrow(() -> new Exception("Not found cinemas :" + query.getId()));
-        CinemaResponseModel model = new CinemaResponseModel();
-        BeanUtils.copyProperties(cinema, model);
-        return model;
+        return cinemaCache.get(query, () -> {
+            Cinema cinema = cinemaRepository.findById(query.getId())
+                    .orElseThrow(() -> new Exception("Not found cinemas :" + query.getId()));
+            return mapToResponseModel(cinema);
+        });
+    }
+
+    /**
+     * Xoá kết quả đã cache của một cinema: bản ghi theo id và mọi trang danh sách.
+     */
+    public void evict(String cinemaId) {
+        cinemaCache.invalidateAfterCommit(query -> cinemaId.equals(query.getId()));
+        cinemaListCache.invalidateAfterCommit(query -> true);
+    }
+
+    public void evictAll() {
+        cinemaCache.invalidateAfterCommit(query -> true);
+        cinemaListCache.invalidateAfterCommit(query -> true);
+    }
+
+    private CinemaResponseModel mapToResponseModel(Cinema cinema) {
+        return new CinemaResponseModel(cinema.getId(), cinema.getName(), cinema.getAddress());
     }
 }
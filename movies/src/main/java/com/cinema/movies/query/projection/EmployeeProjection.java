@@ -6,31 +6,52 @@ import com.cinema.movies.command.data.Reponsitory.CinemaRepository;
 import com.cinema.movies.command.data.Reponsitory.EmployeeRepository;
 import com.cinema.movies.command.event.EmployeeCreatedEvent;
 import com.cinema.movies.command.event.EmployeeDeletedEvent;
+import com.cinema.movies.command.event.EmployeePatchedEvent;
 import com.cinema.movies.command.event.EmployeeUpdatedEvent;
+import com.cinema.movies.config.ProjectionProcessingConfig;
 import com.cinema.movies.query.model.EmployeeResponseModel;
 import com.cinema.movies.query.queries.GetAllEmployeesQuery;
 import com.cinema.movies.query.queries.GetEmployeeByIdQuery;
 import com.cinema.movies.query.queries.GetEmployeesByCinemaQuery;
+import com.cinema.movies.service.replay.ReadModelNotReadyException;
+import com.cinema.movies.service.replay.ReadModelTables;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
+import org.axonframework.config.ProcessingGroup;
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ResetHandler;
 import org.axonframework.queryhandling.QueryHandler;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
+@ProcessingGroup(ProjectionProcessingConfig.EMPLOYEE_GROUP)
 @Slf4j
 public class EmployeeProjection {
 
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private CinemaRepository cinemaRepository;
 
+    @Autowired
+    private ReadModelTables readModelTables;
+
     /*
      * =======================
      * EVENT HANDLERS
@@ -38,7 +59,7 @@ public class EmployeeProjection {
      */
 
     @EventHandler
-    public void on(EmployeeCreatedEvent event) {
+    public void on(EmployeeCreatedEvent event) throws ReadModelNotReadyException {
         log.info("EmployeeCreatedEvent received - ID: {}", event.getId());
 
         // Idempotent - check exists
@@ -47,8 +68,12 @@ public class EmployeeProjection {
             return;
         }
 
-        Cinema cinema = cinemaRepository.findById(event.getCinemaId())
-                .orElseThrow(() -> new RuntimeException("Cinema not found: " + event.getCinemaId()));
+        // Rạp đã bị xoá thì nhân viên cũng không còn
+        Cinema cinema = readModelTables.findRow("cinemas", event.getCinemaId(), cinemaRepository::findById)
+                .orElse(null);
+        if (cinema == null) {
+            return;
+        }
 
         Employee employee = Employee.builder()
                 .id(event.getId())
@@ -62,14 +87,16 @@ public class EmployeeProjection {
     }
 
     @EventHandler
-    public void on(EmployeeUpdatedEvent event) {
+    public void on(EmployeeUpdatedEvent event) throws ReadModelNotReadyException {
         log.info("EmployeeUpdatedEvent received - ID: {}", event.getId());
 
-        Employee employee = employeeRepository.findById(event.getId())
-                .orElseThrow(() -> new RuntimeException("Employee not found: " + event.getId()));
-
-        Cinema cinema = cinemaRepository.findById(event.getCinemaId())
-                .orElseThrow(() -> new RuntimeException("Cinema not found: " + event.getCinemaId()));
+        Employee employee = readModelTables.findRow("employees", event.getId(), employeeRepository::findById)
+                .orElse(null);
+        Cinema cinema = readModelTables.findRow("cinemas", event.getCinemaId(), cinemaRepository::findById)
+                .orElse(null);
+        if (employee == null || cinema == null) {
+            return;
+        }
 
         employee.setUserId(event.getUserId());
         employee.setCinema(cinema);
@@ -79,15 +106,51 @@ public class EmployeeProjection {
         employeeRepository.save(employee);
     }
 
+    // Chỉ ghi các cột có trong patch
     @EventHandler
+    @Transactional
+    public void on(EmployeePatchedEvent event) throws ReadModelNotReadyException {
+        log.info("EmployeePatchedEvent received - ID: {}", event.getId());
+
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (event.getUserId() != null) {
+            columns.put("user_id", event.getUserId());
+        }
+        if (event.getCinemaId() != null) {
+            columns.put("cinema_id", event.getCinemaId());
+        }
+        if (event.getPosition() != null) {
+            columns.put("position", event.getPosition());
+        }
+        if (event.getStatus() != null) {
+            columns.put("status", event.getStatus());
+        }
+
+        if (!readModelTables.requireRow("cinemas", event.getCinemaId(), cinemaRepository::existsById)) {
+            return;
+        }
+        // Entity có thể đang nằm trong persistence context: ghi xuống trước khi UPDATE bằng JDBC
+        employeeRepository.flush();
+        if (readModelTables.update("employees", event.getId(), columns) == 0) {
+            readModelTables.requireRow("employees", event.getId(), employeeRepository::existsById);
+        }
+    }
+
+    // Ca làm việc (group khác) bị xoá theo; event tới muộn của chúng thấy dấu vết và bỏ qua
+    @EventHandler
+    @Transactional
     public void on(EmployeeDeletedEvent event) {
         log.info("EmployeeDeletedEvent received - ID: {}", event.getId());
 
-        if (employeeRepository.existsById(event.getId())) {
-            employeeRepository.deleteById(event.getId());
-        } else {
-            log.warn("Employee already deleted: {}", event.getId());
-        }
+        // Entity có thể đang nằm trong persistence context: ghi xuống trước khi DELETE bằng JDBC
+        employeeRepository.flush();
+        readModelTables.deleteWhere("work_shifts", "employee_id = ?", event.getId());
+        readModelTables.delete("employees", event.getId());
+    }
+
+    @ResetHandler
+    public void onReset() {
+        readModelTables.clearUnreferenced("employees", "work_shifts.employee_id");
     }
 
     /*
@@ -100,12 +163,21 @@ public class EmployeeProjection {
     public List<EmployeeResponseModel> handle(GetAllEmployeesQuery query) {
         log.info("GetAllEmployeesQuery received");
 
-        List<Employee> employees = employeeRepository.findAll();
+        List<Employee> employees = query.getLimit() != null
+                ? employeeRepository.findPageAfter(ReadModelStreams.after(query.getAfterId()), Limit.of(query.getLimit()))
+                : employeeRepository.findAll();
         return employees.stream()
                 .map(this::mapToResponseModel)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<EmployeeResponseModel> consumer) {
+        try (Stream<Employee> employees = employeeRepository.streamAllOrderById()) {
+            ReadModelStreams.forEach(employees, entityManager, this::mapToResponseModel, consumer);
+        }
+    }
+
     @QueryHandler
     public EmployeeResponseModel handle(GetEmployeeByIdQuery query) throws Exception {
         log.info("GetEmployeeByIdQuery received - ID: {}", query.getId());
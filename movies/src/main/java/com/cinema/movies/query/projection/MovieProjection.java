@@ -5,40 +5,81 @@ import com.cinema.movies.command.data.Reponsitory.MovieRepository;
 import com.cinema.movies.query.model.MovieResponseModel;
 import com.cinema.movies.query.queries.GetAllMoviesQuery;
 import com.cinema.movies.query.queries.GetMovieByIdQuery;
+import com.cinema.movies.service.cache.QueryCacheRegistry;
+import com.cinema.movies.service.cache.QueryResultCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.axonframework.queryhandling.QueryHandler;
-import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
 public class MovieProjection {
 
     private final MovieRepository movieRepository;
 
-    public MovieProjection(MovieRepository movieRepository) {
+    // Đọc nhiều hơn ghi rất nhiều: cache kết quả, MovieEventHandler gọi evict() khi dữ liệu đổi
+    private final QueryResultCache<GetMovieByIdQuery, MovieResponseModel> movieCache;
+    private final QueryResultCache<GetAllMoviesQuery, List<MovieResponseModel>> movieListCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public MovieProjection(MovieRepository movieRepository, QueryCacheRegistry queryCacheRegistry) {
         this.movieRepository = movieRepository;
+        this.movieCache = queryCacheRegistry.create("movies.byId");
+        this.movieListCache = queryCacheRegistry.create("movies.list");
     }
 
     @QueryHandler
-    public List<MovieResponseModel> handle(GetAllMoviesQuery query) {
-        List<Movie> movies = movieRepository.findAll();
-        return movies.stream()
-                .map(movie -> {
-                    MovieResponseModel model = new MovieResponseModel();
-                    BeanUtils.copyProperties(movie, model);
-                    return model;
-                })
-                .collect(Collectors.toList());
+    public List<MovieResponseModel> handle(GetAllMoviesQuery query) throws Exception {
+        return movieListCache.get(query, () -> {
+            List<Movie> movies = query.getLimit() != null
+                    ? movieRepository.findPageAfter(ReadModelStreams.after(query.getAfterId()), Limit.of(query.getLimit()))
+                    : movieRepository.findAll();
+            return movies.stream()
+                    .map(this::mapToResponseModel)
+                    .collect(Collectors.toUnmodifiableList());
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<MovieResponseModel> consumer) {
+        try (Stream<Movie> movies = movieRepository.streamAllOrderById()) {
+            ReadModelStreams.forEach(movies, entityManager, this::mapToResponseModel, consumer);
+        }
     }
 
     @QueryHandler
     public MovieResponseModel handle(GetMovieByIdQuery query) throws Exception {
-        Movie movie = movieRepository.findById(query.getId())
-                .orElseThrow(() -> new Exception("Not found movies :" + query.getId()));
-        MovieResponseModel model = new MovieResponseModel();
-        BeanUtils.copyProperties(movie, model);
-        return model;
+        return movieCache.get(query, () -> {
+            Movie movie = movieRepository.findById(query.getId())
+                    .orElseThrow(() -> new Exception("Not found movies :" + query.getId()));
+            return mapToResponseModel(movie);
+        });
+    }
+
+    /**
+     * Xoá kết quả đã cache của một movie: bản ghi theo id và mọi trang danh sách.
+     */
+    public void evict(String movieId) {
+        movieCache.invalidateAfterCommit(query -> movieId.equals(query.getId()));
+        movieListCache.invalidateAfterCommit(query -> true);
+    }
+
+    public void evictAll() {
+        movieCache.invalidateAfterCommit(query -> true);
+        movieListCache.invalidateAfterCommit(query -> true);
+    }
+
+    private MovieResponseModel mapToResponseModel(Movie movie) {
+        return new MovieResponseModel(movie.getId(), movie.getTitle(), movie.getDescription(),
+                movie.getDuration(), movie.getPosterUrl());
     }
 }
@@ -0,0 +1,36 @@
+package com.cinema.movies.query.projection;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Duyệt một Stream entity lấy từ JDBC cursor mà không giữ lại entity đã đọc.
+ *
+ * Persistence context được clear định kỳ, nên bộ nhớ không tăng theo số dòng.
+ */
+final class ReadModelStreams {
+
+    static final int FETCH_SIZE = 500;
+
+    private ReadModelStreams() {
+    }
+
+    // Cursor rỗng = trang đầu tiên, vì "" nhỏ hơn mọi id
+    static String after(String cursor) {
+        return cursor != null ? cursor : "";
+    }
+
+    static <E, T> void forEach(Stream<E> rows, EntityManager entityManager, Function<E, T> mapper,
+            Consumer<T> consumer) {
+        int[] count = { 0 };
+        rows.forEachOrdered(row -> {
+            consumer.accept(mapper.apply(row));
+            if (++count[0] % FETCH_SIZE == 0) {
+                entityManager.clear();
+            }
+        });
+    }
+}
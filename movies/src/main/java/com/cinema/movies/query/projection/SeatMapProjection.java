@@ -0,0 +1,125 @@
+package com.cinema.movies.query.projection;
+
+import com.cinema.movies.command.data.Reponsitory.CinemaRepository;
+import com.cinema.movies.config.QueryCacheProperties;
+import com.cinema.movies.query.model.SeatMapResponseModel;
+import com.cinema.movies.query.queries.GetEncodedSeatMapQuery;
+import com.cinema.movies.query.queries.GetSeatMapQuery;
+import com.cinema.movies.service.inventory.CinemaSeatLayout;
+import com.cinema.movies.service.inventory.CinemaSeatLayoutRegistry;
+import com.cinema.movies.service.inventory.SeatGrid;
+import com.cinema.movies.service.inventory.SeatMapEncoder;
+import org.axonframework.queryhandling.QueryHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sơ đồ ghế của từng rạp, đọc từ layout trong bộ nhớ (không query H2).
+ *
+ * Kết quả JSON và nhị phân được cache theo phiên bản layout: layout là
+ * immutable và được thay mới mỗi khi có Seat event, nên chỉ cần so sánh
+ * phiên bản để biết cache còn dùng được hay không.
+ *
+ * Chỉ layout đã có trong registry mới được cache (LRU, query-cache.max-entries), nên id rạp
+ * tuỳ ý từ request không làm cache phình ra; rạp không tồn tại trả về 404.
+ */
+@Component
+public class SeatMapProjection {
+
+    private final CinemaSeatLayoutRegistry layoutRegistry;
+    private final CinemaRepository cinemaRepository;
+    private final Map<String, CachedSeatMap> cache;
+
+    public SeatMapProjection(CinemaSeatLayoutRegistry layoutRegistry, CinemaRepository cinemaRepository,
+            QueryCacheProperties properties) {
+        this.layoutRegistry = layoutRegistry;
+        this.cinemaRepository = cinemaRepository;
+        int maxEntries = properties.getMaxEntries();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedSeatMap> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @QueryHandler
+    public SeatMapResponseModel handle(GetSeatMapQuery query) throws Exception {
+        return cached(query.getCinemaId()).model;
+    }
+
+    @QueryHandler
+    public byte[] handle(GetEncodedSeatMapQuery query) throws Exception {
+        return cached(query.getCinemaId()).encoded;
+    }
+
+    private CachedSeatMap cached(String cinemaId) throws Exception {
+        Optional<CinemaSeatLayout> known = layoutRegistry.find(cinemaId);
+        if (known.isEmpty()) {
+            // Rạp chưa có ghế nào: sơ đồ rỗng, không cache
+            if (!cinemaRepository.existsById(cinemaId)) {
+                throw new Exception("Not found cinemas :" + cinemaId);
+            }
+            return build(CinemaSeatLayout.empty(cinemaId));
+        }
+        CinemaSeatLayout layout = known.get();
+        synchronized (cache) {
+            CachedSeatMap current = cache.get(cinemaId);
+            if (current != null && current.version == layout.getVersion()) {
+                return current;
+            }
+        }
+        CachedSeatMap rebuilt = build(layout);
+        // Chỉ ghi đè khi bản mới hơn, tránh request chậm ghi lại bản cũ
+        synchronized (cache) {
+            cache.merge(cinemaId, rebuilt, (old, fresh) -> fresh.version >= old.version ? fresh : old);
+        }
+        return rebuilt;
+    }
+
+    private CachedSeatMap build(CinemaSeatLayout layout) {
+        return new CachedSeatMap(layout.getVersion(), toModel(layout), SeatMapEncoder.encode(layout));
+    }
+
+    private SeatMapResponseModel toModel(CinemaSeatLayout layout) {
+        List<SeatMapResponseModel.SeatMapRowModel> rows = new ArrayList<>();
+        for (int row = 0; row < SeatGrid.MAX_ROWS; row++) {
+            int w = row * SeatGrid.WORDS_PER_ROW;
+            long lo = layout.word(w);
+            long hi = layout.word(w + 1);
+            if ((lo | hi) == 0) {
+                continue;
+            }
+            List<String> seatIds = new ArrayList<>(Long.bitCount(lo) + Long.bitCount(hi));
+            for (int bit = 0; bit < SeatGrid.SEATS_PER_ROW; bit++) {
+                int index = row * SeatGrid.SEATS_PER_ROW + bit;
+                if (layout.hasSeatAt(index)) {
+                    seatIds.add(layout.seatIdAt(index));
+                }
+            }
+            String mask = String.format("%016x%016x", hi, lo);
+            rows.add(new SeatMapResponseModel.SeatMapRowModel(SeatGrid.rowLabel(row), mask,
+                    Collections.unmodifiableList(seatIds)));
+        }
+        return new SeatMapResponseModel(layout.getCinemaId(), layout.getVersion(), layout.seatCount(),
+                Collections.unmodifiableList(rows));
+    }
+
+    private static final class CachedSeatMap {
+        private final long version;
+        private final SeatMapResponseModel model;
+        private final byte[] encoded;
+
+        private CachedSeatMap(long version, SeatMapResponseModel model, byte[] encoded) {
+            this.version = version;
+            this.model = model;
+            this.encoded = encoded;
+        }
+    }
+}
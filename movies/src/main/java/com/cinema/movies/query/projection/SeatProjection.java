@@ -5,18 +5,26 @@ import com.cinema.movies.command.data.Reponsitory.SeatRepository;
 import com.cinema.movies.query.model.SeatResponseModel;
 import com.cinema.movies.query.queries.GetAllSeatsQuery;
 import com.cinema.movies.query.queries.GetSeatByIdQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.axonframework.queryhandling.QueryHandler;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
 public class SeatProjection {
 
     private final SeatRepository seatRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public SeatProjection(SeatRepository seatRepository) {
         this.seatRepository = seatRepository;
     }
@@ -24,12 +32,21 @@ public class SeatProjection {
     @QueryHandler
     @Transactional(readOnly = true)
     public List<SeatResponseModel> handle(GetAllSeatsQuery query) {
-        List<Seat> seats = seatRepository.findAllWithDetails();
+        List<Seat> seats = query.getLimit() != null
+                ? seatRepository.findPageAfter(ReadModelStreams.after(query.getAfterId()), Limit.of(query.getLimit()))
+                : seatRepository.findAllWithDetails();
         return seats.stream()
                 .map(this::mapToResponseModel)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<SeatResponseModel> consumer) {
+        try (Stream<Seat> seats = seatRepository.streamAllOrderById()) {
+            ReadModelStreams.forEach(seats, entityManager, this::mapToResponseModel, consumer);
+        }
+    }
+
     @QueryHandler
     @Transactional(readOnly = true)
     public SeatResponseModel handle(GetSeatByIdQuery query) throws Exception {
@@ -0,0 +1,44 @@
+package com.cinema.movies.query.projection;
+
+import com.cinema.movies.query.model.BestSeatsResponseModel;
+import com.cinema.movies.query.queries.GetBestAvailableSeatsQuery;
+import com.cinema.movies.service.inventory.CinemaSeatLayout;
+import com.cinema.movies.service.inventory.SeatBlock;
+import com.cinema.movies.service.inventory.SeatBlockFinder;
+import com.cinema.movies.service.inventory.SeatInventoryService;
+import com.cinema.movies.service.inventory.ShowTimeSeatInventory;
+import org.axonframework.queryhandling.QueryHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Component
+public class SeatSelectionProjection {
+
+    private final SeatInventoryService seatInventoryService;
+
+    public SeatSelectionProjection(SeatInventoryService seatInventoryService) {
+        this.seatInventoryService = seatInventoryService;
+    }
+
+    @QueryHandler
+    public BestSeatsResponseModel handle(GetBestAvailableSeatsQuery query) throws Exception {
+        ShowTimeSeatInventory inventory = seatInventoryService.getInventory(query.getShowTimeId())
+                .orElseThrow(() -> new Exception("Not found showtimes :" + query.getShowTimeId()));
+        CinemaSeatLayout layout = seatInventoryService.getLayout(inventory);
+
+        SeatBlock block = SeatBlockFinder.findBest(layout, inventory, query.getCount());
+        if (block == null) {
+            return new BestSeatsResponseModel(query.getShowTimeId(), null, null, Collections.emptyList(), null);
+        }
+
+        List<String> seatIds = new ArrayList<>(block.getCount());
+        for (int index : block.indexes()) {
+            seatIds.add(layout.seatIdAt(index));
+        }
+        return new BestSeatsResponseModel(query.getShowTimeId(), block.getRowLabel(), block.getFirstNumber(),
+                seatIds, block.getScore());
+    }
+}
@@ -0,0 +1,169 @@
+package com.cinema.movies.query.projection;
+
+import com.cinema.movies.query.model.SeatStateResponseModel;
+import com.cinema.movies.query.queries.GetSeatStateQuery;
+import com.cinema.movies.service.inventory.CinemaSeatLayout;
+import com.cinema.movies.service.inventory.SeatGrid;
+import com.cinema.movies.service.inventory.SeatInventoryListener;
+import com.cinema.movies.service.inventory.SeatInventoryService;
+import com.cinema.movies.service.inventory.ShowTimeSeatInventory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.queryhandling.QueryHandler;
+import org.axonframework.queryhandling.QueryUpdateEmitter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Trạng thái ghế theo suất chiếu, hỗ trợ subscription query.
+ *
+ * Mỗi thay đổi trên seat inventory được phát qua QueryUpdateEmitter, chỉ tới
+ * các subscriber của đúng suất chiếu đó, thay vì để client poll lại toàn bộ
+ * danh sách ghế.
+ *
+ * Thread giữ/nhả/bán ghế chỉ đánh dấu các ghế vừa đổi vào hàng đợi của suất
+ * chiếu; việc dựng delta và emit chạy trên thread riêng, không giữ khoá nào.
+ * Các thay đổi dồn lại trong lúc chờ được gộp thành một delta.
+ */
+@Component
+public class SeatStateProjection implements SeatInventoryListener {
+
+    private final SeatInventoryService seatInventoryService;
+    private final QueryUpdateEmitter queryUpdateEmitter;
+    private final Map<String, PendingSeats> pending = new ConcurrentHashMap<>();
+    private final ExecutorService emitter = Executors.newSingleThreadExecutor(new AxonThreadFactory("seat-state"));
+
+    public SeatStateProjection(SeatInventoryService seatInventoryService, QueryUpdateEmitter queryUpdateEmitter) {
+        this.seatInventoryService = seatInventoryService;
+        this.queryUpdateEmitter = queryUpdateEmitter;
+    }
+
+    @PostConstruct
+    public void register() {
+        seatInventoryService.addListener(this);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        emitter.shutdown();
+    }
+
+    @QueryHandler
+    public SeatStateResponseModel handle(GetSeatStateQuery query) throws Exception {
+        ShowTimeSeatInventory inventory = seatInventoryService.getInventory(query.getShowTimeId())
+                .orElseThrow(() -> new Exception("Not found showtimes :" + query.getShowTimeId()));
+        CinemaSeatLayout layout = seatInventoryService.getLayout(inventory);
+
+        List<Integer> indexes = new ArrayList<>(layout.seatCount());
+        for (int index = 0; index < SeatGrid.CAPACITY; index++) {
+            if (layout.hasSeatAt(index)) {
+                indexes.add(index);
+            }
+        }
+        return toModel(inventory, layout, indexes);
+    }
+
+    @Override
+    public void seatsChanged(ShowTimeSeatInventory inventory, int[] seatIndexes) {
+        PendingSeats seats = pending.computeIfAbsent(inventory.getShowTimeId(), id -> new PendingSeats(inventory));
+        if (seats.mark(seatIndexes)) {
+            try {
+                emitter.execute(() -> drain(seats));
+            } catch (RejectedExecutionException e) {
+                // Đang shutdown: không còn subscriber nào cần cập nhật
+                seats.discard();
+            }
+        }
+    }
+
+    @Override
+    public void showTimeRemoved(String showTimeId) {
+        pending.remove(showTimeId);
+        queryUpdateEmitter.complete(GetSeatStateQuery.class, query -> showTimeId.equals(query.getShowTimeId()));
+    }
+
+    // Mỗi suất chiếu chỉ có tối đa một lần drain đang chạy, nên delta tới client
+    // đúng thứ tự; trạng thái được đọc sau khi lấy các ghế đánh dấu, nên delta
+    // cuối cùng luôn phản ánh trạng thái mới nhất.
+    private void drain(PendingSeats seats) {
+        BitSet changed;
+        while ((changed = seats.takeOrFinish()) != null) {
+            ShowTimeSeatInventory inventory = seats.inventory;
+            CinemaSeatLayout layout = seatInventoryService.getLayout(inventory);
+            List<Integer> indexes = new ArrayList<>(changed.cardinality());
+            changed.stream().forEach(indexes::add);
+            SeatStateResponseModel delta = toModel(inventory, layout, indexes);
+            queryUpdateEmitter.emit(GetSeatStateQuery.class,
+                    query -> inventory.getShowTimeId().equals(query.getShowTimeId()), delta);
+        }
+    }
+
+    private SeatStateResponseModel toModel(ShowTimeSeatInventory inventory, CinemaSeatLayout layout,
+            List<Integer> indexes) {
+        List<String> available = new ArrayList<>();
+        List<String> held = new ArrayList<>();
+        List<String> sold = new ArrayList<>();
+        for (int index : indexes) {
+            String seatId = layout.seatIdAt(index);
+            if (seatId == null) {
+                continue;
+            }
+            if (inventory.isSold(index)) {
+                sold.add(seatId);
+            } else if (inventory.isTaken(index)) {
+                held.add(seatId);
+            } else {
+                available.add(seatId);
+            }
+        }
+        return new SeatStateResponseModel(inventory.getShowTimeId(), available, held, sold);
+    }
+
+    private static final class PendingSeats {
+
+        private final ShowTimeSeatInventory inventory;
+        private BitSet changed = new BitSet(SeatGrid.CAPACITY);
+        private boolean scheduled;
+
+        private PendingSeats(ShowTimeSeatInventory inventory) {
+            this.inventory = inventory;
+        }
+
+        // true nếu cần lên lịch drain mới
+        private synchronized boolean mark(int[] seatIndexes) {
+            for (int index : seatIndexes) {
+                changed.set(index);
+            }
+            if (scheduled) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+
+        // null khi không còn gì để emit, đồng thời cho phép lên lịch lần sau
+        private synchronized BitSet takeOrFinish() {
+            if (changed.isEmpty()) {
+                scheduled = false;
+                return null;
+            }
+            BitSet taken = changed;
+            changed = new BitSet(SeatGrid.CAPACITY);
+            return taken;
+        }
+
+        private synchronized void discard() {
+            changed.clear();
+            scheduled = false;
+        }
+    }
+}
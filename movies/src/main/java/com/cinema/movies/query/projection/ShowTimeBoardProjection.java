@@ -0,0 +1,393 @@
+package com.cinema.movies.query.projection;
+
+import com.cinema.movies.command.event.MovieCreateEvent;
+import com.cinema.movies.command.event.MovieDeletedEvent;
+import com.cinema.movies.command.event.MoviePatchedEvent;
+import com.cinema.movies.command.event.MovieUpdatedEvent;
+import com.cinema.movies.command.event.ShowTimeCreatedEvent;
+import com.cinema.movies.command.event.ShowTimeDeletedEvent;
+import com.cinema.movies.command.event.ShowTimePatchedEvent;
+import com.cinema.movies.command.event.ShowTimeUpdatedEvent;
+import com.cinema.movies.config.ShowTimeBoardProperties;
+import com.cinema.movies.query.model.ShowTimeBoardResponseModel;
+import com.cinema.movies.query.model.ShowTimeBoardResponseModel.BoardMovie;
+import com.cinema.movies.query.model.ShowTimeBoardResponseModel.BoardShowTime;
+import com.cinema.movies.query.queries.GetShowTimeBoardQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.queryhandling.QueryHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bảng "đang chiếu / sắp chiếu" theo (rạp, ngày), giữ trong bộ nhớ và cập nhật
+ * dần từ ShowTime/Movie events.
+ *
+ * Mỗi bảng ngày là một TreeSet theo giờ bắt đầu; lần đọc đầu sau khi thay đổi
+ * dựng một snapshot bất biến (mảng theo giờ + nhóm theo phim), các lần đọc sau
+ * chỉ tìm nhị phân trên snapshot đó. Bảng của các ngày đã qua được dọn lúc
+ * chuyển ngày.
+ */
+@Component
+@Slf4j
+public class ShowTimeBoardProjection {
+
+    // Khi tìm suất đang chiếu chỉ cần quét ngược các suất bắt đầu trong khoảng này
+    private static final Duration MAX_RUNTIME = Duration.ofHours(6);
+
+    private static final Comparator<BoardEntry> BY_START = Comparator
+            .comparing((BoardEntry entry) -> entry.startTime)
+            .thenComparing(entry -> entry.id);
+
+    private final ShowTimeBoardProperties properties;
+    private final Clock clock;
+
+    private final Map<String, MovieInfo> movies = new ConcurrentHashMap<>();
+    private final Map<String, BoardEntry> entries = new ConcurrentHashMap<>();
+    private final Map<String, DayBoard> boards = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ShowTimeBoardProjection(ShowTimeBoardProperties properties) {
+        this(properties, Clock.system(ZoneId.of(properties.getZone())));
+    }
+
+    ShowTimeBoardProjection(ShowTimeBoardProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /*
+     * =======================
+     * EVENT HANDLERS
+     * =======================
+     */
+
+    @EventHandler
+    public void on(MovieCreateEvent event) {
+        putMovie(new MovieInfo(event.getId(), event.getTitle(), event.getDuration(), event.getPosterUrl()));
+    }
+
+    @EventHandler
+    public void on(MovieUpdatedEvent event) {
+        putMovie(new MovieInfo(event.getId(), event.getTitle(), event.getDuration(), event.getPosterUrl()));
+    }
+
+    @EventHandler
+    public void on(MoviePatchedEvent event) {
+        MovieInfo current = movies.get(event.getId());
+        if (current == null) {
+            return;
+        }
+        putMovie(new MovieInfo(current.id,
+                event.getTitle() != null ? event.getTitle() : current.title,
+                event.getDuration() != null ? event.getDuration() : current.duration,
+                event.getPosterUrl() != null ? event.getPosterUrl() : current.posterUrl));
+    }
+
+    @EventHandler
+    public void on(MovieDeletedEvent event) {
+        movies.remove(event.getId());
+        invalidateMovie(event.getId());
+    }
+
+    @EventHandler
+    public void on(ShowTimeCreatedEvent event) {
+        putShowTime(new BoardEntry(event.getId(), event.getMovieId(), event.getCinemaId(), event.getStartTime(),
+                event.getPrice()));
+    }
+
+    @EventHandler
+    public void on(ShowTimeUpdatedEvent event) {
+        putShowTime(new BoardEntry(event.getId(), event.getMovieId(), event.getCinemaId(), event.getStartTime(),
+                event.getPrice()));
+    }
+
+    @EventHandler
+    public void on(ShowTimePatchedEvent event) {
+        BoardEntry current = entries.get(event.getId());
+        if (current == null) {
+            return; // Suất đã rời khỏi bảng (ngày cũ đã dọn)
+        }
+        putShowTime(new BoardEntry(current.id,
+                event.getMovieId() != null ? event.getMovieId() : current.movieId,
+                event.getCinemaId() != null ? event.getCinemaId() : current.cinemaId,
+                event.getStartTime() != null ? event.getStartTime() : current.startTime,
+                event.getPrice() != null ? event.getPrice() : current.price));
+    }
+
+    @EventHandler
+    public void on(ShowTimeDeletedEvent event) {
+        BoardEntry previous = entries.remove(event.getId());
+        if (previous != null) {
+            removeFromBoard(previous);
+        }
+    }
+
+    /*
+     * =======================
+     * QUERY HANDLERS
+     * =======================
+     */
+
+    @QueryHandler
+    public ShowTimeBoardResponseModel handle(GetShowTimeBoardQuery query) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDate today = now.toLocalDate();
+        LocalDate date = query.getDate() != null ? query.getDate() : today;
+
+        DayBoard board = boards.get(key(query.getCinemaId(), date));
+        Snapshot snapshot = board != null ? board.snapshot(movies) : Snapshot.EMPTY;
+
+        List<BoardShowTime> nowShowing = Collections.emptyList();
+        List<BoardShowTime> nextUp = Collections.emptyList();
+        if (date.equals(today)) {
+            nowShowing = new ArrayList<>();
+            // Suất bắt đầu tối qua có thể vẫn đang chiếu sau nửa đêm
+            DayBoard yesterday = boards.get(key(query.getCinemaId(), today.minusDays(1)));
+            if (yesterday != null) {
+                yesterday.snapshot(movies).collectRunning(now, nowShowing);
+            }
+            snapshot.collectRunning(now, nowShowing);
+            nextUp = snapshot.startingAfter(now, properties.getNextUpSize());
+        } else if (date.isAfter(today)) {
+            nextUp = snapshot.startingAfter(date.atStartOfDay().minusNanos(1), properties.getNextUpSize());
+        }
+        return new ShowTimeBoardResponseModel(query.getCinemaId(), date, nowShowing, nextUp, snapshot.movies);
+    }
+
+    /*
+     * =======================
+     * CHUYỂN NGÀY
+     * =======================
+     */
+
+    @Scheduled(cron = "${showtime-board.rollover-cron:0 0 0 * * *}", zone = "${showtime-board.zone:Asia/Ho_Chi_Minh}")
+    public void rollover() {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate cutoff = today.minusDays(properties.getRetentionDays());
+
+        int before = boards.size();
+        boards.values().removeIf(board -> board.date.isBefore(cutoff));
+        entries.values().removeIf(entry -> entry.startTime.toLocalDate().isBefore(cutoff));
+
+        // Dựng sẵn snapshot hôm nay để request đầu tiên sau nửa đêm không phải chờ
+        for (DayBoard board : boards.values()) {
+            if (board.date.equals(today)) {
+                board.snapshot(movies);
+            }
+        }
+        log.info("ShowTime board rolled over to {}: dropped {} day boards before {}", today,
+                before - boards.size(), cutoff);
+    }
+
+    private void putMovie(MovieInfo movie) {
+        movies.put(movie.id, movie);
+        invalidateMovie(movie.id);
+    }
+
+    private void invalidateMovie(String movieId) {
+        for (DayBoard board : boards.values()) {
+            board.invalidateIfShowing(movieId);
+        }
+    }
+
+    private void putShowTime(BoardEntry entry) {
+        BoardEntry previous = entry.startTime == null ? entries.remove(entry.id) : entries.put(entry.id, entry);
+        if (previous != null) {
+            removeFromBoard(previous);
+        }
+        if (entry.startTime == null) {
+            return;
+        }
+        LocalDate date = entry.startTime.toLocalDate();
+        if (date.isBefore(LocalDate.now(clock).minusDays(properties.getRetentionDays()))) {
+            // Ngày đã được dọn, không dựng lại bảng cũ (ví dụ khi replay)
+            entries.remove(entry.id);
+            return;
+        }
+        boards.computeIfAbsent(key(entry.cinemaId, date), k -> new DayBoard(entry.cinemaId, date)).add(entry);
+    }
+
+    private void removeFromBoard(BoardEntry entry) {
+        if (entry.startTime == null) {
+            return;
+        }
+        DayBoard board = boards.get(key(entry.cinemaId, entry.startTime.toLocalDate()));
+        if (board != null) {
+            board.remove(entry);
+        }
+    }
+
+    private static String key(String cinemaId, LocalDate date) {
+        return cinemaId + '|' + date;
+    }
+
+    /*
+     * =======================
+     * CẤU TRÚC TRONG BỘ NHỚ
+     * =======================
+     */
+
+    private static final class MovieInfo {
+        final String id;
+        final String title;
+        final Integer duration;
+        final String posterUrl;
+
+        MovieInfo(String id, String title, Integer duration, String posterUrl) {
+            this.id = id;
+            this.title = title;
+            this.duration = duration;
+            this.posterUrl = posterUrl;
+        }
+    }
+
+    private static final class BoardEntry {
+        final String id;
+        final String movieId;
+        final String cinemaId;
+        final LocalDateTime startTime;
+        final BigDecimal price;
+
+        BoardEntry(String id, String movieId, String cinemaId, LocalDateTime startTime, BigDecimal price) {
+            this.id = id;
+            this.movieId = movieId;
+            this.cinemaId = cinemaId;
+            this.startTime = startTime;
+            this.price = price;
+        }
+    }
+
+    private static final class DayBoard {
+        final String cinemaId;
+        final LocalDate date;
+        private final TreeSet<BoardEntry> timeline = new TreeSet<>(BY_START);
+        private volatile Snapshot snapshot;
+
+        DayBoard(String cinemaId, LocalDate date) {
+            this.cinemaId = cinemaId;
+            this.date = date;
+        }
+
+        synchronized void add(BoardEntry entry) {
+            timeline.add(entry);
+            snapshot = null;
+        }
+
+        synchronized void remove(BoardEntry entry) {
+            timeline.remove(entry);
+            snapshot = null;
+        }
+
+        synchronized void invalidateIfShowing(String movieId) {
+            for (BoardEntry entry : timeline) {
+                if (entry.movieId.equals(movieId)) {
+                    snapshot = null;
+                    return;
+                }
+            }
+        }
+
+        Snapshot snapshot(Map<String, MovieInfo> movies) {
+            Snapshot current = snapshot;
+            if (current == null) {
+                synchronized (this) {
+                    current = snapshot;
+                    if (current == null) {
+                        current = Snapshot.build(timeline, movies);
+                        snapshot = current;
+                    }
+                }
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Ảnh chụp bất biến của một bảng ngày, đọc không cần khóa.
+     */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new BoardShowTime[0], Collections.emptyList());
+
+        private final BoardShowTime[] byStart;
+        private final List<BoardMovie> movies;
+
+        private Snapshot(BoardShowTime[] byStart, List<BoardMovie> movies) {
+            this.byStart = byStart;
+            this.movies = movies;
+        }
+
+        static Snapshot build(TreeSet<BoardEntry> timeline, Map<String, MovieInfo> movieInfos) {
+            BoardShowTime[] byStart = new BoardShowTime[timeline.size()];
+            Map<String, BoardMovie> byMovie = new LinkedHashMap<>(); // thứ tự theo suất đầu tiên của phim
+            int i = 0;
+            for (BoardEntry entry : timeline) {
+                MovieInfo movie = movieInfos.get(entry.movieId);
+                Integer duration = movie != null ? movie.duration : null;
+                BoardShowTime showTime = new BoardShowTime(entry.id, entry.movieId,
+                        movie != null ? movie.title : null, entry.startTime,
+                        duration != null ? entry.startTime.plusMinutes(duration) : null, entry.price);
+                byStart[i++] = showTime;
+                byMovie.computeIfAbsent(entry.movieId, id -> new BoardMovie(id, movie != null ? movie.title : null,
+                        duration, movie != null ? movie.posterUrl : null, new ArrayList<>()))
+                        .getShowTimes().add(showTime);
+            }
+            List<BoardMovie> grouped = new ArrayList<>(byMovie.size());
+            for (BoardMovie movie : byMovie.values()) {
+                movie.setShowTimes(Collections.unmodifiableList(movie.getShowTimes()));
+                grouped.add(movie);
+            }
+            return new Snapshot(byStart, Collections.unmodifiableList(grouped));
+        }
+
+        // Vị trí đầu tiên có startTime > time
+        private int firstAfter(LocalDateTime time) {
+            int low = 0;
+            int high = byStart.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (byStart[middle].getStartTime().isAfter(time)) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return low;
+        }
+
+        void collectRunning(LocalDateTime now, List<BoardShowTime> out) {
+            LocalDateTime earliest = now.minus(MAX_RUNTIME);
+            int first = out.size();
+            for (int i = firstAfter(now) - 1; i >= 0 && byStart[i].getStartTime().isAfter(earliest); i--) {
+                LocalDateTime end = byStart[i].getEndTime();
+                if (end != null && end.isAfter(now)) {
+                    out.add(first, byStart[i]);
+                }
+            }
+        }
+
+        List<BoardShowTime> startingAfter(LocalDateTime time, int limit) {
+            int from = firstAfter(time);
+            int to = Math.min(byStart.length, from + limit);
+            return from >= to ? Collections.emptyList() : List.of(Arrays.copyOfRange(byStart, from, to));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.cinema.movies.query.projection;
+
+import com.cinema.movies.query.queries.GetShowTimePlanQuery;
+import com.cinema.movies.service.schedule.ShowTimePlan;
+import com.cinema.movies.service.schedule.ShowTimeScheduleOptimizer;
+import org.axonframework.queryhandling.QueryHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+public class ShowTimePlanProjection {
+
+    private final ShowTimeScheduleOptimizer scheduleOptimizer;
+
+    public ShowTimePlanProjection(ShowTimeScheduleOptimizer scheduleOptimizer) {
+        this.scheduleOptimizer = scheduleOptimizer;
+    }
+
+    @QueryHandler
+    @Transactional(readOnly = true)
+    public ShowTimePlan handle(GetShowTimePlanQuery query) {
+        return scheduleOptimizer.propose(query.getDate(), query.getCinemaIds(), query.getMovieIds());
+    }
+}
@@ -1,56 +1,133 @@
 package com.cinema.movies.query.projection;
 
-import com.cinema.movies.command.data.ShowTime;
-import com.cinema.movies.command.data.Reponsitory.ShowTimeRepository;
+import com.cinema.movies.command.data.ShowTimeView;
+import com.cinema.movies.command.data.Reponsitory.ShowTimeViewRepository;
 import com.cinema.movies.query.model.ShowTimeResponseModel;
 import com.cinema.movies.query.queries.GetAllShowTimesQuery;
 import com.cinema.movies.query.queries.GetShowTimeByIdQuery;
+import com.cinema.movies.query.queries.SearchShowTimesQuery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 import org.axonframework.queryhandling.QueryHandler;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Đọc từ showtime_view (bảng phẳng), không join movies/cinemas.
+ */
 @Component
 public class ShowTimeProjection {
 
-    private final ShowTimeRepository showTimeRepository;
+    private final ShowTimeViewRepository showTimeViewRepository;
 
-    public ShowTimeProjection(ShowTimeRepository showTimeRepository) {
-        this.showTimeRepository = showTimeRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ShowTimeProjection(ShowTimeViewRepository showTimeViewRepository) {
+        this.showTimeViewRepository = showTimeViewRepository;
     }
 
     @QueryHandler
     @Transactional(readOnly = true)
     public List<ShowTimeResponseModel> handle(GetAllShowTimesQuery query) {
-        List<ShowTime> showTimes = showTimeRepository.findAllWithDetails();
+        List<ShowTimeView> showTimes = query.getLimit() != null
+                ? showTimeViewRepository.findPageAfter(ReadModelStreams.after(query.getAfterId()),
+                        Limit.of(query.getLimit()))
+                : showTimeViewRepository.findAll();
         return showTimes.stream()
                 .map(this::mapToResponseModel)
                 .collect(Collectors.toList());
     }
 
+    @QueryHandler
+    @Transactional(readOnly = true)
+    public List<ShowTimeResponseModel> handle(SearchShowTimesQuery query) {
+        return search(query).stream()
+                .map(this::mapToResponseModel)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<ShowTimeResponseModel> consumer) {
+        try (Stream<ShowTimeView> showTimes = showTimeViewRepository.streamAllOrderById()) {
+            ReadModelStreams.forEach(showTimes, entityManager, this::mapToResponseModel, consumer);
+        }
+    }
+
     @QueryHandler
     @Transactional(readOnly = true)
     public ShowTimeResponseModel handle(GetShowTimeByIdQuery query) throws Exception {
-        ShowTime showTime = showTimeRepository.findByIdWithDetails(query.getId())
+        ShowTimeView showTime = showTimeViewRepository.findById(query.getId())
                 .orElseThrow(() -> new Exception("Not found showtimes :" + query.getId()));
         return mapToResponseModel(showTime);
     }
 
-    private ShowTimeResponseModel mapToResponseModel(ShowTime showTime) {
+    /**
+     * JPQL chỉ chứa các điều kiện có giá trị, để H2 dùng được index
+     * (cinema_id, start_time) / (movie_id, start_time). Số tổ hợp filter có hạn
+     * nên Hibernate cache được query plan cho từng dạng câu query.
+     */
+    private List<ShowTimeView> search(SearchShowTimesQuery query) {
+        StringBuilder jpql = new StringBuilder("SELECT v FROM ShowTimeView v WHERE 1 = 1");
+        Map<String, Object> params = new LinkedHashMap<>();
+        if (query.getMovieId() != null) {
+            jpql.append(" AND v.movieId = :movieId");
+            params.put("movieId", query.getMovieId());
+        }
+        if (query.getCinemaId() != null) {
+            jpql.append(" AND v.cinemaId = :cinemaId");
+            params.put("cinemaId", query.getCinemaId());
+        }
+        if (query.getFrom() != null) {
+            jpql.append(" AND v.startTime >= :from");
+            params.put("from", query.getFrom());
+        }
+        if (query.getTo() != null) {
+            jpql.append(" AND v.startTime < :to");
+            params.put("to", query.getTo());
+        }
+        if (query.getMinPrice() != null) {
+            jpql.append(" AND v.price >= :minPrice");
+            params.put("minPrice", query.getMinPrice());
+        }
+        if (query.getMaxPrice() != null) {
+            jpql.append(" AND v.price <= :maxPrice");
+            params.put("maxPrice", query.getMaxPrice());
+        }
+        // Keyset: (startTime, id) > (afterStartTime, afterId)
+        if (query.getAfterStartTime() != null && query.getAfterId() != null) {
+            jpql.append(" AND (v.startTime > :afterStartTime OR (v.startTime = :afterStartTime AND v.id > :afterId))");
+            params.put("afterStartTime", query.getAfterStartTime());
+            params.put("afterId", query.getAfterId());
+        }
+        jpql.append(" ORDER BY v.startTime, v.id");
+
+        TypedQuery<ShowTimeView> typedQuery = entityManager.createQuery(jpql.toString(), ShowTimeView.class);
+        params.forEach(typedQuery::setParameter);
+        return typedQuery.setMaxResults(query.getLimit()).getResultList();
+    }
+
+    private ShowTimeResponseModel mapToResponseModel(ShowTimeView showTime) {
         ShowTimeResponseModel model = new ShowTimeResponseModel();
         model.setId(showTime.getId());
         model.setStartTime(showTime.getStartTime());
+        model.setEndTime(showTime.getEndTime());
         model.setPrice(showTime.getPrice());
-        if (showTime.getMovie() != null) {
-            model.setMovieId(showTime.getMovie().getId());
-            model.setMovieTitle(showTime.getMovie().getTitle());
-        }
-        if (showTime.getCinema() != null) {
-            model.setCinemaId(showTime.getCinema().getId());
-            model.setCinemaName(showTime.getCinema().getName());
-        }
+        model.setMovieId(showTime.getMovieId());
+        model.setMovieTitle(showTime.getMovieTitle());
+        model.setMovieDuration(showTime.getMovieDuration());
+        model.setPosterUrl(showTime.getPosterUrl());
+        model.setCinemaId(showTime.getCinemaId());
+        model.setCinemaName(showTime.getCinemaName());
         return model;
     }
 }
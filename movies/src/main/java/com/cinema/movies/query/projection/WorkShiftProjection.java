@@ -6,31 +6,52 @@ import com.cinema.movies.command.data.Reponsitory.EmployeeRepository;
 import com.cinema.movies.command.data.Reponsitory.WorkShiftRepository;
 import com.cinema.movies.command.event.WorkShiftCreatedEvent;
 import com.cinema.movies.command.event.WorkShiftDeletedEvent;
+import com.cinema.movies.command.event.WorkShiftPatchedEvent;
 import com.cinema.movies.command.event.WorkShiftUpdatedEvent;
+import com.cinema.movies.config.ProjectionProcessingConfig;
 import com.cinema.movies.query.model.WorkShiftResponseModel;
 import com.cinema.movies.query.queries.GetAllWorkShiftsQuery;
 import com.cinema.movies.query.queries.GetWorkShiftByIdQuery;
 import com.cinema.movies.query.queries.GetWorkShiftsByEmployeeQuery;
+import com.cinema.movies.service.replay.ReadModelNotReadyException;
+import com.cinema.movies.service.replay.ReadModelTables;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
+import org.axonframework.config.ProcessingGroup;
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ResetHandler;
 import org.axonframework.queryhandling.QueryHandler;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
+@ProcessingGroup(ProjectionProcessingConfig.WORKSHIFT_GROUP)
 @Slf4j
 public class WorkShiftProjection {
 
     @Autowired
     private WorkShiftRepository workShiftRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private ReadModelTables readModelTables;
+
     /*
      * =======================
      * EVENT HANDLERS
@@ -38,7 +59,7 @@ public class WorkShiftProjection {
      */
 
     @EventHandler
-    public void on(WorkShiftCreatedEvent event) {
+    public void on(WorkShiftCreatedEvent event) throws ReadModelNotReadyException {
         log.info("WorkShiftCreatedEvent received - ID: {}", event.getId());
 
         // Idempotent - check exists
@@ -47,8 +68,12 @@ public class WorkShiftProjection {
             return;
         }
 
-        Employee employee = employeeRepository.findById(event.getEmployeeId())
-                .orElseThrow(() -> new RuntimeException("Employee not found: " + event.getEmployeeId()));
+        // Nhân viên đã bị xoá thì ca làm cũng không còn
+        Employee employee = readModelTables.findRow("employees", event.getEmployeeId(), employeeRepository::findById)
+                .orElse(null);
+        if (employee == null) {
+            return;
+        }
 
         WorkShift workShift = WorkShift.builder()
                 .id(event.getId())
@@ -63,14 +88,16 @@ public class WorkShiftProjection {
     }
 
     @EventHandler
-    public void on(WorkShiftUpdatedEvent event) {
+    public void on(WorkShiftUpdatedEvent event) throws ReadModelNotReadyException {
         log.info("WorkShiftUpdatedEvent received - ID: {}", event.getId());
 
-        WorkShift workShift = workShiftRepository.findById(event.getId())
-                .orElseThrow(() -> new RuntimeException("WorkShift not found: " + event.getId()));
-
-        Employee employee = employeeRepository.findById(event.getEmployeeId())
-                .orElseThrow(() -> new RuntimeException("Employee not found: " + event.getEmployeeId()));
+        WorkShift workShift = readModelTables.findRow("work_shifts", event.getId(), workShiftRepository::findById)
+                .orElse(null);
+        Employee employee = readModelTables.findRow("employees", event.getEmployeeId(), employeeRepository::findById)
+                .orElse(null);
+        if (workShift == null || employee == null) {
+            return;
+        }
 
         workShift.setEmployee(employee);
         workShift.setShiftName(event.getShiftName());
@@ -81,6 +108,39 @@ public class WorkShiftProjection {
         workShiftRepository.save(workShift);
     }
 
+    // Chỉ ghi các cột có trong patch, điểm danh là một UPDATE is_attended
+    @EventHandler
+    @Transactional
+    public void on(WorkShiftPatchedEvent event) throws ReadModelNotReadyException {
+        log.info("WorkShiftPatchedEvent received - ID: {}", event.getId());
+
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (event.getEmployeeId() != null) {
+            columns.put("employee_id", event.getEmployeeId());
+        }
+        if (event.getShiftName() != null) {
+            columns.put("shift_name", event.getShiftName());
+        }
+        if (event.getStartTime() != null) {
+            columns.put("start_time", event.getStartTime());
+        }
+        if (event.getEndTime() != null) {
+            columns.put("end_time", event.getEndTime());
+        }
+        if (event.getIsAttended() != null) {
+            columns.put("is_attended", event.getIsAttended());
+        }
+
+        if (!readModelTables.requireRow("employees", event.getEmployeeId(), employeeRepository::existsById)) {
+            return;
+        }
+        // Entity có thể đang nằm trong persistence context: ghi xuống trước khi UPDATE bằng JDBC
+        workShiftRepository.flush();
+        if (readModelTables.update("work_shifts", event.getId(), columns) == 0) {
+            readModelTables.requireRow("work_shifts", event.getId(), workShiftRepository::existsById);
+        }
+    }
+
     @EventHandler
     public void on(WorkShiftDeletedEvent event) {
         log.info("WorkShiftDeletedEvent received - ID: {}", event.getId());
@@ -92,6 +152,11 @@ public class WorkShiftProjection {
         }
     }
 
+    @ResetHandler
+    public void onReset() {
+        readModelTables.clear("work_shifts");
+    }
+
     /*
      * =======================
      * QUERY HANDLERS
@@ -102,12 +167,21 @@ public class WorkShiftProjection {
     public List<WorkShiftResponseModel> handle(GetAllWorkShiftsQuery query) {
         log.info("GetAllWorkShiftsQuery received");
 
-        List<WorkShift> workShifts = workShiftRepository.findAll();
+        List<WorkShift> workShifts = query.getLimit() != null
+                ? workShiftRepository.findPageAfter(ReadModelStreams.after(query.getAfterId()), Limit.of(query.getLimit()))
+                : workShiftRepository.findAll();
         return workShifts.stream()
                 .map(this::mapToResponseModel)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<WorkShiftResponseModel> consumer) {
+        try (Stream<WorkShift> workShifts = workShiftRepository.streamAllOrderById()) {
+            ReadModelStreams.forEach(workShifts, entityManager, this::mapToResponseModel, consumer);
+        }
+    }
+
     @QueryHandler
     public WorkShiftResponseModel handle(GetWorkShiftByIdQuery query) throws Exception {
         log.info("GetWorkShiftByIdQuery received - ID: {}", query.getId());
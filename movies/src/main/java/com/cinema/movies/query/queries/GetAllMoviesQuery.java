@@ -1,4 +1,17 @@
 package com.cinema.movies.query.queries;
 
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * limit = null: trả về toàn bộ danh sách.
+ * limit != null: trả về tối đa limit bản ghi có id lớn hơn afterId (keyset pagination).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class GetAllMoviesQuery {
+    private String afterId;
+    private Integer limit;
 }
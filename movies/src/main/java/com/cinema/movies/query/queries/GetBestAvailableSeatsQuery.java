@@ -0,0 +1,13 @@
+package com.cinema.movies.query.queries;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GetBestAvailableSeatsQuery {
+    private String showTimeId;
+    private Integer count;
+}
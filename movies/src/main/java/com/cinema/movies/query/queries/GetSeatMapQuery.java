@@ -0,0 +1,12 @@
+package com.cinema.movies.query.queries;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GetSeatMapQuery {
+    private String cinemaId;
+}
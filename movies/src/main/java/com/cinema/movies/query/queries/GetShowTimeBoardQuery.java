@@ -0,0 +1,18 @@
+package com.cinema.movies.query.queries;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Bảng lịch chiếu của một rạp trong một ngày; date null nghĩa là hôm nay.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GetShowTimeBoardQuery {
+    private String cinemaId;
+    private LocalDate date;
+}
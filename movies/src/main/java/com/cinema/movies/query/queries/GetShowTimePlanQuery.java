@@ -0,0 +1,20 @@
+package com.cinema.movies.query.queries;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Đề xuất lịch chiếu trong ngày; cinemaIds / movieIds rỗng nghĩa là tất cả.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GetShowTimePlanQuery {
+    private LocalDate date;
+    private List<String> cinemaIds;
+    private List<String> movieIds;
+}
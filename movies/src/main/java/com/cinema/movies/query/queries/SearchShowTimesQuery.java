@@ -0,0 +1,30 @@
+package com.cinema.movies.query.queries;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Tìm suất chiếu theo phim, rạp, khung giờ bắt đầu [from, to) và khoảng giá.
+ * Mọi điều kiện đều tùy chọn. Kết quả sắp theo (startTime, id); trang kế tiếp
+ * bắt đầu sau (afterStartTime, afterId).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchShowTimesQuery {
+    private String movieId;
+    private String cinemaId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private LocalDateTime afterStartTime;
+    private String afterId;
+    private Integer limit;
+}
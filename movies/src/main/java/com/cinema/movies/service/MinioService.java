@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.InvalidKeyException;
@@ -64,6 +65,28 @@ public class MinioService {
         }
     }
 
+    /**
+     * Upload raw bytes to MinIO under a fixed object name (overwrites existing object)
+     * 
+     * @param objectName Name of object
+     * @param data       Content to upload
+     */
+    public void uploadBytes(String objectName, byte[] data) throws Exception {
+        try (InputStream inputStream = new ByteArrayInputStream(data)) {
+            minioClient.putObject(
+                    PutObjectArgs.builder()
+                            .bucket(minioProperties.getBucketName())
+                            .object(objectName)
+                            .stream(inputStream, data.length, -1)
+                            .contentType("application/octet-stream")
+                            .build());
+            log.info("Uploaded object: {} ({} bytes)", objectName, data.length);
+        } catch (Exception e) {
+            log.error("Failed to upload object: {}", objectName, e);
+            throw new Exception("Failed to upload object: " + e.getMessage());
+        }
+    }
+
     /**
      * Download file from MinIO
      * 
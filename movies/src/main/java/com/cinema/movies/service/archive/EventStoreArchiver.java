@@ -0,0 +1,53 @@
+package com.cinema.movies.service.archive;
+
+import java.time.Instant;
+
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.cinema.movies.command.eventstore.MappedSegmentEventStorageEngine;
+import com.cinema.movies.config.EventStoreProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Job nền chuyển segment event cũ từ ổ đĩa cục bộ sang MinIO để event store "nóng" chỉ còn các
+ * segment gần đây. Chỉ áp dụng cho engine mapped; với JPA event store job không làm gì.
+ */
+@Service
+@ConditionalOnProperty(name = "event-store.archive.enabled", havingValue = "true")
+@Slf4j
+public class EventStoreArchiver {
+
+    private final EventStorageEngine storageEngine;
+    private final EventStoreProperties properties;
+
+    public EventStoreArchiver(EventStorageEngine storageEngine, EventStoreProperties properties) {
+        this.storageEngine = storageEngine;
+        this.properties = properties;
+        if (!(storageEngine instanceof MappedSegmentEventStorageEngine)) {
+            log.warn("Event archival is enabled but event-store.engine={} does not support it",
+                    properties.getEngine());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${event-store.archive.interval-ms:3600000}",
+            initialDelayString = "${event-store.archive.interval-ms:3600000}")
+    public void archive() {
+        if (!(storageEngine instanceof MappedSegmentEventStorageEngine engine)) {
+            return;
+        }
+        try {
+            int archived = engine.archiveSegments(Instant.now().minus(properties.getArchive().getAfter()));
+            if (archived > 0) {
+                log.info("Archived {} event segments ({} archived in total)", archived,
+                        engine.archivedSegmentCount());
+            }
+        } catch (RuntimeException e) {
+            // Lỗi MinIO không được làm chết scheduler, lần chạy sau sẽ thử lại
+            log.error("Event segment archival failed", e);
+        }
+    }
+}
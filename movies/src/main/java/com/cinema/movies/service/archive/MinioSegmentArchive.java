@@ -0,0 +1,41 @@
+package com.cinema.movies.service.archive;
+
+import java.io.InputStream;
+
+import org.axonframework.eventsourcing.eventstore.EventStoreException;
+
+import com.cinema.movies.command.eventstore.SegmentArchive;
+import com.cinema.movies.service.MinioService;
+
+/**
+ * Lưu segment event đã archive trong bucket MinIO của service, dưới một prefix riêng để không
+ * lẫn với ảnh poster.
+ */
+public class MinioSegmentArchive implements SegmentArchive {
+
+    private final MinioService minioService;
+    private final String prefix;
+
+    public MinioSegmentArchive(MinioService minioService, String prefix) {
+        this.minioService = minioService;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public void put(String key, byte[] data) {
+        try {
+            minioService.uploadBytes(prefix + key, data);
+        } catch (Exception e) {
+            throw new EventStoreException("Cannot upload archived segment " + key, e);
+        }
+    }
+
+    @Override
+    public byte[] get(String key) {
+        try (InputStream inputStream = minioService.downloadFile(prefix + key)) {
+            return inputStream.readAllBytes();
+        } catch (Exception e) {
+            throw new EventStoreException("Cannot download archived segment " + key, e);
+        }
+    }
+}
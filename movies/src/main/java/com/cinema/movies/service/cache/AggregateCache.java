@@ -0,0 +1,243 @@
+package com.cinema.movies.service.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+import org.axonframework.common.Registration;
+import org.axonframework.common.caching.Cache;
+
+/**
+ * Cache aggregate cho CachingEventSourcingRepository của Axon, giới hạn số phần tử (LRU)
+ * và bỏ các aggregate không được dùng lại sau {@code expireAfterAccess}.
+ *
+ * Repository tự gọi remove khi aggregate bị markDeleted, khi Unit of Work rollback
+ * hoặc khi append event bị xung đột sequence (instance khác đã ghi trước), nên bản
+ * trong cache không bao giờ được dùng sau khi đã lệch với event store.
+ */
+public final class AggregateCache implements Cache {
+
+    private final String aggregateType;
+    private final int maxEntries;
+    private final long expireAfterAccessNanos;
+    private final LongSupplier ticker;
+    private final Map<Object, Entry> entries;
+    private final List<EntryListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    AggregateCache(String aggregateType, int maxEntries, Duration expireAfterAccess, LongSupplier ticker) {
+        this.aggregateType = aggregateType;
+        this.maxEntries = maxEntries;
+        this.expireAfterAccessNanos = expireAfterAccess.isZero() || expireAfterAccess.isNegative()
+                ? Long.MAX_VALUE : expireAfterAccess.toNanos();
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                if (size() > AggregateCache.this.maxEntries) {
+                    evictions.increment();
+                    notifyListeners(listener -> listener.onEntryExpired(eldest.getKey()));
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> V get(K key) {
+        Object value;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            long now = ticker.getAsLong();
+            if (entry != null && now - entry.lastAccess >= expireAfterAccessNanos) {
+                entries.remove(key);
+                expirations.increment();
+                notifyListeners(listener -> listener.onEntryExpired(key));
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            entry.lastAccess = now;
+            value = entry.value;
+        }
+        hits.increment();
+        Object read = value;
+        notifyListeners(listener -> listener.onEntryRead(key, read));
+        return (V) value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            remove(key);
+            return;
+        }
+        Entry previous;
+        synchronized (this) {
+            previous = entries.put(key, new Entry(value, ticker.getAsLong()));
+        }
+        if (previous == null) {
+            notifyListeners(listener -> listener.onEntryCreated(key, value));
+        } else {
+            notifyListeners(listener -> listener.onEntryUpdated(key, value));
+        }
+    }
+
+    @Override
+    public boolean putIfAbsent(Object key, Object value) {
+        synchronized (this) {
+            Entry existing = entries.get(key);
+            if (existing != null && ticker.getAsLong() - existing.lastAccess < expireAfterAccessNanos) {
+                return false;
+            }
+            entries.put(key, new Entry(value, ticker.getAsLong()));
+        }
+        notifyListeners(listener -> listener.onEntryCreated(key, value));
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V> void computeIfPresent(Object key, UnaryOperator<V> update) {
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return;
+            }
+            V updated = update.apply((V) entry.value);
+            if (updated == null) {
+                entries.remove(key);
+                invalidations.increment();
+            } else {
+                entry.value = updated;
+            }
+        }
+    }
+
+    @Override
+    public boolean remove(Object key) {
+        Entry removed;
+        synchronized (this) {
+            removed = entries.remove(key);
+        }
+        if (removed == null) {
+            return false;
+        }
+        invalidations.increment();
+        notifyListeners(listener -> listener.onEntryRemoved(key));
+        return true;
+    }
+
+    @Override
+    public void removeAll() {
+        List<Object> keys;
+        synchronized (this) {
+            keys = new ArrayList<>(entries.keySet());
+            entries.clear();
+        }
+        invalidations.add(keys.size());
+        for (Object key : keys) {
+            notifyListeners(listener -> listener.onEntryRemoved(key));
+        }
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        Entry entry = entries.get(key);
+        return entry != null && ticker.getAsLong() - entry.lastAccess < expireAfterAccessNanos;
+    }
+
+    @Override
+    public Registration registerCacheEntryListener(EntryListener listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Bỏ các aggregate đã hết hạn mà không ai đọc lại (get chỉ kiểm tra phần tử được đọc).
+     */
+    public int expireIdle() {
+        List<Object> expired = new ArrayList<>();
+        synchronized (this) {
+            long now = ticker.getAsLong();
+            Iterator<Map.Entry<Object, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Object, Entry> entry = iterator.next();
+                if (now - entry.getValue().lastAccess >= expireAfterAccessNanos) {
+                    iterator.remove();
+                    expired.add(entry.getKey());
+                }
+            }
+        }
+        expirations.add(expired.size());
+        for (Object key : expired) {
+            notifyListeners(listener -> listener.onEntryExpired(key));
+        }
+        return expired.size();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+
+    long expirations() {
+        return expirations.sum();
+    }
+
+    long invalidations() {
+        return invalidations.sum();
+    }
+
+    private void notifyListeners(Consumer<EntryListener> notification) {
+        for (EntryListener listener : listeners) {
+            notification.accept(listener);
+        }
+    }
+
+    private static final class Entry {
+        private Object value;
+        private long lastAccess;
+
+        Entry(Object value, long lastAccess) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.cinema.movies.service.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.cinema.movies.config.AggregateCacheProperties;
+import com.cinema.movies.query.model.AggregateCacheStatsResponseModel;
+import com.cinema.movies.service.snapshot.AggregateLoadMetrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tạo và theo dõi các AggregateCache; thời gian nạp khi miss lấy từ AggregateLoadMetrics.
+ */
+@Component
+@Slf4j
+public class AggregateCacheRegistry {
+
+    private final AggregateCacheProperties properties;
+    private final AggregateLoadMetrics loadMetrics;
+    private final Map<Class<?>, AggregateCache> caches = new ConcurrentHashMap<>();
+
+    public AggregateCacheRegistry(AggregateCacheProperties properties, AggregateLoadMetrics loadMetrics) {
+        this.properties = properties;
+        this.loadMetrics = loadMetrics;
+    }
+
+    public AggregateCache create(String name, Class<?> aggregateType) {
+        return caches.computeIfAbsent(aggregateType, type -> new AggregateCache(type.getSimpleName(),
+                properties.maxEntriesFor(name), properties.getExpireAfterAccess(), System::nanoTime));
+    }
+
+    @Scheduled(fixedDelayString = "${aggregate-cache.sweep-interval-ms:60000}")
+    public void expireIdle() {
+        int expired = 0;
+        for (AggregateCache cache : caches.values()) {
+            expired += cache.expireIdle();
+        }
+        if (expired > 0) {
+            log.debug("Expired {} idle cached aggregates", expired);
+        }
+    }
+
+    public List<AggregateCacheStatsResponseModel> stats() {
+        return caches.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey((a, b) -> a.getSimpleName().compareTo(b.getSimpleName())))
+                .map(entry -> stats(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private AggregateCacheStatsResponseModel stats(Class<?> aggregateType, AggregateCache cache) {
+        long hits = cache.hits();
+        long misses = cache.misses();
+        long total = hits + misses;
+        return new AggregateCacheStatsResponseModel(cache.getAggregateType(), cache.size(), cache.getMaxEntries(),
+                hits, misses, cache.evictions(), cache.expirations(), cache.invalidations(),
+                total == 0 ? 0.0 : (double) hits / total, loadMetrics.averageLoadMillis(aggregateType));
+    }
+}
@@ -0,0 +1,33 @@
+package com.cinema.movies.service.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.stereotype.Component;
+
+import com.cinema.movies.config.QueryCacheProperties;
+import com.cinema.movies.query.model.QueryCacheStatsResponseModel;
+
+/**
+ * Tạo và theo dõi các QueryResultCache của projection.
+ */
+@Component
+public class QueryCacheRegistry {
+
+    private final QueryCacheProperties properties;
+    private final List<QueryResultCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+
+    public QueryCacheRegistry(QueryCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    public <K, V> QueryResultCache<K, V> create(String name) {
+        QueryResultCache<K, V> cache = new QueryResultCache<>(name, properties.getMaxEntries());
+        caches.add(cache);
+        return cache;
+    }
+
+    public List<QueryCacheStatsResponseModel> stats() {
+        return caches.stream().map(QueryResultCache::stats).toList();
+    }
+}
@@ -0,0 +1,105 @@
+package com.cinema.movies.service.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+
+import com.cinema.movies.query.model.QueryCacheStatsResponseModel;
+
+/**
+ * Cache kết quả query có giới hạn số phần tử (LRU), bị xoá bởi event handler.
+ *
+ * Mỗi lần invalidate tăng {@code generation}; kết quả nào được load trước thời
+ * điểm đó sẽ không được ghi vào cache, tránh việc một request chậm ghi đè dữ
+ * liệu cũ sau khi event đã xoá cache.
+ */
+public final class QueryResultCache<K, V> {
+
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws Exception;
+    }
+
+    private final String name;
+    private final int maxEntries;
+    private final Map<K, V> entries;
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    QueryResultCache(String name, int maxEntries) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > QueryResultCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key, Loader<V> loader) throws Exception {
+        long loadGeneration;
+        synchronized (this) {
+            V cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+
+        V value = loader.load();
+        if (value != null) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    public void invalidate(Predicate<K> matcher) {
+        synchronized (this) {
+            generation++;
+            int before = entries.size();
+            entries.keySet().removeIf(matcher);
+            invalidations.add(before - entries.size());
+        }
+    }
+
+    public void invalidateAll() {
+        invalidate(key -> true);
+    }
+
+    /**
+     * Xoá ngay và xoá lại sau khi Unit of Work hiện tại commit, để request nào
+     * đọc DB trong lúc transaction chưa commit cũng không ghi được bản cũ.
+     */
+    public void invalidateAfterCommit(Predicate<K> matcher) {
+        invalidate(matcher);
+        if (CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().afterCommit(uow -> invalidate(matcher));
+        }
+    }
+
+    public synchronized QueryCacheStatsResponseModel stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return new QueryCacheStatsResponseModel(name, entries.size(), maxEntries, hitCount, missCount,
+                evictions.sum(), invalidations.sum(), total == 0 ? 0.0 : (double) hitCount / total);
+    }
+}
@@ -0,0 +1,180 @@
+package com.cinema.movies.service.consistency;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.common.stream.BlockingStream;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.axonframework.messaging.MessageDispatchInterceptor;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Vị trí trong event store của event cuối cùng mà mỗi command gửi từ một HTTP request đã ghi ra.
+ *
+ * Command được đánh dấu khi gửi qua CommandGateway (thread của request), event của nó được nhận ra
+ * qua metadata correlationId mà CorrelationDataInterceptor gắn vào, và vị trí được đọc lại từ event
+ * store sau khi unit of work commit. Ghi nhớ thêm aggregate của event đó để ConsistencyTokenService
+ * biết sequence nào cần kiểm tra trong dead-letter queue.
+ */
+@Component
+@Slf4j
+public class CommandPositionTracker {
+
+    static final String REQUEST_ATTRIBUTE = CommandPositionTracker.class.getName();
+    private static final String CORRELATION_ID = "correlationId";
+    private static final int REMEMBERED_POSITIONS = 10_000;
+    private static final int READ_TIMEOUT_MS = 1000;
+
+    private final EventStore eventStore;
+    private final Map<String, CommandPosition> inFlight = new ConcurrentHashMap<>();
+    private final Map<Long, String> sequences = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+            return size() > REMEMBERED_POSITIONS;
+        }
+    };
+
+    public CommandPositionTracker(EventStore eventStore) {
+        this.eventStore = eventStore;
+    }
+
+    // CommandGateway: chỉ command gửi trong thread của request mới cần vị trí
+    public MessageDispatchInterceptor<CommandMessage<?>> gatewayInterceptor() {
+        return messages -> (index, command) -> {
+            RequestAttributes request = RequestContextHolder.getRequestAttributes();
+            if (request != null) {
+                String commandId = command.getIdentifier();
+                CommandPosition position = new CommandPosition();
+                inFlight.put(commandId, position);
+                commands(request).add(position);
+                request.registerDestructionCallback(REQUEST_ATTRIBUTE + "." + commandId,
+                        () -> inFlight.remove(commandId), RequestAttributes.SCOPE_REQUEST);
+            }
+            return command;
+        };
+    }
+
+    // CommandBus: bắt đầu lại mỗi lần handle (StripedCommandBus chạy lại command khi batch rollback)
+    public MessageHandlerInterceptor<CommandMessage<?>> handlerInterceptor() {
+        return (unitOfWork, chain) -> {
+            CommandPosition position = inFlight.get(unitOfWork.getMessage().getIdentifier());
+            if (position != null) {
+                position.reset();
+                unitOfWork.afterCommit(u -> locate(position));
+            }
+            return chain.proceed();
+        };
+    }
+
+    // EventBus: chạy lúc prepare commit của unit of work gốc, ngay trước khi event được append
+    public MessageDispatchInterceptor<EventMessage<?>> eventInterceptor() {
+        return messages -> {
+            for (EventMessage<?> event : messages) {
+                Object commandId = event.getMetaData().get(CORRELATION_ID);
+                CommandPosition position = commandId == null ? null : inFlight.get(commandId.toString());
+                if (position != null) {
+                    position.appended(event, eventStore);
+                }
+            }
+            return (index, event) -> event;
+        };
+    }
+
+    public static List<CommandPosition> commands(RequestAttributes request) {
+        @SuppressWarnings("unchecked")
+        List<CommandPosition> commands =
+                (List<CommandPosition>) request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (commands == null) {
+            commands = new ArrayList<>();
+            request.setAttribute(REQUEST_ATTRIBUTE, commands, RequestAttributes.SCOPE_REQUEST);
+        }
+        return commands;
+    }
+
+    // Sequence (aggregate) của event tại vị trí token, nếu vị trí đó do một command đã theo dõi ghi ra
+    public Optional<String> sequenceAt(long position) {
+        synchronized (sequences) {
+            return Optional.ofNullable(sequences.get(position));
+        }
+    }
+
+    private void locate(CommandPosition position) {
+        if (position.eventIds.isEmpty()) {
+            position.position = CommandPosition.NO_EVENTS;
+            return;
+        }
+        // Event của command nằm sau head lúc nó được append; đọc tới khi thấy đủ id
+        Set<String> remaining = new HashSet<>(position.eventIds);
+        long last = CommandPosition.UNKNOWN;
+        try (BlockingStream<TrackedEventMessage<?>> events = eventStore.openStream(position.lowerBound)) {
+            while (!remaining.isEmpty() && events.hasNextAvailable(READ_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                TrackedEventMessage<?> event = events.nextAvailable();
+                if (remaining.remove(event.getIdentifier())) {
+                    last = event.trackingToken().position().orElse(CommandPosition.UNKNOWN);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Could not locate events of command in the event store", e);
+            return;
+        }
+        if (remaining.isEmpty() && last != CommandPosition.UNKNOWN) {
+            synchronized (sequences) {
+                sequences.put(last, position.lastSequence);
+            }
+            position.position = last;
+        }
+    }
+
+    public static final class CommandPosition {
+
+        public static final long UNKNOWN = Long.MIN_VALUE;
+        public static final long NO_EVENTS = -1L;
+
+        private final Set<String> eventIds = ConcurrentHashMap.newKeySet();
+        private volatile TrackingToken lowerBound;
+        private volatile String lastSequence;
+        private volatile long position = UNKNOWN;
+
+        // UNKNOWN khi command chưa commit hoặc không đọc lại được vị trí
+        public long position() {
+            return position;
+        }
+
+        private void reset() {
+            eventIds.clear();
+            lowerBound = null;
+            lastSequence = null;
+            position = UNKNOWN;
+        }
+
+        private void appended(EventMessage<?> event, EventStore eventStore) {
+            if (eventIds.isEmpty()) {
+                lowerBound = eventStore.createHeadToken();
+            }
+            eventIds.add(event.getIdentifier());
+            lastSequence = event instanceof DomainEventMessage<?> domainEvent
+                    ? domainEvent.getAggregateIdentifier()
+                    : event.getIdentifier();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.cinema.movies.service.consistency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.EventProcessor;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.axonframework.messaging.deadletter.SequencedDeadLetterQueue;
+import org.springframework.stereotype.Service;
+
+import com.cinema.movies.config.ConsistencyProperties;
+import com.cinema.movies.config.ProjectionProcessingConfig;
+import com.cinema.movies.service.consistency.CommandPositionTracker.CommandPosition;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-your-writes cho luồng command rồi query.
+ *
+ * Consistency token là vị trí event cuối cùng mà các command của request đã ghi ra (xem
+ * {@link CommandPositionTracker}), không phải head của event store, nên query không phải chờ event
+ * của người khác ghi cùng lúc. Chỉ khi không biết vị trí đó (command gửi bất đồng bộ, chưa commit)
+ * mới dùng head. Query mang token chờ tới khi mọi streaming processor đọc read model, kể cả processor
+ * mặc định của ShowTimeScheduleEventHandler và SeatInventoryEventHandler, đã xử lý qua vị trí đó;
+ * chỉ bỏ qua outbox vì nó không ghi read model.
+ *
+ * Processor đi qua một event không có nghĩa là event đã được áp dụng: event lỗi, hoặc xếp sau một
+ * event lỗi cùng aggregate, nằm trong dead-letter queue. Vì vậy query còn chờ tới khi aggregate của
+ * event tại token không còn trong dead-letter queue của group nào, hết timeout thì được đánh dấu
+ * bằng X-Consistency-Timeout như khi projection chậm.
+ *
+ * Các query đang chờ được xếp theo token và do một thread duy nhất kiểm tra vị trí processor (chỉ
+ * đọc trạng thái trong bộ nhớ), không query nào tự poll database hay giữ thread request trong lúc chờ.
+ */
+@Service
+@Slf4j
+public class ConsistencyTokenService {
+
+    public static final String HEADER = "X-Consistency-Token";
+
+    private final EventProcessingConfiguration eventProcessingConfiguration;
+    private final EventStore eventStore;
+    private final CommandPositionTracker commandPositionTracker;
+    private final ConsistencyProperties properties;
+    private final PriorityBlockingQueue<Waiter> waiters = new PriorityBlockingQueue<>();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(
+            new AxonThreadFactory("consistency-token"));
+    private volatile long reachedPosition = -1;
+
+    public ConsistencyTokenService(EventProcessingConfiguration eventProcessingConfiguration, EventStore eventStore,
+            CommandPositionTracker commandPositionTracker, ConsistencyProperties properties) {
+        this.eventProcessingConfiguration = eventProcessingConfiguration;
+        this.eventStore = eventStore;
+        this.commandPositionTracker = commandPositionTracker;
+        this.properties = properties;
+        poller.scheduleWithFixedDelay(this::completeWaiters, properties.getPollIntervalMs(),
+                properties.getPollIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    public long currentToken() {
+        TrackingToken head = eventStore.createHeadToken();
+        return head == null ? -1L : head.position().orElse(-1L);
+    }
+
+    // Token cho các command của một request: vị trí lớn nhất, head nếu có command chưa biết vị trí
+    public long tokenFor(List<CommandPosition> commands) {
+        if (commands.isEmpty()) {
+            return currentToken();
+        }
+        long token = CommandPosition.NO_EVENTS;
+        for (CommandPosition command : commands) {
+            long position = command.position();
+            if (position == CommandPosition.UNKNOWN) {
+                return currentToken();
+            }
+            token = Math.max(token, position);
+        }
+        return token;
+    }
+
+    /**
+     * Future hoàn thành khi mọi projection đã xử lý tới token (true) hoặc hết timeout (false).
+     * Không giữ thread của người gọi: cả hai trường hợp đều do thread poller hoàn thành.
+     */
+    public CompletableFuture<Boolean> awaitAsync(long token) {
+        if ((token <= reachedPosition || token <= refreshReachedPosition()) && !deadLettered(token)) {
+            return CompletableFuture.completedFuture(true);
+        }
+        Waiter waiter = new Waiter(token);
+        waiters.add(waiter);
+        waiter.timeout = poller.schedule(() -> {
+            if (waiters.remove(waiter)) {
+                log.debug("Projections did not reach consistency token {} within {}", token, properties.getTimeout());
+                waiter.future.complete(false);
+            }
+        }, properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        return waiter.future;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    private void completeWaiters() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        long reached = refreshReachedPosition();
+        long now = System.nanoTime();
+        // Waiter có event của command đang bị dead-letter được đưa lại vào queue; timeout chạy cùng thread
+        // poller nên không thể rơi vào lúc waiter tạm ra khỏi queue
+        List<Waiter> deadLettered = new ArrayList<>();
+        Waiter waiter;
+        while ((waiter = waiters.peek()) != null && waiter.token <= reached) {
+            if (!waiters.remove(waiter)) {
+                continue;
+            }
+            boolean checkDue = now - waiter.nextDeadLetterCheck >= 0;
+            if (!checkDue || deadLettered(waiter.token)) {
+                if (checkDue) {
+                    waiter.nextDeadLetterCheck = now
+                            + TimeUnit.MILLISECONDS.toNanos(properties.getDeadLetterCheckIntervalMs());
+                }
+                deadLettered.add(waiter);
+                continue;
+            }
+            // timeout có thể chưa được gán nếu waiter vừa vào queue; task timeout khi đó không làm gì
+            ScheduledFuture<?> timeout = waiter.timeout;
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            waiter.future.complete(true);
+        }
+        waiters.addAll(deadLettered);
+    }
+
+    // Vị trí mà mọi segment của mọi processor đọc read model đều đã xử lý qua
+    private long refreshReachedPosition() {
+        long reached = Long.MAX_VALUE;
+        for (EventProcessor processor : eventProcessingConfiguration.eventProcessors().values()) {
+            if (processor instanceof StreamingEventProcessor streaming
+                    && !ProjectionProcessingConfig.OUTBOX_GROUP.equals(processor.getName())) {
+                reached = Math.min(reached, processedPosition(streaming));
+            }
+        }
+        if (reached == Long.MAX_VALUE) {
+            return reachedPosition;
+        }
+        reachedPosition = reached;
+        return reached;
+    }
+
+    // Aggregate của event tại token còn trong dead-letter queue của một group: group đó chưa áp dụng event
+    private boolean deadLettered(long token) {
+        Optional<String> sequence = commandPositionTracker.sequenceAt(token);
+        if (sequence.isEmpty()) {
+            return false;
+        }
+        try {
+            for (String group : eventProcessingConfiguration.eventProcessors().keySet()) {
+                Optional<SequencedDeadLetterQueue<EventMessage<?>>> queue =
+                        eventProcessingConfiguration.deadLetterQueue(group);
+                if (queue.isPresent() && queue.get().contains(sequence.get())) {
+                    return true;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not check dead letters for consistency token {}", token, e);
+        }
+        return false;
+    }
+
+    private static long processedPosition(StreamingEventProcessor processor) {
+        if (!processor.isRunning() || processor.processingStatus().isEmpty()) {
+            return -1L;
+        }
+        long position = Long.MAX_VALUE;
+        for (EventTrackerStatus status : processor.processingStatus().values()) {
+            position = Math.min(position, status.getCurrentPosition().orElse(-1L));
+        }
+        return position;
+    }
+
+    private static final class Waiter implements Comparable<Waiter> {
+
+        private final long token;
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        private volatile ScheduledFuture<?> timeout;
+        private long nextDeadLetterCheck = System.nanoTime(); // chỉ thread poller đọc/ghi sau khi tạo
+
+        Waiter(long token) {
+            this.token = token;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            return Long.compare(token, other.token);
+        }
+    }
+}
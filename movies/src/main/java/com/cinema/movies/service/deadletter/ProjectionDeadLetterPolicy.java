@@ -0,0 +1,87 @@
+package com.cinema.movies.service.deadletter;
+
+import java.sql.SQLTransientException;
+
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.messaging.deadletter.DeadLetter;
+import org.axonframework.messaging.deadletter.Decisions;
+import org.axonframework.messaging.deadletter.EnqueueDecision;
+import org.axonframework.messaging.deadletter.EnqueuePolicy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessException;
+
+import com.cinema.movies.config.ProjectionProcessingProperties;
+import com.cinema.movies.service.replay.ReadModelNotReadyException;
+
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PessimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Quyết định cho event lỗi của một read-model group: luôn giữ lại trong dead-letter queue (event
+ * bị xoá khỏi queue là mất khỏi read model), kèm số lần đã thử lại và lỗi có nên thử lại không.
+ *
+ * Chỉ lỗi thứ tự (ReadModelNotReadyException), lỗi tạm thời của DB (lock, timeout) và vi phạm khóa
+ * ngoại (dòng cha bị group khác xoá giữa lúc kiểm tra và lúc ghi; lần thử lại thấy dấu vết xoá) được
+ * {@link ProjectionDeadLetterRetrier} thử lại, tối đa deadLetterMaxRetries lần. Lỗi khác và event
+ * đã hết lượt thử ở lại queue cho tới khi replay group hoặc người vận hành xử lý.
+ */
+@Slf4j
+public class ProjectionDeadLetterPolicy implements EnqueuePolicy<EventMessage<?>> {
+
+    static final String RETRIES = "retries";
+    static final String RETRYABLE = "retryable";
+
+    private final String processingGroup;
+    private final ProjectionProcessingProperties properties;
+
+    public ProjectionDeadLetterPolicy(String processingGroup, ProjectionProcessingProperties properties) {
+        this.processingGroup = processingGroup;
+        this.properties = properties;
+    }
+
+    @Override
+    public EnqueueDecision<EventMessage<?>> decide(DeadLetter<? extends EventMessage<?>> letter, Throwable cause) {
+        // Letter mới từ processor chưa có diagnostics; mỗi lần retrier thử lại thất bại thì tăng lên 1
+        int retries = letter.diagnostics().containsKey(RETRIES) ? retries(letter) + 1 : 0;
+        boolean retryable = isRetryable(cause);
+        EventMessage<?> message = letter.message();
+        if (!retryable) {
+            log.error("Dead-lettered {} {} in {}: {}", message.getPayloadType().getSimpleName(),
+                    message.getIdentifier(), processingGroup, cause.toString());
+        } else if (retries >= properties.getDeadLetterMaxRetries()) {
+            log.error("{} {} in {} still fails after {} retries, left in the dead-letter queue: {}",
+                    message.getPayloadType().getSimpleName(), message.getIdentifier(), processingGroup, retries,
+                    cause.toString());
+        } else if (retries == 0) {
+            log.warn("Dead-lettered {} {} in {} for retry: {}", message.getPayloadType().getSimpleName(),
+                    message.getIdentifier(), processingGroup, cause.getMessage());
+        }
+        return Decisions.requeue(cause, l -> l.diagnostics()
+                .and(RETRIES, retries)
+                .and(RETRYABLE, retryable));
+    }
+
+    static int retries(DeadLetter<?> letter) {
+        Object retries = letter.diagnostics().get(RETRIES);
+        return retries instanceof Number number ? number.intValue() : 0;
+    }
+
+    static boolean isRetryable(DeadLetter<?> letter) {
+        return Boolean.TRUE.equals(letter.diagnostics().get(RETRYABLE));
+    }
+
+    static boolean isRetryable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ReadModelNotReadyException
+                    || cause instanceof DataIntegrityViolationException
+                    || cause instanceof TransientDataAccessException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof PessimisticLockException
+                    || cause instanceof LockTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
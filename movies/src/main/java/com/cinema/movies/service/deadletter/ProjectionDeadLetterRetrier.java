@@ -0,0 +1,62 @@
+package com.cinema.movies.service.deadletter;
+
+import java.time.Instant;
+
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.messaging.deadletter.DeadLetter;
+import org.axonframework.messaging.deadletter.SequencedDeadLetterProcessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.cinema.movies.config.ProjectionProcessingConfig;
+import com.cinema.movies.config.ProjectionProcessingProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Thử lại định kỳ các event trong dead-letter queue của read-model group.
+ *
+ * Mỗi lượt xử lý lần lượt các chuỗi (theo aggregate) có event đầu đã qua thời gian backoff, còn
+ * thử lại được và chưa hết lượt; event thành công kéo theo các event phía sau của cùng chuỗi. Event
+ * thất bại được đưa lại vào queue với lastTouched mới nên không bị chọn lại trong cùng lượt.
+ */
+@Service
+@Slf4j
+public class ProjectionDeadLetterRetrier {
+
+    private final EventProcessingConfiguration eventProcessingConfiguration;
+    private final ProjectionProcessingProperties properties;
+
+    public ProjectionDeadLetterRetrier(EventProcessingConfiguration eventProcessingConfiguration,
+            ProjectionProcessingProperties properties) {
+        this.eventProcessingConfiguration = eventProcessingConfiguration;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${projection-processing.dead-letter-retry-interval-ms:1000}")
+    public void retry() {
+        for (String group : ProjectionProcessingConfig.GROUPS) {
+            eventProcessingConfiguration.sequencedDeadLetterProcessor(group)
+                    .ifPresent(processor -> retry(group, processor));
+        }
+    }
+
+    private void retry(String group, SequencedDeadLetterProcessor<EventMessage<?>> processor) {
+        Instant now = Instant.now();
+        int processed = 0;
+        while (processor.process(letter -> isDue(letter, now))) {
+            processed++;
+        }
+        if (processed > 0) {
+            log.info("Reprocessed {} dead-lettered sequences in {}", processed, group);
+        }
+    }
+
+    private boolean isDue(DeadLetter<? extends EventMessage<?>> letter, Instant now) {
+        int retries = ProjectionDeadLetterPolicy.retries(letter);
+        return ProjectionDeadLetterPolicy.isRetryable(letter)
+                && retries < properties.getDeadLetterMaxRetries()
+                && !letter.lastTouched().plusMillis(properties.deadLetterBackoffMs(retries)).isAfter(now);
+    }
+}
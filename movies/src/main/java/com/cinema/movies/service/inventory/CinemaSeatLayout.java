@@ -0,0 +1,132 @@
+package com.cinema.movies.service.inventory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * Immutable snapshot of the seats that physically exist in one cinema.
+ *
+ * Mỗi lần ghế thay đổi sẽ tạo ra một snapshot mới (copy-on-write),
+ * nên các thread đọc không bao giờ cần khóa.
+ */
+public final class CinemaSeatLayout {
+
+    @Getter
+    private final String cinemaId;
+
+    @Getter
+    private final long version; // Tăng mỗi lần layout thay đổi, dùng làm ETag
+
+    private final long[] seatMask;
+    private final String[] seatIds;
+    private final Map<String, Integer> indexBySeatId;
+
+    private CinemaSeatLayout(String cinemaId, long version, long[] seatMask, String[] seatIds,
+            Map<String, Integer> indexBySeatId) {
+        this.cinemaId = cinemaId;
+        this.version = version;
+        this.seatMask = seatMask;
+        this.seatIds = seatIds;
+        this.indexBySeatId = indexBySeatId;
+    }
+
+    public static CinemaSeatLayout empty(String cinemaId) {
+        return new CinemaSeatLayout(cinemaId, 0L, new long[SeatGrid.WORDS], new String[SeatGrid.CAPACITY],
+                Collections.emptyMap());
+    }
+
+    public CinemaSeatLayout withSeat(String seatId, String seatRow, Integer seatNumber) {
+        int index = SeatGrid.index(seatRow, seatNumber);
+        Integer current = indexBySeatId.get(seatId);
+        if (current != null && current == index) {
+            return this;
+        }
+        if (seatIds[index] != null) {
+            // Vị trí đã có ghế khác, giữ nguyên layout
+            return this;
+        }
+
+        long[] mask = Arrays.copyOf(seatMask, seatMask.length);
+        String[] ids = Arrays.copyOf(seatIds, seatIds.length);
+        Map<String, Integer> byId = new HashMap<>(indexBySeatId);
+        if (current != null) {
+            mask[SeatGrid.wordOf(current)] &= ~SeatGrid.bitOf(current);
+            ids[current] = null;
+        }
+        mask[SeatGrid.wordOf(index)] |= SeatGrid.bitOf(index);
+        ids[index] = seatId;
+        byId.put(seatId, index);
+        return new CinemaSeatLayout(cinemaId, version + 1, mask, ids, Collections.unmodifiableMap(byId));
+    }
+
+    /**
+     * Thêm nhiều ghế trong một lần copy (layout cả rạp). Vị trí đã có ghế hoặc id đã có bị bỏ qua.
+     *
+     * @param seatIndexes seat index theo id ghế
+     */
+    public CinemaSeatLayout withSeats(Map<String, Integer> seatIndexes) {
+        long[] mask = Arrays.copyOf(seatMask, seatMask.length);
+        String[] ids = Arrays.copyOf(seatIds, seatIds.length);
+        Map<String, Integer> byId = new HashMap<>(indexBySeatId);
+        boolean changed = false;
+        for (Map.Entry<String, Integer> seat : seatIndexes.entrySet()) {
+            int index = seat.getValue();
+            if (ids[index] != null || byId.containsKey(seat.getKey())) {
+                continue;
+            }
+            mask[SeatGrid.wordOf(index)] |= SeatGrid.bitOf(index);
+            ids[index] = seat.getKey();
+            byId.put(seat.getKey(), index);
+            changed = true;
+        }
+        return changed
+                ? new CinemaSeatLayout(cinemaId, version + 1, mask, ids, Collections.unmodifiableMap(byId))
+                : this;
+    }
+
+    public CinemaSeatLayout withoutSeat(String seatId) {
+        Integer current = indexBySeatId.get(seatId);
+        if (current == null) {
+            return this;
+        }
+        long[] mask = Arrays.copyOf(seatMask, seatMask.length);
+        String[] ids = Arrays.copyOf(seatIds, seatIds.length);
+        Map<String, Integer> byId = new HashMap<>(indexBySeatId);
+        mask[SeatGrid.wordOf(current)] &= ~SeatGrid.bitOf(current);
+        ids[current] = null;
+        byId.remove(seatId);
+        return new CinemaSeatLayout(cinemaId, version + 1, mask, ids, Collections.unmodifiableMap(byId));
+    }
+
+    public boolean contains(String seatId) {
+        return indexBySeatId.containsKey(seatId);
+    }
+
+    /**
+     * @return seat index, hoặc -1 nếu ghế không thuộc rạp này
+     */
+    public int indexOf(String seatId) {
+        Integer index = indexBySeatId.get(seatId);
+        return index != null ? index : -1;
+    }
+
+    public String seatIdAt(int index) {
+        return seatIds[index];
+    }
+
+    public boolean hasSeatAt(int index) {
+        return (seatMask[SeatGrid.wordOf(index)] & SeatGrid.bitOf(index)) != 0;
+    }
+
+    public long word(int word) {
+        return seatMask[word];
+    }
+
+    public int seatCount() {
+        return indexBySeatId.size();
+    }
+}
@@ -0,0 +1,88 @@
+package com.cinema.movies.service.inventory;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Giữ layout ghế hiện tại của từng rạp, được cập nhật từ các Seat event.
+ */
+@Component
+@Slf4j
+public class CinemaSeatLayoutRegistry {
+
+    private final Map<String, CinemaSeatLayout> layouts = new ConcurrentHashMap<>();
+    private final Map<String, String> cinemaIdBySeatId = new ConcurrentHashMap<>();
+
+    public CinemaSeatLayout get(String cinemaId) {
+        CinemaSeatLayout layout = layouts.get(cinemaId);
+        return layout != null ? layout : CinemaSeatLayout.empty(cinemaId);
+    }
+
+    // Empty nếu rạp chưa từng có ghế (hoặc id không tồn tại)
+    public Optional<CinemaSeatLayout> find(String cinemaId) {
+        return Optional.ofNullable(layouts.get(cinemaId));
+    }
+
+    public void addSeat(String seatId, String cinemaId, String seatRow, Integer seatNumber) {
+        if (!SeatGrid.isValid(seatRow, seatNumber)) {
+            log.warn("Seat {} has invalid position {}{}, skipped from layout", seatId, seatRow, seatNumber);
+            return;
+        }
+        CinemaSeatLayout layout = layouts.compute(cinemaId, (id, current) -> (current != null
+                ? current
+                : CinemaSeatLayout.empty(id)).withSeat(seatId, seatRow, seatNumber));
+        if (!layout.contains(seatId)) {
+            log.warn("Seat position {}{} already used in cinema {}, seat {} skipped from layout",
+                    seatRow, seatNumber, cinemaId, seatId);
+            return;
+        }
+        cinemaIdBySeatId.put(seatId, cinemaId);
+    }
+
+    /**
+     * Thêm cả layout ghế của rạp trong một lần cập nhật.
+     *
+     * @param seatIndexes seat index theo id ghế (xem {@link SeatGrid#index})
+     */
+    public void addSeats(String cinemaId, Map<String, Integer> seatIndexes) {
+        CinemaSeatLayout layout = layouts.compute(cinemaId, (id, current) -> (current != null
+                ? current
+                : CinemaSeatLayout.empty(id)).withSeats(seatIndexes));
+        int skipped = 0;
+        for (String seatId : seatIndexes.keySet()) {
+            if (layout.contains(seatId)) {
+                cinemaIdBySeatId.put(seatId, cinemaId);
+            } else {
+                skipped++;
+            }
+        }
+        if (skipped > 0) {
+            log.warn("{} seats of the layout of cinema {} overlap existing seats and were skipped", skipped, cinemaId);
+        }
+    }
+
+    // Empty nếu ghế không có trong layout nào (chưa tạo hoặc đã xóa)
+    public Optional<String> cinemaOf(String seatId) {
+        return Optional.ofNullable(cinemaIdBySeatId.get(seatId));
+    }
+
+    public void moveSeat(String seatId, String cinemaId, String seatRow, Integer seatNumber) {
+        String previousCinemaId = cinemaIdBySeatId.get(seatId);
+        if (previousCinemaId != null && !previousCinemaId.equals(cinemaId)) {
+            removeSeat(seatId);
+        }
+        addSeat(seatId, cinemaId, seatRow, seatNumber);
+    }
+
+    public void removeSeat(String seatId) {
+        String cinemaId = cinemaIdBySeatId.remove(seatId);
+        if (cinemaId != null) {
+            layouts.computeIfPresent(cinemaId, (id, current) -> current.withoutSeat(seatId));
+        }
+    }
+}
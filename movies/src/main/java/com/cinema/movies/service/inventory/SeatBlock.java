@@ -0,0 +1,29 @@
+package com.cinema.movies.service.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Một dãy ghế liền nhau trên cùng một hàng.
+ */
+@Getter
+@AllArgsConstructor
+public final class SeatBlock {
+    private final int row;
+    private final int firstNumber;
+    private final int count;
+    private final double score; // Càng nhỏ càng gần trung tâm
+
+    public String getRowLabel() {
+        return SeatGrid.rowLabel(row);
+    }
+
+    public int[] indexes() {
+        int[] indexes = new int[count];
+        int first = row * SeatGrid.SEATS_PER_ROW + firstNumber - 1;
+        for (int i = 0; i < count; i++) {
+            indexes[i] = first + i;
+        }
+        return indexes;
+    }
+}
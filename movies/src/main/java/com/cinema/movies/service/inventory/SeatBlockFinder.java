@@ -0,0 +1,105 @@
+package com.cinema.movies.service.inventory;
+
+/**
+ * Tìm dãy N ghế trống liền nhau tốt nhất trực tiếp trên bitmask của từng hàng.
+ *
+ * Mỗi hàng là 128 bit (2 word). Bit s của {@code starts} bật khi ghế s..s+N-1
+ * đều trống, tính bằng N-1 phép AND với free mask dịch phải. Điểm của một dãy
+ * = độ lệch so với tâm hàng + độ lệch so với hàng lý tưởng (khoảng 60% từ màn hình).
+ */
+public final class SeatBlockFinder {
+
+    static final double IDEAL_ROW_RATIO = 0.6;
+    static final double ROW_WEIGHT = 1.0;
+
+    private SeatBlockFinder() {
+    }
+
+    /**
+     * @return dãy ghế tốt nhất, hoặc null nếu không còn dãy nào đủ N ghế
+     */
+    public static SeatBlock findBest(CinemaSeatLayout layout, ShowTimeSeatInventory inventory, int count) {
+        if (count < 1 || count > SeatGrid.SEATS_PER_ROW) {
+            throw new IllegalArgumentException("Seat count must be between 1 and " + SeatGrid.SEATS_PER_ROW);
+        }
+
+        int firstRow = -1;
+        int lastRow = -1;
+        for (int row = 0; row < SeatGrid.MAX_ROWS; row++) {
+            if ((layout.word(row * 2) | layout.word(row * 2 + 1)) != 0) {
+                if (firstRow < 0) {
+                    firstRow = row;
+                }
+                lastRow = row;
+            }
+        }
+        if (firstRow < 0) {
+            return null;
+        }
+        double idealRow = firstRow + (lastRow - firstRow) * IDEAL_ROW_RATIO;
+        double rowSpan = Math.max(1.0, lastRow - firstRow);
+
+        SeatBlock best = null;
+        for (int row = firstRow; row <= lastRow; row++) {
+            int w = row * SeatGrid.WORDS_PER_ROW;
+            long seatLo = layout.word(w);
+            long seatHi = layout.word(w + 1);
+            if ((seatLo | seatHi) == 0) {
+                continue;
+            }
+
+            double rowPenalty = ROW_WEIGHT * Math.abs(row - idealRow) / rowSpan;
+            if (best != null && rowPenalty >= best.getScore()) {
+                continue;
+            }
+
+            long freeLo = seatLo & ~inventory.takenWord(w);
+            long freeHi = seatHi & ~inventory.takenWord(w + 1);
+            long startLo = freeLo;
+            long startHi = freeHi;
+            for (int k = 1; k < count && (startLo | startHi) != 0; k++) {
+                startLo &= shiftRightLo(freeLo, freeHi, k);
+                startHi &= shiftRightHi(freeHi, k);
+            }
+            if ((startLo | startHi) == 0) {
+                continue;
+            }
+
+            int firstSeat = seatLo != 0 ? Long.numberOfTrailingZeros(seatLo)
+                    : 64 + Long.numberOfTrailingZeros(seatHi);
+            int lastSeat = seatHi != 0 ? 127 - Long.numberOfLeadingZeros(seatHi)
+                    : 63 - Long.numberOfLeadingZeros(seatLo);
+            double center = (firstSeat + lastSeat) / 2.0;
+            double halfWidth = Math.max(1.0, (lastSeat - firstSeat) / 2.0);
+            double offset = (count - 1) / 2.0;
+
+            best = pick(best, row, startLo, 0, center, halfWidth, offset, count, rowPenalty);
+            best = pick(best, row, startHi, 64, center, halfWidth, offset, count, rowPenalty);
+        }
+        return best;
+    }
+
+    private static SeatBlock pick(SeatBlock best, int row, long starts, int base, double center,
+            double halfWidth, double offset, int count, double rowPenalty) {
+        while (starts != 0) {
+            int start = base + Long.numberOfTrailingZeros(starts);
+            starts &= starts - 1;
+            double score = rowPenalty + Math.abs(start + offset - center) / halfWidth;
+            if (best == null || score < best.getScore()) {
+                best = new SeatBlock(row, start + 1, count, score);
+            }
+        }
+        return best;
+    }
+
+    private static long shiftRightLo(long lo, long hi, int k) {
+        if (k >= 64) {
+            return hi >>> (k - 64);
+        }
+        return (lo >>> k) | (hi << (64 - k));
+    }
+
+    private static long shiftRightHi(long hi, int k) {
+        return k >= 64 ? 0L : hi >>> k;
+    }
+}
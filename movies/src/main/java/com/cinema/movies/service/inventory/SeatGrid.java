@@ -0,0 +1,56 @@
+package com.cinema.movies.service.inventory;
+
+/**
+ * Fixed seat coordinate space shared by every cinema.
+ *
+ * Hàng ghế A-Z, mỗi hàng tối đa 128 ghế (SeatRequestModel giới hạn 1-100),
+ * nên mỗi hàng chiếm đúng 2 word 64-bit. Seat index = row * 128 + (number - 1).
+ */
+public final class SeatGrid {
+
+    public static final int MAX_ROWS = 26;
+    public static final int SEATS_PER_ROW = 128;
+    public static final int WORDS_PER_ROW = SEATS_PER_ROW / Long.SIZE;
+    public static final int WORDS = MAX_ROWS * WORDS_PER_ROW;
+    public static final int CAPACITY = MAX_ROWS * SEATS_PER_ROW;
+
+    private SeatGrid() {
+    }
+
+    public static boolean isValid(String seatRow, Integer seatNumber) {
+        return seatRow != null
+                && seatRow.length() == 1
+                && seatRow.charAt(0) >= 'A'
+                && seatRow.charAt(0) < 'A' + MAX_ROWS
+                && seatNumber != null
+                && seatNumber >= 1
+                && seatNumber <= SEATS_PER_ROW;
+    }
+
+    public static int index(String seatRow, Integer seatNumber) {
+        if (!isValid(seatRow, seatNumber)) {
+            throw new IllegalArgumentException("Invalid seat position: " + seatRow + seatNumber);
+        }
+        return (seatRow.charAt(0) - 'A') * SEATS_PER_ROW + (seatNumber - 1);
+    }
+
+    public static int rowOf(int index) {
+        return index / SEATS_PER_ROW;
+    }
+
+    public static int numberOf(int index) {
+        return index % SEATS_PER_ROW + 1;
+    }
+
+    public static String rowLabel(int row) {
+        return String.valueOf((char) ('A' + row));
+    }
+
+    public static int wordOf(int index) {
+        return index >>> 6;
+    }
+
+    public static long bitOf(int index) {
+        return 1L << (index & 63);
+    }
+}
@@ -0,0 +1,58 @@
+package com.cinema.movies.service.inventory;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.Getter;
+
+/**
+ * Một lượt giữ ghế. Trạng thái chỉ đổi một lần từ HELD sang trạng thái cuối,
+ * thread nào CAS thành công mới được động vào bitmap.
+ */
+@Getter
+public final class SeatHold implements Delayed {
+
+    public enum Status {
+        HELD, CONFIRMED, RELEASED, EXPIRED
+    }
+
+    private final String id;
+    private final String showTimeId;
+    private final List<String> seatIds;
+    private final int[] seatIndexes;
+    private final Instant expiresAt;
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.HELD);
+
+    public SeatHold(String id, String showTimeId, List<String> seatIds, int[] seatIndexes, Instant expiresAt) {
+        this.id = id;
+        this.showTimeId = showTimeId;
+        this.seatIds = List.copyOf(seatIds);
+        this.seatIndexes = seatIndexes;
+        this.expiresAt = expiresAt;
+    }
+
+    public Status getStatus() {
+        return status.get();
+    }
+
+    boolean transition(Status to) {
+        return status.compareAndSet(Status.HELD, to);
+    }
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(expiresAt.toEpochMilli() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,12 @@
+package com.cinema.movies.service.inventory;
+
+/**
+ * Dãy ghế tìm được liên tục bị request khác giữ mất trước khi kịp CAS. Khác với hết ghế:
+ * thử lại sau có thể thành công.
+ */
+public class SeatHoldContentionException extends RuntimeException {
+
+    public SeatHoldContentionException(String showTimeId, int attempts) {
+        super("Seats of showtime " + showTimeId + " were taken concurrently " + attempts + " times, retry later");
+    }
+}
@@ -0,0 +1,13 @@
+package com.cinema.movies.service.inventory;
+
+/**
+ * Nhận thông báo mỗi khi trạng thái ghế của một suất chiếu thay đổi.
+ *
+ * Được gọi đồng bộ trên thread vừa giữ/nhả/bán ghế, nên phải xử lý nhanh.
+ */
+public interface SeatInventoryListener {
+
+    void seatsChanged(ShowTimeSeatInventory inventory, int[] seatIndexes);
+
+    void showTimeRemoved(String showTimeId);
+}
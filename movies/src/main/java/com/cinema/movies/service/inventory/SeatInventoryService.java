@@ -0,0 +1,274 @@
+package com.cinema.movies.service.inventory;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.DelayQueue;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.cinema.movies.config.SeatInventoryProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory seat inventory keyed by ShowTime id.
+ *
+ * Đường giữ ghế không dùng lock: chỉ đọc layout (immutable) và CAS trên
+ * bitmap của suất chiếu. Hold hết hạn được nhả bởi sweeper định kỳ.
+ */
+@Service
+@Slf4j
+public class SeatInventoryService {
+
+    private final CinemaSeatLayoutRegistry layoutRegistry;
+    private final SeatInventoryProperties properties;
+
+    private final Map<String, ShowTimeSeatInventory> inventories = new ConcurrentHashMap<>();
+    private final Map<String, SeatHold> holds = new ConcurrentHashMap<>();
+    private final DelayQueue<SeatHold> expiryQueue = new DelayQueue<>();
+    private final List<SeatInventoryListener> listeners = new CopyOnWriteArrayList<>();
+
+    public SeatInventoryService(CinemaSeatLayoutRegistry layoutRegistry, SeatInventoryProperties properties) {
+        this.layoutRegistry = layoutRegistry;
+        this.properties = properties;
+    }
+
+    public void addListener(SeatInventoryListener listener) {
+        listeners.add(listener);
+    }
+
+    /*
+     * =======================
+     * SHOWTIME LIFECYCLE
+     * =======================
+     */
+
+    public void registerShowTime(String showTimeId, String cinemaId) {
+        inventories.putIfAbsent(showTimeId, new ShowTimeSeatInventory(showTimeId, cinemaId));
+    }
+
+    /**
+     * Seat index chỉ có nghĩa với layout của một rạp, nên dời rạp bắt đầu lại với bitmap trống.
+     * ShowTimeAggregate đã chặn dời rạp khi còn ghế được giữ/bán; hold còn sót (node khác) bị huỷ.
+     */
+    public void moveShowTime(String showTimeId, String cinemaId) {
+        ShowTimeSeatInventory inventory = inventories.get(showTimeId);
+        if (inventory == null) {
+            registerShowTime(showTimeId, cinemaId);
+        } else if (!inventory.getCinemaId().equals(cinemaId)) {
+            log.warn("ShowTime {} moved from cinema {} to {}", showTimeId, inventory.getCinemaId(), cinemaId);
+            removeShowTime(showTimeId);
+            registerShowTime(showTimeId, cinemaId);
+        }
+    }
+
+    public void removeShowTime(String showTimeId) {
+        inventories.remove(showTimeId);
+        holds.values().removeIf(hold -> hold.getShowTimeId().equals(showTimeId));
+        for (SeatInventoryListener listener : listeners) {
+            listener.showTimeRemoved(showTimeId);
+        }
+    }
+
+    public boolean hasActiveHolds(String showTimeId) {
+        return holds.values().stream().anyMatch(hold -> hold.getShowTimeId().equals(showTimeId));
+    }
+
+    public Optional<ShowTimeSeatInventory> getInventory(String showTimeId) {
+        return Optional.ofNullable(inventories.get(showTimeId));
+    }
+
+    public CinemaSeatLayout getLayout(ShowTimeSeatInventory inventory) {
+        return layoutRegistry.get(inventory.getCinemaId());
+    }
+
+    /*
+     * =======================
+     * HOLD / CONFIRM / RELEASE
+     * =======================
+     */
+
+    /**
+     * Giữ toàn bộ các ghế hoặc không giữ ghế nào.
+     *
+     * @return hold mới, hoặc empty nếu có ít nhất một ghế đã bị giữ/bán
+     */
+    public Optional<SeatHold> hold(String showTimeId, List<String> seatIds) {
+        ShowTimeSeatInventory inventory = requireInventory(showTimeId);
+
+        checkHoldSize(seatIds == null ? 0 : seatIds.size());
+
+        CinemaSeatLayout layout = layoutRegistry.get(inventory.getCinemaId());
+        int[] indexes = new int[seatIds.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            int index = layout.indexOf(seatIds.get(i));
+            if (index < 0) {
+                throw new IllegalArgumentException("Seat " + seatIds.get(i) + " does not belong to showtime " + showTimeId);
+            }
+            indexes[i] = index;
+        }
+        Arrays.sort(indexes);
+        for (int i = 1; i < indexes.length; i++) {
+            if (indexes[i] == indexes[i - 1]) {
+                throw new IllegalArgumentException("Duplicate seat in hold request");
+            }
+        }
+
+        return acquire(inventory, seatIds, indexes);
+    }
+
+    /**
+     * Giữ các ghế theo seat index (dùng bởi các service chọn ghế tự động).
+     */
+    public Optional<SeatHold> holdIndexes(String showTimeId, int[] indexes) {
+        ShowTimeSeatInventory inventory = requireInventory(showTimeId);
+        checkHoldSize(indexes.length);
+        CinemaSeatLayout layout = layoutRegistry.get(inventory.getCinemaId());
+        int[] sorted = indexes.clone();
+        Arrays.sort(sorted);
+        String[] seatIds = new String[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            if (!layout.hasSeatAt(sorted[i])) {
+                throw new IllegalArgumentException("No seat at index " + sorted[i] + " for showtime " + showTimeId);
+            }
+            seatIds[i] = layout.seatIdAt(sorted[i]);
+        }
+        return acquire(inventory, Arrays.asList(seatIds), sorted);
+    }
+
+    // Giới hạn seat-inventory.max-seats-per-hold áp dụng cho mọi đường giữ ghế
+    public void checkHoldSize(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one seat is required");
+        }
+        if (count > properties.getMaxSeatsPerHold()) {
+            throw new IllegalArgumentException("Cannot hold more than " + properties.getMaxSeatsPerHold() + " seats");
+        }
+    }
+
+    /**
+     * Chốt hold để sweeper không nhả ghế nữa; ghế vẫn ở trạng thái giữ cho tới khi
+     * ShowTimeSeatsSoldEvent tới {@link #markSold}. Nếu ghi nhận bán thất bại, gọi
+     * {@link #cancelConfirm} để trả ghế.
+     */
+    public SeatHold confirm(String holdId) {
+        SeatHold hold = requireHold(holdId);
+        if (hold.isExpired(Instant.now())) {
+            expire(hold);
+            throw new IllegalStateException("Hold " + holdId + " has expired");
+        }
+        if (!hold.transition(SeatHold.Status.CONFIRMED)) {
+            throw new IllegalStateException("Hold " + holdId + " is already " + hold.getStatus());
+        }
+        holds.remove(holdId);
+        return hold;
+    }
+
+    public void cancelConfirm(SeatHold hold) {
+        freeSeats(hold);
+    }
+
+    /**
+     * Đánh dấu ghế đã bán từ event (idempotent khi replay). Ghế không còn trong layout bị bỏ qua.
+     */
+    public void markSold(String showTimeId, List<String> seatIds) {
+        ShowTimeSeatInventory inventory = inventories.get(showTimeId);
+        if (inventory == null) {
+            return;
+        }
+        CinemaSeatLayout layout = layoutRegistry.get(inventory.getCinemaId());
+        int[] indexes = seatIds.stream().mapToInt(layout::indexOf).filter(index -> index >= 0).sorted().toArray();
+        if (indexes.length < seatIds.size()) {
+            log.warn("Sold seats of showtime {} are missing from the layout of cinema {}", showTimeId,
+                    inventory.getCinemaId());
+        }
+        inventory.markSold(indexes);
+        notifyChanged(inventory, indexes);
+    }
+
+    public SeatHold release(String holdId) {
+        SeatHold hold = requireHold(holdId);
+        if (!hold.transition(SeatHold.Status.RELEASED)) {
+            throw new IllegalStateException("Hold " + holdId + " is already " + hold.getStatus());
+        }
+        freeSeats(hold);
+        return hold;
+    }
+
+    @Scheduled(fixedDelayString = "${seat-inventory.sweep-interval-ms:1000}")
+    public void expireHolds() {
+        SeatHold hold;
+        int expired = 0;
+        while ((hold = expiryQueue.poll()) != null) {
+            if (expire(hold)) {
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            log.info("Released {} expired seat holds", expired);
+        }
+    }
+
+    private Optional<SeatHold> acquire(ShowTimeSeatInventory inventory, List<String> seatIds, int[] indexes) {
+        if (!inventory.tryAcquire(indexes)) {
+            return Optional.empty();
+        }
+        SeatHold hold = new SeatHold(UUID.randomUUID().toString(), inventory.getShowTimeId(), seatIds, indexes,
+                Instant.now().plus(properties.getHoldTtl()));
+        holds.put(hold.getId(), hold);
+        expiryQueue.offer(hold);
+        notifyChanged(inventory, indexes);
+        return Optional.of(hold);
+    }
+
+    private boolean expire(SeatHold hold) {
+        if (!hold.transition(SeatHold.Status.EXPIRED)) {
+            return false;
+        }
+        freeSeats(hold);
+        return true;
+    }
+
+    private void freeSeats(SeatHold hold) {
+        holds.remove(hold.getId());
+        ShowTimeSeatInventory inventory = inventories.get(hold.getShowTimeId());
+        if (inventory != null) {
+            inventory.release(hold.getSeatIndexes());
+            notifyChanged(inventory, hold.getSeatIndexes());
+        }
+    }
+
+    private void notifyChanged(ShowTimeSeatInventory inventory, int[] seatIndexes) {
+        for (SeatInventoryListener listener : listeners) {
+            try {
+                listener.seatsChanged(inventory, seatIndexes);
+            } catch (RuntimeException e) {
+                // Lỗi phía listener không được làm hỏng thao tác giữ ghế đã thành công
+                log.warn("Seat inventory listener failed for showtime {}", inventory.getShowTimeId(), e);
+            }
+        }
+    }
+
+    private ShowTimeSeatInventory requireInventory(String showTimeId) {
+        ShowTimeSeatInventory inventory = inventories.get(showTimeId);
+        if (inventory == null) {
+            throw new IllegalArgumentException("ShowTime not found: " + showTimeId);
+        }
+        return inventory;
+    }
+
+    private SeatHold requireHold(String holdId) {
+        SeatHold hold = holds.get(holdId);
+        if (hold == null) {
+            throw new IllegalArgumentException("Hold not found: " + holdId);
+        }
+        return hold;
+    }
+}
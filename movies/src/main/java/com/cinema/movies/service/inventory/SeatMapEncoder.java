@@ -0,0 +1,170 @@
+package com.cinema.movies.service.inventory;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Mã hóa layout ghế của một rạp thành dạng nhị phân gọn (big-endian).
+ *
+ * <pre>
+ * byte    format version (1)
+ * byte    id encoding: 1 = UUID 16 byte, 0 = UTF-8 có độ dài 1 byte ở trước
+ * long    layout version
+ * short   seat count
+ * byte    row count
+ * mỗi hàng: byte row index (0 = A), long low bits, long high bits,
+ *           sau đó là id của từng ghế theo thứ tự bit tăng dần
+ * </pre>
+ *
+ * Id UTF-8 tối đa 255 byte; số ghế tối đa là {@link SeatGrid#CAPACITY} nên vừa một short.
+ */
+public final class SeatMapEncoder {
+
+    public static final byte FORMAT_VERSION = 1;
+    public static final byte ID_UTF8 = 0;
+    public static final byte ID_UUID = 1;
+    public static final int MAX_UTF8_ID_BYTES = 255;
+
+    private SeatMapEncoder() {
+    }
+
+    public static byte[] encode(CinemaSeatLayout layout) {
+        boolean uuids = true;
+        int idBytes = 0;
+        int rowCount = 0;
+        for (int row = 0; row < SeatGrid.MAX_ROWS; row++) {
+            int w = row * SeatGrid.WORDS_PER_ROW;
+            if ((layout.word(w) | layout.word(w + 1)) == 0) {
+                continue;
+            }
+            rowCount++;
+            for (int index : rowIndexes(layout, row)) {
+                String seatId = layout.seatIdAt(index);
+                uuids &= isUuid(seatId);
+                int length = seatId.getBytes(StandardCharsets.UTF_8).length;
+                if (length > MAX_UTF8_ID_BYTES) {
+                    throw new IllegalArgumentException("Seat id " + seatId + " is longer than "
+                            + MAX_UTF8_ID_BYTES + " bytes");
+                }
+                idBytes += 1 + length;
+            }
+        }
+        if (uuids) {
+            idBytes = layout.seatCount() * 16;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 1 + 8 + 2 + 1 + rowCount * 17 + idBytes);
+        buffer.put(FORMAT_VERSION);
+        buffer.put(uuids ? ID_UUID : ID_UTF8);
+        buffer.putLong(layout.getVersion());
+        buffer.putShort((short) layout.seatCount());
+        buffer.put((byte) rowCount);
+        for (int row = 0; row < SeatGrid.MAX_ROWS; row++) {
+            int w = row * SeatGrid.WORDS_PER_ROW;
+            if ((layout.word(w) | layout.word(w + 1)) == 0) {
+                continue;
+            }
+            buffer.put((byte) row);
+            buffer.putLong(layout.word(w));
+            buffer.putLong(layout.word(w + 1));
+            for (int index : rowIndexes(layout, row)) {
+                String seatId = layout.seatIdAt(index);
+                if (uuids) {
+                    UUID uuid = UUID.fromString(seatId);
+                    buffer.putLong(uuid.getMostSignificantBits());
+                    buffer.putLong(uuid.getLeastSignificantBits());
+                } else {
+                    byte[] bytes = seatId.getBytes(StandardCharsets.UTF_8);
+                    buffer.put((byte) bytes.length);
+                    buffer.put(bytes);
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Đọc lại dữ liệu của {@link #encode}, dùng cho client Java và kiểm tra định dạng.
+     */
+    public static DecodedSeatMap decode(byte[] data) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            byte format = buffer.get();
+            if (format != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported seat map format " + format);
+            }
+            boolean uuids = buffer.get() == ID_UUID;
+            long version = buffer.getLong();
+            int seatCount = Short.toUnsignedInt(buffer.getShort());
+            int rowCount = Byte.toUnsignedInt(buffer.get());
+            Map<Integer, String> seatIds = new TreeMap<>();
+            for (int r = 0; r < rowCount; r++) {
+                int row = Byte.toUnsignedInt(buffer.get());
+                long[] words = { buffer.getLong(), buffer.getLong() };
+                for (int word = 0; word < words.length; word++) {
+                    long bits = words[word];
+                    while (bits != 0) {
+                        int index = row * SeatGrid.SEATS_PER_ROW + word * 64 + Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                        String seatId;
+                        if (uuids) {
+                            seatId = new UUID(buffer.getLong(), buffer.getLong()).toString();
+                        } else {
+                            byte[] bytes = new byte[Byte.toUnsignedInt(buffer.get())];
+                            buffer.get(bytes);
+                            seatId = new String(bytes, StandardCharsets.UTF_8);
+                        }
+                        seatIds.put(index, seatId);
+                    }
+                }
+            }
+            if (seatIds.size() != seatCount || buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Seat map declares " + seatCount + " seats but contains "
+                        + seatIds.size());
+            }
+            return new DecodedSeatMap(version, Collections.unmodifiableMap(seatIds));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated seat map", e);
+        }
+    }
+
+    /**
+     * @param seatIds id ghế theo seat index (xem {@link SeatGrid#index})
+     */
+    public record DecodedSeatMap(long version, Map<Integer, String> seatIds) {
+    }
+
+    static int[] rowIndexes(CinemaSeatLayout layout, int row) {
+        int w = row * SeatGrid.WORDS_PER_ROW;
+        long lo = layout.word(w);
+        long hi = layout.word(w + 1);
+        int[] indexes = new int[Long.bitCount(lo) + Long.bitCount(hi)];
+        int base = row * SeatGrid.SEATS_PER_ROW;
+        int i = 0;
+        while (lo != 0) {
+            indexes[i++] = base + Long.numberOfTrailingZeros(lo);
+            lo &= lo - 1;
+        }
+        while (hi != 0) {
+            indexes[i++] = base + 64 + Long.numberOfTrailingZeros(hi);
+            hi &= hi - 1;
+        }
+        return indexes;
+    }
+
+    private static boolean isUuid(String value) {
+        if (value.length() != 36) {
+            return false;
+        }
+        try {
+            return UUID.fromString(value).toString().equals(value);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
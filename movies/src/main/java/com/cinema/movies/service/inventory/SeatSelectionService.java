@@ -0,0 +1,53 @@
+package com.cinema.movies.service.inventory;
+
+import java.util.Optional;
+
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Chọn ghế tốt nhất còn trống cho nhóm khách đặt cùng nhau.
+ */
+@Service
+@Slf4j
+public class SeatSelectionService {
+
+    private static final int MAX_HOLD_ATTEMPTS = 5;
+
+    private final SeatInventoryService seatInventoryService;
+
+    public SeatSelectionService(SeatInventoryService seatInventoryService) {
+        this.seatInventoryService = seatInventoryService;
+    }
+
+    public Optional<SeatBlock> findBestBlock(String showTimeId, int count) {
+        ShowTimeSeatInventory inventory = seatInventoryService.getInventory(showTimeId)
+                .orElseThrow(() -> new IllegalArgumentException("ShowTime not found: " + showTimeId));
+        return Optional.ofNullable(
+                SeatBlockFinder.findBest(seatInventoryService.getLayout(inventory), inventory, count));
+    }
+
+    /**
+     * Tìm và giữ luôn dãy ghế tốt nhất. Nếu bị request khác giữ mất giữa lúc
+     * tìm và lúc CAS thì tìm lại.
+     *
+     * @return empty nếu không còn dãy ghế liền nhau đủ chỗ
+     * @throws SeatHoldContentionException nếu vẫn bị giữ mất sau {@value #MAX_HOLD_ATTEMPTS} lần thử
+     */
+    public Optional<SeatHold> holdBestBlock(String showTimeId, int count) {
+        seatInventoryService.checkHoldSize(count);
+        for (int attempt = 1; attempt <= MAX_HOLD_ATTEMPTS; attempt++) {
+            Optional<SeatBlock> block = findBestBlock(showTimeId, count);
+            if (block.isEmpty()) {
+                return Optional.empty();
+            }
+            Optional<SeatHold> hold = seatInventoryService.holdIndexes(showTimeId, block.get().indexes());
+            if (hold.isPresent()) {
+                return hold;
+            }
+            log.debug("Best block for showtime {} was taken concurrently, attempt {}", showTimeId, attempt);
+        }
+        throw new SeatHoldContentionException(showTimeId, MAX_HOLD_ATTEMPTS);
+    }
+}
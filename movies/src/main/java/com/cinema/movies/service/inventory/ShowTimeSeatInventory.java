@@ -0,0 +1,112 @@
+package com.cinema.movies.service.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import lombok.Getter;
+
+/**
+ * Trạng thái ghế của một suất chiếu dưới dạng bitmap.
+ *
+ * Bit trong {@code taken} = ghế đang được giữ hoặc đã bán. Giữ nhiều ghế là
+ * all-or-nothing: CAS lần lượt từng word theo thứ tự tăng dần, nếu gặp xung
+ * đột thì hoàn tác các word đã lấy. Mỗi bit chỉ có đúng một CAS thắng nên
+ * không bao giờ bán trùng ghế.
+ */
+public final class ShowTimeSeatInventory {
+
+    @Getter
+    private final String showTimeId;
+
+    @Getter
+    private final String cinemaId;
+
+    private final AtomicLongArray taken = new AtomicLongArray(SeatGrid.WORDS);
+    private final AtomicLongArray sold = new AtomicLongArray(SeatGrid.WORDS);
+
+    public ShowTimeSeatInventory(String showTimeId, String cinemaId) {
+        this.showTimeId = showTimeId;
+        this.cinemaId = cinemaId;
+    }
+
+    /**
+     * @param indexes seat index đã sắp xếp tăng dần, không trùng lặp
+     * @return true nếu đã giữ được toàn bộ ghế
+     */
+    public boolean tryAcquire(int[] indexes) {
+        int i = 0;
+        while (i < indexes.length) {
+            int word = SeatGrid.wordOf(indexes[i]);
+            long mask = 0L;
+            int next = i;
+            while (next < indexes.length && SeatGrid.wordOf(indexes[next]) == word) {
+                mask |= SeatGrid.bitOf(indexes[next]);
+                next++;
+            }
+            if (!acquireWord(word, mask)) {
+                clear(taken, indexes, i);
+                return false;
+            }
+            i = next;
+        }
+        return true;
+    }
+
+    public void release(int[] indexes) {
+        clear(taken, indexes, indexes.length);
+    }
+
+    // Ghế bán cũng là ghế đã bị lấy, kể cả khi hold nằm ở node khác (replay)
+    public void markSold(int[] indexes) {
+        for (int index : indexes) {
+            taken.getAndUpdate(SeatGrid.wordOf(index), w -> w | SeatGrid.bitOf(index));
+            sold.getAndUpdate(SeatGrid.wordOf(index), w -> w | SeatGrid.bitOf(index));
+        }
+    }
+
+    public boolean isTaken(int index) {
+        return (taken.get(SeatGrid.wordOf(index)) & SeatGrid.bitOf(index)) != 0;
+    }
+
+    public boolean isSold(int index) {
+        return (sold.get(SeatGrid.wordOf(index)) & SeatGrid.bitOf(index)) != 0;
+    }
+
+    public long takenWord(int word) {
+        return taken.get(word);
+    }
+
+    public int availableCount(CinemaSeatLayout layout) {
+        int count = 0;
+        for (int w = 0; w < SeatGrid.WORDS; w++) {
+            count += Long.bitCount(layout.word(w) & ~taken.get(w));
+        }
+        return count;
+    }
+
+    public int soldCount() {
+        int count = 0;
+        for (int w = 0; w < SeatGrid.WORDS; w++) {
+            count += Long.bitCount(sold.get(w));
+        }
+        return count;
+    }
+
+    private boolean acquireWord(int word, long mask) {
+        while (true) {
+            long current = taken.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (taken.compareAndSet(word, current, current | mask)) {
+                return true;
+            }
+        }
+    }
+
+    private static void clear(AtomicLongArray bits, int[] indexes, int limit) {
+        for (int i = 0; i < limit; i++) {
+            int index = indexes[i];
+            bits.getAndUpdate(SeatGrid.wordOf(index), w -> w & ~SeatGrid.bitOf(index));
+        }
+    }
+}
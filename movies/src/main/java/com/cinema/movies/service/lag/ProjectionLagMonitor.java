@@ -0,0 +1,167 @@
+package com.cinema.movies.service.lag;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.axonframework.common.stream.BlockingStream;
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventhandling.WrappedToken;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.cinema.movies.config.ProjectionLagProperties;
+import com.cinema.movies.config.ProjectionProcessingConfig;
+import com.cinema.movies.query.model.ProjectionLagResponseModel;
+import com.cinema.movies.query.model.ProjectionLagResponseModel.SegmentLagModel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Đo độ trễ của từng processing group so với head của event store, theo từng segment.
+ *
+ * Độ trễ tính bằng số event (head - vị trí token) và bằng giây (tuổi của event kế tiếp mà
+ * segment chưa xử lý). Khi segment chậm nhất vượt ngưỡng thì ghi log cảnh báo một lần, và
+ * ghi log khi đã bắt kịp trở lại.
+ */
+@Service
+@Slf4j
+public class ProjectionLagMonitor {
+
+    private final EventProcessingConfiguration eventProcessingConfiguration;
+    private final EventStore eventStore;
+    private final ProjectionLagProperties properties;
+    private final Map<String, GroupLag> groups = new ConcurrentHashMap<>();
+
+    public ProjectionLagMonitor(EventProcessingConfiguration eventProcessingConfiguration, EventStore eventStore,
+            ProjectionLagProperties properties) {
+        this.eventProcessingConfiguration = eventProcessingConfiguration;
+        this.eventStore = eventStore;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${projection-lag.sample-interval-ms:5000}")
+    public void sample() {
+        long head = position(eventStore.createHeadToken()).orElse(-1L);
+        Instant now = Instant.now();
+        // Nhiều segment/group thường dừng ở cùng vị trí, mỗi vị trí chỉ đọc event store một lần
+        Map<Long, Instant> nextEventTimes = new HashMap<>();
+        for (String group : processingGroups()) {
+            eventProcessingConfiguration.eventProcessor(group, StreamingEventProcessor.class)
+                    .ifPresent(processor -> sample(group, processor, head, now, nextEventTimes));
+        }
+    }
+
+    public List<ProjectionLagResponseModel> lags() {
+        return processingGroups().stream()
+                .filter(groups::containsKey)
+                .map(group -> groups.get(group).snapshot)
+                .toList();
+    }
+
+    public ProjectionLagResponseModel lag(String processingGroup) {
+        if (!processingGroups().contains(processingGroup)) {
+            throw new IllegalArgumentException("Unknown processing group: " + processingGroup);
+        }
+        GroupLag lag = groups.get(processingGroup);
+        if (lag == null) {
+            sample();
+            lag = groups.get(processingGroup);
+        }
+        if (lag == null) {
+            throw new IllegalArgumentException("No streaming processor for " + processingGroup);
+        }
+        return lag.snapshot;
+    }
+
+    // Group outbox chỉ có processor khi outbox.enabled=true
+    private List<String> processingGroups() {
+        if (eventProcessingConfiguration.eventProcessor(ProjectionProcessingConfig.OUTBOX_GROUP).isEmpty()) {
+            return ProjectionProcessingConfig.GROUPS;
+        }
+        List<String> groups = new ArrayList<>(ProjectionProcessingConfig.GROUPS);
+        groups.add(ProjectionProcessingConfig.OUTBOX_GROUP);
+        return groups;
+    }
+
+    private void sample(String group, StreamingEventProcessor processor, long head, Instant now,
+            Map<Long, Instant> nextEventTimes) {
+        List<SegmentLagModel> segments = new ArrayList<>();
+        for (EventTrackerStatus status : processor.processingStatus().values()) {
+            TrackingToken token = WrappedToken.unwrapLowerBound(status.getTrackingToken());
+            long position = position(token).orElse(-1L);
+            long lagEvents = Math.max(0, head - position);
+            double lagSeconds = 0.0;
+            if (lagEvents > 0) {
+                Instant next = nextEventTimes.computeIfAbsent(position, p -> nextEventTime(token));
+                lagSeconds = next == null ? 0.0 : Math.max(0, Duration.between(next, now).toMillis() / 1000.0);
+            }
+            segments.add(new SegmentLagModel(status.getSegment().getSegmentId(), position, lagEvents, lagSeconds,
+                    status.isCaughtUp(), status.isReplaying(),
+                    status.isErrorState() ? String.valueOf(status.getError()) : null));
+        }
+        segments.sort(Comparator.comparing(SegmentLagModel::getSegmentId));
+
+        long lagEvents = segments.stream().mapToLong(SegmentLagModel::getLagEvents).max().orElse(0L);
+        double lagSeconds = segments.stream().mapToDouble(SegmentLagModel::getLagSeconds).max().orElse(0.0);
+        groups.computeIfAbsent(group, GroupLag::new).update(processor.isRunning(), head, lagEvents, lagSeconds,
+                now, segments);
+    }
+
+    private Instant nextEventTime(TrackingToken token) {
+        try (BlockingStream<TrackedEventMessage<?>> stream = eventStore.openStream(token)) {
+            return stream.hasNextAvailable(100, TimeUnit.MILLISECONDS) ? stream.nextAvailable().getTimestamp() : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static OptionalLong position(TrackingToken token) {
+        return token == null ? OptionalLong.empty() : token.position();
+    }
+
+    private final class GroupLag {
+
+        private final String processingGroup;
+        private final AtomicLong maxLagEvents = new AtomicLong();
+        private final LongAdder alerts = new LongAdder();
+        private volatile boolean alerting;
+        private volatile ProjectionLagResponseModel snapshot;
+
+        GroupLag(String processingGroup) {
+            this.processingGroup = processingGroup;
+        }
+
+        void update(boolean running, long head, long lagEvents, double lagSeconds, Instant now,
+                List<SegmentLagModel> segments) {
+            maxLagEvents.accumulateAndGet(lagEvents, Math::max);
+            boolean exceeded = lagEvents > properties.getAlertLagEvents()
+                    || lagSeconds > properties.getAlertLag().toMillis() / 1000.0;
+            if (exceeded && !alerting) {
+                alerts.increment();
+                log.warn("Projection {} is lagging {} events ({}s) behind the event store, consider adding segments",
+                        processingGroup, lagEvents, lagSeconds);
+            } else if (!exceeded && alerting) {
+                log.info("Projection {} caught up, lag {} events ({}s)", processingGroup, lagEvents, lagSeconds);
+            }
+            alerting = exceeded;
+            snapshot = new ProjectionLagResponseModel(processingGroup, running, head, lagEvents, lagSeconds,
+                    maxLagEvents.get(), exceeded, alerts.sum(), now, segments);
+        }
+    }
+}
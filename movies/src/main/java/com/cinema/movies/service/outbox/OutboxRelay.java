@@ -0,0 +1,165 @@
+package com.cinema.movies.service.outbox;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.cinema.movies.config.OutboxProperties;
+import com.cinema.movies.query.model.OutboxStatsResponseModel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publish các dòng event_outbox sang Kafka theo batch, theo thứ tự id.
+ *
+ * Mỗi lượt gửi cả batch rồi flush producer một lần thay vì chờ từng record; producer idempotent
+ * (acks=all, tối đa 5 request in-flight) giữ thứ tự trong partition nên event của cùng aggregate
+ * tới consumer đúng thứ tự. Chỉ phần đầu batch đã được ack mới bị xoá: record lỗi và các record
+ * sau nó được gửi lại ở lượt sau (at-least-once, header event-id để loại bản trùng).
+ */
+@Slf4j
+public class OutboxRelay {
+
+    private static final String SELECT_BATCH_SQL = "SELECT id, event_id, aggregate_id, event_type, payload,"
+            + " occurred_at FROM event_outbox ORDER BY id LIMIT ?";
+    private static final String DELETE_SQL = "DELETE FROM event_outbox WHERE id = ?";
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM event_outbox";
+
+    private static final RowMapper<OutboxRow> ROW_MAPPER = (rs, rowNum) -> new OutboxRow(rs.getLong("id"),
+            rs.getString("event_id"), rs.getString("aggregate_id"), rs.getString("event_type"),
+            rs.getString("payload"), rs.getTimestamp("occurred_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final OutboxProperties properties;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder totalDelayMillis = new LongAdder();
+    private final AtomicLong maxDelayMillis = new AtomicLong();
+    private volatile long lastDelayMillis;
+    private volatile double lastBatchRate;
+    private volatile Instant lastPublishedAt;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, KafkaTemplate<String, String> kafkaTemplate,
+            OutboxProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.properties = properties;
+    }
+
+    // Batch đầy nghĩa là còn dòng chờ: gửi tiếp ngay, không đợi chu kỳ sau
+    @Scheduled(fixedDelayString = "${outbox.interval-ms:200}")
+    public void relay() {
+        try {
+            while (publishBatch() == properties.getBatchSize()) {
+                // tiếp tục
+            }
+        } catch (RuntimeException e) {
+            // Broker không sẵn sàng không được làm chết scheduler, dòng vẫn nằm trong outbox
+            log.error("Outbox relay failed", e);
+        }
+    }
+
+    /**
+     * Gửi một batch và xoá các dòng đã được ack.
+     *
+     * @return số event đã publish
+     */
+    public int publishBatch() {
+        List<OutboxRow> rows = jdbcTemplate.query(SELECT_BATCH_SQL, ROW_MAPPER, properties.getBatchSize());
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(rows.size());
+        for (OutboxRow row : rows) {
+            try {
+                sends.add(kafkaTemplate.send(record(row)));
+            } catch (RuntimeException e) {
+                // Lỗi ngay khi gửi (metadata, serializer): không gửi tiếp để giữ thứ tự
+                sends.add(CompletableFuture.failedFuture(e));
+                break;
+            }
+        }
+        kafkaTemplate.flush(); // Không chờ hết linger.ms cho batch cuối
+
+        List<Object[]> acked = new ArrayList<>(rows.size());
+        long waitMillis = properties.getDeliveryTimeout().toMillis() + properties.getMaxBlock().toMillis();
+        for (int i = 0; i < sends.size(); i++) {
+            OutboxRow row = rows.get(i);
+            try {
+                sends.get(i).get(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                failed.increment();
+                log.warn("Publishing event {} ({}) failed, {} events will be retried: {}", row.eventId(),
+                        row.eventType(), rows.size() - i, e.getMessage());
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long delay = System.currentTimeMillis() - row.occurredAt().toEpochMilli();
+            totalDelayMillis.add(delay);
+            maxDelayMillis.accumulateAndGet(delay, Math::max);
+            lastDelayMillis = delay;
+            acked.add(new Object[] { row.id() });
+        }
+        if (acked.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(DELETE_SQL, acked);
+        published.add(acked.size());
+        batches.increment();
+        lastBatchRate = acked.size() / ((System.nanoTime() - start) / 1e9);
+        lastPublishedAt = Instant.now();
+        log.debug("Published {} outbox events to {}", acked.size(), properties.getTopic());
+        return acked.size();
+    }
+
+    public OutboxStatsResponseModel stats() {
+        long count = published.sum();
+        long batchCount = batches.sum();
+        Long pending = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+        return new OutboxStatsResponseModel(properties.getTopic(), pending, count, failed.sum(), batchCount,
+                batchCount == 0 ? 0.0 : (double) count / batchCount, lastBatchRate,
+                count == 0 ? 0.0 : (double) totalDelayMillis.sum() / count, maxDelayMillis.get(), lastDelayMillis,
+                lastPublishedAt);
+    }
+
+    // Dòng còn lại vẫn nằm trong OutboxStore và được gửi sau restart; gửi nốt để consumer không phải chờ
+    public void close() {
+        relay();
+        kafkaTemplate.getProducerFactory().reset();
+    }
+
+    private ProducerRecord<String, String> record(OutboxRow row) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(properties.getTopic(), row.aggregateId(),
+                row.payload());
+        record.headers()
+                .add("event-id", row.eventId().getBytes(StandardCharsets.UTF_8))
+                .add("event-type", row.eventType().getBytes(StandardCharsets.UTF_8))
+                .add("occurred-at", row.occurredAt().toString().getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private record OutboxRow(long id, String eventId, String aggregateId, String eventType, String payload,
+            Instant occurredAt) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.cinema.movies.service.outbox;
+
+import org.axonframework.eventhandling.tokenstore.TokenStore;
+import org.axonframework.eventhandling.tokenstore.jdbc.GenericTokenTableFactory;
+import org.axonframework.eventhandling.tokenstore.jdbc.JdbcTokenStore;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.spring.jdbc.SpringDataSourceConnectionProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.cinema.movies.config.OutboxProperties;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Database riêng của outbox: bảng event_outbox và token của processing group outbox.
+ *
+ * Read model nằm trong H2 in-memory và được dựng lại bằng replay, còn outbox phải nhớ đã stage tới
+ * đâu qua restart, nên mặc định nằm trong một file H2 (outbox.datasource-url). Dòng outbox và token
+ * dùng chung connection của transaction processor, nên được commit hoặc rollback cùng nhau.
+ *
+ * DataSource không được đăng ký thành bean để không thay DataSource của read model.
+ */
+public class OutboxStore {
+
+    private static final String CREATE_OUTBOX_SQL = "CREATE TABLE IF NOT EXISTS event_outbox ("
+            + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, event_id VARCHAR(36) NOT NULL,"
+            + " aggregate_id VARCHAR(255) NOT NULL, event_type VARCHAR(255) NOT NULL, payload TEXT NOT NULL,"
+            + " occurred_at TIMESTAMP(6) WITH TIME ZONE NOT NULL)";
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    public OutboxStore(OutboxProperties properties) {
+        dataSource = new HikariDataSource();
+        dataSource.setPoolName("outbox");
+        dataSource.setJdbcUrl(properties.getDatasourceUrl());
+        dataSource.setUsername(properties.getDatasourceUsername());
+        dataSource.setPassword(properties.getDatasourcePassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        createSchema(jdbcTemplate);
+    }
+
+    public static void createSchema(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute(CREATE_OUTBOX_SQL);
+    }
+
+    // Connection lấy theo transaction Spring đang mở, cùng connection với JdbcTemplate của handler
+    public TokenStore tokenStore(Serializer serializer) {
+        JdbcTokenStore tokenStore = JdbcTokenStore.builder()
+                .connectionProvider(new SpringDataSourceConnectionProvider(dataSource))
+                .serializer(serializer)
+                .build();
+        tokenStore.createSchema(GenericTokenTableFactory.INSTANCE);
+        return tokenStore;
+    }
+
+    public JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    public PlatformTransactionManager getTransactionManager() {
+        return transactionManager;
+    }
+
+    public void close() {
+        dataSource.close();
+    }
+}
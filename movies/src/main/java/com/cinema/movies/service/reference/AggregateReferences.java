@@ -0,0 +1,55 @@
+package com.cinema.movies.service.reference;
+
+import java.util.Optional;
+
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.DomainEventStream;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kiểm tra phía command rằng aggregate được tham chiếu (phim, rạp, nhân viên) tồn tại và chưa bị
+ * xoá, trước khi phát event chứa id của nó.
+ *
+ * Tra thẳng event store thay vì bảng read model: aggregate vừa tạo được thấy ngay kể cả khi
+ * projection chưa chạy tới, và chỉ cần đọc event cuối cùng của aggregate. Id không hợp lệ bị
+ * chặn ở đây thay vì tới projection, chờ một dòng cha không bao giờ có rồi nằm lại dead-letter queue.
+ */
+@Component
+public class AggregateReferences {
+
+    private final EventStore eventStore;
+
+    public AggregateReferences(EventStore eventStore) {
+        this.eventStore = eventStore;
+    }
+
+    /**
+     * @throws IllegalArgumentException nếu {@code aggregateId} không phải aggregate {@code aggregateType}
+     *                                  còn tồn tại
+     */
+    public void require(String aggregateId, Class<?> aggregateType, Class<?> deletedEventType) {
+        if (!exists(aggregateId, aggregateType, deletedEventType)) {
+            throw new IllegalArgumentException(aggregateType.getSimpleName().replace("Aggregate", "")
+                    + " not found: " + aggregateId);
+        }
+    }
+
+    public boolean exists(String aggregateId, Class<?> aggregateType, Class<?> deletedEventType) {
+        if (aggregateId == null) {
+            return false;
+        }
+        Optional<Long> lastSequenceNumber = eventStore.lastSequenceNumberFor(aggregateId);
+        if (lastSequenceNumber.isEmpty()) {
+            return false;
+        }
+        DomainEventStream events = eventStore.readEvents(aggregateId, lastSequenceNumber.get());
+        if (!events.hasNext()) {
+            return false;
+        }
+        // Type của domain event là tên aggregate: id của phim truyền vào chỗ rạp cũng bị chặn
+        DomainEventMessage<?> last = events.next();
+        return aggregateType.getSimpleName().equals(last.getType())
+                && !deletedEventType.isAssignableFrom(last.getPayloadType());
+    }
+}
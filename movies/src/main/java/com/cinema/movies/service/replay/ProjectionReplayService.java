@@ -0,0 +1,162 @@
+package com.cinema.movies.service.replay;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.cinema.movies.config.ProjectionProcessingConfig;
+import com.cinema.movies.query.model.ProjectionReplayStatusResponseModel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rebuild read model của một processing group: dừng processor, reset token (các @ResetHandler
+ * xoá sạch bảng của group) rồi chạy lại từ đầu event store trên các segment của processor.
+ *
+ * Replay có điểm kết thúc cố định là head của event store lúc bắt đầu: ReplayToken tự hết
+ * trạng thái replay khi vượt qua vị trí đó, event mới hơn được xử lý như bình thường.
+ */
+@Service
+@Slf4j
+public class ProjectionReplayService {
+
+    private final EventProcessingConfiguration eventProcessingConfiguration;
+    private final EventStore eventStore;
+    private final Map<String, ReplayJob> jobs = new ConcurrentHashMap<>();
+
+    public ProjectionReplayService(EventProcessingConfiguration eventProcessingConfiguration, EventStore eventStore) {
+        this.eventProcessingConfiguration = eventProcessingConfiguration;
+        this.eventStore = eventStore;
+    }
+
+    /**
+     * Job mới được tạo trong {@code jobs.compute}: hai request cùng lúc cho một group không thể cùng
+     * reset processor, request tới sau chờ request đầu xong rồi bị từ chối.
+     *
+     * @throws IllegalStateException nếu group đang replay
+     */
+    public ProjectionReplayStatusResponseModel replay(String processingGroup) {
+        StreamingEventProcessor processor = requireProcessor(processingGroup);
+        ReplayJob job = jobs.compute(processingGroup, (group, running) -> {
+            if (running != null && !running.isFinished()) {
+                throw new IllegalStateException("Processing group " + group + " is already replaying");
+            }
+            return start(group, processor);
+        });
+        return job.status(processor.processingStatus().values());
+    }
+
+    private ReplayJob start(String processingGroup, StreamingEventProcessor processor) {
+        long tail = position(eventStore.createTailToken()).orElse(-1L);
+        long head = position(eventStore.createHeadToken()).orElse(-1L);
+        log.info("Replaying processing group {} over events {}..{}", processingGroup, tail + 1, head);
+
+        processor.shutDown();
+        processor.resetTokens();
+        processor.start();
+        return new ReplayJob(processingGroup, tail, head);
+    }
+
+    public ProjectionReplayStatusResponseModel status(String processingGroup) {
+        StreamingEventProcessor processor = requireProcessor(processingGroup);
+        ReplayJob job = jobs.get(processingGroup);
+        if (job == null) {
+            throw new IllegalArgumentException("Processing group " + processingGroup + " has not been replayed");
+        }
+        return job.status(processor.processingStatus().values());
+    }
+
+    public List<ProjectionReplayStatusResponseModel> statuses() {
+        return jobs.keySet().stream().sorted().map(this::status).toList();
+    }
+
+    // Lấy mẫu định kỳ để tính tốc độ hiện tại và đánh dấu job hoàn tất kể cả khi không ai hỏi trạng thái
+    @Scheduled(fixedDelayString = "${projection-replay.sample-interval-ms:1000}")
+    public void sample() {
+        jobs.forEach((group, job) -> {
+            if (!job.isFinished()) {
+                eventProcessingConfiguration.eventProcessor(group, StreamingEventProcessor.class)
+                        .ifPresent(processor -> job.status(processor.processingStatus().values()));
+            }
+        });
+    }
+
+    private StreamingEventProcessor requireProcessor(String processingGroup) {
+        if (!ProjectionProcessingConfig.GROUPS.contains(processingGroup)) {
+            throw new IllegalArgumentException("Unknown processing group: " + processingGroup);
+        }
+        return eventProcessingConfiguration.eventProcessor(processingGroup, StreamingEventProcessor.class)
+                .orElseThrow(() -> new IllegalArgumentException("No streaming processor for " + processingGroup));
+    }
+
+    private static OptionalLong position(TrackingToken token) {
+        return token == null ? OptionalLong.empty() : token.position();
+    }
+
+    private static final class ReplayJob {
+
+        private final String processingGroup;
+        private final long fromPosition;
+        private final long headPosition;
+        private final Instant startedAt = Instant.now();
+        private final long startedNanos = System.nanoTime();
+        private volatile Instant finishedAt;
+        private long finishedNanos;
+        private long lastSampleNanos = startedNanos;
+        private long lastSamplePosition;
+        private double currentRate;
+
+        ReplayJob(String processingGroup, long fromPosition, long headPosition) {
+            this.processingGroup = processingGroup;
+            this.fromPosition = fromPosition;
+            this.headPosition = headPosition;
+            this.lastSamplePosition = fromPosition;
+        }
+
+        boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        synchronized ProjectionReplayStatusResponseModel status(Collection<EventTrackerStatus> segments) {
+            long total = Math.max(0, headPosition - fromPosition);
+            // Mỗi segment đọc toàn bộ stream, tiến độ của cả group là tiến độ của segment chậm nhất
+            long position = segments.isEmpty() ? fromPosition : segments.stream()
+                    .mapToLong(segment -> segment.getCurrentPosition().orElse(fromPosition))
+                    .min().orElse(fromPosition);
+            long processed = Math.min(total, Math.max(0, position - fromPosition));
+            // ReplayToken chỉ thôi báo isReplaying() khi có event mới hơn head, nên coi là xong khi
+            // segment chậm nhất đã tới head lúc bắt đầu
+            if (finishedAt == null && !segments.isEmpty() && position >= headPosition) {
+                finishedAt = Instant.now();
+                finishedNanos = System.nanoTime();
+            }
+
+            long now = System.nanoTime();
+            if (now - lastSampleNanos >= 500_000_000L) {
+                currentRate = (position - lastSamplePosition) / ((now - lastSampleNanos) / 1e9);
+                lastSampleNanos = now;
+                lastSamplePosition = position;
+            }
+            long endNanos = finishedAt == null ? now : finishedNanos;
+            double elapsedSeconds = Math.max(1e-3, (endNanos - startedNanos) / 1e9);
+            double rate = processed / elapsedSeconds;
+            Long eta = finishedAt != null ? Long.valueOf(0) : rate > 0 ? Long.valueOf((long) Math.ceil((total - processed) / rate)) : null;
+
+            return new ProjectionReplayStatusResponseModel(processingGroup, finishedAt != null ? "COMPLETED" : "RUNNING",
+                    segments.size(), startedAt, finishedAt, total, processed,
+                    total == 0 ? 100.0 : processed * 100.0 / total, rate,
+                    finishedAt != null ? 0.0 : currentRate, eta);
+        }
+    }
+}
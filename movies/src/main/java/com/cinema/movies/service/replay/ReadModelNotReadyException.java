@@ -0,0 +1,26 @@
+package com.cinema.movies.service.replay;
+
+/**
+ * Event tới trước dữ liệu mà nó phụ thuộc trong read model: dòng được tham chiếu chưa được group
+ * khác ghi tới, hoặc chưa ghi tới version của event. Dòng đã bị xoá không phải lỗi này: handler
+ * bỏ qua event (xem ReadModelTables).
+ *
+ * Handler ném lỗi này trước khi ghi gì vào read model để event được đưa vào dead-letter queue của
+ * group và thử lại sau (xem ProjectionProcessingConfig). Là checked exception để @Transactional của
+ * handler không đánh dấu rollback-only transaction chung của cả batch.
+ */
+public class ReadModelNotReadyException extends Exception {
+
+    public ReadModelNotReadyException(String message) {
+        super(message);
+    }
+
+    public static ReadModelNotReadyException missing(String table, String id) {
+        return new ReadModelNotReadyException("Row " + id + " is not in " + table + " yet");
+    }
+
+    public static ReadModelNotReadyException behind(String table, String id, long version) {
+        return new ReadModelNotReadyException("Row " + id + " of " + table + " has not reached version " + version
+                + " yet");
+    }
+}
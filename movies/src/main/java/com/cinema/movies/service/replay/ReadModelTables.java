@@ -0,0 +1,219 @@
+package com.cinema.movies.service.replay;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Xoá bảng read model trước khi replay, gọi từ @ResetHandler của từng projection.
+ *
+ * Các group được rebuild độc lập nên bảng cha (movies, cinemas, employees) vẫn đang bị bảng
+ * của group khác tham chiếu. Không tắt kiểm tra khóa ngoại (tuỳ chọn đó áp dụng cho cả database
+ * và mọi kết nối khác): bảng cha chỉ xoá các dòng không còn bị tham chiếu, dòng còn lại giữ
+ * nguyên id và trạng thái mới nhất: handler của bảng cha ghi theo cột version nên event replay
+ * cũ hơn không đưa dòng về trạng thái cũ.
+ *
+ * Ngoài ra cập nhật từng phần một dòng read model cho các event patch, kiểm tra dòng cha
+ * trước khi handler ghi dòng tham chiếu tới nó, và xoá dòng cha cùng các dòng con của nó
+ * (để lại dấu vết trong deleted_rows cho event tới muộn).
+ */
+@Component
+@Slf4j
+public class ReadModelTables {
+
+    private static final String KNOWN_ROWS = ReadModelTables.class.getName() + ".knownRows";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReadModelTables(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Xoá mọi dòng của các bảng theo thứ tự truyền vào (bảng con trước) trong một transaction.
+     * Chỉ dùng cho bảng không bị bảng của group khác tham chiếu.
+     */
+    @Transactional
+    public void clear(String... tables) {
+        for (String table : tables) {
+            int deleted = jdbcTemplate.update("DELETE FROM " + table);
+            log.info("Cleared {} rows from read model table {}", deleted, table);
+        }
+    }
+
+    /**
+     * Xoá các dòng của bảng cha {@code table} không còn bị dòng nào trong {@code references}
+     * (dạng "bảng.cột", ví dụ "show_times.movie_id") tham chiếu.
+     */
+    @Transactional
+    public void clearUnreferenced(String table, String... references) {
+        StringBuilder sql = new StringBuilder("DELETE FROM ").append(table).append(" t");
+        String keyword = " WHERE ";
+        for (String reference : references) {
+            int dot = reference.indexOf('.');
+            sql.append(keyword).append("NOT EXISTS (SELECT 1 FROM ").append(reference, 0, dot)
+                    .append(" r WHERE r.").append(reference, dot + 1, reference.length()).append(" = t.id)");
+            keyword = " AND ";
+        }
+        int deleted = jdbcTemplate.update(sql.toString());
+        log.info("Cleared {} unreferenced rows from read model table {}", deleted, table);
+    }
+
+    /**
+     * Dòng {@code id} của bảng cha (ở group khác) phải có trước khi ghi dòng tham chiếu tới nó,
+     * nếu không khóa ngoại sẽ làm hỏng cả batch lúc commit. Dòng đã thấy được nhớ trong unit of
+     * work để batch nhiều event cùng phim/rạp chỉ tra một lần.
+     *
+     * @return false nếu dòng đã bị xoá: dòng tham chiếu tới nó cũng đã bị xoá theo, handler bỏ qua event
+     * @throws ReadModelNotReadyException nếu dòng chưa có, event được dead-letter và thử lại sau
+     */
+    public boolean requireRow(String table, String id, Predicate<String> exists) throws ReadModelNotReadyException {
+        if (id == null) {
+            return true;
+        }
+        Set<String> known = CurrentUnitOfWork.isStarted()
+                ? CurrentUnitOfWork.get().root().getOrComputeResource(KNOWN_ROWS, key -> new HashSet<>())
+                : new HashSet<>();
+        String key = rowKey(table, id);
+        if (known.contains(key)) {
+            return true;
+        }
+        if (!exists.test(id)) {
+            return requireDeleted(table, id);
+        }
+        known.add(key);
+        return true;
+    }
+
+    /**
+     * Như {@link #requireRow(String, String, Predicate)} nhưng trả về chính dòng đó.
+     *
+     * @return rỗng nếu dòng đã bị xoá
+     * @throws ReadModelNotReadyException nếu dòng chưa có
+     */
+    public <T> Optional<T> findRow(String table, String id, Function<String, Optional<T>> finder)
+            throws ReadModelNotReadyException {
+        Optional<T> row = finder.apply(id);
+        if (row.isEmpty()) {
+            requireDeleted(table, id);
+        }
+        return row;
+    }
+
+    // Dòng không có: đã bị xoá thì bỏ qua, còn lại là event tới trước dòng
+    private boolean requireDeleted(String table, String id) throws ReadModelNotReadyException {
+        if (!isDeleted(table, id)) {
+            throw ReadModelNotReadyException.missing(table, id);
+        }
+        log.debug("Row {} of {} was deleted, skipping the event", id, table);
+        return false;
+    }
+
+    public boolean isDeleted(String table, String id) {
+        return !jdbcTemplate.queryForList("SELECT 1 FROM deleted_rows WHERE row_key = ?", Integer.class,
+                rowKey(table, id)).isEmpty();
+    }
+
+    /**
+     * Xoá dòng {@code id} và để lại dấu vết, kể cả khi dòng chưa từng được ghi vào read model.
+     * Dòng con ở bảng khác phải được xoá trước bằng {@link #deleteWhere(String, String, Object...)}.
+     */
+    public void delete(String table, String id) {
+        jdbcTemplate.update("MERGE INTO deleted_rows (row_key) KEY (row_key) VALUES (?)", rowKey(table, id));
+        jdbcTemplate.update("DELETE FROM " + table + " WHERE id = ?", id);
+    }
+
+    /**
+     * Xoá các dòng con thoả {@code condition} (ví dụ "movie_id = ?") cùng dòng cha, để lại dấu vết
+     * cho từng dòng để event tới muộn của chúng được bỏ qua.
+     *
+     * @return số dòng đã xoá
+     */
+    public int deleteWhere(String table, String condition, Object... args) {
+        jdbcTemplate.update("MERGE INTO deleted_rows (row_key) KEY (row_key) SELECT CONCAT('" + table
+                + "/', id) FROM " + table + " WHERE " + condition, args);
+        int deleted = jdbcTemplate.update("DELETE FROM " + table + " WHERE " + condition, args);
+        if (deleted > 0) {
+            log.debug("Deleted {} rows of {} where {}", deleted, table, condition);
+        }
+        return deleted;
+    }
+
+    /**
+     * Dòng {@code id} của bảng cha (ở group khác) phải đã ghi tới event có sequence number
+     * {@code version} trước khi bản copy của nó trong bảng khác được làm mới. Dòng không có thì
+     * không có gì để làm mới: chưa được tạo hoặc đã bị xoá thì cũng chưa/không còn dòng nào copy nó.
+     *
+     * @throws ReadModelNotReadyException nếu dòng còn ở version cũ hơn, event được dead-letter và thử lại sau
+     */
+    public void requireVersion(String table, String id, long version) throws ReadModelNotReadyException {
+        List<Long> versions = jdbcTemplate.queryForList("SELECT version FROM " + table + " WHERE id = ?",
+                Long.class, id);
+        if (!versions.isEmpty() && (versions.get(0) == null || versions.get(0) < version)) {
+            throw ReadModelNotReadyException.behind(table, id, version);
+        }
+    }
+
+    /**
+     * UPDATE đúng các cột có trong {@code columns} của dòng {@code id}; cột không đổi không bị ghi
+     * lại. Tên bảng và cột là hằng số trong handler, không đến từ request.
+     *
+     * @return số dòng được cập nhật, 0 nếu dòng chưa có trong read model
+     */
+    public int update(String table, String id, Map<String, Object> columns) {
+        return update(table, "id", id, columns);
+    }
+
+    // Như trên nhưng theo cột khoá khác id (ví dụ mọi suất chiếu của một phim)
+    public int update(String table, String keyColumn, Object key, Map<String, Object> columns) {
+        if (columns.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("UPDATE ").append(table).append(" SET ");
+        List<Object> args = new ArrayList<>(columns.size() + 1);
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            sql.append(column.getKey()).append(" = ?, ");
+            args.add(column.getValue());
+        }
+        sql.setLength(sql.length() - 2);
+        sql.append(" WHERE ").append(keyColumn).append(" = ?");
+        args.add(key);
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * Như {@link #update(String, String, Map)} cho bảng có cột version: chỉ ghi khi dòng còn ở version
+     * cũ hơn {@code version}, để event replay lại không đưa dòng về trạng thái cũ.
+     *
+     * @return số dòng được cập nhật, 0 nếu dòng chưa có hoặc đã mới hơn
+     */
+    public int update(String table, String id, long version, Map<String, Object> columns) {
+        StringBuilder sql = new StringBuilder("UPDATE ").append(table).append(" SET ");
+        List<Object> args = new ArrayList<>(columns.size() + 3);
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            sql.append(column.getKey()).append(" = ?, ");
+            args.add(column.getValue());
+        }
+        sql.append("version = ? WHERE id = ? AND (version IS NULL OR version < ?)");
+        args.add(version);
+        args.add(id);
+        args.add(version);
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private static String rowKey(String table, String id) {
+        return table + "/" + id;
+    }
+}
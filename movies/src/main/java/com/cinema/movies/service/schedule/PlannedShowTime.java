@@ -0,0 +1,20 @@
+package com.cinema.movies.service.schedule;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Một suất chiếu trong kế hoạch đề xuất; endTime là giờ hết phim (chưa gồm dọn phòng).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlannedShowTime {
+    private String movieId;
+    private String cinemaId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
@@ -0,0 +1,30 @@
+package com.cinema.movies.service.schedule;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Khoảng thời gian [start, end) một suất chiếu chiếm phòng, end đã gồm thời gian dọn phòng.
+ * Version là sequence number của event ShowTime mà slot phản ánh.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public final class ScheduleSlot {
+    private final String showTimeId;
+    private final String cinemaId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final long version;
+
+    public ScheduleSlot(String showTimeId, String cinemaId, LocalDateTime start, LocalDateTime end) {
+        this(showTimeId, cinemaId, start, end, 0);
+    }
+
+    public boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+        return start.isBefore(otherEnd) && otherStart.isBefore(end);
+    }
+}
@@ -0,0 +1,33 @@
+package com.cinema.movies.service.schedule;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Kế hoạch chiếu trong một ngày cho nhiều rạp.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowTimePlan {
+
+    private LocalDate date;
+    private long availableMinutes; // Số phút phòng còn trống trong giờ mở cửa
+    private long utilizedMinutes; // Số phút có phim chiếu
+    private long elapsedMillis;
+    private List<CinemaPlan> cinemas;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CinemaPlan {
+        private String cinemaId;
+        private long availableMinutes;
+        private long utilizedMinutes;
+        private List<PlannedShowTime> showTimes;
+    }
+}
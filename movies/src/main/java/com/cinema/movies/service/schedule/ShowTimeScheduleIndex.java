@@ -0,0 +1,320 @@
+package com.cinema.movies.service.schedule;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.springframework.stereotype.Component;
+
+import com.cinema.movies.command.data.Movie;
+import com.cinema.movies.command.data.Reponsitory.MovieRepository;
+import com.cinema.movies.config.ShowTimeScheduleProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lịch chiếu của từng rạp dưới dạng cây khoảng thời gian, sắp theo giờ bắt đầu.
+ *
+ * Index tự giữ bất biến "không có hai suất chồng nhau trong một rạp", nên chỉ
+ * cần so với suất liền trước và liền sau giờ bắt đầu mới: O(log n) thay vì quét
+ * cả bảng show_times. Command handler giữ chỗ đồng bộ qua {@link #reserve}, event
+ * handler đồng bộ lại khi replay.
+ *
+ * Event handler chạy bất đồng bộ và replay lại từ đầu khi khởi động, trong khi command vẫn giữ
+ * chỗ. Mỗi slot nhớ sequence number của event ShowTime nó phản ánh: event không mới hơn slot hiện
+ * có bị bỏ qua, và suất đã xoá để lại tombstone để event cũ không thêm lại nó.
+ *
+ * Dời suất sang rạp khác cần khoá lịch của cả hai rạp: luôn khoá theo thứ tự
+ * cinemaId để hai lần dời ngược chiều nhau không deadlock.
+ *
+ * Thời lượng phim lấy từ Movie events (cùng processor với ShowTime events, theo
+ * thứ tự toàn cục), nên replay không phụ thuộc bảng movies đã được dựng lại hay chưa.
+ */
+@Component
+@Slf4j
+public class ShowTimeScheduleIndex {
+
+    private static final Comparator<ScheduleSlot> BY_START = Comparator
+            .comparing(ScheduleSlot::getStart)
+            .thenComparing(ScheduleSlot::getShowTimeId);
+
+    private final MovieRepository movieRepository;
+    private final ShowTimeScheduleProperties properties;
+
+    private final Map<String, NavigableSet<ScheduleSlot>> schedules = new ConcurrentHashMap<>();
+    private final Map<String, ScheduleSlot> slotsById = new ConcurrentHashMap<>();
+    private final Map<String, Integer> movieDurations = new ConcurrentHashMap<>();
+    // Suất chiếu đã xoá: aggregate không còn event mới nên mọi event tới sau đều là event cũ
+    private final Set<String> removedShowTimeIds = ConcurrentHashMap.newKeySet();
+
+    public ShowTimeScheduleIndex(MovieRepository movieRepository, ShowTimeScheduleProperties properties) {
+        this.movieRepository = movieRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * Giữ chỗ cho một suất chiếu mới (event đầu tiên của aggregate, version 0).
+     *
+     * @return suất chiếu bị trùng, hoặc empty nếu đã giữ chỗ thành công
+     */
+    public Optional<ScheduleSlot> reserve(String showTimeId, String cinemaId, String movieId,
+            LocalDateTime startTime) {
+        return reserve(showTimeId, cinemaId, movieId, startTime, 0);
+    }
+
+    /**
+     * Giữ chỗ cho một suất chiếu (tạo mới hoặc dời lịch); {@code version} là sequence number của
+     * event sắp ghi. Nếu Unit of Work hiện tại rollback, lịch được trả về như cũ.
+     *
+     * @return suất chiếu bị trùng, hoặc empty nếu đã giữ chỗ thành công
+     */
+    public Optional<ScheduleSlot> reserve(String showTimeId, String cinemaId, String movieId,
+            LocalDateTime startTime, long version) {
+        requireSlot(cinemaId, startTime);
+        return reserve(new ScheduleSlot(showTimeId, cinemaId, startTime,
+                startTime.plus(occupiedDuration(movieId)), version));
+    }
+
+    /**
+     * Giữ chỗ cho suất chiếu mới với giờ kết thúc đã tính sẵn (lịch hàng loạt chỉ tra thời lượng phim một lần).
+     */
+    public Optional<ScheduleSlot> reserve(String showTimeId, String cinemaId, LocalDateTime startTime,
+            LocalDateTime endTime) {
+        requireSlot(cinemaId, startTime);
+        return reserve(new ScheduleSlot(showTimeId, cinemaId, startTime, endTime));
+    }
+
+    private Optional<ScheduleSlot> reserve(ScheduleSlot slot) {
+        String showTimeId = slot.getShowTimeId();
+        String cinemaId = slot.getCinemaId();
+        ScheduleSlot[] replaced = new ScheduleSlot[1];
+        Optional<ScheduleSlot> conflict = withSlot(showTimeId, cinemaId, current -> {
+            Optional<ScheduleSlot> found = findConflict(scheduleOf(cinemaId), slot);
+            if (found.isEmpty()) {
+                replace(current, slot);
+                replaced[0] = current;
+            }
+            return found;
+        });
+        if (conflict.isPresent()) {
+            return conflict;
+        }
+
+        ScheduleSlot previous = replaced[0];
+        if (CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().onRollback(uow -> {
+                if (previous != null) {
+                    put(previous);
+                } else {
+                    remove(showTimeId);
+                }
+            });
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Ghi lại lịch từ event có sequence number {@code version} (không kiểm tra trùng), idempotent
+     * khi replay. Bỏ qua nếu slot hiện có đã mới bằng hoặc hơn event.
+     */
+    public void apply(String showTimeId, String cinemaId, String movieId, LocalDateTime startTime, long version) {
+        requireSlot(cinemaId, startTime);
+        ScheduleSlot slot = new ScheduleSlot(showTimeId, cinemaId, startTime,
+                startTime.plus(occupiedDuration(movieId)), version);
+        withSlot(showTimeId, cinemaId, current -> {
+            if (!isStale(showTimeId, current, version)) {
+                replace(current, slot);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Ghi lại lịch từ event patch (không kiểm tra trùng): field null giữ nguyên theo slot hiện có.
+     * Dời giờ mà không đổi phim thì slot giữ nguyên thời gian chiếm phòng.
+     */
+    public void applyPatch(String showTimeId, String cinemaId, String movieId, LocalDateTime startTime,
+            long version) {
+        ScheduleSlot current = slotsById.get(showTimeId);
+        if (current == null) {
+            return;
+        }
+        // Tra thời lượng phim trước khi giữ khoá lịch
+        Duration occupied = movieId != null ? occupiedDuration(movieId) : null;
+        withSlot(showTimeId, cinemaId != null ? cinemaId : current.getCinemaId(), latest -> {
+            if (latest == null || isStale(showTimeId, latest, version)) {
+                return null;
+            }
+            LocalDateTime start = startTime != null ? startTime : latest.getStart();
+            LocalDateTime end = start.plus(occupied != null ? occupied
+                    : Duration.between(latest.getStart(), latest.getEnd()));
+            replace(latest, new ScheduleSlot(showTimeId, cinemaId != null ? cinemaId : latest.getCinemaId(),
+                    start, end, version));
+            return null;
+        });
+    }
+
+    /**
+     * Xoá slot theo ShowTimeDeletedEvent và nhớ suất đã xoá để event cũ hơn (replay) không thêm lại.
+     */
+    public void removeDeleted(String showTimeId) {
+        removedShowTimeIds.add(showTimeId);
+        remove(showTimeId);
+    }
+
+    public void remove(String showTimeId) {
+        ScheduleSlot slot = slotsById.get(showTimeId);
+        if (slot != null) {
+            withSlot(showTimeId, slot.getCinemaId(), current -> {
+                replace(current, null);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Ghi nhận thời lượng phim từ Movie event; null (patch không đổi thời lượng) được bỏ qua.
+     * Phim bị xóa vẫn giữ thời lượng để các suất chiếu cũ replay đúng.
+     */
+    public void recordMovieDuration(String movieId, Integer duration) {
+        if (duration != null) {
+            movieDurations.put(movieId, duration);
+        }
+    }
+
+    public Optional<ScheduleSlot> findConflict(String cinemaId, LocalDateTime start, LocalDateTime end,
+            String ignoreShowTimeId) {
+        NavigableSet<ScheduleSlot> schedule = scheduleOf(cinemaId);
+        synchronized (schedule) {
+            return findConflict(schedule, new ScheduleSlot(ignoreShowTimeId, cinemaId, start, end));
+        }
+    }
+
+    /**
+     * Các suất chiếu của rạp có giao với khoảng [from, to), theo thứ tự giờ bắt đầu.
+     */
+    public List<ScheduleSlot> slotsOverlapping(String cinemaId, LocalDateTime from, LocalDateTime to) {
+        NavigableSet<ScheduleSlot> schedule = scheduleOf(cinemaId);
+        List<ScheduleSlot> slots = new ArrayList<>();
+        synchronized (schedule) {
+            // Không có suất chồng nhau nên chỉ suất liền trước from có thể kéo dài vào khoảng
+            ScheduleSlot before = schedule.lower(new ScheduleSlot("", cinemaId, from, from));
+            if (before != null && before.overlaps(from, to)) {
+                slots.add(before);
+            }
+            for (ScheduleSlot slot : schedule.tailSet(new ScheduleSlot("", cinemaId, from, from), true)) {
+                if (!slot.getStart().isBefore(to)) {
+                    break;
+                }
+                slots.add(slot);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Thời gian một suất chiếu của phim chiếm phòng: thời lượng phim + thời gian dọn phòng.
+     */
+    public Duration occupiedDuration(String movieId) {
+        if (movieId == null) {
+            throw new IllegalArgumentException("ShowTime movieId must not be null");
+        }
+        Integer duration = movieDurations.get(movieId);
+        if (duration == null) {
+            // Phim vừa tạo mà Movie event chưa tới index: tra bảng movies
+            duration = movieRepository.findById(movieId)
+                    .map(Movie::getDuration)
+                    .orElseThrow(() -> new IllegalArgumentException("Movie not found: " + movieId));
+        }
+        return Duration.ofMinutes(duration != null ? duration : 0).plus(properties.getCleanupBuffer());
+    }
+
+    // Thiếu rạp không được tới khoá lịch (so sánh cinemaId theo thứ tự)
+    private static void requireSlot(String cinemaId, LocalDateTime startTime) {
+        if (cinemaId == null || startTime == null) {
+            throw new IllegalArgumentException("ShowTime cinemaId and startTime must not be null");
+        }
+    }
+
+    // Gọi khi đang giữ khoá lịch (xem withSlot)
+    private boolean isStale(String showTimeId, ScheduleSlot current, long version) {
+        return removedShowTimeIds.contains(showTimeId) || (current != null && current.getVersion() >= version);
+    }
+
+    // Bỏ qua chính suất đang dời lịch; còn lại chỉ cần xét hai suất kề giờ bắt đầu
+    private Optional<ScheduleSlot> findConflict(NavigableSet<ScheduleSlot> schedule, ScheduleSlot slot) {
+        ScheduleSlot before = schedule.floor(slot);
+        while (before != null && before.getShowTimeId().equals(slot.getShowTimeId())) {
+            before = schedule.lower(before);
+        }
+        if (before != null && before.overlaps(slot.getStart(), slot.getEnd())) {
+            return Optional.of(before);
+        }
+
+        ScheduleSlot after = schedule.higher(slot);
+        while (after != null && after.getShowTimeId().equals(slot.getShowTimeId())) {
+            after = schedule.higher(after);
+        }
+        if (after != null && after.overlaps(slot.getStart(), slot.getEnd())) {
+            return Optional.of(after);
+        }
+        return Optional.empty();
+    }
+
+    private void put(ScheduleSlot slot) {
+        withSlot(slot.getShowTimeId(), slot.getCinemaId(), current -> {
+            replace(current, slot);
+            return null;
+        });
+    }
+
+    /**
+     * Chạy action khi đang giữ khoá lịch của rạp mới và rạp hiện tại của suất chiếu,
+     * khoá theo thứ tự cinemaId. Nếu suất chiếu bị đổi trong lúc chờ khoá thì thử lại.
+     */
+    private <T> T withSlot(String showTimeId, String cinemaId, Function<ScheduleSlot, T> action) {
+        while (true) {
+            ScheduleSlot current = slotsById.get(showTimeId);
+            String otherCinemaId = current != null ? current.getCinemaId() : cinemaId;
+            boolean ordered = cinemaId.compareTo(otherCinemaId) <= 0;
+            NavigableSet<ScheduleSlot> first = scheduleOf(ordered ? cinemaId : otherCinemaId);
+            NavigableSet<ScheduleSlot> second = scheduleOf(ordered ? otherCinemaId : cinemaId);
+            synchronized (first) {
+                synchronized (second) {
+                    if (slotsById.get(showTimeId) == current) {
+                        return action.apply(current);
+                    }
+                }
+            }
+        }
+    }
+
+    // Gọi khi đã giữ khoá của cả hai rạp (xem withSlot); slot null là xóa
+    private void replace(ScheduleSlot current, ScheduleSlot slot) {
+        if (current != null) {
+            scheduleOf(current.getCinemaId()).remove(current);
+        }
+        if (slot == null) {
+            if (current != null) {
+                slotsById.remove(current.getShowTimeId());
+            }
+            return;
+        }
+        scheduleOf(slot.getCinemaId()).add(slot);
+        slotsById.put(slot.getShowTimeId(), slot);
+    }
+
+    private NavigableSet<ScheduleSlot> scheduleOf(String cinemaId) {
+        return schedules.computeIfAbsent(cinemaId, id -> new TreeSet<>(BY_START));
+    }
+}
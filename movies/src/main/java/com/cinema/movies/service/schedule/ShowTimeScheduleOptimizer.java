@@ -0,0 +1,281 @@
+package com.cinema.movies.service.schedule;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.cinema.movies.command.data.Cinema;
+import com.cinema.movies.command.data.Movie;
+import com.cinema.movies.command.data.Reponsitory.CinemaRepository;
+import com.cinema.movies.command.data.Reponsitory.MovieRepository;
+import com.cinema.movies.config.ShowTimeScheduleProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Đề xuất lịch chiếu trong ngày cho từng rạp, tối đa số phút có phim chiếu.
+ *
+ * Mỗi khoảng trống giữa giờ mở cửa, các suất đã có và giờ đóng cửa là một bài
+ * knapsack không giới hạn: mỗi suất chiếm (thời lượng + dọn phòng) làm tròn theo
+ * slotGranularity và đem lại đúng thời lượng phim. Bảng quy hoạch động chỉ phụ
+ * thuộc danh sách phim nên được tính một lần; phần theo rạp (đọc lịch hiện có,
+ * truy vết, xếp thứ tự) chạy song song bằng fork/join.
+ */
+@Service
+@Slf4j
+public class ShowTimeScheduleOptimizer {
+
+    // Dưới ngưỡng này một task tự xử lý, không chia tiếp
+    private static final int CINEMAS_PER_TASK = 4;
+
+    private final ShowTimeScheduleIndex scheduleIndex;
+    private final MovieRepository movieRepository;
+    private final CinemaRepository cinemaRepository;
+    private final ShowTimeScheduleProperties properties;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public ShowTimeScheduleOptimizer(ShowTimeScheduleIndex scheduleIndex, MovieRepository movieRepository,
+            CinemaRepository cinemaRepository, ShowTimeScheduleProperties properties) {
+        this(scheduleIndex, movieRepository, cinemaRepository, properties, ForkJoinPool.commonPool());
+    }
+
+    ShowTimeScheduleOptimizer(ShowTimeScheduleIndex scheduleIndex, MovieRepository movieRepository,
+            CinemaRepository cinemaRepository, ShowTimeScheduleProperties properties, ForkJoinPool pool) {
+        this.scheduleIndex = scheduleIndex;
+        this.movieRepository = movieRepository;
+        this.cinemaRepository = cinemaRepository;
+        this.properties = properties;
+        this.pool = pool;
+    }
+
+    /**
+     * Đề xuất lịch cho ngày {@code date}. cinemaIds / movieIds rỗng nghĩa là tất cả.
+     */
+    public ShowTimePlan propose(LocalDate date, List<String> cinemaIds, List<String> movieIds) {
+        List<Movie> movies = movieIds == null || movieIds.isEmpty()
+                ? movieRepository.findAll()
+                : movieRepository.findAllById(movieIds);
+        List<String> cinemas = cinemaIds == null || cinemaIds.isEmpty()
+                ? cinemaRepository.findAll().stream().map(Cinema::getId).toList()
+                : cinemaIds;
+        return plan(date, cinemas, movies);
+    }
+
+    public ShowTimePlan plan(LocalDate date, List<String> cinemaIds, List<Movie> movies) {
+        long started = System.nanoTime();
+
+        LocalDateTime opening = date.atTime(properties.getOpeningTime());
+        LocalDateTime closing = date.atTime(properties.getClosingTime());
+        if (!closing.isAfter(opening)) {
+            closing = closing.plusDays(1);
+        }
+
+        Knapsack knapsack = new Knapsack(movies, properties.getCleanupBuffer(), properties.getSlotGranularity(),
+                Duration.between(opening, closing));
+        List<ShowTimePlan.CinemaPlan> cinemas = cinemaIds.isEmpty()
+                ? List.of()
+                : pool.invoke(new PlanTask(cinemaIds, 0, cinemaIds.size(), knapsack, opening, closing));
+
+        long available = 0;
+        long utilized = 0;
+        for (ShowTimePlan.CinemaPlan cinema : cinemas) {
+            available += cinema.getAvailableMinutes();
+            utilized += cinema.getUtilizedMinutes();
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Planned {} cinemas x {} movies for {} in {} ms ({} / {} minutes)",
+                cinemaIds.size(), knapsack.movieIds.length, date, elapsedMillis, utilized, available);
+        return new ShowTimePlan(date, available, utilized, elapsedMillis, cinemas);
+    }
+
+    private ShowTimePlan.CinemaPlan planCinema(String cinemaId, Knapsack knapsack, LocalDateTime opening,
+            LocalDateTime closing) {
+        List<PlannedShowTime> showTimes = new ArrayList<>();
+        long available = 0;
+        long utilized = 0;
+
+        LocalDateTime windowStart = opening;
+        for (ScheduleSlot slot : scheduleIndex.slotsOverlapping(cinemaId, opening, closing)) {
+            if (slot.getStart().isAfter(windowStart)) {
+                available += Duration.between(windowStart, slot.getStart()).toMinutes();
+                utilized += knapsack.fill(cinemaId, windowStart, slot.getStart(), showTimes);
+            }
+            if (slot.getEnd().isAfter(windowStart)) {
+                windowStart = slot.getEnd();
+            }
+        }
+        if (closing.isAfter(windowStart)) {
+            available += Duration.between(windowStart, closing).toMinutes();
+            utilized += knapsack.fill(cinemaId, windowStart, closing, showTimes);
+        }
+        return new ShowTimePlan.CinemaPlan(cinemaId, available, utilized, showTimes);
+    }
+
+    /*
+     * =======================
+     * FORK / JOIN
+     * =======================
+     */
+
+    private final class PlanTask extends RecursiveTask<List<ShowTimePlan.CinemaPlan>> {
+
+        private final List<String> cinemaIds;
+        private final int from;
+        private final int to;
+        private final Knapsack knapsack;
+        private final LocalDateTime opening;
+        private final LocalDateTime closing;
+
+        PlanTask(List<String> cinemaIds, int from, int to, Knapsack knapsack, LocalDateTime opening,
+                LocalDateTime closing) {
+            this.cinemaIds = cinemaIds;
+            this.from = from;
+            this.to = to;
+            this.knapsack = knapsack;
+            this.opening = opening;
+            this.closing = closing;
+        }
+
+        @Override
+        protected List<ShowTimePlan.CinemaPlan> compute() {
+            if (to - from <= CINEMAS_PER_TASK) {
+                List<ShowTimePlan.CinemaPlan> plans = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    plans.add(planCinema(cinemaIds.get(i), knapsack, opening, closing));
+                }
+                return plans;
+            }
+            int middle = (from + to) >>> 1;
+            PlanTask left = new PlanTask(cinemaIds, from, middle, knapsack, opening, closing);
+            left.fork();
+            List<ShowTimePlan.CinemaPlan> right = new PlanTask(cinemaIds, middle, to, knapsack, opening, closing)
+                    .compute();
+            List<ShowTimePlan.CinemaPlan> plans = new ArrayList<>(left.join());
+            plans.addAll(right);
+            return plans;
+        }
+    }
+
+    /*
+     * =======================
+     * KNAPSACK
+     * =======================
+     */
+
+    /**
+     * Bảng quy hoạch động dùng chung (chỉ đọc) cho mọi rạp và mọi khoảng trống.
+     */
+    static final class Knapsack {
+
+        private final long unitMinutes;
+        private final String[] movieIds;
+        private final int[] durations; // phút
+        private final int[] weights; // số đơn vị slotGranularity một suất chiếm phòng
+        private final int[] best; // best[c]: số phút chiếu tối đa với c đơn vị
+        private final int[] choice; // phim chọn cuối cùng ở best[c], -1 nếu bỏ trống một đơn vị
+
+        Knapsack(List<Movie> movies, Duration cleanupBuffer, Duration granularity, Duration day) {
+            this.unitMinutes = Math.max(1, granularity.toMinutes());
+            List<Movie> playable = movies.stream()
+                    .filter(movie -> movie.getDuration() != null && movie.getDuration() > 0)
+                    .sorted(Comparator.comparing(Movie::getId))
+                    .toList();
+            movieIds = new String[playable.size()];
+            durations = new int[playable.size()];
+            weights = new int[playable.size()];
+            for (int i = 0; i < movieIds.length; i++) {
+                Movie movie = playable.get(i);
+                movieIds[i] = movie.getId();
+                durations[i] = movie.getDuration();
+                long occupied = movie.getDuration() + cleanupBuffer.toMinutes();
+                weights[i] = (int) ((occupied + unitMinutes - 1) / unitMinutes);
+            }
+
+            int capacity = (int) (day.toMinutes() / unitMinutes);
+            best = new int[capacity + 1];
+            choice = new int[capacity + 1];
+            choice[0] = -1;
+            for (int c = 1; c <= capacity; c++) {
+                best[c] = best[c - 1];
+                choice[c] = -1;
+                for (int i = 0; i < weights.length; i++) {
+                    if (weights[i] <= c && best[c - weights[i]] + durations[i] > best[c]) {
+                        best[c] = best[c - weights[i]] + durations[i];
+                        choice[c] = i;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Xếp phim vào khoảng [from, to) và trả về số phút chiếu.
+         */
+        long fill(String cinemaId, LocalDateTime from, LocalDateTime to, List<PlannedShowTime> out) {
+            // Giờ chiếu đầu tiên làm tròn lên theo bước slotGranularity
+            long offset = Math.floorMod(from.getHour() * 60L + from.getMinute(), unitMinutes);
+            LocalDateTime start = from.withSecond(0).withNano(0);
+            if (offset != 0 || start.isBefore(from)) {
+                start = start.plusMinutes(unitMinutes - offset);
+            }
+            if (!start.isBefore(to)) {
+                return 0;
+            }
+            int capacity = (int) Math.min(best.length - 1, Duration.between(start, to).toMinutes() / unitMinutes);
+
+            int[] counts = new int[movieIds.length];
+            for (int c = capacity; c > 0;) {
+                int movie = choice[c];
+                if (movie < 0) {
+                    c--;
+                } else {
+                    counts[movie]++;
+                    c -= weights[movie];
+                }
+            }
+
+            long utilized = 0;
+            for (int movie : interleave(counts)) {
+                out.add(new PlannedShowTime(movieIds[movie], cinemaId, start, start.plusMinutes(durations[movie])));
+                utilized += durations[movie];
+                start = start.plusMinutes(weights[movie] * unitMinutes);
+            }
+            return utilized;
+        }
+
+        // Phim nhiều suất nhất đi trước, xen kẽ để tránh chiếu cùng phim liền nhau
+        private static List<Integer> interleave(int[] counts) {
+            List<Integer> order = new ArrayList<>(counts.length);
+            int remaining = 0;
+            for (int count : counts) {
+                remaining += count;
+            }
+            int[] left = counts.clone();
+            int previous = -1;
+            while (remaining > 0) {
+                int pick = -1;
+                for (int i = 0; i < left.length; i++) {
+                    if (left[i] > 0 && i != previous && (pick < 0 || left[i] > left[pick])) {
+                        pick = i;
+                    }
+                }
+                if (pick < 0) {
+                    pick = previous;
+                }
+                order.add(pick);
+                left[pick]--;
+                remaining--;
+                previous = pick;
+            }
+            return order;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.cinema.movies.service.serialization;
+
+import org.axonframework.serialization.SerializedType;
+import org.axonframework.serialization.SimpleSerializedType;
+import org.axonframework.serialization.upcasting.event.IntermediateEventRepresentation;
+import org.axonframework.serialization.upcasting.event.SingleEventUpcaster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Một bước của upcaster chain theo revision: nhận đúng một type ở revision "from", sửa payload
+ * (JsonNode trên CBOR) và gán revision "to".
+ *
+ * Event XML cũ đã được {@link LegacyXmlEventUpcaster} chuyển sang CBOR ở đầu chain, giữ revision
+ * của class, nên mỗi bước chỉ làm việc với một định dạng. Bước mới đăng ký với @Order tăng dần
+ * theo revision để event cũ đi qua lần lượt từng bước.
+ */
+public abstract class CompactEventUpcaster extends SingleEventUpcaster {
+
+    private final SerializedType from;
+    private final SerializedType to;
+
+    protected CompactEventUpcaster(Class<?> payloadType, String fromRevision, String toRevision) {
+        this.from = new SimpleSerializedType(payloadType.getName(), CompactRevisionResolver.revision(fromRevision));
+        this.to = new SimpleSerializedType(payloadType.getName(), CompactRevisionResolver.revision(toRevision));
+    }
+
+    @Override
+    protected boolean canUpcast(IntermediateEventRepresentation intermediateRepresentation) {
+        return from.equals(intermediateRepresentation.getType());
+    }
+
+    @Override
+    protected IntermediateEventRepresentation doUpcast(IntermediateEventRepresentation intermediateRepresentation) {
+        return intermediateRepresentation.upcastPayload(to, JsonNode.class,
+                payload -> upcast((ObjectNode) payload));
+    }
+
+    protected abstract JsonNode upcast(ObjectNode payload);
+}
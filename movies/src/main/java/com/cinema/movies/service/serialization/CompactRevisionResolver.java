@@ -0,0 +1,32 @@
+package com.cinema.movies.service.serialization;
+
+import org.axonframework.serialization.RevisionResolver;
+
+/**
+ * Revision của dữ liệu do CompactSerializer ghi: "cbor:" + revision của class (1 khi class không
+ * có @Revision). Định dạng nằm trong revision được lưu cùng event, snapshot và dead letter, nên khi
+ * đọc biết ngay dữ liệu là CBOR hay XML cũ mà không phải đoán từ nội dung.
+ */
+public class CompactRevisionResolver implements RevisionResolver {
+
+    private static final String PREFIX = "cbor:";
+
+    private final RevisionResolver delegate;
+
+    public CompactRevisionResolver(RevisionResolver delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String revisionOf(Class<?> payloadType) {
+        return revision(delegate.revisionOf(payloadType));
+    }
+
+    public static String revision(String classRevision) {
+        return PREFIX + (classRevision == null ? "1" : classRevision);
+    }
+
+    public static boolean isCompact(String revision) {
+        return revision != null && revision.startsWith(PREFIX);
+    }
+}
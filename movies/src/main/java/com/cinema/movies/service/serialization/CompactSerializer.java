@@ -0,0 +1,91 @@
+package com.cinema.movies.service.serialization;
+
+import java.util.Arrays;
+
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.messaging.MetaData;
+import org.axonframework.serialization.Converter;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.SerializedType;
+import org.axonframework.serialization.Serializer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Serializer ghi dạng nhị phân (CBOR) nhưng vẫn đọc được dữ liệu XML cũ.
+ *
+ * Mọi thứ mới được ghi bằng serializer chính, và định dạng được nhận ra từ metadata đi kèm dữ
+ * liệu chứ không đoán từ nội dung:
+ * - payload của event, snapshot và dead letter được lưu cùng revision; revision do
+ *   {@link CompactRevisionResolver} đặt ("cbor:...") là CBOR, còn lại là XML cũ;
+ * - MetaData và token được Axon lưu không kèm revision, nên serializer chính ghi mọi thứ dưới dạng
+ *   self-described CBOR (RFC 8949, tag 55799 ở đầu dữ liệu); thiếu tag đó là XML cũ.
+ */
+public class CompactSerializer implements Serializer {
+
+    private static final byte[] SELF_DESCRIBED_CBOR = { (byte) 0xd9, (byte) 0xd9, (byte) 0xf7 };
+
+    private final Serializer primary;
+    private final Serializer legacy;
+
+    public CompactSerializer(Serializer primary, Serializer legacy) {
+        this.primary = primary;
+        this.legacy = legacy;
+    }
+
+    @Override
+    public <T> SerializedObject<T> serialize(Object object, Class<T> expectedRepresentation) {
+        return primary.serialize(object, expectedRepresentation);
+    }
+
+    @Override
+    public <T> boolean canSerializeTo(Class<T> expectedRepresentation) {
+        return primary.canSerializeTo(expectedRepresentation);
+    }
+
+    @Override
+    public <S, T> T deserialize(SerializedObject<S> serializedObject) {
+        return isCompact(serializedObject)
+                ? primary.deserialize(serializedObject)
+                : legacy.deserialize(serializedObject);
+    }
+
+    @Override
+    public Class classForType(SerializedType type) {
+        return primary.classForType(type);
+    }
+
+    @Override
+    public SerializedType typeForClass(Class type) {
+        return primary.typeForClass(type);
+    }
+
+    @Override
+    public Converter getConverter() {
+        return primary.getConverter();
+    }
+
+    public Serializer getLegacy() {
+        return legacy;
+    }
+
+    private boolean isCompact(SerializedObject<?> serializedObject) {
+        SerializedType type = serializedObject.getType();
+        if (type.getRevision() != null || !isStoredWithoutRevision(type)) {
+            return CompactRevisionResolver.isCompact(type.getRevision());
+        }
+        Object data = serializedObject.getData();
+        if (data instanceof byte[] bytes) {
+            return bytes.length >= SELF_DESCRIBED_CBOR.length
+                    && Arrays.equals(bytes, 0, SELF_DESCRIBED_CBOR.length, SELF_DESCRIBED_CBOR, 0,
+                            SELF_DESCRIBED_CBOR.length);
+        }
+        // Biểu diễn trung gian JsonNode chỉ có từ serializer chính (upcaster)
+        return data instanceof JsonNode;
+    }
+
+    private boolean isStoredWithoutRevision(SerializedType type) {
+        return MetaData.class.getName().equals(type.getName())
+                || TrackingToken.class.isAssignableFrom(primary.classForType(type));
+    }
+}
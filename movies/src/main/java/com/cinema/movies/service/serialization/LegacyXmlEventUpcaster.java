@@ -0,0 +1,48 @@
+package com.cinema.movies.service.serialization;
+
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.SerializedType;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.SimpleSerializedObject;
+import org.axonframework.serialization.SimpleSerializedType;
+import org.axonframework.serialization.upcasting.event.IntermediateEventRepresentation;
+import org.axonframework.serialization.upcasting.event.SingleEventUpcaster;
+
+/**
+ * Bước đầu tiên của upcaster chain: payload có revision không phải của CompactSerializer là XML
+ * do XStream ghi trước đây; chuyển nó sang CBOR, giữ type và revision của class.
+ *
+ * Nhờ vậy các {@link CompactEventUpcaster} đứng sau trong chain (đăng ký bằng @Order lớn hơn
+ * {@link #ORDER}) chỉ phải làm việc với một định dạng (JsonNode), bất kể event được ghi khi
+ * service còn dùng XStream hay không.
+ */
+public class LegacyXmlEventUpcaster extends SingleEventUpcaster {
+
+    public static final int ORDER = 0;
+
+    private final Serializer legacy;
+    private final Serializer primary;
+
+    public LegacyXmlEventUpcaster(Serializer legacy, Serializer primary) {
+        this.legacy = legacy;
+        this.primary = primary;
+    }
+
+    @Override
+    protected boolean canUpcast(IntermediateEventRepresentation intermediateRepresentation) {
+        return !CompactRevisionResolver.isCompact(intermediateRepresentation.getType().getRevision())
+                && intermediateRepresentation.canConvertDataTo(byte[].class);
+    }
+
+    @Override
+    protected IntermediateEventRepresentation doUpcast(IntermediateEventRepresentation intermediateRepresentation) {
+        SerializedType type = intermediateRepresentation.getType();
+        SerializedType compactType = new SimpleSerializedType(type.getName(),
+                CompactRevisionResolver.revision(type.getRevision()));
+        return intermediateRepresentation.upcastPayload(compactType, byte[].class, xml -> {
+            SerializedObject<byte[]> legacyObject = new SimpleSerializedObject<>(xml, byte[].class, type);
+            Object payload = legacy.deserialize(legacyObject);
+            return primary.serialize(payload, byte[].class).getData();
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package com.cinema.movies.service.serialization;
+
+import com.cinema.movies.command.event.SeatLayoutCreatedEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * SeatLayoutCreatedEvent revision 1 chưa có generatedSeatIds: ghế của layout đó đi kèm
+ * SeatCreatedEvent riêng nên không được mở rộng lại (false).
+ */
+public class SeatLayoutCreatedEventUpcaster extends CompactEventUpcaster {
+
+    public SeatLayoutCreatedEventUpcaster() {
+        super(SeatLayoutCreatedEvent.class, "1", "2");
+    }
+
+    @Override
+    protected JsonNode upcast(ObjectNode payload) {
+        // Event ghi sau khi có field nhưng trước khi có revision đã mang giá trị đúng
+        if (!payload.hasNonNull("generatedSeatIds")) {
+            payload.set("generatedSeatIds", BooleanNode.FALSE);
+        }
+        return payload;
+    }
+}
@@ -0,0 +1,74 @@
+package com.cinema.movies.service.snapshot;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.cinema.movies.query.model.AggregateLoadStatsResponseModel;
+
+/**
+ * Thời gian nạp aggregate (đọc event store + replay) và số snapshot đã chụp, theo loại aggregate.
+ */
+@Component
+public class AggregateLoadMetrics {
+
+    private final Map<String, TypeMetrics> metrics = new ConcurrentHashMap<>();
+
+    void recordLoad(Class<?> aggregateType, long nanos, long eventsReplayed) {
+        TypeMetrics type = forType(aggregateType);
+        type.loads.increment();
+        type.totalNanos.add(nanos);
+        type.maxNanos.accumulateAndGet(nanos, Math::max);
+        type.eventsReplayed.add(eventsReplayed);
+    }
+
+    void recordSnapshot(Class<?> aggregateType) {
+        forType(aggregateType).snapshots.increment();
+    }
+
+    void registerThreshold(Class<?> aggregateType, int threshold) {
+        forType(aggregateType).threshold = threshold;
+    }
+
+    public List<AggregateLoadStatsResponseModel> stats() {
+        return metrics.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> entry.getValue().stats(entry.getKey()))
+                .toList();
+    }
+
+    public double averageLoadMillis(Class<?> aggregateType) {
+        TypeMetrics type = metrics.get(aggregateType.getSimpleName());
+        if (type == null) {
+            return 0.0;
+        }
+        long count = type.loads.sum();
+        return count == 0 ? 0.0 : type.totalNanos.sum() / 1e6 / count;
+    }
+
+    private TypeMetrics forType(Class<?> aggregateType) {
+        return metrics.computeIfAbsent(aggregateType.getSimpleName(), name -> new TypeMetrics());
+    }
+
+    private static final class TypeMetrics {
+        private final LongAdder loads = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder eventsReplayed = new LongAdder();
+        private final LongAdder snapshots = new LongAdder();
+        private volatile int threshold;
+
+        AggregateLoadStatsResponseModel stats(String aggregateType) {
+            long count = loads.sum();
+            return new AggregateLoadStatsResponseModel(aggregateType, threshold, count,
+                    count == 0 ? 0.0 : totalNanos.sum() / 1e6 / count,
+                    maxNanos.get() / 1e6,
+                    count == 0 ? 0.0 : (double) eventsReplayed.sum() / count,
+                    snapshots.sum());
+        }
+    }
+}
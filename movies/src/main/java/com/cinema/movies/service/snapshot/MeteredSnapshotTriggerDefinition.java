@@ -0,0 +1,90 @@
+package com.cinema.movies.service.snapshot;
+
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventsourcing.EventCountSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.NoSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.SnapshotTrigger;
+import org.axonframework.eventsourcing.SnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.Snapshotter;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+
+/**
+ * Snapshot theo số event replay (EventCountSnapshotTriggerDefinition), kèm đo thời gian nạp.
+ *
+ * Repository gọi prepareTrigger trước khi đọc event stream và initializationFinished
+ * sau khi replay xong, nên khoảng giữa hai lần gọi chính là thời gian nạp aggregate.
+ */
+public class MeteredSnapshotTriggerDefinition implements SnapshotTriggerDefinition {
+
+    private static final String SNAPSHOT_COUNTED = MeteredSnapshotTriggerDefinition.class.getName() + ".counted.";
+
+    private final SnapshotTriggerDefinition delegate;
+    private final AggregateLoadMetrics metrics;
+
+    public MeteredSnapshotTriggerDefinition(Class<?> aggregateType, Snapshotter snapshotter, int threshold,
+            AggregateLoadMetrics metrics) {
+        this.metrics = metrics;
+        this.delegate = threshold > 0
+                ? new EventCountSnapshotTriggerDefinition((type, id) -> {
+                    countSnapshot(type, id);
+                    snapshotter.scheduleSnapshot(type, id);
+                }, threshold)
+                : NoSnapshotTriggerDefinition.INSTANCE;
+        metrics.registerThreshold(aggregateType, threshold);
+    }
+
+    // Replay dài gọi scheduleSnapshot nhiều lần nhưng snapshotter chỉ chụp một lần mỗi unit of work
+    private void countSnapshot(Class<?> aggregateType, String aggregateId) {
+        if (!CurrentUnitOfWork.isStarted()) {
+            metrics.recordSnapshot(aggregateType);
+            return;
+        }
+        CurrentUnitOfWork.get().root().getOrComputeResource(
+                SNAPSHOT_COUNTED + aggregateType.getName() + '#' + aggregateId, key -> {
+                    metrics.recordSnapshot(aggregateType);
+                    return Boolean.TRUE;
+                });
+    }
+
+    @Override
+    public SnapshotTrigger prepareTrigger(Class<?> aggregateType) {
+        return new MeteredTrigger(aggregateType, delegate.prepareTrigger(aggregateType));
+    }
+
+    @Override
+    public SnapshotTrigger reconfigure(Class<?> aggregateType, SnapshotTrigger trigger) {
+        if (trigger instanceof MeteredTrigger metered) {
+            return new MeteredTrigger(aggregateType, delegate.reconfigure(aggregateType, metered.delegate));
+        }
+        return new MeteredTrigger(aggregateType, delegate.reconfigure(aggregateType, trigger));
+    }
+
+    private final class MeteredTrigger implements SnapshotTrigger {
+
+        private final Class<?> aggregateType;
+        private final SnapshotTrigger delegate;
+        private final long startedAt = System.nanoTime();
+        private long eventsReplayed;
+        private boolean initialized;
+
+        MeteredTrigger(Class<?> aggregateType, SnapshotTrigger delegate) {
+            this.aggregateType = aggregateType;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void eventHandled(EventMessage<?> msg) {
+            if (!initialized) {
+                eventsReplayed++;
+            }
+            delegate.eventHandled(msg);
+        }
+
+        @Override
+        public void initializationFinished() {
+            initialized = true;
+            metrics.recordLoad(aggregateType, System.nanoTime() - startedAt, eventsReplayed);
+            delegate.initializationFinished();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.cinema.movies.command;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.common.caching.NoCache;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.config.AggregateConfigurer;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.jdbc.PostgresEventTableFactory;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.cinema.movies.command.aggregate.ShowTimeAggregate;
+import com.cinema.movies.command.command.DeleteShowTimeCommand;
+import com.cinema.movies.command.command.UpdateShowTimeCommand;
+import com.cinema.movies.command.data.Movie;
+import com.cinema.movies.command.data.Reponsitory.MovieRepository;
+import com.cinema.movies.command.event.ShowTimeCreatedEvent;
+import com.cinema.movies.command.event.ShowTimeUpdatedEvent;
+import com.cinema.movies.config.AggregateCacheProperties;
+import com.cinema.movies.config.SeatInventoryProperties;
+import com.cinema.movies.config.ShowTimeScheduleProperties;
+import com.cinema.movies.query.model.AggregateCacheStatsResponseModel;
+import com.cinema.movies.service.cache.AggregateCacheRegistry;
+import com.cinema.movies.service.inventory.CinemaSeatLayoutRegistry;
+import com.cinema.movies.service.inventory.SeatInventoryService;
+import com.cinema.movies.service.reference.AggregateReferences;
+import com.cinema.movies.service.schedule.ShowTimeScheduleIndex;
+import com.cinema.movies.service.snapshot.AggregateLoadMetrics;
+import com.cinema.movies.service.snapshot.MeteredSnapshotTriggerDefinition;
+import com.thoughtworks.xstream.XStream;
+import com.zaxxer.hikari.HikariDataSource;
+
+import ch.qos.logback.classic.Level;
+
+/**
+ * Độ trễ các UpdateShowTimeCommand liên tiếp trên cùng một suất chiếu có lịch sử dài,
+ * có và không có aggregate cache (không snapshot), trên event store JDBC + H2.
+ *
+ * Chạy: mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=AggregateCacheBenchmark
+ */
+@Tag("benchmark")
+class AggregateCacheBenchmark {
+
+    private static final int HISTORY_SIZE = 2_000;
+    private static final int COMMANDS = 200;
+    private static final String MOVIE_ID = "movie-1";
+
+    @Test
+    void backToBackUpdatesSkipReplayWhenCached() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        double uncached = run(false);
+        double cached = run(true);
+
+        System.out.printf("%d events of history: no cache %.2f ms/command, cache %.2f ms/command%n",
+                HISTORY_SIZE, uncached, cached);
+        assertTrue(cached * 5 < uncached);
+    }
+
+    private double run(boolean cached) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:cacheBench" + UUID.randomUUID()
+                + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;NON_KEYWORDS=TIMESTAMP,VALUE");
+        dataSource.setUsername("sa");
+
+        XStream xStream = new XStream();
+        xStream.allowTypesByWildcard(new String[] { "com.cinema.**", "java.time.**" });
+        JdbcEventStorageEngine storageEngine = JdbcEventStorageEngine.builder()
+                .connectionProvider(dataSource::getConnection)
+                .transactionManager(NoTransactionManager.INSTANCE)
+                .eventSerializer(XStreamSerializer.builder().xStream(xStream).build())
+                .snapshotSerializer(XStreamSerializer.builder().xStream(xStream).build())
+                .build();
+        storageEngine.createSchema(PostgresEventTableFactory.INSTANCE);
+
+        Movie movie = new Movie();
+        movie.setDuration(120);
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findById(MOVIE_ID)).thenReturn(Optional.of(movie));
+        ShowTimeScheduleIndex scheduleIndex = new ShowTimeScheduleIndex(movieRepository,
+                new ShowTimeScheduleProperties());
+        AggregateLoadMetrics metrics = new AggregateLoadMetrics();
+        AggregateCacheProperties cacheProperties = new AggregateCacheProperties();
+        cacheProperties.setExpireAfterAccess(Duration.ZERO);
+        AggregateCacheRegistry cacheRegistry = new AggregateCacheRegistry(cacheProperties, metrics);
+
+        Configuration configuration = DefaultConfigurer.defaultConfiguration(false)
+                .configureEmbeddedEventStore(c -> storageEngine)
+                .registerComponent(ShowTimeScheduleIndex.class, c -> scheduleIndex)
+                .registerComponent(AggregateReferences.class, c -> mock(AggregateReferences.class))
+                .registerComponent(SeatInventoryService.class, c -> new SeatInventoryService(
+                        new CinemaSeatLayoutRegistry(), new SeatInventoryProperties()))
+                .configureAggregate(AggregateConfigurer.defaultConfiguration(ShowTimeAggregate.class)
+                        .configureSnapshotTrigger(c -> new MeteredSnapshotTriggerDefinition(ShowTimeAggregate.class,
+                                c.snapshotter(), 0, metrics))
+                        .configureCache(c -> cached
+                                ? cacheRegistry.create("showtime", ShowTimeAggregate.class)
+                                : NoCache.INSTANCE))
+                .buildConfiguration();
+        configuration.start();
+        CommandGateway commandGateway = configuration.commandGateway();
+
+        try {
+            String id = UUID.randomUUID().toString();
+            String cinemaId = "cinema-" + id;
+            LocalDateTime startTime = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+            // Lịch sử dài được ghi thẳng vào event store, trước khi aggregate vào cache
+            List<DomainEventMessage<?>> history = new ArrayList<>();
+            history.add(new GenericDomainEventMessage<>("ShowTimeAggregate", id, 0,
+                    new ShowTimeCreatedEvent(id, MOVIE_ID, cinemaId, startTime, BigDecimal.TEN)));
+            for (int i = 1; i <= HISTORY_SIZE; i++) {
+                history.add(new GenericDomainEventMessage<>("ShowTimeAggregate", id, i,
+                        new ShowTimeUpdatedEvent(id, MOVIE_ID, cinemaId, startTime, BigDecimal.valueOf(i))));
+                if (history.size() == 1_000 || i == HISTORY_SIZE) {
+                    configuration.eventStore().publish(history);
+                    history.clear();
+                }
+            }
+
+            update(commandGateway, id, cinemaId, startTime, 0);
+            long start = System.nanoTime();
+            for (int i = 1; i <= COMMANDS; i++) {
+                update(commandGateway, id, cinemaId, startTime, i);
+            }
+            double latency = (System.nanoTime() - start) / 1e6 / COMMANDS;
+
+            // markDeleted phải xoá bản trong cache, lệnh sau đó không được thấy aggregate cũ
+            commandGateway.sendAndWait(new DeleteShowTimeCommand(id));
+            assertThrows(Exception.class, () -> update(commandGateway, id, cinemaId, startTime, -1));
+
+            for (AggregateCacheStatsResponseModel stats : cacheRegistry.stats()) {
+                System.out.printf("cache: %s%n", stats);
+            }
+            return latency;
+        } finally {
+            configuration.shutdown();
+            dataSource.close();
+        }
+    }
+
+    private void update(CommandGateway commandGateway, String id, String cinemaId, LocalDateTime startTime, int i) {
+        commandGateway.sendAndWait(new UpdateShowTimeCommand(id, MOVIE_ID, cinemaId, startTime,
+                BigDecimal.valueOf(100 + i)));
+    }
+}
@@ -0,0 +1,162 @@
+package com.cinema.movies.command;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.config.AggregateConfigurer;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.jdbc.PostgresEventTableFactory;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.cinema.movies.command.aggregate.ShowTimeAggregate;
+import com.cinema.movies.command.command.CreateShowTimeCommand;
+import com.cinema.movies.command.command.UpdateShowTimeCommand;
+import com.cinema.movies.command.data.Movie;
+import com.cinema.movies.command.data.Reponsitory.MovieRepository;
+import com.cinema.movies.command.event.ShowTimeUpdatedEvent;
+import com.cinema.movies.config.SeatInventoryProperties;
+import com.cinema.movies.config.ShowTimeScheduleProperties;
+import com.cinema.movies.query.model.AggregateLoadStatsResponseModel;
+import com.cinema.movies.service.inventory.CinemaSeatLayoutRegistry;
+import com.cinema.movies.service.inventory.SeatInventoryService;
+import com.cinema.movies.service.reference.AggregateReferences;
+import com.cinema.movies.service.schedule.ShowTimeScheduleIndex;
+import com.cinema.movies.service.snapshot.AggregateLoadMetrics;
+import com.cinema.movies.service.snapshot.MeteredSnapshotTriggerDefinition;
+import com.thoughtworks.xstream.XStream;
+import com.zaxxer.hikari.HikariDataSource;
+
+import ch.qos.logback.classic.Level;
+
+/**
+ * Độ trễ UpdateShowTimeCommand khi lịch sử event của suất chiếu dài dần,
+ * có và không có snapshot (ngưỡng 20 event), trên event store JDBC + H2.
+ *
+ * Chạy: mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=AggregateSnapshotBenchmark
+ */
+@Tag("benchmark")
+class AggregateSnapshotBenchmark {
+
+    private static final int[] HISTORY_SIZES = { 10, 1_000, 5_000, 10_000 };
+    private static final int COMMANDS = 20;
+    private static final int THRESHOLD = 20;
+    private static final String MOVIE_ID = "movie-1";
+
+    @Test
+    void commandLatencyStaysFlatWithSnapshots() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        List<Double> withoutSnapshots = run(0);
+        List<Double> withSnapshots = run(THRESHOLD);
+
+        for (int i = 0; i < HISTORY_SIZES.length; i++) {
+            System.out.printf("history %6d events: no snapshot %8.2f ms/command, snapshot every %d: %6.2f ms/command%n",
+                    HISTORY_SIZES[i], withoutSnapshots.get(i), THRESHOLD, withSnapshots.get(i));
+        }
+        // Có snapshot: lịch sử dài gấp 1000 lần nhưng độ trễ không được tăng quá vài lần
+        assertTrue(withSnapshots.get(HISTORY_SIZES.length - 1) < 5 * Math.max(1.0, withSnapshots.get(0)));
+    }
+
+    private List<Double> run(int threshold) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:snapshotBench" + UUID.randomUUID()
+                + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;NON_KEYWORDS=TIMESTAMP,VALUE");
+        dataSource.setUsername("sa");
+
+        XStream xStream = new XStream();
+        xStream.allowTypesByWildcard(new String[] { "com.cinema.**", "java.time.**" });
+        JdbcEventStorageEngine storageEngine = JdbcEventStorageEngine.builder()
+                .connectionProvider(dataSource::getConnection)
+                .transactionManager(NoTransactionManager.INSTANCE)
+                .eventSerializer(XStreamSerializer.builder().xStream(xStream).build())
+                .snapshotSerializer(XStreamSerializer.builder().xStream(xStream).build())
+                .build();
+        storageEngine.createSchema(PostgresEventTableFactory.INSTANCE);
+
+        Movie movie = new Movie();
+        movie.setDuration(120);
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findById(MOVIE_ID)).thenReturn(Optional.of(movie));
+        ShowTimeScheduleIndex scheduleIndex = new ShowTimeScheduleIndex(movieRepository,
+                new ShowTimeScheduleProperties());
+        AggregateLoadMetrics metrics = new AggregateLoadMetrics();
+
+        Configuration configuration = DefaultConfigurer.defaultConfiguration(false)
+                .configureEmbeddedEventStore(c -> storageEngine)
+                .registerComponent(ShowTimeScheduleIndex.class, c -> scheduleIndex)
+                .registerComponent(AggregateReferences.class, c -> mock(AggregateReferences.class))
+                .registerComponent(SeatInventoryService.class, c -> new SeatInventoryService(
+                        new CinemaSeatLayoutRegistry(), new SeatInventoryProperties()))
+                .configureAggregate(AggregateConfigurer.defaultConfiguration(ShowTimeAggregate.class)
+                        .configureSnapshotTrigger(c -> new MeteredSnapshotTriggerDefinition(ShowTimeAggregate.class,
+                                c.snapshotter(), threshold, metrics)))
+                .buildConfiguration();
+        configuration.start();
+        CommandGateway commandGateway = configuration.commandGateway();
+
+        List<Double> latencies = new ArrayList<>();
+        try {
+            // Warm-up
+            measure(commandGateway, configuration, HISTORY_SIZES[0]);
+            for (int historySize : HISTORY_SIZES) {
+                latencies.add(measure(commandGateway, configuration, historySize));
+            }
+            for (AggregateLoadStatsResponseModel stats : metrics.stats()) {
+                System.out.printf("threshold %d: %s%n", threshold, stats);
+            }
+        } finally {
+            configuration.shutdown();
+            dataSource.close();
+        }
+        return latencies;
+    }
+
+    private double measure(CommandGateway commandGateway, Configuration configuration, int historySize) {
+        String id = UUID.randomUUID().toString();
+        String cinemaId = "cinema-" + id;
+        LocalDateTime startTime = LocalDateTime.of(2030, 1, 1, 9, 0);
+        commandGateway.sendAndWait(new CreateShowTimeCommand(id, MOVIE_ID, cinemaId, startTime, BigDecimal.TEN));
+
+        // Lịch sử dài được ghi thẳng vào event store thay vì gửi từng command
+        List<DomainEventMessage<?>> history = new ArrayList<>();
+        for (int i = 1; i <= historySize; i++) {
+            history.add(new GenericDomainEventMessage<>("ShowTimeAggregate", id, i,
+                    new ShowTimeUpdatedEvent(id, MOVIE_ID, cinemaId, startTime, BigDecimal.valueOf(i))));
+            if (history.size() == 1_000 || i == historySize) {
+                configuration.eventStore().publish(history);
+                history.clear();
+            }
+        }
+
+        // Lệnh đầu tiên sau lịch sử dài phải replay toàn bộ (và chụp snapshot nếu bật)
+        update(commandGateway, id, cinemaId, startTime, 0);
+        long start = System.nanoTime();
+        for (int i = 1; i <= COMMANDS; i++) {
+            update(commandGateway, id, cinemaId, startTime, i);
+        }
+        return (System.nanoTime() - start) / 1e6 / COMMANDS;
+    }
+
+    private void update(CommandGateway commandGateway, String id, String cinemaId, LocalDateTime startTime, int i) {
+        commandGateway.sendAndWait(new UpdateShowTimeCommand(id, MOVIE_ID, cinemaId, startTime,
+                BigDecimal.valueOf(100 + i)));
+    }
+}
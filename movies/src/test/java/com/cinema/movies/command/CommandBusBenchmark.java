@@ -0,0 +1,195 @@
+package com.cinema.movies.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import org.axonframework.commandhandling.CommandBus;
+import org.axonframework.commandhandling.SimpleCommandBus;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.config.AggregateConfigurer;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.jdbc.PostgresEventTableFactory;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.cinema.movies.command.aggregate.SeatAggregate;
+import com.cinema.movies.command.aggregate.ShowTimeAggregate;
+import com.cinema.movies.command.bus.StripedCommandBus;
+import com.cinema.movies.command.command.CreateSeatCommand;
+import com.cinema.movies.command.command.CreateShowTimeCommand;
+import com.cinema.movies.command.command.UpdateShowTimeCommand;
+import com.cinema.movies.command.data.Movie;
+import com.cinema.movies.command.data.Reponsitory.MovieRepository;
+import com.cinema.movies.config.AggregateCacheProperties;
+import com.cinema.movies.config.SeatInventoryProperties;
+import com.cinema.movies.config.ShowTimeScheduleProperties;
+import com.cinema.movies.service.cache.AggregateCacheRegistry;
+import com.cinema.movies.service.inventory.CinemaSeatLayoutRegistry;
+import com.cinema.movies.service.inventory.SeatInventoryService;
+import com.cinema.movies.service.reference.AggregateReferences;
+import com.cinema.movies.service.schedule.ShowTimeScheduleIndex;
+import com.cinema.movies.service.snapshot.AggregateLoadMetrics;
+import com.thoughtworks.xstream.XStream;
+import com.zaxxer.hikari.HikariDataSource;
+
+import ch.qos.logback.classic.Level;
+
+/**
+ * Thông lượng command với 32 client gọi sendAndWait đồng thời, SimpleCommandBus so với
+ * StripedCommandBus, trên event store JDBC + H2:
+ * CreateSeatCommand (mỗi command một aggregate mới) và UpdateShowTimeCommand dồn vào 16 suất chiếu nóng.
+ *
+ * Chạy: mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=CommandBusBenchmark
+ */
+@Tag("benchmark")
+class CommandBusBenchmark {
+
+    private static final int CLIENTS = 32;
+    private static final int COMMANDS_PER_CLIENT = 300;
+    private static final int HOT_SHOWTIMES = 16;
+    private static final int LANES = 8;
+    private static final String MOVIE_ID = "movie-1";
+
+    @Test
+    void stripedBusKeepsUpUnderConcurrentClients() throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        // Warm-up
+        run(false);
+        run(true);
+        double[] simple = run(false);
+        double[] striped = run(true);
+
+        System.out.printf("CreateSeatCommand:     simple %8.0f commands/s, striped (%d lanes) %8.0f commands/s%n",
+                simple[0], LANES, striped[0]);
+        System.out.printf("UpdateShowTimeCommand: simple %8.0f commands/s, striped (%d lanes) %8.0f commands/s%n",
+                simple[1], LANES, striped[1]);
+        // Thông lượng phụ thuộc máy nên chỉ in ra; kiểm tra chắc chắn là lô và chạy lại từng lệnh
+        // của bus không làm mất hay nhân đôi command nào
+        assertEquals(simple[2], striped[2]);
+        assertEquals(CLIENTS * COMMANDS_PER_CLIENT * 2 + HOT_SHOWTIMES, striped[2]);
+    }
+
+    private double[] run(boolean striped) throws Exception {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:busBench" + UUID.randomUUID()
+                + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;NON_KEYWORDS=TIMESTAMP,VALUE");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(CLIENTS);
+
+        XStream xStream = new XStream();
+        xStream.allowTypesByWildcard(new String[] { "com.cinema.**", "java.time.**" });
+        JdbcEventStorageEngine storageEngine = JdbcEventStorageEngine.builder()
+                .connectionProvider(dataSource::getConnection)
+                .transactionManager(NoTransactionManager.INSTANCE)
+                .eventSerializer(XStreamSerializer.builder().xStream(xStream).build())
+                .snapshotSerializer(XStreamSerializer.builder().xStream(xStream).build())
+                .build();
+        storageEngine.createSchema(PostgresEventTableFactory.INSTANCE);
+
+        Movie movie = new Movie();
+        movie.setDuration(120);
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findById(MOVIE_ID)).thenReturn(Optional.of(movie));
+        ShowTimeScheduleIndex scheduleIndex = new ShowTimeScheduleIndex(movieRepository,
+                new ShowTimeScheduleProperties());
+        AggregateCacheRegistry cacheRegistry = new AggregateCacheRegistry(new AggregateCacheProperties(),
+                new AggregateLoadMetrics());
+
+        CommandBus commandBus = striped
+                ? new StripedCommandBus(SimpleCommandBus.builder(), NoTransactionManager.INSTANCE, LANES, 1024, 64)
+                : SimpleCommandBus.builder().build();
+        Configuration configuration = DefaultConfigurer.defaultConfiguration(false)
+                .configureEmbeddedEventStore(c -> storageEngine)
+                .configureCommandBus(c -> commandBus)
+                .registerComponent(ShowTimeScheduleIndex.class, c -> scheduleIndex)
+                .registerComponent(AggregateReferences.class, c -> mock(AggregateReferences.class))
+                .registerComponent(CinemaSeatLayoutRegistry.class, c -> new CinemaSeatLayoutRegistry())
+                .registerComponent(SeatInventoryService.class, c -> new SeatInventoryService(
+                        c.getComponent(CinemaSeatLayoutRegistry.class), new SeatInventoryProperties()))
+                .configureAggregate(SeatAggregate.class)
+                .configureAggregate(AggregateConfigurer.defaultConfiguration(ShowTimeAggregate.class)
+                        .configureCache(c -> cacheRegistry.create("showtime", ShowTimeAggregate.class)))
+                .buildConfiguration();
+        configuration.start();
+        CommandGateway commandGateway = configuration.commandGateway();
+
+        try {
+            double seats = throughput(client -> {
+                for (int i = 0; i < COMMANDS_PER_CLIENT; i++) {
+                    commandGateway.sendAndWait(new CreateSeatCommand(UUID.randomUUID().toString(),
+                            "cinema-" + client, String.valueOf((char) ('A' + i % 26)), i));
+                }
+                return null;
+            });
+
+            List<String> showTimes = new ArrayList<>();
+            for (int i = 0; i < HOT_SHOWTIMES; i++) {
+                String id = UUID.randomUUID().toString();
+                commandGateway.sendAndWait(new CreateShowTimeCommand(id, MOVIE_ID, "cinema-" + id,
+                        LocalDateTime.of(2030, 1, 1, 9, 0), BigDecimal.TEN));
+                showTimes.add(id);
+            }
+            double updates = throughput(client -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < COMMANDS_PER_CLIENT; i++) {
+                    String id = showTimes.get(random.nextInt(HOT_SHOWTIMES));
+                    commandGateway.sendAndWait(new UpdateShowTimeCommand(id, MOVIE_ID, "cinema-" + id,
+                            LocalDateTime.of(2030, 1, 1, 9, 0), BigDecimal.valueOf(i)));
+                }
+                return null;
+            });
+            Integer events = new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM DomainEventEntry",
+                    Integer.class);
+            return new double[] { seats, updates, events };
+        } finally {
+            configuration.shutdown();
+            if (commandBus instanceof StripedCommandBus stripedBus) {
+                stripedBus.shutdown();
+            }
+            dataSource.close();
+        }
+    }
+
+    private double throughput(Function<Integer, Void> client) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            int clientId = c;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return client.apply(clientId);
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        return CLIENTS * COMMANDS_PER_CLIENT / (elapsed / 1e9);
+    }
+}
@@ -0,0 +1,171 @@
+package com.cinema.movies.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.eventsourcing.eventstore.jdbc.PostgresEventTableFactory;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cinema.movies.command.aggregate.CinemaAggregate;
+import com.cinema.movies.command.aggregate.SeatAggregate;
+import com.cinema.movies.command.command.CreateCinemaCommand;
+import com.cinema.movies.command.command.CreateSeatCommand;
+import com.cinema.movies.command.command.CreateSeatLayoutCommand;
+import com.cinema.movies.command.data.Reponsitory.CinemaRepository;
+import com.cinema.movies.command.event.SeatEventHandler;
+import com.cinema.movies.service.inventory.CinemaSeatLayoutRegistry;
+import com.cinema.movies.service.reference.AggregateReferences;
+import com.cinema.movies.service.replay.ReadModelTables;
+import com.thoughtworks.xstream.XStream;
+import com.zaxxer.hikari.HikariDataSource;
+
+import ch.qos.logback.classic.Level;
+
+/**
+ * So sánh tạo ghế từng cái (CreateSeatCommand) với CreateSeatLayoutCommand
+ * trên event store JDBC + bảng seats trong H2, projection chạy đồng bộ.
+ *
+ * Chạy: mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=SeatLayoutBenchmark
+ */
+@Tag("benchmark")
+class SeatLayoutBenchmark {
+
+    private static final int CINEMAS = 20;
+    private static final int ROWS = 16; // A-P
+    private static final int SEATS_PER_ROW = 24;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private Configuration configuration;
+    private CommandGateway commandGateway;
+
+    @BeforeEach
+    void setUp() {
+        // Không có Spring Boot nên logback mặc định ở DEBUG, log sẽ làm sai lệch kết quả
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:seatLayoutBench" + UUID.randomUUID()
+                + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;NON_KEYWORDS=TIMESTAMP,VALUE");
+        dataSource.setUsername("sa");
+        this.dataSource = dataSource;
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE cinemas (id VARCHAR(255) PRIMARY KEY, name VARCHAR(255), address TEXT)");
+        jdbcTemplate.execute("CREATE TABLE seats (id VARCHAR(255) PRIMARY KEY, "
+                + "cinema_id VARCHAR(255) NOT NULL REFERENCES cinemas(id), seat_row VARCHAR(5), seat_number INT)");
+
+        XStream xStream = new XStream();
+        xStream.allowTypesByWildcard(new String[] { "com.cinema.**" });
+        JdbcEventStorageEngine storageEngine = JdbcEventStorageEngine.builder()
+                .connectionProvider(dataSource::getConnection)
+                .transactionManager(NoTransactionManager.INSTANCE)
+                .eventSerializer(XStreamSerializer.builder().xStream(xStream).build())
+                .snapshotSerializer(XStreamSerializer.builder().xStream(xStream).build())
+                .build();
+        storageEngine.createSchema(PostgresEventTableFactory.INSTANCE);
+
+        SeatEventHandler seatEventHandler = new SeatEventHandler();
+        ReflectionTestUtils.setField(seatEventHandler, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(seatEventHandler, "readModelTables", new ReadModelTables(jdbcTemplate));
+        CinemaRepository cinemaRepository = mock(CinemaRepository.class);
+        when(cinemaRepository.existsById(anyString())).thenReturn(true);
+        ReflectionTestUtils.setField(seatEventHandler, "cinemaRepository", cinemaRepository);
+
+        configuration = DefaultConfigurer.defaultConfiguration(false)
+                .configureEmbeddedEventStore(c -> storageEngine)
+                .configureAggregate(CinemaAggregate.class)
+                .configureAggregate(SeatAggregate.class)
+                .registerComponent(CinemaSeatLayoutRegistry.class, c -> new CinemaSeatLayoutRegistry())
+                .registerComponent(AggregateReferences.class, c -> new AggregateReferences(c.eventStore()))
+                .eventProcessing(processing -> processing
+                        .usingSubscribingEventProcessors()
+                        .registerEventHandler(c -> seatEventHandler))
+                .buildConfiguration();
+        configuration.start();
+        commandGateway = configuration.commandGateway();
+    }
+
+    @AfterEach
+    void tearDown() {
+        configuration.shutdown();
+        dataSource.close();
+    }
+
+    @Test
+    void layoutCommandVersusPerSeatCommands() {
+        // Warm-up cả hai đường
+        for (int i = 0; i < 5; i++) {
+            createPerSeat(createCinema());
+            createLayout(createCinema());
+        }
+        jdbcTemplate.update("DELETE FROM seats");
+
+        long perSeatNanos = 0;
+        for (int i = 0; i < CINEMAS; i++) {
+            String cinemaId = createCinema();
+            long start = System.nanoTime();
+            createPerSeat(cinemaId);
+            perSeatNanos += System.nanoTime() - start;
+        }
+
+        long layoutNanos = 0;
+        for (int i = 0; i < CINEMAS; i++) {
+            String cinemaId = createCinema();
+            long start = System.nanoTime();
+            createLayout(cinemaId);
+            layoutNanos += System.nanoTime() - start;
+        }
+
+        int seats = CINEMAS * ROWS * SEATS_PER_ROW;
+        assertEquals(2 * seats, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM seats", Integer.class));
+
+        double perSeatRate = seats / (perSeatNanos / 1e9);
+        double layoutRate = seats / (layoutNanos / 1e9);
+        System.out.printf("per-seat: %d seats in %d ms (%.0f seats/s)%n", seats, perSeatNanos / 1_000_000,
+                perSeatRate);
+        System.out.printf("layout:   %d seats in %d ms (%.0f seats/s), speed-up x%.1f%n", seats,
+                layoutNanos / 1_000_000, layoutRate, layoutRate / perSeatRate);
+        // Trần của phép so sánh là chi phí insert một dòng vào H2 (~65 µs so với ~1.4 ms cho
+        // một command từng ghế), nên layout đạt khoảng x15-20 chứ không tới x50
+        assertTrue(layoutRate > 10 * perSeatRate);
+    }
+
+    private String createCinema() {
+        String cinemaId = UUID.randomUUID().toString();
+        commandGateway.sendAndWait(new CreateCinemaCommand(cinemaId, "Cinema " + cinemaId, "Address"));
+        jdbcTemplate.update("INSERT INTO cinemas (id, name, address) VALUES (?, ?, ?)", cinemaId, "Cinema", "Address");
+        return cinemaId;
+    }
+
+    private void createPerSeat(String cinemaId) {
+        for (char row = 'A'; row < 'A' + ROWS; row++) {
+            for (int number = 1; number <= SEATS_PER_ROW; number++) {
+                commandGateway.sendAndWait(new CreateSeatCommand(
+                        UUID.randomUUID().toString(), cinemaId, String.valueOf(row), number));
+            }
+        }
+    }
+
+    private void createLayout(String cinemaId) {
+        commandGateway.sendAndWait(new CreateSeatLayoutCommand(
+                cinemaId, "A", String.valueOf((char) ('A' + ROWS - 1)), 1, SEATS_PER_ROW));
+    }
+}
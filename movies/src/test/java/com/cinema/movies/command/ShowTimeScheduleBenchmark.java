@@ -0,0 +1,198 @@
+package com.cinema.movies.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.jdbc.PostgresEventTableFactory;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cinema.movies.command.aggregate.ShowTimeAggregate;
+import com.cinema.movies.command.aggregate.ShowTimeScheduleAggregate;
+import com.cinema.movies.command.command.CreateShowTimeCommand;
+import com.cinema.movies.command.command.CreateShowTimeScheduleCommand;
+import com.cinema.movies.command.data.Cinema;
+import com.cinema.movies.command.data.Movie;
+import com.cinema.movies.command.data.Reponsitory.CinemaRepository;
+import com.cinema.movies.command.data.Reponsitory.MovieRepository;
+import com.cinema.movies.command.data.Reponsitory.ShowTimeRepository;
+import com.cinema.movies.command.event.ShowTimeEventHandler;
+import com.cinema.movies.config.SeatInventoryProperties;
+import com.cinema.movies.config.ShowTimeScheduleProperties;
+import com.cinema.movies.service.inventory.CinemaSeatLayoutRegistry;
+import com.cinema.movies.service.inventory.SeatInventoryService;
+import com.cinema.movies.service.reference.AggregateReferences;
+import com.cinema.movies.service.replay.ReadModelTables;
+import com.cinema.movies.service.schedule.ShowTimeScheduleIndex;
+import com.thoughtworks.xstream.XStream;
+import com.zaxxer.hikari.HikariDataSource;
+
+import ch.qos.logback.classic.Level;
+
+/**
+ * So sánh tạo suất chiếu từng cái (CreateShowTimeCommand) với một
+ * CreateShowTimeScheduleCommand sinh 10.000 suất, trên event store JDBC + H2.
+ *
+ * Chạy: mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=ShowTimeScheduleBenchmark
+ */
+@Tag("benchmark")
+class ShowTimeScheduleBenchmark {
+
+    private static final String MOVIE_ID = "movie-1";
+    private static final int PER_COMMAND_SHOWTIMES = 2_000;
+    private static final List<LocalTime> START_TIMES = List.of(
+            LocalTime.of(10, 0), LocalTime.of(12, 30), LocalTime.of(15, 0), LocalTime.of(17, 30), LocalTime.of(20, 0));
+    private static final int SCHEDULE_DAYS = 2_000; // 2.000 ngày x 5 suất = 10.000 suất
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private Configuration configuration;
+    private CommandGateway commandGateway;
+
+    @BeforeEach
+    void setUp() {
+        // Không có Spring Boot nên logback mặc định ở DEBUG, log sẽ làm sai lệch kết quả
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:showTimeScheduleBench" + UUID.randomUUID()
+                + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;NON_KEYWORDS=TIMESTAMP,VALUE");
+        dataSource.setUsername("sa");
+        this.dataSource = dataSource;
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE show_times (id VARCHAR(255) PRIMARY KEY, movie_id VARCHAR(255) NOT NULL, "
+                + "cinema_id VARCHAR(255) NOT NULL, start_time TIMESTAMP NOT NULL, price NUMERIC(10, 2))");
+        jdbcTemplate.execute("CREATE TABLE showtime_view (id VARCHAR(255) PRIMARY KEY, movie_id VARCHAR(255) NOT NULL, "
+                + "movie_title VARCHAR(255), movie_duration INT, poster_url TEXT, cinema_id VARCHAR(255) NOT NULL, "
+                + "cinema_name VARCHAR(255), start_time TIMESTAMP NOT NULL, end_time TIMESTAMP, price NUMERIC(10, 2))");
+        // showtime_view copy tên phim/rạp từ hai bảng này
+        jdbcTemplate.execute("CREATE TABLE movies (id VARCHAR(255) PRIMARY KEY, title VARCHAR(255), duration INT, "
+                + "poster_url TEXT)");
+        jdbcTemplate.execute("CREATE TABLE cinemas (id VARCHAR(255) PRIMARY KEY, name VARCHAR(255))");
+        jdbcTemplate.update("INSERT INTO movies (id, title, duration) VALUES (?, 'Movie', 120)", MOVIE_ID);
+        for (String cinemaId : List.of("warm-up-1", "warm-up-2", "cinema-1", "cinema-2")) {
+            jdbcTemplate.update("INSERT INTO cinemas (id, name) VALUES (?, 'Cinema')", cinemaId);
+        }
+
+        Movie movie = new Movie();
+        movie.setId(MOVIE_ID);
+        movie.setTitle("Movie");
+        movie.setDuration(120);
+        Cinema cinema = new Cinema();
+        cinema.setName("Cinema");
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findById(MOVIE_ID)).thenReturn(Optional.of(movie));
+        CinemaRepository cinemaRepository = mock(CinemaRepository.class);
+        when(cinemaRepository.findById(anyString())).thenReturn(Optional.of(cinema));
+        when(movieRepository.existsById(MOVIE_ID)).thenReturn(true);
+        when(cinemaRepository.existsById(anyString())).thenReturn(true);
+
+        ShowTimeEventHandler showTimeEventHandler = new ShowTimeEventHandler();
+        ReflectionTestUtils.setField(showTimeEventHandler, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(showTimeEventHandler, "movieRepository", movieRepository);
+        ReflectionTestUtils.setField(showTimeEventHandler, "cinemaRepository", cinemaRepository);
+        ReflectionTestUtils.setField(showTimeEventHandler, "showTimeRepository", mock(ShowTimeRepository.class));
+        ReflectionTestUtils.setField(showTimeEventHandler, "readModelTables", new ReadModelTables(jdbcTemplate));
+        ShowTimeScheduleIndex scheduleIndex = new ShowTimeScheduleIndex(movieRepository,
+                new ShowTimeScheduleProperties());
+
+        XStream xStream = new XStream();
+        xStream.allowTypesByWildcard(new String[] { "com.cinema.**", "java.time.**" });
+        JdbcEventStorageEngine storageEngine = JdbcEventStorageEngine.builder()
+                .connectionProvider(dataSource::getConnection)
+                .transactionManager(NoTransactionManager.INSTANCE)
+                .eventSerializer(XStreamSerializer.builder().xStream(xStream).build())
+                .snapshotSerializer(XStreamSerializer.builder().xStream(xStream).build())
+                .build();
+        storageEngine.createSchema(PostgresEventTableFactory.INSTANCE);
+
+        configuration = DefaultConfigurer.defaultConfiguration(false)
+                .configureEmbeddedEventStore(c -> storageEngine)
+                .registerComponent(ShowTimeScheduleIndex.class, c -> scheduleIndex)
+                .registerComponent(AggregateReferences.class, c -> mock(AggregateReferences.class))
+                .registerComponent(SeatInventoryService.class, c -> new SeatInventoryService(
+                        new CinemaSeatLayoutRegistry(), new SeatInventoryProperties()))
+                .configureAggregate(ShowTimeAggregate.class)
+                .configureAggregate(ShowTimeScheduleAggregate.class)
+                .eventProcessing(processing -> processing
+                        .usingSubscribingEventProcessors()
+                        .registerEventHandler(c -> showTimeEventHandler))
+                .buildConfiguration();
+        configuration.start();
+        commandGateway = configuration.commandGateway();
+    }
+
+    @AfterEach
+    void tearDown() {
+        configuration.shutdown();
+        dataSource.close();
+    }
+
+    @Test
+    void scheduleCommandVersusPerShowTimeCommands() {
+        // Warm-up cả hai đường trên rạp riêng
+        createPerShowTime("warm-up-1", 1_000);
+        createSchedule("warm-up-2", 400);
+        jdbcTemplate.update("DELETE FROM show_times");
+        jdbcTemplate.update("DELETE FROM showtime_view");
+
+        long start = System.nanoTime();
+        createPerShowTime("cinema-1", PER_COMMAND_SHOWTIMES);
+        long perShowTimeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        createSchedule("cinema-2", SCHEDULE_DAYS);
+        long scheduleNanos = System.nanoTime() - start;
+
+        int scheduled = SCHEDULE_DAYS * START_TIMES.size();
+        int total = PER_COMMAND_SHOWTIMES + scheduled;
+        assertEquals(total, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM show_times", Integer.class));
+        assertEquals(total, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM showtime_view", Integer.class));
+
+        double perShowTimeRate = PER_COMMAND_SHOWTIMES / (perShowTimeNanos / 1e9);
+        double scheduleRate = scheduled / (scheduleNanos / 1e9);
+        System.out.printf("per-showtime: %d showtimes in %d ms (%.0f showtimes/s, ~%.0f s for %d)%n",
+                PER_COMMAND_SHOWTIMES, perShowTimeNanos / 1_000_000, perShowTimeRate,
+                scheduled / perShowTimeRate, scheduled);
+        System.out.printf("schedule:     %d showtimes in %d ms (%.0f showtimes/s), speed-up x%.1f%n", scheduled,
+                scheduleNanos / 1_000_000, scheduleRate, scheduleRate / perShowTimeRate);
+    }
+
+    private void createPerShowTime(String cinemaId, int count) {
+        LocalDateTime startTime = LocalDateTime.of(2030, 1, 1, 9, 0);
+        for (int i = 0; i < count; i++) {
+            commandGateway.sendAndWait(new CreateShowTimeCommand(UUID.randomUUID().toString(), MOVIE_ID, cinemaId,
+                    startTime.plusHours(3L * i), BigDecimal.TEN));
+        }
+    }
+
+    private void createSchedule(String cinemaId, int days) {
+        LocalDate fromDate = LocalDate.of(2030, 1, 1);
+        commandGateway.sendAndWait(new CreateShowTimeScheduleCommand(UUID.randomUUID().toString(), MOVIE_ID,
+                cinemaId, List.of(DayOfWeek.values()), START_TIMES, fromDate, fromDate.plusDays(days - 1),
+                BigDecimal.TEN));
+    }
+}
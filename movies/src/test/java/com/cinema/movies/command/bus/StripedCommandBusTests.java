@@ -0,0 +1,151 @@
+package com.cinema.movies.command.bus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.axonframework.commandhandling.GenericCommandMessage;
+import org.axonframework.commandhandling.SimpleCommandBus;
+import org.axonframework.commandhandling.gateway.DefaultCommandGateway;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.spring.messaging.unitofwork.SpringTransactionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.cinema.movies.command.command.UpdateShowTimeCommand;
+import com.zaxxer.hikari.HikariDataSource;
+
+class StripedCommandBusTests {
+
+    private final StripedCommandBus commandBus = new StripedCommandBus(SimpleCommandBus.builder(),
+            NoTransactionManager.INSTANCE, 4, 16, 8);
+
+    @AfterEach
+    void tearDown() {
+        commandBus.shutdown();
+    }
+
+    @Test
+    void commandsForOneAggregateRunInDispatchOrder() throws Exception {
+        int aggregates = 8;
+        int commandsPerAggregate = 500;
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(aggregates * commandsPerAggregate);
+        commandBus.subscribe(UpdateShowTimeCommand.class.getName(), message -> {
+            UpdateShowTimeCommand command = (UpdateShowTimeCommand) message.getPayload();
+            seen.computeIfAbsent(command.getId(), id -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(command.getPrice().intValue());
+            done.countDown();
+            return null;
+        });
+
+        for (int i = 0; i < commandsPerAggregate; i++) {
+            for (int a = 0; a < aggregates; a++) {
+                commandBus.dispatch(GenericCommandMessage.asCommandMessage(
+                        new UpdateShowTimeCommand("show-" + a, null, null, null, BigDecimal.valueOf(i))));
+            }
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (List<Integer> sequence : seen.values()) {
+            for (int i = 0; i < commandsPerAggregate; i++) {
+                assertEquals(i, sequence.get(i));
+            }
+        }
+    }
+
+    @Test
+    void failingCommandDoesNotFailTheRestOfItsBatch() throws Exception {
+        int commands = 200;
+        Map<Integer, Boolean> outcomes = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(commands);
+        commandBus.subscribe(UpdateShowTimeCommand.class.getName(), message -> {
+            UpdateShowTimeCommand command = (UpdateShowTimeCommand) message.getPayload();
+            if (command.getPrice().intValue() % 10 == 0) {
+                throw new IllegalStateException("rejected");
+            }
+            return null;
+        });
+
+        for (int i = 0; i < commands; i++) {
+            int sequence = i;
+            commandBus.dispatch(GenericCommandMessage.asCommandMessage(
+                    new UpdateShowTimeCommand("show-" + i % 3, null, null, null, BigDecimal.valueOf(i))),
+                    (message, result) -> {
+                        outcomes.put(sequence, !result.isExceptional());
+                        done.countDown();
+                    });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < commands; i++) {
+            assertEquals(i % 10 != 0, outcomes.get(i));
+        }
+    }
+
+    @Test
+    void batchRunsInOneSpringTransaction() throws Exception {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:stripedBus" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        StripedCommandBus transactionalBus = new StripedCommandBus(SimpleCommandBus.builder(),
+                new SpringTransactionManager(new DataSourceTransactionManager(dataSource)), 1, 16, 8);
+        try {
+            int commands = 6;
+            CountDownLatch firstStarted = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(commands);
+            List<Object> transactions = Collections.synchronizedList(new ArrayList<>());
+            transactionalBus.subscribe(UpdateShowTimeCommand.class.getName(), message -> {
+                transactions.add(TransactionSynchronizationManager.getResource(dataSource));
+                firstStarted.countDown();
+                release.await();
+                return null;
+            });
+
+            // Lệnh đầu chặn lane để các lệnh sau xếp hàng và được lấy ra thành một lô
+            for (int i = 0; i < commands; i++) {
+                transactionalBus.dispatch(GenericCommandMessage.asCommandMessage(
+                        new UpdateShowTimeCommand("show-" + i, null, null, null, BigDecimal.valueOf(i))),
+                        (message, result) -> done.countDown());
+                if (i == 0) {
+                    assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+                }
+            }
+            release.countDown();
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertNotNull(transactions.get(1));
+            assertEquals(1, transactions.subList(1, commands).stream().distinct().count());
+            assertNotSame(transactions.get(0), transactions.get(1));
+        } finally {
+            transactionalBus.shutdown();
+            dataSource.close();
+        }
+    }
+
+    @Test
+    void nestedCommandRunsOnTheCallingLane() {
+        DefaultCommandGateway gateway = DefaultCommandGateway.builder().commandBus(commandBus).build();
+        commandBus.subscribe(String.class.getName(), message -> gateway.sendAndWait(
+                new UpdateShowTimeCommand("show-1", null, null, null, BigDecimal.ONE)));
+        commandBus.subscribe(UpdateShowTimeCommand.class.getName(), message -> Thread.currentThread().getName());
+
+        String lane = gateway.sendAndWait("outer", 5, TimeUnit.SECONDS);
+
+        assertTrue(lane.startsWith("command-lane-"));
+    }
+}
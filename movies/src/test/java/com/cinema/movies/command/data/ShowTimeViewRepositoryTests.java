@@ -0,0 +1,178 @@
+package com.cinema.movies.command.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cinema.movies.command.data.Reponsitory.CinemaRepository;
+import com.cinema.movies.command.data.Reponsitory.MovieRepository;
+import com.cinema.movies.command.data.Reponsitory.ShowTimeViewRepository;
+import com.cinema.movies.command.event.CinemaUpdatedEvent;
+import com.cinema.movies.command.event.MovieUpdatedEvent;
+import com.cinema.movies.command.event.ShowTimeCreatedEvent;
+import com.cinema.movies.command.event.ShowTimeEventHandler;
+import com.cinema.movies.service.replay.ReadModelNotReadyException;
+import com.cinema.movies.service.replay.ReadModelTables;
+
+@ActiveProfiles("jpa-slice")
+@DataJpaTest
+@Import({ ShowTimeEventHandler.class, ReadModelTables.class })
+class ShowTimeViewRepositoryTests {
+
+    // MoviesApplication tự @ComponentScan toàn bộ nên không dùng được cho test slice;
+    // profile giữ config này ngoài context đầy đủ khi component scan quét cả thư mục test
+    @Profile("jpa-slice")
+    @SpringBootConfiguration
+    @AutoConfigurationPackage
+    static class JpaSliceConfig {
+    }
+
+    @Autowired
+    private ShowTimeEventHandler showTimeEventHandler;
+
+    @Autowired
+    private ShowTimeViewRepository showTimeViewRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private CinemaRepository cinemaRepository;
+
+    @Autowired
+    private ReadModelTables readModelTables;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        movieRepository.save(Movie.builder().id("movie-1").title("Movie").duration(120).build());
+        cinemaRepository.save(Cinema.builder().id("cinema-1").name("Cinema").build());
+        for (int i = 0; i < 25; i++) {
+            showTimeEventHandler.on(new ShowTimeCreatedEvent(String.format("show-%02d", i), "movie-1", "cinema-1",
+                    LocalDateTime.of(2026, 1, 1, 10, 0).plusHours(i), BigDecimal.TEN));
+        }
+    }
+
+    @Test
+    void viewIsDenormalizedAndFollowsMovieAndCinemaUpdates() throws Exception {
+        ShowTimeView view = showTimeViewRepository.findById("show-00").orElseThrow();
+        assertEquals("Movie", view.getMovieTitle());
+        assertEquals("Cinema", view.getCinemaName());
+        assertEquals(LocalDateTime.of(2026, 1, 1, 12, 0), view.getEndTime());
+
+        // Group phim/rạp đã ghi event version 1 vào bảng của chúng
+        movieRepository.save(Movie.builder().id("movie-1").title("Director's Cut").duration(150)
+                .posterUrl("poster.jpg").version(1L).build());
+        cinemaRepository.save(Cinema.builder().id("cinema-1").name("Cinema 2").version(1L).build());
+        entityManager.flush();
+        showTimeEventHandler.on(new MovieUpdatedEvent("movie-1", "Director's Cut", null, 150, "poster.jpg"), 1L);
+        showTimeEventHandler.on(new CinemaUpdatedEvent("cinema-1", "Cinema 2", null), 1L);
+        entityManager.clear();
+
+        view = showTimeViewRepository.findById("show-00").orElseThrow();
+        assertEquals("Director's Cut", view.getMovieTitle());
+        assertEquals("poster.jpg", view.getPosterUrl());
+        assertEquals("Cinema 2", view.getCinemaName());
+        assertEquals(LocalDateTime.of(2026, 1, 1, 12, 30), view.getEndTime());
+    }
+
+    @Test
+    void updateAheadOfParentTableIsRetriedLater() {
+        // Group rạp chưa ghi tới event version 2: copy lúc này sẽ lấy tên cũ
+        assertThrows(ReadModelNotReadyException.class,
+                () -> showTimeEventHandler.on(new CinemaUpdatedEvent("cinema-1", "Cinema 2", null), 2L));
+        entityManager.clear();
+
+        assertEquals("Cinema", showTimeViewRepository.findById("show-00").orElseThrow().getCinemaName());
+    }
+
+    @Test
+    void showTimeForUnknownCinemaIsRejectedBeforeAnyWrite() {
+        // Rạp chưa được group rạp ghi tới: handler ném lỗi để event vào dead-letter, không chạm tới khóa ngoại
+        assertThrows(ReadModelNotReadyException.class, () -> showTimeEventHandler.on(new ShowTimeCreatedEvent(
+                "show-late", "movie-1", "cinema-2", LocalDateTime.of(2026, 2, 1, 10, 0), BigDecimal.TEN)));
+        entityManager.flush();
+
+        assertFalse(showTimeViewRepository.existsById("show-late"));
+    }
+
+    @Test
+    void deletedMovieTakesItsShowTimesAndLateEventsAreSkipped() throws Exception {
+        // Như MovieEventHandle: bảng con trước, rồi tới phim
+        readModelTables.deleteWhere("showtime_view", "movie_id = ?", "movie-1");
+        readModelTables.deleteWhere("show_times", "movie_id = ?", "movie-1");
+        readModelTables.delete("movies", "movie-1");
+        entityManager.clear();
+        assertEquals(0, showTimeViewRepository.count());
+        assertFalse(movieRepository.existsById("movie-1"));
+
+        // Suất chiếu tạo trước khi xoá phim nhưng tới group suất chiếu sau: bỏ qua thay vì dead-letter mãi
+        showTimeEventHandler.on(new ShowTimeCreatedEvent("show-late", "movie-1", "cinema-1",
+                LocalDateTime.of(2026, 2, 1, 10, 0), BigDecimal.TEN));
+        entityManager.flush();
+
+        assertFalse(showTimeViewRepository.existsById("show-late"));
+    }
+
+    @Test
+    void resetKeepsParentRowsStillReferencedByOtherGroups() {
+        movieRepository.save(Movie.builder().id("movie-2").title("Unused").duration(90).build());
+        entityManager.flush();
+
+        // Replay group phim khi group suất chiếu vẫn giữ dữ liệu: chỉ phim không còn suất chiếu bị xoá
+        readModelTables.clearUnreferenced("movies", "show_times.movie_id", "showtime_view.movie_id");
+        assertTrue(movieRepository.existsById("movie-1"));
+        assertFalse(movieRepository.existsById("movie-2"));
+
+        readModelTables.clear("show_times", "showtime_view");
+        readModelTables.clearUnreferenced("movies", "show_times.movie_id", "showtime_view.movie_id");
+        assertEquals(0, showTimeViewRepository.count());
+        assertFalse(movieRepository.existsById("movie-1"));
+    }
+
+    @Test
+    void keysetPagesCoverEveryRowOnce() {
+        List<String> ids = new ArrayList<>();
+        String after = "";
+        List<ShowTimeView> page;
+        do {
+            page = showTimeViewRepository.findPageAfter(after, Limit.of(10));
+            page.forEach(showTime -> ids.add(showTime.getId()));
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 10);
+
+        assertEquals(25, ids.size());
+        assertEquals("show-00", ids.get(0));
+        assertEquals("show-24", ids.get(24));
+    }
+
+    @Test
+    void streamReturnsRowsInIdOrder() {
+        try (Stream<ShowTimeView> showTimes = showTimeViewRepository.streamAllOrderById()) {
+            assertEquals(25, showTimes.map(ShowTimeView::getId).distinct().count());
+        }
+    }
+}
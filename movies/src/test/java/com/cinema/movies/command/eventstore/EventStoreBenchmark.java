@@ -0,0 +1,170 @@
+package com.cinema.movies.command.eventstore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.jdbc.PostgresEventTableFactory;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.cinema.movies.command.event.SeatUpdatedEvent;
+import com.thoughtworks.xstream.XStream;
+import com.zaxxer.hikari.HikariDataSource;
+
+import ch.qos.logback.classic.Level;
+
+/**
+ * Thông lượng ghi (mỗi lần một event, như một command), replay toàn bộ stream và nạp lại từng
+ * aggregate của event store trên file segment memory-map so với event store JDBC trên H2; tỉ lệ
+ * nén và tốc độ replay khi các segment đã được archive.
+ *
+ * Chạy: mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=EventStoreBenchmark
+ */
+@Tag("benchmark")
+class EventStoreBenchmark {
+
+    private static final int AGGREGATES = 500;
+    private static final int EVENTS_PER_AGGREGATE = 100;
+    private static final int EVENTS = AGGREGATES * EVENTS_PER_AGGREGATE;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mappedSegmentsOutperformJdbc() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:eventStoreBench" + UUID.randomUUID()
+                + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;NON_KEYWORDS=TIMESTAMP,VALUE");
+        dataSource.setUsername("sa");
+        JdbcEventStorageEngine jdbc = JdbcEventStorageEngine.builder()
+                .connectionProvider(dataSource::getConnection)
+                .transactionManager(NoTransactionManager.INSTANCE)
+                .eventSerializer(serializer())
+                .snapshotSerializer(serializer())
+                .build();
+        jdbc.createSchema(PostgresEventTableFactory.INSTANCE);
+        MappedSegmentEventStorageEngine mapped = MappedSegmentEventStorageEngine.builder()
+                .eventSerializer(serializer())
+                .snapshotSerializer(serializer())
+                .storageDirectory(directory)
+                .build();
+
+        try {
+            // Warm-up trên aggregate riêng để JIT không tính vào lần đo
+            run("warm-up", jdbc, "warm");
+            run("warm-up", mapped, "warm");
+            double[] jdbcResult = run("jdbc", jdbc, "seat");
+            double[] mappedResult = run("mapped", mapped, "seat");
+
+            assertTrue(mappedResult[0] > jdbcResult[0]);
+            assertTrue(mappedResult[1] > jdbcResult[1]);
+        } finally {
+            mapped.close();
+            dataSource.close();
+        }
+    }
+
+    @Test
+    void archivedSegmentsCompressAndReplayOnDemand() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        MappedSegmentEventStorageEngine mapped = MappedSegmentEventStorageEngine.builder()
+                .eventSerializer(serializer())
+                .snapshotSerializer(serializer())
+                .storageDirectory(directory)
+                .segmentSize(1024 * 1024)
+                .segmentArchive(new SegmentArchive() {
+                    @Override
+                    public void put(String key, byte[] data) {
+                        objects.put(key, data);
+                    }
+
+                    @Override
+                    public byte[] get(String key) {
+                        return objects.get(key);
+                    }
+                })
+                .restoredSegments(1)
+                .build();
+        try {
+            run("mapped", mapped, "seat");
+            long start = System.nanoTime();
+            int archived = mapped.archiveSegments(Instant.now().plusSeconds(60));
+            double archiveMillis = (System.nanoTime() - start) / 1e6;
+            long compressed = objects.values().stream().mapToLong(data -> data.length).sum();
+
+            // Mỗi segment archive được tải và giải nén đúng một lần khi replay tuần tự
+            start = System.nanoTime();
+            long replayed = mapped.readEvents(null, false)
+                    .filter(event -> event.getPayload() != null)
+                    .count();
+            double replayRate = replayed / ((System.nanoTime() - start) / 1e9);
+
+            System.out.printf("archived %d segments (%d bytes raw) to %d bytes (%.1f%%) in %.0f ms,"
+                    + " cold replay %8.0f events/s%n", archived, archived * 1024L * 1024, compressed,
+                    100.0 * compressed / (archived * 1024L * 1024), archiveMillis, replayRate);
+            assertEquals(EVENTS, replayed);
+            assertTrue(compressed * 3 < archived * 1024L * 1024);
+        } finally {
+            mapped.close();
+        }
+    }
+
+    private double[] run(String name, EventStorageEngine engine, String prefix) {
+        long start = System.nanoTime();
+        for (int sequence = 0; sequence < EVENTS_PER_AGGREGATE; sequence++) {
+            for (int aggregate = 0; aggregate < AGGREGATES; aggregate++) {
+                String id = prefix + "-" + aggregate;
+                engine.appendEvents(new GenericDomainEventMessage<>("SeatAggregate", id, sequence,
+                        new SeatUpdatedEvent(id, "cinema-1", "A", sequence)));
+            }
+        }
+        double appendRate = EVENTS / ((System.nanoTime() - start) / 1e9);
+
+        // Payload được giải mã lười, filter ép giải mã từng event (và tránh count() bỏ qua stream SIZED)
+        start = System.nanoTime();
+        long replayed = engine.readEvents(null, false)
+                .filter(event -> event.getPayload() != null)
+                .count();
+        double replayRate = replayed / ((System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        long sourced = 0;
+        for (int aggregate = 0; aggregate < AGGREGATES; aggregate++) {
+            sourced += engine.readEvents(prefix + "-" + aggregate).asStream()
+                    .filter(event -> event.getPayload() != null)
+                    .count();
+        }
+        double sourcingMillis = (System.nanoTime() - start) / 1e6 / AGGREGATES;
+        assertEquals(EVENTS, sourced);
+
+        if (!"warm-up".equals(name)) {
+            System.out.printf("%-6s append %8.0f events/s, replay %8.0f events/s, source %d-event aggregate %.2f ms%n",
+                    name, appendRate, replayRate, EVENTS_PER_AGGREGATE, sourcingMillis);
+        }
+        return new double[] { appendRate, replayRate, sourcingMillis };
+    }
+
+    private static XStreamSerializer serializer() {
+        XStream xStream = new XStream();
+        xStream.allowTypesByWildcard(new String[] { "com.cinema.**", "java.time.**" });
+        return XStreamSerializer.builder().xStream(xStream).build();
+    }
+}
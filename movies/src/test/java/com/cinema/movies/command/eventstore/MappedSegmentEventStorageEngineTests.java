@@ -0,0 +1,215 @@
+package com.cinema.movies.command.eventstore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.modelling.command.ConcurrencyException;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.cinema.movies.command.event.SeatUpdatedEvent;
+import com.thoughtworks.xstream.XStream;
+
+class MappedSegmentEventStorageEngineTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsAggregateStreamsAndGlobalStreamAcrossSegments() {
+        MappedSegmentEventStorageEngine engine = open();
+        for (int sequence = 0; sequence < 50; sequence++) {
+            engine.appendEvents(event("seat-1", sequence), event("seat-2", sequence));
+        }
+        engine.appendEvents(GenericEventMessage.asEventMessage("not a domain event"));
+
+        assertEquals(50, engine.readEvents("seat-1", 0).asStream().count());
+        assertEquals(List.of(45L, 46L, 47L, 48L, 49L), engine.readEvents("seat-2", 45).asStream()
+                .map(DomainEventMessage::getSequenceNumber).collect(Collectors.toList()));
+        assertEquals(Optional.of(49L), engine.lastSequenceNumberFor("seat-1"));
+        assertEquals(new GlobalSequenceTrackingToken(100), engine.createHeadToken());
+
+        List<TrackedEventMessage<?>> tail = engine.readEvents(new GlobalSequenceTrackingToken(97), false)
+                .collect(Collectors.toList());
+        assertEquals(3, tail.size());
+        assertEquals(new GlobalSequenceTrackingToken(98), tail.get(0).trackingToken());
+        assertEquals("not a domain event", tail.get(2).getPayload());
+        assertTrue(directory.toFile().list((dir, name) -> name.endsWith(".events")).length > 1);
+    }
+
+    @Test
+    void rejectsDuplicateSequenceWithoutWritingTheBatch() {
+        MappedSegmentEventStorageEngine engine = open();
+        engine.appendEvents(event("seat-1", 0));
+
+        assertThrows(ConcurrencyException.class, () -> engine.appendEvents(event("seat-2", 0), event("seat-1", 0)));
+        assertEquals(new GlobalSequenceTrackingToken(0), engine.createHeadToken());
+        assertEquals(0, engine.readEvents("seat-2", 0).asStream().count());
+    }
+
+    @Test
+    void survivesRestartAndDropsTornTail() throws Exception {
+        MappedSegmentEventStorageEngine engine = open();
+        for (int sequence = 0; sequence < 10; sequence++) {
+            engine.appendEvents(event("seat-1", sequence));
+        }
+        engine.storeSnapshot(event("seat-1", 9));
+        engine.close();
+
+        // Giả lập tiến trình chết giữa lúc ghi: độ dài đã có nhưng dữ liệu chưa đủ
+        Path segment = directory.resolve("0000000000.events");
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            long end = 0;
+            int length;
+            while ((length = readInt(file, end)) != 0) {
+                end += 8 + length;
+            }
+            file.seek(end);
+            file.writeInt(500);
+        }
+
+        MappedSegmentEventStorageEngine reopened = open();
+        assertEquals(new GlobalSequenceTrackingToken(9), reopened.createHeadToken());
+        assertEquals(Optional.of(9L), reopened.lastSequenceNumberFor("seat-1"));
+        assertTrue(reopened.readSnapshot("seat-1").isPresent());
+
+        reopened.appendEvents(event("seat-1", 10));
+        assertEquals(11, reopened.readEvents("seat-1", 0).asStream().count());
+        reopened.close();
+        assertEquals(11, open().readEvents((GlobalSequenceTrackingToken) null, false).count());
+    }
+
+    @Test
+    void dropsBatchWhoseLastRecordIsTorn() throws Exception {
+        MappedSegmentEventStorageEngine engine = open();
+        engine.appendEvents(event("seat-1", 0));
+        engine.appendEvents(event("seat-1", 1), event("seat-2", 0), event("seat-1", 2));
+        engine.close();
+
+        // Hai bản ghi đầu batch đã ghi đủ, bản cuối (bản commit) hỏng một byte dữ liệu
+        Path segment = directory.resolve("0000000000.events");
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            long last = 0;
+            long end = 0;
+            int length;
+            while ((length = readInt(file, end)) != 0) {
+                last = end;
+                end += 8 + (length & ~SegmentLog.CONTINUED);
+            }
+            file.seek(last + 8);
+            file.writeByte(file.readByte() ^ 0xFF);
+        }
+
+        MappedSegmentEventStorageEngine reopened = open();
+        assertEquals(new GlobalSequenceTrackingToken(0), reopened.createHeadToken());
+        assertEquals(Optional.of(0L), reopened.lastSequenceNumberFor("seat-1"));
+        assertEquals(Optional.empty(), reopened.lastSequenceNumberFor("seat-2"));
+
+        reopened.appendEvents(event("seat-1", 1), event("seat-2", 0));
+        reopened.close();
+        assertEquals(3, open().readEvents((GlobalSequenceTrackingToken) null, false).count());
+    }
+
+    @Test
+    void compactsSnapshotLog() {
+        MappedSegmentEventStorageEngine engine = open();
+        for (int round = 0; round < 200; round++) {
+            for (int seat = 0; seat < 3; seat++) {
+                engine.storeSnapshot(event("seat-" + seat, round));
+            }
+        }
+
+        // 600 snapshot cần hàng chục segment 16 KB, sau compaction chỉ còn vài segment
+        assertTrue(directory.toFile().list((dir, name) -> name.endsWith(".snapshots")).length <= 3);
+        assertEquals(199L, engine.readSnapshot("seat-0").orElseThrow().getSequenceNumber());
+        engine.close();
+
+        MappedSegmentEventStorageEngine reopened = open();
+        for (int seat = 0; seat < 3; seat++) {
+            assertEquals(199L, reopened.readSnapshot("seat-" + seat).orElseThrow().getSequenceNumber());
+        }
+        reopened.storeSnapshot(event("seat-0", 200));
+        assertEquals(200L, reopened.readSnapshot("seat-0").orElseThrow().getSequenceNumber());
+    }
+
+    @Test
+    void archivedSegmentsAreReadBackOnDemand() {
+        Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        MappedSegmentEventStorageEngine engine = open(objects);
+        for (int sequence = 0; sequence < 50; sequence++) {
+            engine.appendEvents(event("seat-1", sequence), event("seat-2", sequence));
+        }
+
+        // Mốc thời gian trong tương lai: mọi segment đã đóng đều đủ cũ, trừ segment đang ghi
+        int archived = engine.archiveSegments(Instant.now().plusSeconds(60));
+        assertTrue(archived > 0);
+        assertEquals(archived, objects.size());
+        assertEquals(1, directory.toFile().list((dir, name) -> name.endsWith(".events")).length);
+        assertEquals(50, engine.readEvents("seat-1", 0).asStream().count());
+        engine.close();
+
+        MappedSegmentEventStorageEngine reopened = open(objects);
+        assertEquals(archived, reopened.archivedSegmentCount());
+        assertEquals(Optional.of(49L), reopened.lastSequenceNumberFor("seat-2"));
+        reopened.appendEvents(event("seat-1", 50));
+        List<Long> sequences = reopened.readEvents("seat-1", 0).asStream()
+                .map(DomainEventMessage::getSequenceNumber).collect(Collectors.toList());
+        assertEquals(51, sequences.size());
+        assertEquals(0L, sequences.get(0));
+        assertEquals(101, reopened.readEvents((GlobalSequenceTrackingToken) null, false).count());
+    }
+
+    private MappedSegmentEventStorageEngine open() {
+        return open(null);
+    }
+
+    private MappedSegmentEventStorageEngine open(Map<String, byte[]> archive) {
+        XStream xStream = new XStream();
+        xStream.allowTypesByWildcard(new String[] { "com.cinema.**", "java.time.**" });
+        XStreamSerializer serializer = XStreamSerializer.builder().xStream(xStream).build();
+        return MappedSegmentEventStorageEngine.builder()
+                .eventSerializer(serializer)
+                .snapshotSerializer(serializer)
+                .storageDirectory(directory)
+                .segmentSize(16 * 1024)
+                .segmentArchive(archive == null ? null : new SegmentArchive() {
+                    @Override
+                    public void put(String key, byte[] data) {
+                        archive.put(key, data);
+                    }
+
+                    @Override
+                    public byte[] get(String key) {
+                        return archive.get(key);
+                    }
+                })
+                .build();
+    }
+
+    private static DomainEventMessage<?> event(String seatId, long sequence) {
+        return new GenericDomainEventMessage<>("SeatAggregate", seatId, sequence,
+                new SeatUpdatedEvent(seatId, "cinema-1", "A", (int) sequence));
+    }
+
+    private static int readInt(RandomAccessFile file, long position) throws Exception {
+        file.seek(position);
+        return file.readInt();
+    }
+}
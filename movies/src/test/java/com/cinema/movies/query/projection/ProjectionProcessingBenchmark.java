@@ -0,0 +1,117 @@
+package com.cinema.movies.query.projection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.ConfigurerModule;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.cinema.movies.command.event.SeatUpdatedEvent;
+import com.cinema.movies.config.ProjectionProcessingConfig;
+import com.cinema.movies.config.ProjectionProcessingProperties;
+
+import ch.qos.logback.classic.Level;
+
+/**
+ * Thời gian xử lý hết một loạt event của processing group seat-projection với 1 segment so với
+ * nhiều segment. Handler giả lập một round-trip DB 1 ms mỗi event và kiểm tra event của cùng một
+ * ghế luôn tới đúng thứ tự.
+ *
+ * Chạy: mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=ProjectionProcessingBenchmark
+ */
+@Tag("benchmark")
+class ProjectionProcessingBenchmark {
+
+    private static final int SEATS = 200;
+    private static final int EVENTS_PER_SEAT = 10;
+
+    @Test
+    void throughputScalesWithSegments() throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        double single = run(1);
+        double segmented = run(8);
+
+        System.out.printf("%d events: 1 segment %.0f events/s, 8 segments %.0f events/s%n",
+                SEATS * EVENTS_PER_SEAT, single, segmented);
+        assertTrue(segmented > 3 * single);
+    }
+
+    private double run(int segments) throws Exception {
+        InMemoryEventStorageEngine storageEngine = new InMemoryEventStorageEngine();
+        SeatHandler handler = new SeatHandler(SEATS * EVENTS_PER_SEAT);
+
+        ProjectionProcessingProperties properties = new ProjectionProcessingProperties();
+        properties.setSegments(segments);
+        properties.setBatchSize(10);
+        ConfigurerModule module = ProjectionProcessingConfig.configurerModule(properties,
+                NoTransactionManager.instance());
+
+        DefaultConfigurer configurer = (DefaultConfigurer) DefaultConfigurer.defaultConfiguration(false);
+        configurer.configureEmbeddedEventStore(c -> storageEngine);
+        module.configureModule(configurer);
+        configurer.eventProcessing(processing -> processing.registerEventHandler(c -> handler));
+        Configuration configuration = configurer.buildConfiguration();
+
+        List<DomainEventMessage<?>> events = new ArrayList<>();
+        for (int sequence = 0; sequence < EVENTS_PER_SEAT; sequence++) {
+            for (int seat = 0; seat < SEATS; seat++) {
+                events.add(new GenericDomainEventMessage<>("SeatAggregate", "seat-" + seat, sequence,
+                        new SeatUpdatedEvent("seat-" + seat, "cinema-1", "A", sequence)));
+            }
+        }
+        configuration.eventStore().publish(events);
+
+        long start = System.nanoTime();
+        configuration.start();
+        try {
+            assertTrue(handler.done.await(60, TimeUnit.SECONDS));
+            double eventsPerSecond = SEATS * EVENTS_PER_SEAT / ((System.nanoTime() - start) / 1e9);
+            assertEquals(0, handler.outOfOrder.get());
+            return eventsPerSecond;
+        } finally {
+            configuration.shutdown();
+        }
+    }
+
+    @ProcessingGroup(ProjectionProcessingConfig.SEAT_GROUP)
+    static class SeatHandler {
+
+        private final Map<String, Integer> lastSeen = new ConcurrentHashMap<>();
+        private final AtomicInteger outOfOrder = new AtomicInteger();
+        private final CountDownLatch done;
+
+        SeatHandler(int events) {
+            this.done = new CountDownLatch(events);
+        }
+
+        @EventHandler
+        public void on(SeatUpdatedEvent event) throws InterruptedException {
+            Thread.sleep(1);
+            Integer previous = lastSeen.put(event.getId(), event.getSeatNumber());
+            if (previous != null && previous + 1 != event.getSeatNumber()) {
+                outOfOrder.incrementAndGet();
+            }
+            done.countDown();
+        }
+    }
+}
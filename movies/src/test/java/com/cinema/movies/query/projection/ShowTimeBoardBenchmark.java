@@ -0,0 +1,81 @@
+package com.cinema.movies.query.projection;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.cinema.movies.command.event.MovieCreateEvent;
+import com.cinema.movies.command.event.ShowTimeCreatedEvent;
+import com.cinema.movies.command.event.ShowTimeUpdatedEvent;
+import com.cinema.movies.config.ShowTimeBoardProperties;
+import com.cinema.movies.query.queries.GetShowTimeBoardQuery;
+
+/**
+ * Độ trễ đọc bảng lịch chiếu hôm nay: 200 rạp x 14 ngày x 12 suất, cứ 100 lần đọc
+ * lại có một suất bị dời giờ (bảng phải dựng lại snapshot).
+ *
+ * Chạy: mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=ShowTimeBoardBenchmark
+ */
+@Tag("benchmark")
+class ShowTimeBoardBenchmark {
+
+    private static final int CINEMAS = 200;
+    private static final int DAYS = 14;
+    private static final int SHOWS_PER_DAY = 12;
+    private static final int MOVIES = 30;
+    private static final int READS = 200_000;
+
+    @Test
+    void todayBoardIsServedUnderOneMillisecond() {
+        ShowTimeBoardProperties properties = new ShowTimeBoardProperties();
+        ZoneId zone = ZoneId.of(properties.getZone());
+        ShowTimeBoardProjection projection = new ShowTimeBoardProjection(properties, Clock.system(zone));
+        LocalDate today = LocalDate.now(zone);
+
+        Random random = new Random(7);
+        for (int m = 0; m < MOVIES; m++) {
+            projection.on(new MovieCreateEvent("movie-" + m, "Movie " + m, null, 90 + random.nextInt(60), null));
+        }
+        for (int c = 0; c < CINEMAS; c++) {
+            for (int d = 0; d < DAYS; d++) {
+                for (int s = 0; s < SHOWS_PER_DAY; s++) {
+                    projection.on(new ShowTimeCreatedEvent("show-" + c + "-" + d + "-" + s,
+                            "movie-" + random.nextInt(MOVIES), "cinema-" + c,
+                            today.plusDays(d).atTime(9, 0).plusMinutes(75L * s), BigDecimal.TEN));
+                }
+            }
+        }
+
+        long[] latencies = new long[READS];
+        for (int round = 0; round < 2; round++) { // vòng đầu để JIT warm-up
+            for (int i = 0; i < READS; i++) {
+                int cinema = random.nextInt(CINEMAS);
+                if (i % 100 == 0) {
+                    LocalDateTime moved = today.atTime(9, 0).plusMinutes(75L * random.nextInt(SHOWS_PER_DAY));
+                    projection.on(new ShowTimeUpdatedEvent("show-" + cinema + "-0-" + random.nextInt(SHOWS_PER_DAY),
+                            "movie-" + random.nextInt(MOVIES), "cinema-" + cinema, moved, BigDecimal.TEN));
+                }
+                long start = System.nanoTime();
+                projection.handle(new GetShowTimeBoardQuery("cinema-" + cinema, null));
+                latencies[i] = System.nanoTime() - start;
+            }
+        }
+
+        Arrays.sort(latencies);
+        double p50 = latencies[READS / 2] / 1e3;
+        double p99 = latencies[READS * 99 / 100] / 1e3;
+        double p999 = latencies[READS * 999 / 1000] / 1e3;
+        System.out.printf("board read: p50 %.1f us, p99 %.1f us, p99.9 %.1f us (%d boards)%n", p50, p99, p999,
+                CINEMAS * DAYS);
+        assertTrue(p99 < 1_000, "p99 must stay under 1 ms");
+    }
+}
@@ -0,0 +1,132 @@
+package com.cinema.movies.query.projection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.cinema.movies.command.event.MovieCreateEvent;
+import com.cinema.movies.command.event.MovieUpdatedEvent;
+import com.cinema.movies.command.event.ShowTimeCreatedEvent;
+import com.cinema.movies.command.event.ShowTimeDeletedEvent;
+import com.cinema.movies.command.event.ShowTimeUpdatedEvent;
+import com.cinema.movies.config.ShowTimeBoardProperties;
+import com.cinema.movies.query.model.ShowTimeBoardResponseModel;
+import com.cinema.movies.query.model.ShowTimeBoardResponseModel.BoardShowTime;
+import com.cinema.movies.query.queries.GetShowTimeBoardQuery;
+
+class ShowTimeBoardProjectionTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    private MutableClock clock;
+    private ShowTimeBoardProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(TODAY.atTime(14, 0));
+        projection = new ShowTimeBoardProjection(new ShowTimeBoardProperties(), clock);
+
+        projection.on(new MovieCreateEvent("movie-a", "A", null, 120, null));
+        projection.on(new MovieCreateEvent("movie-b", "B", null, 90, null));
+        show("s1", "movie-a", TODAY.atTime(10, 0));
+        show("s2", "movie-b", TODAY.atTime(13, 0));
+        show("s3", "movie-a", TODAY.atTime(15, 0));
+        show("s4", "movie-b", TODAY.atTime(18, 0));
+        show("s5", "movie-a", TODAY.plusDays(1).atTime(9, 0));
+    }
+
+    @Test
+    void groupsByMovieAndSplitsNowAndNext() {
+        ShowTimeBoardResponseModel board = board(null);
+
+        assertEquals(TODAY, board.getDate());
+        assertEquals(List.of("movie-a", "movie-b"),
+                board.getMovies().stream().map(ShowTimeBoardResponseModel.BoardMovie::getMovieId).toList());
+        assertEquals(List.of("s1", "s3"), ids(board.getMovies().get(0).getShowTimes()));
+        assertEquals(List.of("s2"), ids(board.getNowShowing()));
+        assertEquals(List.of("s3", "s4"), ids(board.getNextUp()));
+
+        assertEquals(List.of("s5"), ids(board(TODAY.plusDays(1)).getNextUp()));
+    }
+
+    @Test
+    void followsUpdatesDeletesAndMovieChanges() {
+        projection.on(new ShowTimeUpdatedEvent("s4", "movie-b", "cinema-1", TODAY.plusDays(1).atTime(20, 0),
+                BigDecimal.TEN));
+        projection.on(new ShowTimeDeletedEvent("s3"));
+        projection.on(new MovieUpdatedEvent("movie-b", "B (Director's cut)", null, 200, null));
+
+        ShowTimeBoardResponseModel board = board(null);
+        assertEquals(List.of("s1", "s2"), ids(board.getMovies().stream()
+                .flatMap(movie -> movie.getShowTimes().stream()).toList()));
+        assertEquals("B (Director's cut)", board.getNowShowing().get(0).getMovieTitle());
+        assertEquals(TODAY.atTime(16, 20), board.getNowShowing().get(0).getEndTime());
+        assertTrue(board.getNextUp().isEmpty());
+        assertEquals(List.of("s5", "s4"), ids(board(TODAY.plusDays(1)).getNextUp()));
+    }
+
+    @Test
+    void rolloverDropsPastDaysAndKeepsLateShowRunning() {
+        show("late", "movie-a", TODAY.atTime(23, 30));
+
+        clock.set(TODAY.plusDays(1).atTime(0, 30));
+        projection.rollover();
+        assertEquals(List.of("late"), ids(board(null).getNowShowing()));
+        assertEquals(List.of("s5"), ids(board(null).getNextUp()));
+
+        clock.set(TODAY.plusDays(2).atTime(0, 0));
+        projection.rollover();
+        assertTrue(board(TODAY).getMovies().isEmpty());
+        assertEquals(1, board(TODAY.plusDays(1)).getMovies().size());
+    }
+
+    private void show(String id, String movieId, LocalDateTime startTime) {
+        projection.on(new ShowTimeCreatedEvent(id, movieId, "cinema-1", startTime, BigDecimal.TEN));
+    }
+
+    private ShowTimeBoardResponseModel board(LocalDate date) {
+        return projection.handle(new GetShowTimeBoardQuery("cinema-1", date));
+    }
+
+    private static List<String> ids(List<BoardShowTime> showTimes) {
+        return showTimes.stream().map(BoardShowTime::getId).toList();
+    }
+
+    private static final class MutableClock extends Clock {
+        private LocalDateTime now;
+
+        MutableClock(LocalDateTime now) {
+            this.now = now;
+        }
+
+        void set(LocalDateTime now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.toInstant(ZoneOffset.UTC);
+        }
+    }
+}
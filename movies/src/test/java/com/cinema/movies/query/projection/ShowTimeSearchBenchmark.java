@@ -0,0 +1,137 @@
+package com.cinema.movies.query.projection;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cinema.movies.query.model.ShowTimeResponseModel;
+import com.cinema.movies.query.queries.SearchShowTimesQuery;
+
+/**
+ * Độ trễ tìm suất chiếu trên 1 triệu dòng showtime_view, có và không có index
+ * (cinema_id, start_time) / (movie_id, start_time).
+ *
+ * Chạy: mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=ShowTimeSearchBenchmark
+ */
+@Tag("benchmark")
+@ActiveProfiles("jpa-slice")
+@DataJpaTest(showSql = false, properties = "spring.datasource.url=jdbc:h2:mem:showtime-bench;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ShowTimeProjection.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ShowTimeSearchBenchmark {
+
+    private static final int ROWS = Integer.getInteger("rows", 1_000_000);
+    private static final int CINEMAS = 100;
+    private static final int MOVIES = 200;
+    private static final LocalDateTime SEASON_START = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    // Profile giữ config này ngoài context đầy đủ khi component scan quét cả thư mục test
+    @Profile("jpa-slice")
+    @SpringBootConfiguration
+    @AutoConfigurationPackage(basePackages = "com.cinema.movies.command.data")
+    static class JpaSliceConfig {
+    }
+
+    @Autowired
+    private ShowTimeProjection showTimeProjection;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void searchOverOneMillionShowTimes() {
+        long loadStart = System.nanoTime();
+        load();
+        System.out.printf("loaded %d showtimes in %dms%n", ROWS, (System.nanoTime() - loadStart) / 1_000_000);
+
+        long[] indexed = run("indexed", 2_000, 1_000);
+
+        jdbcTemplate.execute("DROP INDEX idx_showtime_view_cinema_start");
+        jdbcTemplate.execute("DROP INDEX idx_showtime_view_movie_start");
+        long[] scanned = run("no composite index", 20, 100);
+
+        assertTrue(indexed[indexed.length / 2] * 5 < scanned[scanned.length / 2],
+                "composite index should make the search at least 5x faster");
+    }
+
+    private void load() {
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < ROWS; i++) {
+            int cinema = random.nextInt(CINEMAS);
+            int movie = random.nextInt(MOVIES);
+            LocalDateTime start = SEASON_START.plusDays(random.nextInt(365)).plusMinutes(15L * random.nextInt(56));
+            batch.add(new Object[] { String.format("st-%07d", i), "movie-" + movie, "Movie " + movie, 120,
+                    "cinema-" + cinema, "Cinema " + cinema, Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusMinutes(120)), BigDecimal.valueOf(50_000 + 10_000L * random.nextInt(16)) });
+            if (batch.size() == 10_000) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+        insert(batch);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO showtime_view (id, movie_id, movie_title, movie_duration, cinema_id,"
+                + " cinema_name, start_time, end_time, price) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    private long[] run(String label, int warmUp, int iterations) {
+        Random random = new Random(7);
+        for (int i = 0; i < warmUp; i++) {
+            showTimeProjection.handle(randomQuery(random)); // warm-up, JIT cần nhiều vòng trên máy 1 core
+        }
+
+        long[] samples = new long[iterations];
+        int results = 0;
+        for (int i = 0; i < iterations; i++) {
+            SearchShowTimesQuery query = randomQuery(random);
+            long start = System.nanoTime();
+            List<ShowTimeResponseModel> page = showTimeProjection.handle(query);
+            samples[i] = System.nanoTime() - start;
+            results += page.size();
+        }
+        Arrays.sort(samples);
+        System.out.printf("%s: p50=%.2fms p99=%.2fms avgResults=%.1f%n", label,
+                samples[iterations / 2] / 1e6, samples[iterations * 99 / 100] / 1e6, (double) results / iterations);
+        return samples;
+    }
+
+    // "phim X ở rạp Y, 18:00-23:00 trong 1 tuần, giá <= 100k" hoặc "phim X, 18:00-23:00 một ngày bất kỳ"
+    private static SearchShowTimesQuery randomQuery(Random random) {
+        LocalDateTime day = SEASON_START.plusDays(random.nextInt(358)).withHour(18);
+        SearchShowTimesQuery.SearchShowTimesQueryBuilder builder = SearchShowTimesQuery.builder()
+                .movieId("movie-" + random.nextInt(MOVIES))
+                .maxPrice(BigDecimal.valueOf(100_000))
+                .limit(50);
+        if (random.nextBoolean()) {
+            builder.cinemaId("cinema-" + random.nextInt(CINEMAS)).from(day).to(day.plusDays(7).withHour(23));
+        } else {
+            builder.from(day).to(day.withHour(23));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.cinema.movies.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class AggregateCacheTests {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxEntries() {
+        AggregateCache cache = new AggregateCache("Test", 2, Duration.ZERO, now::get);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        assertEquals("A", cache.get("a"));
+        cache.put("c", "C");
+
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions());
+        assertEquals(2, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void entriesExpireWhenNotAccessed() {
+        AggregateCache cache = new AggregateCache("Test", 10, Duration.ofMinutes(1), now::get);
+        cache.put("a", "A");
+        cache.put("b", "B");
+
+        now.addAndGet(Duration.ofSeconds(50).toNanos());
+        assertEquals("A", cache.get("a"));
+        now.addAndGet(Duration.ofSeconds(20).toNanos());
+
+        assertFalse(cache.containsKey("b"));
+        assertEquals(1, cache.expireIdle());
+        assertEquals("A", cache.get("a"));
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertNull(cache.get("a"));
+        assertEquals(2, cache.expirations());
+    }
+
+    @Test
+    void removeCountsAsInvalidation() {
+        AggregateCache cache = new AggregateCache("Test", 10, Duration.ZERO, now::get);
+        cache.put("a", "A");
+
+        cache.remove("a");
+        cache.remove("missing");
+
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.invalidations());
+    }
+}
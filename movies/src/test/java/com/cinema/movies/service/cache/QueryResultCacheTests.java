@@ -0,0 +1,39 @@
+package com.cinema.movies.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.cinema.movies.query.model.QueryCacheStatsResponseModel;
+
+class QueryResultCacheTests {
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxEntries() throws Exception {
+        QueryResultCache<String, String> cache = new QueryResultCache<>("test", 2);
+        cache.get("a", () -> "A");
+        cache.get("b", () -> "B");
+        cache.get("a", () -> "stale");
+        cache.get("c", () -> "C");
+
+        assertEquals("A", cache.get("a", () -> "reloaded"));
+        assertEquals("B2", cache.get("b", () -> "B2"));
+
+        QueryCacheStatsResponseModel stats = cache.stats();
+        assertEquals(2, stats.getHits());
+        assertEquals(4, stats.getMisses());
+        assertEquals(2, stats.getEvictions());
+    }
+
+    @Test
+    void loadRacingAnInvalidationIsNotCached() throws Exception {
+        QueryResultCache<String, String> cache = new QueryResultCache<>("test", 10);
+
+        assertEquals("old", cache.get("a", () -> {
+            cache.invalidate(key -> key.equals("a"));
+            return "old";
+        }));
+        assertEquals("new", cache.get("a", () -> "new"));
+        assertEquals("new", cache.get("a", () -> "ignored"));
+    }
+}
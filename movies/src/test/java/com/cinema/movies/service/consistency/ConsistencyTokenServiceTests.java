@@ -0,0 +1,158 @@
+package com.cinema.movies.service.consistency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.messaging.deadletter.Decisions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.cinema.movies.command.event.SeatUpdatedEvent;
+import com.cinema.movies.config.ConsistencyProperties;
+import com.cinema.movies.config.ProjectionProcessingConfig;
+import com.cinema.movies.config.ProjectionProcessingProperties;
+
+class ConsistencyTokenServiceTests {
+
+    @Test
+    void queryWaitsUntilProjectionPassesToken() throws Exception {
+        SeatHandler handler = new SeatHandler();
+        Configuration configuration = configuration(handler);
+
+        ConsistencyProperties properties = new ConsistencyProperties();
+        ConsistencyTokenService service = new ConsistencyTokenService(configuration.eventProcessingConfiguration(),
+                configuration.eventStore(), new CommandPositionTracker(configuration.eventStore()),
+                properties);
+        configuration.start();
+        try {
+            publish(configuration, 0, 10);
+            long first = service.currentToken();
+            assertEquals(9L, first);
+            assertTrue(service.awaitAsync(first).get(10, TimeUnit.SECONDS));
+
+            properties.setTimeout(Duration.ofMillis(200));
+            handler.blocked = true;
+            publish(configuration, 10, 10);
+            long second = service.currentToken();
+            assertFalse(service.awaitAsync(second).get(10, TimeUnit.SECONDS));
+
+            properties.setTimeout(Duration.ofSeconds(10));
+            CompletableFuture<Boolean> waiting = service.awaitAsync(second);
+            Thread.sleep(100);
+            assertFalse(waiting.isDone());
+            handler.release.countDown();
+            assertTrue(waiting.get(10, TimeUnit.SECONDS));
+        } finally {
+            handler.release.countDown();
+            service.shutdown();
+            configuration.shutdown();
+        }
+    }
+
+    @Test
+    void tokenIsPositionOfTheCommandsOwnEventsAndWaitsForTheirDeadLetters() throws Exception {
+        SeatHandler handler = new SeatHandler();
+        Configuration configuration = configuration(handler);
+        CommandPositionTracker tracker = new CommandPositionTracker(configuration.eventStore());
+        configuration.commandGateway().registerDispatchInterceptor(tracker.gatewayInterceptor());
+        configuration.commandBus().registerHandlerInterceptor(tracker.handlerInterceptor());
+        configuration.eventStore().registerDispatchInterceptor(tracker.eventInterceptor());
+        configuration.commandBus().subscribe(String.class.getName(), command -> {
+            publish(configuration, 100, 2);
+            return null;
+        });
+
+        ConsistencyProperties properties = new ConsistencyProperties();
+        properties.setDeadLetterCheckIntervalMs(20L);
+        ConsistencyTokenService service = new ConsistencyTokenService(configuration.eventProcessingConfiguration(),
+                configuration.eventStore(), tracker, properties);
+        ServletRequestAttributes request = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(request);
+        configuration.start();
+        try {
+            publish(configuration, 0, 5);
+            // seat-101 lỗi ở projection: processor vẫn đi qua nhưng event nằm trong dead-letter queue
+            handler.failing = "seat-101";
+            configuration.commandGateway().sendAndWait("update-seats", 10, TimeUnit.SECONDS);
+            RequestContextHolder.resetRequestAttributes();
+            publish(configuration, 10, 5);
+
+            // Event của người khác ghi sau command không làm token lớn lên
+            long token = service.tokenFor(CommandPositionTracker.commands(request));
+            assertEquals(6L, token);
+            assertEquals(11L, service.currentToken());
+
+            // Processor đã đi qua event của command, nhưng seat-101 còn trong dead-letter queue
+            assertTrue(service.awaitAsync(service.currentToken()).get(10, TimeUnit.SECONDS));
+            properties.setTimeout(Duration.ofMillis(300));
+            assertFalse(service.awaitAsync(token).get(10, TimeUnit.SECONDS));
+
+            properties.setTimeout(Duration.ofSeconds(10));
+            configuration.eventProcessingConfiguration().deadLetterQueue(ProjectionProcessingConfig.SEAT_GROUP)
+                    .orElseThrow().process(letter -> Decisions.evict());
+            assertTrue(service.awaitAsync(token).get(10, TimeUnit.SECONDS));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+            request.requestCompleted();
+            service.shutdown();
+            configuration.shutdown();
+        }
+    }
+
+    private static Configuration configuration(SeatHandler handler) {
+        ProjectionProcessingProperties processing = new ProjectionProcessingProperties();
+        processing.setSegments(2);
+        processing.setBatchSize(1);
+        DefaultConfigurer configurer = (DefaultConfigurer) DefaultConfigurer.defaultConfiguration(false);
+        configurer.configureEmbeddedEventStore(c -> new InMemoryEventStorageEngine());
+        ProjectionProcessingConfig.configurerModule(processing, NoTransactionManager.instance())
+                .configureModule(configurer);
+        configurer.eventProcessing(config -> config.registerEventHandler(c -> handler));
+        return configurer.buildConfiguration();
+    }
+
+    private static void publish(Configuration configuration, int from, int count) {
+        List<DomainEventMessage<?>> events = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            events.add(new GenericDomainEventMessage<>("SeatAggregate", "seat-" + i, 0,
+                    new SeatUpdatedEvent("seat-" + i, "cinema-1", "A", i)));
+        }
+        configuration.eventStore().publish(events);
+    }
+
+    @ProcessingGroup(ProjectionProcessingConfig.SEAT_GROUP)
+    static class SeatHandler {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean blocked;
+        private volatile String failing;
+
+        @EventHandler
+        public void on(SeatUpdatedEvent event) throws InterruptedException {
+            if (event.getId().equals(failing)) {
+                throw new IllegalStateException("Projection failed for " + failing);
+            }
+            if (blocked) {
+                release.await(10, TimeUnit.SECONDS);
+            }
+        }
+    }
+}
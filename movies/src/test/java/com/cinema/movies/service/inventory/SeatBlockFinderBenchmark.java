@@ -0,0 +1,75 @@
+package com.cinema.movies.service.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Độ trễ tìm dãy ghế trên phòng 400 ghế (16 hàng x 25) khi đã bán 70-95%.
+ *
+ * Chạy: mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=SeatBlockFinderBenchmark
+ */
+@Tag("benchmark")
+class SeatBlockFinderBenchmark {
+
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    void bestBlockLatencyOn400SeatHall() {
+        CinemaSeatLayout layout = CinemaSeatLayout.empty("hall-400");
+        for (char row = 'A'; row <= 'P'; row++) {
+            for (int number = 1; number <= 25; number++) {
+                layout = layout.withSeat(row + "-" + number, String.valueOf(row), number);
+            }
+        }
+        assertTrue(layout.seatCount() == 400);
+
+        for (double occupancy : new double[] { 0.50, 0.70, 0.85, 0.95 }) {
+            ShowTimeSeatInventory inventory = occupy(layout, occupancy, new Random(42));
+
+            for (int i = 0; i < 20_000; i++) {
+                SeatBlockFinder.findBest(layout, inventory, 1 + i % 6); // warm-up
+            }
+
+            long[] samples = new long[ITERATIONS];
+            int found = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                SeatBlock block = SeatBlockFinder.findBest(layout, inventory, 6);
+                samples[i] = System.nanoTime() - start;
+                if (block != null) {
+                    found++;
+                }
+            }
+            Arrays.sort(samples);
+            System.out.printf("occupancy=%.0f%% free=%d p50=%dns p99=%dns max=%dns found6=%s%n",
+                    occupancy * 100, inventory.availableCount(layout),
+                    samples[ITERATIONS / 2], samples[ITERATIONS * 99 / 100], samples[ITERATIONS - 1],
+                    found > 0);
+            assertTrue(samples[ITERATIONS * 99 / 100] < 1_000_000, "p99 should stay well under 1ms");
+        }
+    }
+
+    private static ShowTimeSeatInventory occupy(CinemaSeatLayout layout, double occupancy, Random random) {
+        ShowTimeSeatInventory inventory = new ShowTimeSeatInventory("show", layout.getCinemaId());
+        int target = (int) (layout.seatCount() * occupancy);
+        int taken = 0;
+        // Khách thường mua theo nhóm 1-4 ghế liền nhau
+        while (taken < target) {
+            int size = Math.min(1 + random.nextInt(4), target - taken);
+            int first = random.nextInt(16) * SeatGrid.SEATS_PER_ROW + random.nextInt(26 - size);
+            int[] block = new int[size];
+            for (int i = 0; i < size; i++) {
+                block[i] = first + i;
+            }
+            if (inventory.tryAcquire(block)) {
+                taken += size;
+            }
+        }
+        return inventory;
+    }
+}
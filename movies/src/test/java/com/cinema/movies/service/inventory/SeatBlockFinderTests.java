@@ -0,0 +1,44 @@
+package com.cinema.movies.service.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class SeatBlockFinderTests {
+
+    @Test
+    void prefersCentreOfIdealRowAndSkipsAisles() {
+        CinemaSeatLayout layout = CinemaSeatLayout.empty("cinema-1");
+        for (char row = 'A'; row <= 'F'; row++) {
+            for (int number = 1; number <= 20; number++) {
+                if (number != 11) { // lối đi giữa hàng
+                    layout = layout.withSeat(row + "-" + number, String.valueOf(row), number);
+                }
+            }
+        }
+        ShowTimeSeatInventory inventory = new ShowTimeSeatInventory("show-1", "cinema-1");
+
+        SeatBlock block = SeatBlockFinder.findBest(layout, inventory, 4);
+        assertEquals("D", block.getRowLabel());
+        assertEquals(7, block.getFirstNumber()); // D7-D10, sát lối đi nhưng không vượt qua
+
+        inventory.tryAcquire(block.indexes());
+        SeatBlock next = SeatBlockFinder.findBest(layout, inventory, 4);
+        assertEquals("D", next.getRowLabel());
+        assertEquals(12, next.getFirstNumber());
+    }
+
+    @Test
+    void findsBlocksCrossingWordBoundary() {
+        CinemaSeatLayout layout = CinemaSeatLayout.empty("cinema-1");
+        for (int number = 60; number <= 70; number++) {
+            layout = layout.withSeat("A-" + number, "A", number);
+        }
+        ShowTimeSeatInventory inventory = new ShowTimeSeatInventory("show-1", "cinema-1");
+
+        SeatBlock block = SeatBlockFinder.findBest(layout, inventory, 11);
+        assertEquals(60, block.getFirstNumber());
+        assertNull(SeatBlockFinder.findBest(layout, inventory, 12));
+    }
+}
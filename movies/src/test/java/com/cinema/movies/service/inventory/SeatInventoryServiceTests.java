@@ -0,0 +1,145 @@
+package com.cinema.movies.service.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.cinema.movies.config.SeatInventoryProperties;
+
+class SeatInventoryServiceTests {
+
+    private CinemaSeatLayoutRegistry registry;
+    private SeatInventoryProperties properties;
+    private SeatInventoryService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new CinemaSeatLayoutRegistry();
+        properties = new SeatInventoryProperties();
+        service = new SeatInventoryService(registry, properties);
+
+        for (char row = 'A'; row <= 'J'; row++) {
+            for (int number = 1; number <= 20; number++) {
+                registry.addSeat(row + "-" + number, "cinema-1", String.valueOf(row), number);
+            }
+        }
+        service.registerShowTime("show-1", "cinema-1");
+    }
+
+    @Test
+    void holdIsAllOrNothing() {
+        assertTrue(service.hold("show-1", List.of("A-1", "A-2")).isPresent());
+
+        assertFalse(service.hold("show-1", List.of("A-3", "A-2")).isPresent());
+        assertTrue(service.hold("show-1", List.of("A-3")).isPresent());
+    }
+
+    @Test
+    void listenersSeeEveryStateChange() {
+        List<String> changes = new ArrayList<>();
+        service.addListener(new SeatInventoryListener() {
+            @Override
+            public void seatsChanged(ShowTimeSeatInventory inventory, int[] seatIndexes) {
+                changes.add(inventory.getShowTimeId() + ":" + seatIndexes.length);
+            }
+
+            @Override
+            public void showTimeRemoved(String showTimeId) {
+                changes.add(showTimeId + ":removed");
+            }
+        });
+
+        SeatHold released = service.hold("show-1", List.of("D-1", "D-2")).orElseThrow();
+        service.release(released.getId());
+        SeatHold confirmed = service.hold("show-1", List.of("D-3")).orElseThrow();
+        service.confirm(confirmed.getId());
+        // Ghế chuyển sang đã bán khi ShowTimeSeatsSoldEvent tới
+        service.markSold("show-1", confirmed.getSeatIds());
+        assertTrue(service.getInventory("show-1").orElseThrow().isSold(confirmed.getSeatIndexes()[0]));
+        assertFalse(service.hold("show-1", List.of("D-3")).isPresent());
+        service.removeShowTime("show-1");
+
+        assertEquals(List.of("show-1:2", "show-1:2", "show-1:1", "show-1:1", "show-1:removed"), changes);
+    }
+
+    @Test
+    void everyHoldPathHonoursMaxSeatsPerHold() {
+        properties.setMaxSeatsPerHold(3);
+        SeatSelectionService selection = new SeatSelectionService(service);
+
+        assertThrows(IllegalArgumentException.class, () -> service.holdIndexes("show-1", new int[] { 0, 1, 2, 3 }));
+        assertThrows(IllegalArgumentException.class, () -> selection.holdBestBlock("show-1", 4));
+        assertEquals(3, selection.holdBestBlock("show-1", 3).orElseThrow().getSeatIndexes().length);
+    }
+
+    @Test
+    void releaseAndExpiryFreeSeats() {
+        SeatHold hold = service.hold("show-1", List.of("B-5")).orElseThrow();
+        service.release(hold.getId());
+        assertTrue(service.hold("show-1", List.of("B-5")).isPresent());
+
+        properties.setHoldTtl(Duration.ZERO);
+        SeatHold expiring = service.hold("show-1", List.of("C-5")).orElseThrow();
+        service.expireHolds();
+        assertEquals(SeatHold.Status.EXPIRED, expiring.getStatus());
+        assertTrue(service.hold("show-1", List.of("C-5")).isPresent());
+    }
+
+    @Test
+    void concurrentHoldsNeverOversell() throws Exception {
+        int threads = 16;
+        int attemptsPerThread = 2_000;
+        AtomicIntegerArray owners = new AtomicIntegerArray(SeatGrid.CAPACITY);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    List<String> seats = new ArrayList<>();
+                    char row = (char) ('A' + random.nextInt(10));
+                    int first = 1 + random.nextInt(18);
+                    int size = 1 + random.nextInt(3);
+                    for (int n = first; n < first + size; n++) {
+                        seats.add(row + "-" + n);
+                    }
+                    Optional<SeatHold> hold = service.hold("show-1", seats);
+                    if (hold.isPresent()) {
+                        for (int index : hold.get().getSeatIndexes()) {
+                            owners.incrementAndGet(index);
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        ShowTimeSeatInventory inventory = service.getInventory("show-1").orElseThrow();
+        int held = 0;
+        for (int i = 0; i < SeatGrid.CAPACITY; i++) {
+            assertTrue(owners.get(i) <= 1, "seat index " + i + " was sold twice");
+            held += owners.get(i);
+        }
+        assertEquals(200 - held, inventory.availableCount(registry.get("cinema-1")));
+    }
+}
@@ -0,0 +1,89 @@
+package com.cinema.movies.service.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class SeatMapEncoderTests {
+
+    @Test
+    void uuidIdsRoundTrip() {
+        CinemaSeatLayout layout = CinemaSeatLayout.empty("cinema-1");
+        Map<Integer, String> expected = new HashMap<>();
+        // Ghế đầu/cuối mỗi word và hàng cuối cùng
+        for (String row : new String[] { "A", "C", "Z" }) {
+            for (int number : new int[] { 1, 64, 65, 128 }) {
+                String seatId = UUID.randomUUID().toString();
+                layout = layout.withSeat(seatId, row, number);
+                expected.put(SeatGrid.index(row, number), seatId);
+            }
+        }
+
+        byte[] data = SeatMapEncoder.encode(layout);
+        SeatMapEncoder.DecodedSeatMap decoded = SeatMapEncoder.decode(data);
+
+        assertEquals(SeatMapEncoder.ID_UUID, data[1]);
+        assertEquals(layout.getVersion(), decoded.version());
+        assertEquals(expected, decoded.seatIds());
+    }
+
+    @Test
+    void utf8IdsRoundTripUpToTheLengthLimit() {
+        String longest = "x".repeat(SeatMapEncoder.MAX_UTF8_ID_BYTES);
+        CinemaSeatLayout layout = CinemaSeatLayout.empty("cinema-1")
+                .withSeat("Ghế-A1", "A", 1)
+                .withSeat(longest, "B", 128);
+
+        byte[] data = SeatMapEncoder.encode(layout);
+        SeatMapEncoder.DecodedSeatMap decoded = SeatMapEncoder.decode(data);
+
+        assertEquals(SeatMapEncoder.ID_UTF8, data[1]);
+        assertEquals(Map.of(SeatGrid.index("A", 1), "Ghế-A1", SeatGrid.index("B", 128), longest),
+                decoded.seatIds());
+    }
+
+    @Test
+    void rejectsIdsLongerThanOneLengthByte() {
+        // "ế" là 3 byte UTF-8: 85 ký tự = 255 byte hợp lệ, thêm 1 byte là vượt giới hạn
+        String multiByte = "ế".repeat(85);
+        SeatMapEncoder.encode(CinemaSeatLayout.empty("cinema-1").withSeat(multiByte, "A", 1));
+
+        CinemaSeatLayout tooLong = CinemaSeatLayout.empty("cinema-1").withSeat(multiByte + "x", "A", 1);
+        assertThrows(IllegalArgumentException.class, () -> SeatMapEncoder.encode(tooLong));
+    }
+
+    @Test
+    void fullGridKeepsSeatCount() {
+        CinemaSeatLayout layout = CinemaSeatLayout.empty("cinema-1");
+        for (int row = 0; row < SeatGrid.MAX_ROWS; row++) {
+            for (int number = 1; number <= SeatGrid.SEATS_PER_ROW; number++) {
+                layout = layout.withSeat("seat-" + row + "-" + number, SeatGrid.rowLabel(row), number);
+            }
+        }
+
+        byte[] data = SeatMapEncoder.encode(layout);
+        SeatMapEncoder.DecodedSeatMap decoded = SeatMapEncoder.decode(data);
+
+        assertEquals(SeatGrid.CAPACITY, Short.toUnsignedInt(ByteBuffer.wrap(data).getShort(10)));
+        assertEquals(SeatGrid.CAPACITY, decoded.seatIds().size());
+        assertEquals("seat-25-128", decoded.seatIds().get(SeatGrid.CAPACITY - 1));
+    }
+
+    @Test
+    void emptyLayoutAndTruncatedData() {
+        byte[] empty = SeatMapEncoder.encode(CinemaSeatLayout.empty("cinema-1"));
+        assertEquals(Map.of(), SeatMapEncoder.decode(empty).seatIds());
+
+        byte[] data = SeatMapEncoder.encode(CinemaSeatLayout.empty("cinema-1")
+                .withSeat(UUID.randomUUID().toString(), "A", 1));
+        byte[] truncated = Arrays.copyOf(data, data.length - 1);
+        assertThrows(IllegalArgumentException.class, () -> SeatMapEncoder.decode(truncated));
+    }
+}
@@ -0,0 +1,109 @@
+package com.cinema.movies.service.lag;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.junit.jupiter.api.Test;
+
+import com.cinema.movies.command.event.SeatUpdatedEvent;
+import com.cinema.movies.config.ProjectionLagProperties;
+import com.cinema.movies.config.ProjectionProcessingConfig;
+import com.cinema.movies.config.ProjectionProcessingProperties;
+import com.cinema.movies.query.model.ProjectionLagResponseModel;
+
+class ProjectionLagMonitorTests {
+
+    private static final int EVENTS = 100;
+
+    @Test
+    void reportsLagPerSegmentAndAlertsOnce() throws Exception {
+        ProjectionProcessingProperties processing = new ProjectionProcessingProperties();
+        processing.setSegments(1);
+        processing.setBatchSize(10);
+        SeatHandler handler = new SeatHandler();
+
+        DefaultConfigurer configurer = (DefaultConfigurer) DefaultConfigurer.defaultConfiguration(false);
+        configurer.configureEmbeddedEventStore(c -> new InMemoryEventStorageEngine());
+        ProjectionProcessingConfig.configurerModule(processing, NoTransactionManager.instance())
+                .configureModule(configurer);
+        configurer.eventProcessing(config -> config.registerEventHandler(c -> handler));
+        Configuration configuration = configurer.buildConfiguration();
+
+        List<DomainEventMessage<?>> events = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(new GenericDomainEventMessage<>("SeatAggregate", "seat-" + i, 0,
+                    new SeatUpdatedEvent("seat-" + i, "cinema-1", "A", i)));
+        }
+        configuration.eventStore().publish(events);
+
+        ProjectionLagProperties properties = new ProjectionLagProperties();
+        properties.setAlertLagEvents(10L);
+        ProjectionLagMonitor monitor = new ProjectionLagMonitor(configuration.eventProcessingConfiguration(),
+                configuration.eventStore(), properties);
+        configuration.start();
+        try {
+            assertTrue(handler.started.await(10, TimeUnit.SECONDS));
+            ProjectionLagResponseModel lag = monitor.lag(ProjectionProcessingConfig.SEAT_GROUP);
+            long blockedLag = lag.getLagEvents();
+            assertTrue(blockedLag > 10 && blockedLag < EVENTS);
+            assertTrue(lag.getLagSeconds() >= 0.0);
+            assertEquals(1, lag.getSegments().size());
+            assertTrue(lag.getAlerting());
+            assertEquals(1L, lag.getAlerts());
+
+            monitor.sample();
+            assertEquals(1L, monitor.lag(ProjectionProcessingConfig.SEAT_GROUP).getAlerts());
+
+            handler.release.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            do {
+                Thread.sleep(50);
+                monitor.sample();
+                lag = monitor.lag(ProjectionProcessingConfig.SEAT_GROUP);
+            } while (lag.getLagEvents() > 0 && System.nanoTime() < deadline);
+
+            assertEquals(0L, lag.getLagEvents());
+            assertEquals(0.0, lag.getLagSeconds());
+            assertFalse(lag.getAlerting());
+            assertEquals(blockedLag, lag.getMaxLagEvents());
+            assertThrows(IllegalArgumentException.class, () -> monitor.lag("unknown-projection"));
+        } finally {
+            handler.release.countDown();
+            configuration.shutdown();
+        }
+    }
+
+    @ProcessingGroup(ProjectionProcessingConfig.SEAT_GROUP)
+    static class SeatHandler {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger handled = new AtomicInteger();
+
+        @EventHandler
+        public void on(SeatUpdatedEvent event) throws InterruptedException {
+            // Để vài batch đầu đi qua cho segment có token, phần còn lại bị giữ lại
+            if (event.getSeatNumber() >= 10) {
+                started.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            }
+            handled.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.cinema.movies.service.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import com.cinema.movies.command.event.OutboxEventHandler;
+import com.cinema.movies.command.event.SeatUpdatedEvent;
+import com.cinema.movies.config.OutboxProperties;
+import com.zaxxer.hikari.HikariDataSource;
+
+import ch.qos.logback.classic.Level;
+
+/**
+ * Thông lượng relay outbox theo kích thước batch và độ trễ từ lúc event vào event store tới khi
+ * được ack, trên H2. Broker được mô phỏng bằng MockProducer với một round trip 1ms mỗi lần
+ * flush (acks=all), tương ứng một request produce.
+ *
+ * Chạy: mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=OutboxRelayBenchmark
+ */
+@Tag("benchmark")
+class OutboxRelayBenchmark {
+
+    private static final int EVENTS = 20_000;
+    private static final int PROCESSOR_BATCH = 100;
+    private static final long ROUND_TRIP_NANOS = 1_000_000;
+
+    @Test
+    void batchedRelayAmortizesBrokerRoundTrips() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        run(500, 2_000); // warm-up
+        double single = run(1, EVENTS / 10);
+        run(50, EVENTS);
+        double batched = run(500, EVENTS);
+
+        assertTrue(batched > 10 * single);
+    }
+
+    private double run(int batchSize, int events) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:outboxBench" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            OutboxStore.createSchema(jdbcTemplate);
+            OutboxEventHandler handler = new OutboxEventHandler(jdbcTemplate);
+            MockProducer<String, String> producer = new MockProducer<>(true, null, new StringSerializer(),
+                    new StringSerializer()) {
+                @Override
+                public synchronized void flush() {
+                    LockSupport.parkNanos(ROUND_TRIP_NANOS);
+                    super.flush();
+                }
+
+                @Override
+                public void close(Duration timeout) {
+                }
+            };
+            OutboxProperties properties = new OutboxProperties();
+            properties.setBatchSize(batchSize);
+            OutboxRelay relay = new OutboxRelay(jdbcTemplate,
+                    new KafkaTemplate<>(new MockProducerFactory<>(() -> producer)), properties);
+
+            // Ghi outbox như event processor: mỗi unit of work một batch event, một lần JDBC batch
+            long start = System.nanoTime();
+            for (int offset = 0; offset < events; offset += PROCESSOR_BATCH) {
+                int from = offset;
+                DefaultUnitOfWork.startAndGet(null).execute(() -> {
+                    for (int i = from; i < from + PROCESSOR_BATCH; i++) {
+                        String seatId = "seat-" + i % 1_000;
+                        SeatUpdatedEvent event = new SeatUpdatedEvent(seatId, "cinema-1", "A", i);
+                        try {
+                            handler.on(event, new GenericDomainEventMessage<>("SeatAggregate", seatId, i / 1_000,
+                                    event));
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                });
+            }
+            double stageRate = events / ((System.nanoTime() - start) / 1e9);
+
+            start = System.nanoTime();
+            relay.relay();
+            double relayRate = events / ((System.nanoTime() - start) / 1e9);
+            assertEquals(events, producer.history().size());
+            assertEquals(0L, relay.stats().getPending());
+
+            // Độ trễ ở trạng thái ổn định: mỗi batch của processor được relay ngay sau khi commit
+            for (int round = 0; round < 20; round++) {
+                int base = events + round * PROCESSOR_BATCH;
+                DefaultUnitOfWork.startAndGet(null).execute(() -> {
+                    for (int i = base; i < base + PROCESSOR_BATCH; i++) {
+                        SeatUpdatedEvent event = new SeatUpdatedEvent("seat-x", "cinema-1", "A", i);
+                        try {
+                            handler.on(event, new GenericDomainEventMessage<>("SeatAggregate", "seat-x", i, event));
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                });
+                relay.relay();
+            }
+
+            System.out.printf("batch %3d: stage %8.0f events/s, relay %8.0f events/s, steady delay last %d ms,"
+                    + " max %d ms%n", batchSize, stageRate, relayRate, relay.stats().getLastDelayMillis(),
+                    relay.stats().getMaxDelayMillis());
+            return relayRate;
+        } finally {
+            dataSource.close();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.cinema.movies.service.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.errors.NotEnoughReplicasException;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.tokenstore.TokenStore;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import com.cinema.movies.command.event.OutboxEventHandler;
+import com.cinema.movies.command.event.SeatUpdatedEvent;
+import com.cinema.movies.config.OutboxProperties;
+import com.zaxxer.hikari.HikariDataSource;
+
+class OutboxRelayTests {
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private OutboxEventHandler handler;
+    private volatile String rejectedKey;
+    private MockProducer<String, String> producer;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:outbox" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        OutboxStore.createSchema(jdbcTemplate);
+        handler = new OutboxEventHandler(jdbcTemplate);
+
+        // Broker từ chối record của rejectedKey
+        producer = new MockProducer<>(true, null, new StringSerializer(), new StringSerializer()) {
+            @Override
+            public synchronized Future<RecordMetadata> send(ProducerRecord<String, String> record, Callback callback) {
+                if (record.key().equals(rejectedKey)) {
+                    NotEnoughReplicasException error = new NotEnoughReplicasException("rejected");
+                    callback.onCompletion(null, error);
+                    return CompletableFuture.failedFuture(error);
+                }
+                return super.send(record, callback);
+            }
+
+            // KafkaTemplate đóng producer sau mỗi lần gửi; producer thật của DefaultKafkaProducerFactory bỏ qua
+            @Override
+            public void close(Duration timeout) {
+            }
+        };
+        relay = new OutboxRelay(jdbcTemplate, new KafkaTemplate<>(new MockProducerFactory<>(() -> producer)),
+                new OutboxProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void failedRecordAndEverythingAfterItStayInTheOutbox() {
+        stage("seat-1", 0);
+        stage("seat-2", 0);
+        stage("seat-1", 1);
+
+        rejectedKey = "seat-2";
+        assertEquals(1, relay.publishBatch());
+        assertEquals(2L, relay.stats().getPending());
+        assertEquals(1L, relay.stats().getFailed());
+
+        rejectedKey = null;
+        assertEquals(2, relay.publishBatch());
+        assertEquals(0, relay.publishBatch());
+
+        List<ProducerRecord<String, String>> history = producer.history();
+        assertEquals(List.of("seat-1", "seat-2", "seat-1"), history.stream().map(ProducerRecord::key).toList());
+        assertEquals("SeatUpdatedEvent", new String(history.get(2).headers().lastHeader("event-type").value(),
+                StandardCharsets.UTF_8));
+        assertEquals(0L, relay.stats().getPending());
+        assertEquals(3L, relay.stats().getPublished());
+    }
+
+    @Test
+    void tokenSurvivesRestartOfTheOutboxStore(@TempDir Path directory) {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setDatasourceUrl("jdbc:h2:file:" + directory.resolve("outbox"));
+        String group = "outbox";
+        OutboxStore store = new OutboxStore(properties);
+        TokenStore tokenStore = store.tokenStore(JacksonSerializer.defaultSerializer());
+        tokenStore.initializeTokenSegments(group, 1);
+        tokenStore.fetchToken(group, 0);
+        tokenStore.storeToken(new GlobalSequenceTrackingToken(41), group, 0);
+        tokenStore.releaseClaim(group, 0);
+        store.close();
+
+        // Processor outbox khởi động lại đi tiếp từ token đã lưu, không bỏ qua event tới trong lúc tắt
+        OutboxStore reopened = new OutboxStore(properties);
+        try {
+            assertEquals(new GlobalSequenceTrackingToken(41),
+                    reopened.tokenStore(JacksonSerializer.defaultSerializer()).fetchToken(group, 0));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    private void stage(String seatId, long sequence) {
+        SeatUpdatedEvent event = new SeatUpdatedEvent(seatId, "cinema-1", "A", (int) sequence);
+        try {
+            handler.on(event, new GenericDomainEventMessage<>("SeatAggregate", seatId, sequence, event));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.cinema.movies.service.replay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.ResetHandler;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.cinema.movies.command.event.SeatUpdatedEvent;
+import com.cinema.movies.config.ProjectionProcessingConfig;
+import com.cinema.movies.config.ProjectionProcessingProperties;
+import com.cinema.movies.query.model.ProjectionReplayStatusResponseModel;
+
+import ch.qos.logback.classic.Level;
+
+/**
+ * Replay processing group seat-projection qua ProjectionReplayService: reset handler chạy đúng một
+ * lần, mọi event được xử lý lại và trạng thái báo tốc độ / ETA cho tới khi COMPLETED.
+ *
+ * Chạy: mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=ProjectionReplayBenchmark
+ */
+@Tag("benchmark")
+class ProjectionReplayBenchmark {
+
+    private static final int EVENTS = 50_000;
+
+    @Test
+    void replayRebuildsGroupAndReportsProgress() throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        ProjectionProcessingProperties properties = new ProjectionProcessingProperties();
+        properties.setSegments(4);
+        properties.setBatchSize(500);
+        SeatHandler handler = new SeatHandler();
+
+        DefaultConfigurer configurer = (DefaultConfigurer) DefaultConfigurer.defaultConfiguration(false);
+        configurer.configureEmbeddedEventStore(c -> new InMemoryEventStorageEngine());
+        ProjectionProcessingConfig.configurerModule(properties, NoTransactionManager.instance())
+                .configureModule(configurer);
+        configurer.eventProcessing(processing -> processing.registerEventHandler(c -> handler));
+        Configuration configuration = configurer.buildConfiguration();
+
+        List<DomainEventMessage<?>> events = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(new GenericDomainEventMessage<>("SeatAggregate", "seat-" + (i % 500), i / 500,
+                    new SeatUpdatedEvent("seat-" + (i % 500), "cinema-1", "A", i / 500)));
+        }
+        configuration.eventStore().publish(events);
+        configuration.start();
+        try {
+            awaitHandled(handler, EVENTS);
+
+            ProjectionReplayService service = new ProjectionReplayService(configuration.eventProcessingConfiguration(),
+                    configuration.eventStore());
+            assertThrows(IllegalArgumentException.class, () -> service.replay("unknown-projection"));
+
+            ProjectionReplayStatusResponseModel status = service.replay(ProjectionProcessingConfig.SEAT_GROUP);
+            assertEquals((long) EVENTS, status.getTotalEvents());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (!"COMPLETED".equals(status.getState()) && System.nanoTime() < deadline) {
+                Thread.sleep(200);
+                status = service.status(ProjectionProcessingConfig.SEAT_GROUP);
+            }
+
+            System.out.printf("Replayed %d events in %d segments: %.0f events/s%n",
+                    status.getProcessedEvents(), status.getSegments(), status.getEventsPerSecond());
+            assertEquals("COMPLETED", status.getState());
+            assertEquals((long) EVENTS, status.getProcessedEvents());
+            assertEquals(1, handler.resets.get());
+            assertEquals(2 * EVENTS, handler.handled.get());
+        } finally {
+            configuration.shutdown();
+        }
+    }
+
+    private static void awaitHandled(SeatHandler handler, int events) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (handler.handled.get() < events && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(events, handler.handled.get());
+    }
+
+    @ProcessingGroup(ProjectionProcessingConfig.SEAT_GROUP)
+    static class SeatHandler {
+
+        private final AtomicInteger handled = new AtomicInteger();
+        private final AtomicInteger resets = new AtomicInteger();
+
+        @EventHandler
+        public void on(SeatUpdatedEvent event) {
+            handled.incrementAndGet();
+        }
+
+        @ResetHandler
+        public void onReset() {
+            resets.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.cinema.movies.service.replay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.junit.jupiter.api.Test;
+
+import com.cinema.movies.config.ProjectionProcessingConfig;
+
+class ProjectionReplayServiceTests {
+
+    @Test
+    void concurrentReplayOfOneGroupIsRejected() throws Exception {
+        String group = ProjectionProcessingConfig.MOVIE_GROUP;
+        StreamingEventProcessor processor = mock(StreamingEventProcessor.class);
+        when(processor.processingStatus()).thenReturn(Map.of());
+        // Request đầu dừng lại giữa lúc reset processor
+        CountDownLatch resetting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            resetting.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(processor).resetTokens();
+        EventProcessingConfiguration processing = mock(EventProcessingConfiguration.class);
+        when(processing.eventProcessor(group, StreamingEventProcessor.class)).thenReturn(Optional.of(processor));
+        EventStore eventStore = mock(EventStore.class);
+        when(eventStore.createHeadToken()).thenReturn(new GlobalSequenceTrackingToken(100));
+        ProjectionReplayService service = new ProjectionReplayService(processing, eventStore);
+
+        CompletableFuture<?> first = CompletableFuture.runAsync(() -> service.replay(group));
+        assertTrue(resetting.await(5, TimeUnit.SECONDS));
+        CompletableFuture<?> second = CompletableFuture.runAsync(() -> service.replay(group));
+        release.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> second.get(5, TimeUnit.SECONDS));
+        assertEquals(IllegalStateException.class, rejected.getCause().getClass());
+        verify(processor, times(1)).resetTokens();
+    }
+}
@@ -0,0 +1,153 @@
+package com.cinema.movies.service.schedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.cinema.movies.command.data.Movie;
+import com.cinema.movies.command.data.Reponsitory.MovieRepository;
+import com.cinema.movies.config.ShowTimeScheduleProperties;
+
+class ShowTimeScheduleIndexTests {
+
+    private static final LocalDateTime NINE = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    private ShowTimeScheduleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        Movie movie = new Movie();
+        movie.setDuration(120);
+        when(movieRepository.findById("movie-1")).thenReturn(Optional.of(movie));
+        when(movieRepository.findById("missing")).thenReturn(Optional.empty());
+
+        index = new ShowTimeScheduleIndex(movieRepository, new ShowTimeScheduleProperties());
+    }
+
+    @Test
+    void slotIncludesDurationAndCleanupBuffer() {
+        assertTrue(index.reserve("show-1", "cinema-1", "movie-1", NINE).isEmpty());
+
+        // 09:00 + 120 phút + 15 phút dọn phòng = 11:15
+        assertEquals("show-1", index.reserve("show-2", "cinema-1", "movie-1", NINE.plusMinutes(134))
+                .map(ScheduleSlot::getShowTimeId).orElseThrow());
+        assertTrue(index.reserve("show-2", "cinema-1", "movie-1", NINE.plusMinutes(135)).isEmpty());
+        assertTrue(index.reserve("show-3", "cinema-2", "movie-1", NINE).isEmpty());
+    }
+
+    @Test
+    void laterShowTimeBlocksEarlierStart() {
+        index.reserve("show-1", "cinema-1", "movie-1", NINE);
+
+        Optional<ScheduleSlot> conflict = index.reserve("show-2", "cinema-1", "movie-1", NINE.minusHours(1));
+        assertEquals("show-1", conflict.map(ScheduleSlot::getShowTimeId).orElseThrow());
+    }
+
+    @Test
+    void reschedulingIgnoresOwnSlotAndFreesOldOne() {
+        index.reserve("show-1", "cinema-1", "movie-1", NINE);
+        assertTrue(index.reserve("show-1", "cinema-1", "movie-1", NINE.plusMinutes(30)).isEmpty());
+        assertTrue(index.reserve("show-1", "cinema-2", "movie-1", NINE).isEmpty());
+
+        assertTrue(index.reserve("show-2", "cinema-1", "movie-1", NINE).isEmpty());
+        index.remove("show-1");
+        assertFalse(index.findConflict("cinema-2", NINE, NINE.plusHours(1), null).isPresent());
+    }
+
+    @Test
+    void patchKeepsUnchangedFieldsOfSlot() {
+        index.reserve("show-1", "cinema-1", "movie-1", NINE);
+
+        // Chỉ đổi giờ: rạp và độ dài slot giữ nguyên
+        index.applyPatch("show-1", null, null, NINE.plusHours(3), 1);
+        assertTrue(index.findConflict("cinema-1", NINE, NINE.plusHours(3), "").isEmpty());
+        assertEquals("show-1", index.findConflict("cinema-1", NINE.plusHours(5), NINE.plusHours(6), "")
+                .map(ScheduleSlot::getShowTimeId).orElseThrow());
+
+        index.applyPatch("show-1", "cinema-2", null, null, 2);
+        assertTrue(index.findConflict("cinema-1", NINE, NINE.plusHours(12), "").isEmpty());
+        assertTrue(index.findConflict("cinema-2", NINE.plusHours(3), NINE.plusHours(4), "").isPresent());
+    }
+
+    @Test
+    void unknownMovieIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> index.reserve("show-1", "cinema-1", "missing", NINE));
+    }
+
+    @Test
+    void missingCinemaOrMovieIsRejected() {
+        index.reserve("show-1", "cinema-1", "movie-1", NINE);
+
+        assertThrows(IllegalArgumentException.class, () -> index.reserve("show-1", null, "movie-1", NINE, 1));
+        assertThrows(IllegalArgumentException.class, () -> index.reserve("show-1", "cinema-1", null, NINE, 1));
+        assertTrue(index.findConflict("cinema-1", NINE, NINE.plusMinutes(1), "").isPresent());
+    }
+
+    @Test
+    void lateEventsDoNotOverwriteNewerReservation() {
+        // Command dời suất (event version 1) trước khi event handler bất đồng bộ tới event tạo (version 0)
+        index.reserve("show-1", "cinema-1", "movie-1", NINE);
+        index.reserve("show-1", "cinema-2", "movie-1", NINE.plusHours(5), 1);
+
+        index.apply("show-1", "cinema-1", "movie-1", NINE, 0);
+        index.applyPatch("show-1", "cinema-1", null, NINE, 1);
+        assertTrue(index.findConflict("cinema-1", NINE, NINE.plusDays(1), "").isEmpty());
+        assertTrue(index.findConflict("cinema-2", NINE.plusHours(5), NINE.plusHours(6), "").isPresent());
+
+        // Suất đã xoá: replay event tạo không thêm lại
+        index.removeDeleted("show-1");
+        index.apply("show-1", "cinema-2", "movie-1", NINE.plusHours(5), 1);
+        assertTrue(index.findConflict("cinema-2", NINE, NINE.plusDays(1), "").isEmpty());
+    }
+
+    @Test
+    void movieDurationFromEventsWinsOverReadModel() {
+        // Bảng movies chưa có phim (replay chưa tới), nhưng Movie event đã tới index
+        index.recordMovieDuration("missing", 60);
+        index.apply("show-1", "cinema-1", "missing", NINE, 0);
+
+        // 09:00 + 60 phút + 15 phút dọn phòng = 10:15
+        assertTrue(index.findConflict("cinema-1", NINE.plusMinutes(74), NINE.plusHours(2), "").isPresent());
+        assertTrue(index.findConflict("cinema-1", NINE.plusMinutes(75), NINE.plusHours(2), "").isEmpty());
+    }
+
+    @Test
+    void opposingMovesBetweenCinemasDoNotDeadlock() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            index.reserve("show-1", "cinema-1", "movie-1", NINE);
+            index.reserve("show-2", "cinema-2", "movie-1", NINE.plusDays(1));
+            Future<?> forward = executor.submit(() -> moveBackAndForth("show-1", "cinema-1", "cinema-2", NINE));
+            Future<?> backward = executor.submit(() -> moveBackAndForth("show-2", "cinema-2", "cinema-1",
+                    NINE.plusDays(1)));
+            forward.get(30, TimeUnit.SECONDS);
+            backward.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        // Số lần dời chẵn: mỗi suất về lại rạp ban đầu
+        assertEquals("show-1", index.slotsOverlapping("cinema-1", NINE, NINE.plusDays(2)).get(0).getShowTimeId());
+        assertEquals("show-2", index.slotsOverlapping("cinema-2", NINE, NINE.plusDays(2)).get(0).getShowTimeId());
+        assertEquals(1, index.slotsOverlapping("cinema-1", NINE, NINE.plusDays(2)).size());
+    }
+
+    private void moveBackAndForth(String showTimeId, String home, String away, LocalDateTime start) {
+        for (int i = 0; i < 10_000; i++) {
+            index.reserve(showTimeId, i % 2 == 0 ? away : home, "movie-1", start);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.cinema.movies.service.schedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.cinema.movies.command.data.Movie;
+import com.cinema.movies.command.data.Reponsitory.CinemaRepository;
+import com.cinema.movies.command.data.Reponsitory.MovieRepository;
+import com.cinema.movies.config.ShowTimeScheduleProperties;
+
+/**
+ * Đề xuất lịch một ngày cho 50 rạp x 20 phim, mỗi rạp đã có sẵn vài suất chiếu.
+ * So sánh một luồng với fork/join trên toàn bộ CPU.
+ *
+ * Chạy: mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=ShowTimeScheduleOptimizerBenchmark
+ */
+@Tag("benchmark")
+class ShowTimeScheduleOptimizerBenchmark {
+
+    private static final int CINEMAS = 50;
+    private static final int MOVIES = 20;
+    private static final int ROUNDS = 50;
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 1);
+
+    @Test
+    void planFiftyCinemasTwentyMovies() {
+        ShowTimeScheduleProperties properties = new ShowTimeScheduleProperties();
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        ShowTimeScheduleIndex index = new ShowTimeScheduleIndex(movieRepository, properties);
+
+        Random random = new Random(42);
+        List<Movie> movies = new ArrayList<>();
+        for (int i = 0; i < MOVIES; i++) {
+            Movie movie = new Movie();
+            movie.setId("movie-" + i);
+            movie.setDuration(80 + random.nextInt(101)); // 80 - 180 phút
+            movies.add(movie);
+        }
+        List<String> cinemaIds = new ArrayList<>();
+        for (int c = 0; c < CINEMAS; c++) {
+            String cinemaId = "cinema-" + c;
+            cinemaIds.add(cinemaId);
+            // Hai suất đã lên lịch tay ở giờ ngẫu nhiên
+            for (int s = 0; s < 2; s++) {
+                LocalDateTime start = DAY.atTime(10 + random.nextInt(12), 5 * random.nextInt(12));
+                index.reserve(cinemaId + "-fixed-" + s, cinemaId, start, start.plusMinutes(135));
+            }
+        }
+
+        int parallelism = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(parallelism);
+        ShowTimeScheduleOptimizer sequentialOptimizer = new ShowTimeScheduleOptimizer(index, movieRepository,
+                mock(CinemaRepository.class), properties, single);
+        ShowTimeScheduleOptimizer parallelOptimizer = new ShowTimeScheduleOptimizer(index, movieRepository,
+                mock(CinemaRepository.class), properties, parallel);
+
+        // Warm-up
+        for (int i = 0; i < ROUNDS; i++) {
+            sequentialOptimizer.plan(DAY, cinemaIds, movies);
+            parallelOptimizer.plan(DAY, cinemaIds, movies);
+        }
+
+        ShowTimePlan first = parallelOptimizer.plan(DAY, cinemaIds, movies);
+        long sequentialNanos = time(sequentialOptimizer, cinemaIds, movies);
+        long parallelNanos = time(parallelOptimizer, cinemaIds, movies);
+        assertEquals(CINEMAS, first.getCinemas().size());
+        assertEquals(first.getUtilizedMinutes(),
+                sequentialOptimizer.plan(DAY, cinemaIds, movies).getUtilizedMinutes());
+        single.shutdown();
+        parallel.shutdown();
+        int showTimes = first.getCinemas().stream().mapToInt(c -> c.getShowTimes().size()).sum();
+        System.out.printf("plan: %d cinemas x %d movies -> %d showtimes, %d / %d minutes (%.1f%%)%n",
+                CINEMAS, MOVIES, showTimes, first.getUtilizedMinutes(), first.getAvailableMinutes(),
+                100.0 * first.getUtilizedMinutes() / first.getAvailableMinutes());
+        System.out.printf("sequential: %.2f ms/plan, fork/join (%d threads): %.2f ms/plan%n",
+                sequentialNanos / 1e6 / ROUNDS, parallelism, parallelNanos / 1e6 / ROUNDS);
+
+        assertTrue(Duration.ofNanos(parallelNanos / ROUNDS).toSeconds() < 3, "plan must finish within seconds");
+    }
+
+    private static long time(ShowTimeScheduleOptimizer optimizer, List<String> cinemaIds, List<Movie> movies) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            optimizer.plan(DAY, cinemaIds, movies);
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,79 @@
+package com.cinema.movies.service.schedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.cinema.movies.command.data.Movie;
+import com.cinema.movies.command.data.Reponsitory.CinemaRepository;
+import com.cinema.movies.command.data.Reponsitory.MovieRepository;
+import com.cinema.movies.config.ShowTimeScheduleProperties;
+
+class ShowTimeScheduleOptimizerTests {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 1);
+
+    private ShowTimeScheduleIndex index;
+    private ShowTimeScheduleOptimizer optimizer;
+    private List<Movie> movies;
+
+    @BeforeEach
+    void setUp() {
+        ShowTimeScheduleProperties properties = new ShowTimeScheduleProperties();
+        properties.setOpeningTime(LocalTime.of(9, 0));
+        properties.setClosingTime(LocalTime.of(12, 0));
+
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        index = new ShowTimeScheduleIndex(movieRepository, properties);
+        optimizer = new ShowTimeScheduleOptimizer(index, movieRepository, mock(CinemaRepository.class), properties,
+                ForkJoinPool.commonPool());
+        movies = List.of(movie("long", 100), movie("short", 45));
+    }
+
+    @Test
+    void picksTheCombinationWithMostScreenMinutes() {
+        // 180 phút: long + short (100 + 45 phút chiếu) tốt hơn 3 x short (135)
+        ShowTimePlan plan = optimizer.plan(DAY, List.of("cinema-1"), movies);
+
+        List<PlannedShowTime> showTimes = plan.getCinemas().get(0).getShowTimes();
+        assertEquals(145, plan.getUtilizedMinutes());
+        assertEquals(180, plan.getAvailableMinutes());
+        assertEquals(List.of("long", "short"), showTimes.stream().map(PlannedShowTime::getMovieId).toList());
+        assertEquals(DAY.atTime(9, 0), showTimes.get(0).getStartTime());
+        assertEquals(DAY.atTime(10, 55), showTimes.get(1).getStartTime()); // 100 phút + 15 phút dọn phòng
+    }
+
+    @Test
+    void plansAroundExistingShowTimes() {
+        index.reserve("existing", "cinema-1", DAY.atTime(10, 0), DAY.atTime(11, 0));
+
+        ShowTimePlan plan = optimizer.plan(DAY, List.of("cinema-1", "cinema-2"), movies);
+
+        ShowTimePlan.CinemaPlan cinema = plan.getCinemas().get(0);
+        assertEquals("cinema-1", cinema.getCinemaId());
+        assertEquals(120, cinema.getAvailableMinutes());
+        assertEquals(90, cinema.getUtilizedMinutes());
+        for (PlannedShowTime showTime : cinema.getShowTimes()) {
+            LocalDateTime end = showTime.getEndTime().plusMinutes(15);
+            assertTrue(index.findConflict("cinema-1", showTime.getStartTime(), end, null).isEmpty(),
+                    "planned showtime overlaps " + showTime);
+        }
+        assertEquals(145, plan.getCinemas().get(1).getUtilizedMinutes());
+    }
+
+    private static Movie movie(String id, int duration) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setDuration(duration);
+        return movie;
+    }
+}
@@ -0,0 +1,129 @@
+package com.cinema.movies.service.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.ReplayToken;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.messaging.MetaData;
+import org.axonframework.serialization.AnnotationRevisionResolver;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.upcasting.event.EventUpcasterChain;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.cinema.movies.command.event.SeatLayoutCreatedEvent;
+import com.cinema.movies.command.event.ShowTimeScheduleCreatedEvent;
+import com.cinema.movies.command.eventstore.MappedSegmentEventStorageEngine;
+import com.cinema.movies.config.SerializationConfig;
+import com.thoughtworks.xstream.XStream;
+
+class CompactSerializerTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsEventsTokensAndMetaData() {
+        CompactSerializer serializer = serializer();
+
+        ShowTimeScheduleCreatedEvent event = schedule("schedule-1");
+        SerializedObject<byte[]> data = serializer.serialize(event, byte[].class);
+        assertEquals("cbor:1", data.getType().getRevision());
+        ShowTimeScheduleCreatedEvent copy = serializer.deserialize(data);
+        assertEquals(event.getStartTimes(), copy.getStartTimes());
+        assertEquals(event.getDaysOfWeek(), copy.getDaysOfWeek());
+        assertEquals(event.getPrice(), copy.getPrice());
+
+        TrackingToken replay = ReplayToken.createReplayToken(new GlobalSequenceTrackingToken(42),
+                new GlobalSequenceTrackingToken(7));
+        assertEquals(replay, serializer.deserialize(serializer.serialize(replay, byte[].class)));
+
+        MetaData metaData = MetaData.with("traceId", "abc");
+        assertEquals(metaData, serializer.deserialize(serializer.serialize(metaData, byte[].class)));
+    }
+
+    @Test
+    void loadsEventsStoredAsXmlAlongsideNewOnes() {
+        // Như trước khi SeatLayoutCreatedEvent có @Revision: XML được lưu không kèm revision
+        XStreamSerializer xml = XStreamSerializer.builder().xStream(xStream())
+                .revisionResolver(payloadType -> null)
+                .build();
+        MappedSegmentEventStorageEngine legacyStore = MappedSegmentEventStorageEngine.builder()
+                .eventSerializer(xml)
+                .snapshotSerializer(xml)
+                .storageDirectory(directory)
+                .build();
+        legacyStore.appendEvents(event("schedule-1", 0).andMetaData(MetaData.with("traceId", "abc")),
+                layout("cinema-1", null));
+        legacyStore.close();
+
+        CompactSerializer compact = serializer();
+        MappedSegmentEventStorageEngine store = MappedSegmentEventStorageEngine.builder()
+                .eventSerializer(compact)
+                .snapshotSerializer(compact)
+                .upcasterChain(new EventUpcasterChain(new LegacyXmlEventUpcaster(compact.getLegacy(), compact),
+                        new SeatLayoutCreatedEventUpcaster()))
+                .storageDirectory(directory)
+                .build();
+        store.appendEvents(event("schedule-1", 1), layout("cinema-2", true));
+
+        List<ShowTimeScheduleCreatedEvent> events = store.readEvents("schedule-1").asStream()
+                .map(message -> (ShowTimeScheduleCreatedEvent) message.getPayload())
+                .collect(Collectors.toList());
+        assertEquals(2, events.size());
+        assertEquals(List.of(LocalTime.of(18, 0), LocalTime.of(21, 0)), events.get(0).getStartTimes());
+        assertEquals(events.get(0).getStartTimes(), events.get(1).getStartTimes());
+        List<? extends DomainEventMessage<?>> stored = store.readEvents("schedule-1").asStream().toList();
+        assertEquals("abc", stored.get(0).getMetaData().get("traceId"));
+        assertTrue(stored.get(1).getMetaData().isEmpty());
+
+        // Layout revision 1 đi qua bước upcaster theo revision sau khi được chuyển từ XML
+        assertEquals(Boolean.FALSE, layoutOf(store, "cinema-1").getGeneratedSeatIds());
+        assertEquals(Boolean.TRUE, layoutOf(store, "cinema-2").getGeneratedSeatIds());
+    }
+
+    private static SeatLayoutCreatedEvent layoutOf(MappedSegmentEventStorageEngine store, String cinemaId) {
+        return (SeatLayoutCreatedEvent) store.readEvents(cinemaId).next().getPayload();
+    }
+
+    private static CompactSerializer serializer() {
+        return SerializationConfig.compactSerializer(new AnnotationRevisionResolver(), xStream());
+    }
+
+    private static XStream xStream() {
+        XStream xStream = new XStream();
+        xStream.allowTypesByWildcard(new String[] { "com.cinema.**", "java.time.**", "org.axonframework.**" });
+        return xStream;
+    }
+
+    private static DomainEventMessage<?> event(String id, long sequence) {
+        return new GenericDomainEventMessage<>("ShowTimeScheduleAggregate", id, sequence, schedule(id));
+    }
+
+    private static DomainEventMessage<?> layout(String cinemaId, Boolean generatedSeatIds) {
+        return new GenericDomainEventMessage<>("CinemaAggregate", cinemaId, 0,
+                new SeatLayoutCreatedEvent(cinemaId, "A", "B", 1, 10, 20, generatedSeatIds));
+    }
+
+    private static ShowTimeScheduleCreatedEvent schedule(String id) {
+        // Danh sách mutable như khi Jackson bind request, XStream không đọc lại được List.of
+        return new ShowTimeScheduleCreatedEvent(id, "movie-1", "cinema-1",
+                new ArrayList<>(List.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY)),
+                new ArrayList<>(List.of(LocalTime.of(18, 0), LocalTime.of(21, 0))),
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 3, 31), new BigDecimal("95000.00"), 26);
+    }
+}
@@ -0,0 +1,100 @@
+package com.cinema.movies.service.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.axonframework.serialization.AnnotationRevisionResolver;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.cinema.movies.command.event.MovieUpdatedEvent;
+import com.cinema.movies.command.event.SeatCreatedEvent;
+import com.cinema.movies.command.event.ShowTimeCreatedEvent;
+import com.cinema.movies.command.event.ShowTimeScheduleCreatedEvent;
+import com.cinema.movies.config.SerializationConfig;
+import com.thoughtworks.xstream.XStream;
+
+/**
+ * Kích thước payload và thông lượng serialize/deserialize của XStream (XML) so với CBOR
+ * trên các event thường gặp nhất.
+ *
+ * Chạy: mvn test -Dgroups=benchmark -DexcludedGroups=none -Dtest=SerializationBenchmark
+ */
+@Tag("benchmark")
+class SerializationBenchmark {
+
+    private static final int WARM_UP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    @Test
+    void cborIsSmallerAndFasterThanXml() {
+        XStream xStream = new XStream();
+        xStream.allowTypesByWildcard(new String[] { "com.cinema.**", "java.time.**", "org.axonframework.**" });
+        Serializer xml = XStreamSerializer.builder().xStream(xStream).build();
+        Serializer cbor = SerializationConfig.compactSerializer(new AnnotationRevisionResolver(), xStream);
+
+        long xmlBytes = 0;
+        long cborBytes = 0;
+        for (Object event : events()) {
+            String name = event.getClass().getSimpleName();
+            int xmlSize = xml.serialize(event, byte[].class).getData().length;
+            int cborSize = cbor.serialize(event, byte[].class).getData().length;
+            double[] xmlRates = run(xml, event);
+            double[] cborRates = run(cbor, event);
+            System.out.printf("%-28s xml %5d B %9.0f ser/s %9.0f de/s | cbor %4d B %9.0f ser/s %9.0f de/s%n",
+                    name, xmlSize, xmlRates[0], xmlRates[1], cborSize, cborRates[0], cborRates[1]);
+            xmlBytes += xmlSize;
+            cborBytes += cborSize;
+        }
+        System.out.printf("total payload: xml %d B, cbor %d B (%.1f%%)%n", xmlBytes, cborBytes,
+                100.0 * cborBytes / xmlBytes);
+        assertTrue(cborBytes * 2 < xmlBytes, "CBOR payloads should be less than half the XML size");
+    }
+
+    // [serialize/s, deserialize/s]
+    private static double[] run(Serializer serializer, Object event) {
+        SerializedObject<byte[]> data = serializer.serialize(event, byte[].class);
+        long sink = 0;
+        for (int i = 0; i < WARM_UP; i++) {
+            sink += serializer.serialize(event, byte[].class).getData().length;
+            sink += serializer.deserialize(data).hashCode() & 1;
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += serializer.serialize(event, byte[].class).getData().length;
+        }
+        double serialize = ITERATIONS / ((System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += serializer.deserialize(data).hashCode() & 1;
+        }
+        double deserialize = ITERATIONS / ((System.nanoTime() - start) / 1e9);
+        assertTrue(sink > 0);
+        return new double[] { serialize, deserialize };
+    }
+
+    private static List<Object> events() {
+        return List.of(
+                new ShowTimeCreatedEvent("2f1c9a3e-6a61-4c1f-9f0e-0a7d2b3c4d5e", "movie-1", "cinema-1",
+                        LocalDateTime.of(2026, 1, 1, 18, 30), new BigDecimal("95000.00")),
+                new SeatCreatedEvent("7b2d4e6f-1a3c-4e5f-8a9b-0c1d2e3f4a5b", "cinema-1", "A", 12),
+                new MovieUpdatedEvent("movie-1", "Dune: Part Two", "Paul Atreides unites with the Fremen.", 166,
+                        "https://cdn.example.com/posters/dune-part-two.jpg"),
+                new ShowTimeScheduleCreatedEvent("schedule-1", "movie-1", "cinema-1",
+                        new ArrayList<>(List.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY, DayOfWeek.SUNDAY)),
+                        new ArrayList<>(List.of(LocalTime.of(18, 0), LocalTime.of(21, 0))),
+                        LocalDate.of(2026, 1, 1), LocalDate.of(2026, 3, 31), new BigDecimal("95000.00"), 39));
+    }
+}